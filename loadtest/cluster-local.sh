@@ -0,0 +1,40 @@
+#!/usr/bin/env bash
+# Start a local cluster of N instances on ports 8081.. sharing one node list, and stop them on exit.
+# Each node gets its own java.io.tmpdir, so queues, indexes and stores are per node.
+#
+#   ./loadtest/cluster-local.sh [nodes] [shard-key]
+#   curl localhost:8081/api/v1/edi/cluster
+#
+# Requires a built jar (mvn package).
+set -euo pipefail
+
+NODES=${1:-3}
+SHARD_KEY=${2:-partner}
+BASE_PORT=${BASE_PORT:-8081}
+JAR=${JAR:-target/edi-processor.jar}
+JAVA_OPTS=${JAVA_OPTS:--Xms256m -Xmx256m}
+OUT=${OUT:-target/cluster}
+
+urls=()
+for ((i = 0; i < NODES; i++)); do
+    urls+=("http://localhost:$((BASE_PORT + i))")
+done
+node_list=$(IFS=,; echo "${urls[*]}")
+
+pids=()
+trap 'kill "${pids[@]}" 2>/dev/null || true; wait 2>/dev/null || true' EXIT
+for ((i = 0; i < NODES; i++)); do
+    port=$((BASE_PORT + i))
+    mkdir -p "$OUT/node-$port"
+    java $JAVA_OPTS -Djava.io.tmpdir="$OUT/node-$port" -Dserver.port="$port" \
+        -Dedi.cluster.enabled=true -Dedi.cluster.nodes="$node_list" -Dedi.cluster.shard-key="$SHARD_KEY" \
+        -jar "$JAR" > "$OUT/node-$port.log" 2>&1 &
+    pids+=($!)
+done
+for url in "${urls[@]}"; do
+    until curl -sf "$url/api/v1/edi/health" > /dev/null; do sleep 0.5; done
+done
+
+echo "Cluster of $NODES nodes up ($node_list), logs in $OUT; Ctrl-C to stop"
+curl -s "${urls[0]}/api/v1/edi/cluster"; echo
+wait
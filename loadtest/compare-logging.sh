@@ -0,0 +1,39 @@
+#!/usr/bin/env bash
+# Compare request throughput under synchronous console logging (Spring Boot default) and the
+# asynchronous JSON pipeline from logback-spring.xml, with and without per-transaction sampling.
+# Application output goes to a file, as it would to a log collector.
+#
+#   ./loadtest/compare-logging.sh [vus] [duration]
+#
+# Requires k6 and a built jar (mvn package).
+set -euo pipefail
+
+VUS=${1:-200}
+DURATION=${2:-60s}
+PORT=${PORT:-8080}
+JAR=${JAR:-target/edi-processor.jar}
+JAVA_OPTS=${JAVA_OPTS:--Xms512m -Xmx512m}
+OUT=${OUT:-target/loadtest}
+mkdir -p "$OUT"
+
+run_config() {
+    local name=$1; shift
+    java $JAVA_OPTS -Dserver.port="$PORT" "$@" -jar "$JAR" > "$OUT/$name.log" 2>&1 &
+    local pid=$!
+    until curl -sf "http://localhost:$PORT/api/v1/edi/health" > /dev/null; do sleep 0.5; done
+
+    k6 run -q -e BASE_URL="http://localhost:$PORT" -e VUS="$VUS" -e DURATION="$DURATION" \
+        --summary-export "$OUT/$name-summary.json" loadtest/process.js > /dev/null || true
+    kill "$pid"; wait "$pid" 2>/dev/null || true
+
+    local rps p99 lines
+    rps=$(jq '.metrics.http_reqs.rate' "$OUT/$name-summary.json")
+    p99=$(jq '.metrics.http_req_duration["p(99)"] // .metrics.http_req_duration["p(95)"]' "$OUT/$name-summary.json")
+    lines=$(wc -l < "$OUT/$name.log")
+    printf '%-14s %10.0f req/s  p99 %8.1f ms  %10d log lines\n' "$name" "$rps" "$p99" "$lines"
+}
+
+echo "k6: $VUS VUs for $DURATION against $JAR"
+run_config sync-text -Dlogging.config=loadtest/logback-sync.xml
+run_config async-json -Dedi.logging.sample-rates=
+run_config async-sampled
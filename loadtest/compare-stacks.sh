@@ -0,0 +1,55 @@
+#!/usr/bin/env bash
+# Compare the servlet (Tomcat) and reactive (Netty) stacks under the same k6 load, and Tomcat on
+# virtual threads when a Java 21 runtime is given in JAVA21.
+# Reports requests/second, p99 latency and resident memory per open connection.
+#
+#   ./loadtest/compare-stacks.sh [vus] [duration]
+#   JAVA21=/opt/jdk-21/bin/java ./loadtest/compare-stacks.sh [vus] [duration]
+#
+# Requires k6 and a built jar (mvn package). Raise the open-file limit first (ulimit -n 65535).
+set -euo pipefail
+
+VUS=${1:-10000}
+DURATION=${2:-60s}
+PORT=${PORT:-8080}
+JAR=${JAR:-target/edi-processor.jar}
+JAVA_OPTS=${JAVA_OPTS:--Xms512m -Xmx512m}
+OUT=${OUT:-target/loadtest}
+JAVA21=${JAVA21:-}
+mkdir -p "$OUT"
+
+rss_kb() { ps -o rss= -p "$1" | tr -d ' '; }
+
+run_stack() {
+    local name=$1 profile=$2 java=${3:-java}
+    # Size Tomcat for the connection count so the comparison is not capped by accept limits
+    "$java" $JAVA_OPTS -Dspring.profiles.active="$profile" -Dserver.port="$PORT" \
+        -Dserver.tomcat.max-connections=$((VUS + 1000)) -Dserver.tomcat.threads.max=400 \
+        -Dlogging.level.com.edi.processor=WARN -jar "$JAR" > "$OUT/$name.log" 2>&1 &
+    local pid=$!
+    until curl -sf "http://localhost:$PORT/api/v1/edi/health" > /dev/null; do sleep 0.5; done
+
+    local idle; idle=$(rss_kb "$pid")
+    k6 run -q -e BASE_URL="http://localhost:$PORT" -e VUS="$VUS" -e DURATION="$DURATION" \
+        --summary-export "$OUT/$name-summary.json" loadtest/process.js > /dev/null &
+    local k6pid=$!
+    sleep 30
+    local loaded; loaded=$(rss_kb "$pid")
+    local threads; threads=$(ps -o nlwp= -p "$pid" | tr -d ' ')
+    wait "$k6pid" || true
+    kill "$pid"; wait "$pid" 2>/dev/null || true
+
+    local rps p99
+    rps=$(jq '.metrics.http_reqs.rate' "$OUT/$name-summary.json")
+    p99=$(jq '.metrics.http_req_duration["p(99)"] // .metrics.http_req_duration["p(95)"]' "$OUT/$name-summary.json")
+    printf '%-9s %10.0f req/s  p99 %8.1f ms  RSS idle %6d MB  loaded %6d MB  %6.1f KB/conn  %5d threads\n' \
+        "$name" "$rps" "$p99" $((idle / 1024)) $((loaded / 1024)) \
+        "$(echo "($loaded - $idle) / $VUS" | bc -l)" "$threads"
+}
+
+echo "k6: $VUS VUs for $DURATION against $JAR"
+run_stack servlet default
+run_stack reactive reactive
+if [ -n "$JAVA21" ]; then
+    run_stack virtual virtual-threads "$JAVA21"
+fi
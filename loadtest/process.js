@@ -0,0 +1,43 @@
+// k6 load script for POST /api/v1/edi/process
+//   k6 run -e BASE_URL=http://localhost:8080 -e VUS=10000 -e DURATION=60s process.js
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+
+export const options = {
+    scenarios: {
+        process: {
+            executor: 'constant-vus',
+            vus: parseInt(__ENV.VUS || '10000'),
+            duration: __ENV.DURATION || '60s',
+        },
+    },
+    discardResponseBodies: true,
+};
+
+const REQUESTS = [
+    { txn: 'ORDER', order: 'LTL', format: 'EDI', resp: 'ACK' },
+    { txn: 'ORDER', order: 'PARCEL', format: 'JSON', resp: 'SHIPCONFIRM' },
+    { txn: 'ASN', order: '', format: 'EDI', resp: 'RECEIPT' },
+    { txn: 'ITEM', order: '', format: 'JSON', resp: 'ACK' },
+    { txn: 'GETSCHEMA', order: '', format: 'EDI', resp: 'ASN' },
+];
+
+export default function () {
+    const r = REQUESTS[(__VU + __ITER) % REQUESTS.length];
+    const body = JSON.stringify({
+        UUID: `${__VU}-${__ITER}`,
+        Request: {
+            'TRANSACTION TYPE': r.txn,
+            'ORDER TYPE': r.order,
+            'FORMAT': r.format,
+            'RESPONSE TYPE': r.resp,
+            'Input File': '',
+        },
+    });
+    const res = http.post(`${BASE_URL}/api/v1/edi/process`, body, {
+        headers: { 'Content-Type': 'application/json', 'Accept': 'application/json' },
+    });
+    check(res, { 'status is 200': (resp) => resp.status === 200 });
+}
@@ -0,0 +1,39 @@
+#!/usr/bin/env bash
+# Time from launch to the first successful POST /api/v1/edi/process.
+#
+#   ./scripts/startup-benchmark.sh [runs] -- <launch command...>
+#
+# Examples:
+#   ./scripts/startup-benchmark.sh 5 -- java -jar target/edi-processor.jar
+#   ./scripts/startup-benchmark.sh 5 -- java -Dspring.aot.enabled=true -Dedi.content.precomputed-index=true -jar target/edi-processor.jar
+#   ./scripts/startup-benchmark.sh 5 -- docker run --rm -p 8080:8080 edi-processor:fast
+set -euo pipefail
+
+RUNS=${1:-5}
+shift
+[ "${1:-}" = "--" ] && shift
+[ $# -gt 0 ] || { echo "usage: $0 [runs] -- <launch command...>" >&2; exit 1; }
+
+URL=${URL:-http://localhost:8080/api/v1/edi/process}
+BODY='{"UUID":"startup-benchmark","Request":{"TRANSACTION TYPE":"ORDER","ORDER TYPE":"LTL","FORMAT":"EDI","RESPONSE TYPE":"ACK","Input File":""}}'
+
+now_ms() { date +%s%3N; }
+
+results=()
+for run in $(seq 1 "$RUNS"); do
+    start=$(now_ms)
+    "$@" > /dev/null 2>&1 &
+    pid=$!
+    until [ "$(curl -s -o /dev/null -w '%{http_code}' -H 'Content-Type: application/json' -d "$BODY" "$URL")" = "200" ]; do
+        kill -0 "$pid" 2>/dev/null || { echo "run $run: process exited before serving" >&2; exit 1; }
+        sleep 0.02
+    done
+    elapsed=$(( $(now_ms) - start ))
+    results+=("$elapsed")
+    echo "run $run: first successful /process after ${elapsed} ms"
+    kill "$pid"; wait "$pid" 2>/dev/null || true
+    sleep 1
+done
+
+sorted=($(printf '%s\n' "${results[@]}" | sort -n))
+echo "min ${sorted[0]} ms, median ${sorted[$(( RUNS / 2 ))]} ms, max ${sorted[$(( RUNS - 1 ))]} ms"
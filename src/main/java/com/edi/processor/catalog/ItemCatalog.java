@@ -0,0 +1,373 @@
+package com.edi.processor.catalog;
+
+import com.edi.processor.model.catalog.CatalogItem;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Item master held off-heap. Records live in an {@link OffHeapArena}; two primitive open-addressing
+ * indexes map a 64-bit hash of the SKU, and the numeric UPC, to record addresses. The heap holds
+ * only the index arrays, so millions of items cost about 40 bytes of heap each.
+ *
+ * Upserts append a new record and repoint the indexes; the superseded record becomes garbage. Once
+ * garbage exceeds half of the arena, or the arena is full, live records are copied to a fresh arena.
+ * Both arenas exist while the copy runs, so up to twice {@code maxBytes} of direct memory can be
+ * allocated at that moment. Compaction waits while an export runs; an upsert that finds the arena
+ * full then is refused rather than failing.
+ *
+ * Readers share a read lock; upserts and compaction take the write lock.
+ */
+public final class ItemCatalog {
+
+    private static final long NO_UPC = -1L;
+    private static final int MAX_STRING_BYTES = 0xFFFF;
+    private static final int EXPORT_BATCH_SIZE = 1024;
+
+    private final int chunkSize;
+    private final long maxBytes;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongLongHashIndex skuIndex;
+    private final LongLongHashIndex upcIndex;
+    private final AtomicInteger activeExports = new AtomicInteger();
+    private OffHeapArena arena;
+    private long garbageBytes;
+    private long compactions;
+    private byte[] encodeBuffer = new byte[256];
+
+    public ItemCatalog(long maxBytes, int expectedItems) {
+        this(OffHeapArena.DEFAULT_CHUNK_SIZE, maxBytes, expectedItems);
+    }
+
+    ItemCatalog(int chunkSize, long maxBytes, int expectedItems) {
+        this.chunkSize = (int) Math.min(chunkSize, maxBytes);
+        this.maxBytes = maxBytes;
+        this.arena = new OffHeapArena(this.chunkSize, maxBytes);
+        this.skuIndex = new LongLongHashIndex(expectedItems);
+        this.upcIndex = new LongLongHashIndex(expectedItems);
+    }
+
+    /**
+     * Insert or replace the entry for {@code item.getSku()}
+     *
+     * @return false, storing nothing, if the arena has no room: it is at {@code maxBytes} even
+     *         after compaction, or compaction is deferred by a running export
+     */
+    public boolean upsert(CatalogItem item) {
+        byte[] sku = item.getSku().getBytes(StandardCharsets.UTF_8);
+        long skuHash = hash(sku);
+        lock.writeLock().lock();
+        try {
+            int length = encode(item);
+            if (!arena.hasRoom(length) && garbageBytes > 0 && activeExports.get() == 0) {
+                compact();
+            }
+            if (!arena.hasRoom(length)) {
+                return false;
+            }
+            long address = arena.append(encodeBuffer, length);
+            long previous = skuIndex.put(skuHash, address, candidate -> skuEquals(candidate, sku));
+            if (previous != LongLongHashIndex.NO_VALUE) {
+                garbageBytes += OffHeapArena.storedSize(arena.length(previous));
+            }
+            long upc = upcKey(item.getUpc());
+            if (upc != NO_UPC) {
+                upcIndex.put(upc, address, candidate -> true);
+            }
+            if (garbageBytes > chunkSize && garbageBytes > arena.usedBytes() / 2 && activeExports.get() == 0) {
+                compact();
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public CatalogItem findBySku(String sku) {
+        byte[] key = sku.getBytes(StandardCharsets.UTF_8);
+        lock.readLock().lock();
+        try {
+            long address = skuIndex.get(hash(key), candidate -> skuEquals(candidate, key));
+            return address != LongLongHashIndex.NO_VALUE ? decode(address) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean containsSku(String sku) {
+        byte[] key = sku.getBytes(StandardCharsets.UTF_8);
+        lock.readLock().lock();
+        try {
+            return skuIndex.get(hash(key), candidate -> skuEquals(candidate, key)) != LongLongHashIndex.NO_VALUE;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Current entry with this UPC/GTIN, or null. Entries whose UPC was changed by a later upsert
+     * no longer match their old UPC.
+     */
+    public CatalogItem findByUpc(String upc) {
+        long key = upcKey(upc);
+        if (key == NO_UPC) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            long address = upcIndex.get(key, candidate -> true);
+            if (address == LongLongHashIndex.NO_VALUE || !isCurrent(address)) {
+                return null;
+            }
+            return decode(address);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Pass every entry to {@code consumer}, in no particular order, as of the start of the call.
+     * Records are decoded in batches under the read lock and handed over outside it, so a slow
+     * consumer does not hold up upserts; compaction is deferred until the export finishes.
+     */
+    public void forEach(Consumer<CatalogItem> consumer) {
+        long[] addresses;
+        lock.readLock().lock();
+        try {
+            addresses = skuIndex.values();
+            activeExports.incrementAndGet();
+        } finally {
+            lock.readLock().unlock();
+        }
+        try {
+            List<CatalogItem> batch = new ArrayList<>(EXPORT_BATCH_SIZE);
+            for (int from = 0; from < addresses.length; from += EXPORT_BATCH_SIZE) {
+                int to = Math.min(from + EXPORT_BATCH_SIZE, addresses.length);
+                lock.readLock().lock();
+                try {
+                    for (int i = from; i < to; i++) {
+                        batch.add(decode(addresses[i]));
+                    }
+                } finally {
+                    lock.readLock().unlock();
+                }
+                batch.forEach(consumer);
+                batch.clear();
+            }
+        } finally {
+            activeExports.decrementAndGet();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return skuIndex.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Stats stats() {
+        lock.readLock().lock();
+        try {
+            return new Stats(skuIndex.size(), arena.usedBytes(), garbageBytes, arena.allocatedBytes(), maxBytes,
+                    compactions);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Copy live records into a fresh arena and rebuild both indexes. Caller holds the write lock.
+     */
+    private void compact() {
+        long[] live = skuIndex.values();
+        OffHeapArena previous = arena;
+        OffHeapArena fresh = new OffHeapArena(chunkSize, maxBytes);
+        skuIndex.clear();
+        upcIndex.clear();
+        byte[] record = new byte[256];
+        for (long address : live) {
+            int length = previous.length(address);
+            if (record.length < length) {
+                record = new byte[length];
+            }
+            previous.chunk(address).get(OffHeapArena.dataOffset(address), record, 0, length);
+            long moved = fresh.append(record, length);
+            ByteBuffer chunk = fresh.chunk(moved);
+            int offset = OffHeapArena.dataOffset(moved);
+            int skuLength = Short.toUnsignedInt(chunk.getShort(offset));
+            skuIndex.put(hash(record, 2, skuLength), moved, candidate -> false);
+            long upc = chunk.getLong(offset + 2 + skuLength);
+            if (upc != NO_UPC) {
+                upcIndex.put(upc, moved, candidate -> true);
+            }
+        }
+        previous.clear();
+        arena = fresh;
+        garbageBytes = 0;
+        compactions++;
+    }
+
+    private boolean isCurrent(long address) {
+        ByteBuffer chunk = arena.chunk(address);
+        int offset = OffHeapArena.dataOffset(address);
+        int skuLength = Short.toUnsignedInt(chunk.getShort(offset));
+        byte[] sku = new byte[skuLength];
+        chunk.get(offset + 2, sku);
+        return skuIndex.get(hash(sku), candidate -> candidate == address) == address;
+    }
+
+    private boolean skuEquals(long address, byte[] sku) {
+        ByteBuffer chunk = arena.chunk(address);
+        int offset = OffHeapArena.dataOffset(address);
+        if (Short.toUnsignedInt(chunk.getShort(offset)) != sku.length) {
+            return false;
+        }
+        for (int i = 0; i < sku.length; i++) {
+            if (chunk.get(offset + 2 + i) != sku[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * Record layout: sku, upcKey (long, -1 if none), upc, description, uom, packQuantity (int),
+     * weight (double), weightUnit, updatedAt (long). Strings are an unsigned short byte length
+     * followed by UTF-8 bytes; null is stored as empty.
+     */
+
+    private int encode(CatalogItem item) {
+        int position = 0;
+        position = putString(position, item.getSku());
+        position = putLong(position, upcKey(item.getUpc()));
+        position = putString(position, item.getUpc());
+        position = putString(position, item.getDescription());
+        position = putString(position, item.getUom());
+        position = putLong(position, item.getPackQuantity());
+        position = putLong(position, Double.doubleToRawLongBits(item.getWeight()));
+        position = putString(position, item.getWeightUnit());
+        return putLong(position, item.getUpdatedAt());
+    }
+
+    private int putString(int position, String value) {
+        byte[] bytes = value != null ? value.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        int length = Math.min(bytes.length, MAX_STRING_BYTES);
+        ensureCapacity(position + 2 + length);
+        encodeBuffer[position] = (byte) (length >>> 8);
+        encodeBuffer[position + 1] = (byte) length;
+        System.arraycopy(bytes, 0, encodeBuffer, position + 2, length);
+        return position + 2 + length;
+    }
+
+    private int putLong(int position, long value) {
+        ensureCapacity(position + Long.BYTES);
+        for (int i = Long.BYTES - 1; i >= 0; i--) {
+            encodeBuffer[position + i] = (byte) value;
+            value >>>= 8;
+        }
+        return position + Long.BYTES;
+    }
+
+    private void ensureCapacity(int size) {
+        if (encodeBuffer.length < size) {
+            encodeBuffer = Arrays.copyOf(encodeBuffer, Math.max(size, encodeBuffer.length * 2));
+        }
+    }
+
+    private CatalogItem decode(long address) {
+        Reader reader = new Reader(arena.chunk(address), OffHeapArena.dataOffset(address));
+        String sku = reader.string();
+        reader.position += Long.BYTES;
+        return CatalogItem.builder()
+                .sku(sku)
+                .upc(reader.nullableString())
+                .description(reader.nullableString())
+                .uom(reader.nullableString())
+                .packQuantity((int) reader.readLong())
+                .weight(Double.longBitsToDouble(reader.readLong()))
+                .weightUnit(reader.nullableString())
+                .updatedAt(reader.readLong())
+                .build();
+    }
+
+    private static final class Reader {
+
+        private final ByteBuffer buffer;
+        private int position;
+
+        Reader(ByteBuffer buffer, int position) {
+            this.buffer = buffer;
+            this.position = position;
+        }
+
+        String string() {
+            int length = Short.toUnsignedInt(buffer.getShort(position));
+            byte[] bytes = new byte[length];
+            buffer.get(position + 2, bytes);
+            position += 2 + length;
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        String nullableString() {
+            String value = string();
+            return value.isEmpty() ? null : value;
+        }
+
+        long readLong() {
+            long value = buffer.getLong(position);
+            position += Long.BYTES;
+            return value;
+        }
+    }
+
+    /**
+     * Numeric index key of a UPC/GTIN (up to 18 digits), or -1 if absent or not numeric.
+     * Leading zeros are ignored, so a UPC-A and its GTIN-14 form share a key.
+     */
+    static long upcKey(String upc) {
+        if (upc == null || upc.isEmpty() || upc.length() > 18) {
+            return NO_UPC;
+        }
+        long value = 0;
+        for (int i = 0; i < upc.length(); i++) {
+            char c = upc.charAt(i);
+            if (c < '0' || c > '9') {
+                return NO_UPC;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static long hash(byte[] bytes) {
+        return hash(bytes, 0, bytes.length);
+    }
+
+    /**
+     * 64-bit FNV-1a with a final avalanche step
+     */
+    private static long hash(byte[] bytes, int from, int length) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = from; i < from + length; i++) {
+            h ^= bytes[i] & 0xFF;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    public record Stats(int items, long usedBytes, long garbageBytes, long allocatedBytes, long maxBytes,
+                        long compactions) {
+    }
+}
@@ -0,0 +1,111 @@
+package com.edi.processor.catalog;
+
+import java.util.Arrays;
+import java.util.function.LongPredicate;
+
+/**
+ * Open-addressing hash index from long keys to long values (record addresses) with linear probing,
+ * backed by two primitive arrays. Several entries may share a key (hash collisions); lookups take a
+ * predicate that confirms the candidate record. Not thread-safe.
+ */
+final class LongLongHashIndex {
+
+    static final long NO_VALUE = -1L;
+
+    private static final float MAX_LOAD = 0.6f;
+
+    private long[] keys;
+    private long[] values;
+    private int size;
+    private int mask;
+
+    LongLongHashIndex(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / MAX_LOAD)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        Arrays.fill(values, NO_VALUE);
+        mask = capacity - 1;
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Value of the first entry with {@code key} whose value satisfies {@code matches}, or {@link #NO_VALUE}
+     */
+    long get(long key, LongPredicate matches) {
+        for (int slot = slot(key); values[slot] != NO_VALUE; slot = (slot + 1) & mask) {
+            if (keys[slot] == key && matches.test(values[slot])) {
+                return values[slot];
+            }
+        }
+        return NO_VALUE;
+    }
+
+    /**
+     * Replace the value of the entry with {@code key} whose current value satisfies {@code sameEntry},
+     * or add a new entry. Returns the replaced value or {@link #NO_VALUE}.
+     */
+    long put(long key, long value, LongPredicate sameEntry) {
+        int slot = slot(key);
+        for (; values[slot] != NO_VALUE; slot = (slot + 1) & mask) {
+            if (keys[slot] == key && sameEntry.test(values[slot])) {
+                long previous = values[slot];
+                values[slot] = value;
+                return previous;
+            }
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > keys.length * MAX_LOAD) {
+            grow();
+        }
+        return NO_VALUE;
+    }
+
+    /**
+     * Copy of all values, in slot order
+     */
+    long[] values() {
+        long[] result = new long[size];
+        int count = 0;
+        for (long value : values) {
+            if (value != NO_VALUE) {
+                result[count++] = value;
+            }
+        }
+        return result;
+    }
+
+    void clear() {
+        allocate(keys.length);
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != NO_VALUE) {
+                int slot = slot(oldKeys[i]);
+                while (values[slot] != NO_VALUE) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+                size++;
+            }
+        }
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9e3779b97f4a7c15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,104 @@
+package com.edi.processor.catalog;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only record storage in direct (off-heap) buffers, allocated in fixed-size chunks up to a
+ * configured limit. Each record is stored as an int length followed by its bytes and addressed by
+ * chunk number (high 32 bits) and offset (low 32 bits). Not thread-safe.
+ */
+final class OffHeapArena {
+
+    static final int DEFAULT_CHUNK_SIZE = 8 << 20;
+
+    private final int chunkSize;
+    private final long maxBytes;
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    private int position;
+    private long usedBytes;
+
+    OffHeapArena(int chunkSize, long maxBytes) {
+        this.chunkSize = chunkSize;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Whether a record of {@code length} bytes can be appended without exceeding the limit
+     */
+    boolean hasRoom(int length) {
+        int needed = Integer.BYTES + length;
+        return !chunks.isEmpty() && position + needed <= chunkSize
+                || (long) (chunks.size() + 1) * chunkSize <= maxBytes;
+    }
+
+    /**
+     * Append a record; the caller checks {@link #hasRoom} first
+     */
+    long append(byte[] record, int length) {
+        int needed = Integer.BYTES + length;
+        if (needed > chunkSize) {
+            throw new IllegalArgumentException("Record of " + length + " bytes exceeds the chunk size");
+        }
+        if (chunks.isEmpty() || position + needed > chunkSize) {
+            if ((long) (chunks.size() + 1) * chunkSize > maxBytes) {
+                throw new IllegalStateException("Off-heap arena limit of " + maxBytes + " bytes reached");
+            }
+            chunks.add(ByteBuffer.allocateDirect(chunkSize));
+            position = 0;
+        }
+        int chunk = chunks.size() - 1;
+        ByteBuffer buffer = chunks.get(chunk);
+        buffer.putInt(position, length);
+        buffer.put(position + Integer.BYTES, record, 0, length);
+        long address = ((long) chunk << 32) | position;
+        position += needed;
+        usedBytes += needed;
+        return address;
+    }
+
+    int length(long address) {
+        return chunk(address).getInt(offset(address));
+    }
+
+    /**
+     * Buffer holding the record; its bytes start at {@link #dataOffset}
+     */
+    ByteBuffer chunk(long address) {
+        return chunks.get((int) (address >>> 32));
+    }
+
+    static int offset(long address) {
+        return (int) address;
+    }
+
+    static int dataOffset(long address) {
+        return (int) address + Integer.BYTES;
+    }
+
+    static int storedSize(int length) {
+        return Integer.BYTES + length;
+    }
+
+    long usedBytes() {
+        return usedBytes;
+    }
+
+    long allocatedBytes() {
+        return (long) chunks.size() * chunkSize;
+    }
+
+    long maxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Drop all chunks; their memory is released when the buffers are collected
+     */
+    void clear() {
+        chunks.clear();
+        position = 0;
+        usedBytes = 0;
+    }
+}
@@ -0,0 +1,14 @@
+package com.edi.processor.cluster;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Membership and ring of this node, as served by /api/v1/edi/cluster
+ *
+ * @param live   nodes currently on the ring (this node and peers that answer health probes)
+ * @param shares fraction of keys each live node owns
+ */
+public record ClusterStatus(boolean enabled, String self, String shardKey, int virtualNodes, List<String> nodes,
+                            List<String> live, Map<String, Double> shares) {
+}
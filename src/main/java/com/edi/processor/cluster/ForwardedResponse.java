@@ -0,0 +1,10 @@
+package com.edi.processor.cluster;
+
+/**
+ * Response from the node a request was forwarded to, passed back to the client unchanged
+ *
+ * @param node        base URL of the node that processed the request
+ * @param contentType the node's Content-Type, or null for an empty body
+ */
+public record ForwardedResponse(String node, int status, String contentType, byte[] body) {
+}
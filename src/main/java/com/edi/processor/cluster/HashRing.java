@@ -0,0 +1,95 @@
+package com.edi.processor.cluster;
+
+import com.edi.processor.duplicate.KeyHash;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable consistent-hash ring. Each node is placed at {@code virtualNodes} points on a 64-bit
+ * ring, and a key belongs to the node at the first point at or after the key's hash, wrapping
+ * around. Adding or removing a node therefore moves only the keys on the arcs that node gains or
+ * loses, about 1/N of them, and the virtual nodes keep the arcs of N nodes close to equal.
+ */
+public final class HashRing {
+
+    private final List<String> nodes;
+    private final long[] positions;
+    private final String[] owners;
+
+    private HashRing(List<String> nodes, long[] positions, String[] owners) {
+        this.nodes = nodes;
+        this.positions = positions;
+        this.owners = owners;
+    }
+
+    public static HashRing of(Collection<String> nodes, int virtualNodes) {
+        List<String> members = nodes.stream().distinct().sorted().toList();
+        int points = members.size() * virtualNodes;
+        // Points sorted by position; ties, which are vanishingly rare, go to the lower node name
+        long[] hashes = new long[points];
+        int[] memberOf = new int[points];
+        Integer[] order = new Integer[points];
+        for (int m = 0; m < members.size(); m++) {
+            for (int v = 0; v < virtualNodes; v++) {
+                int point = m * virtualNodes + v;
+                hashes[point] = KeyHash.of(members.get(m) + "#" + v).hash1;
+                memberOf[point] = m;
+                order[point] = point;
+            }
+        }
+        Arrays.sort(order, (a, b) -> hashes[a] != hashes[b] ? Long.compare(hashes[a], hashes[b])
+                : members.get(memberOf[a]).compareTo(members.get(memberOf[b])));
+        long[] positions = new long[points];
+        String[] owners = new String[points];
+        for (int i = 0; i < points; i++) {
+            positions[i] = hashes[order[i]];
+            owners[i] = members.get(memberOf[order[i]]);
+        }
+        return new HashRing(members, positions, owners);
+    }
+
+    public List<String> nodes() {
+        return nodes;
+    }
+
+    public boolean isEmpty() {
+        return positions.length == 0;
+    }
+
+    /**
+     * Node that owns {@code key}, or null if the ring is empty
+     */
+    public String owner(String key) {
+        if (positions.length == 0) {
+            return null;
+        }
+        int index = Arrays.binarySearch(positions, KeyHash.of(key).hash1);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == positions.length ? 0 : index];
+    }
+
+    /**
+     * Fraction of the hash space, and so of keys, each node owns
+     */
+    public Map<String, Double> shares() {
+        Map<String, Double> shares = new LinkedHashMap<>();
+        nodes.forEach(node -> shares.put(node, 0.0));
+        for (int i = 0; i < positions.length; i++) {
+            long previous = positions[i == 0 ? positions.length - 1 : i - 1];
+            // Arc lengths are unsigned 64-bit distances; a single point owns the whole ring
+            double arc = positions.length == 1 ? 0x1p64 : unsigned(positions[i] - previous);
+            shares.merge(owners[i], arc / 0x1p64, Double::sum);
+        }
+        return shares;
+    }
+
+    private static double unsigned(long value) {
+        return value >= 0 ? value : value + 0x1p64;
+    }
+}
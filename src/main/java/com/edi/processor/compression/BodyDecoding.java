@@ -0,0 +1,78 @@
+package com.edi.processor.compression;
+
+import com.edi.processor.exception.ContentEncodingException;
+import io.micrometer.core.instrument.Counter;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Decoding of one compressed request body, with the guard against decompression bombs: the body may
+ * not expand past {@code maxBytes}, nor, once it passes {@link #RATIO_FLOOR_BYTES}, to more than
+ * {@code maxRatio} times the compressed bytes consumed so far. Byte counts go to the compressed and
+ * decompressed counters as they are decoded.
+ */
+public final class BodyDecoding implements AutoCloseable {
+
+    // Small bodies are not ratio-checked: a few KB of repetitive EDI can legitimately expand 1000:1
+    static final long RATIO_FLOOR_BYTES = 1024 * 1024;
+
+    private final ContentDecoder decoder;
+    private final long maxBytes;
+    private final long maxRatio;
+    private final Counter compressedBytes;
+    private final Counter decompressedBytes;
+
+    private long compressed;
+    private long decompressed;
+    private boolean closed;
+
+    public BodyDecoding(ContentDecoder decoder, long maxBytes, long maxRatio,
+                        Counter compressedBytes, Counter decompressedBytes) {
+        this.decoder = decoder;
+        this.maxBytes = maxBytes;
+        this.maxRatio = maxRatio;
+        this.compressedBytes = compressedBytes;
+        this.decompressedBytes = decompressedBytes;
+    }
+
+    /**
+     * {@link ContentDecoder#decode} with the limits applied to what it consumed and produced
+     */
+    public void decode(ByteBuffer input, ByteBuffer output) throws IOException {
+        int inputStart = input.position();
+        int outputStart = output.position();
+        decoder.decode(input, output);
+        int consumed = input.position() - inputStart;
+        int produced = output.position() - outputStart;
+        if (consumed == 0 && produced == 0 && input.hasRemaining() && output.hasRemaining()) {
+            throw new ContentEncodingException(HttpStatus.BAD_REQUEST, "Malformed compressed request body");
+        }
+        compressed += consumed;
+        decompressed += produced;
+        compressedBytes.increment(consumed);
+        decompressedBytes.increment(produced);
+
+        if (decompressed > maxBytes) {
+            throw new ContentEncodingException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Decompressed request body exceeds " + maxBytes + " bytes");
+        }
+        if (decompressed > RATIO_FLOOR_BYTES && decompressed > compressed * maxRatio) {
+            throw new ContentEncodingException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Request body expands more than " + maxRatio + ":1 when decompressed");
+        }
+    }
+
+    public void finish() throws IOException {
+        decoder.finish();
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            decoder.close();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.edi.processor.compression;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Locale;
+
+/**
+ * Push-style decoder for one Content-Encoding. Compressed bytes are handed over as they arrive and
+ * decoded into the caller's buffer, so neither side of the stream is ever held in full.
+ */
+public interface ContentDecoder extends Closeable {
+
+    /**
+     * Decode from {@code input} into {@code output}, advancing both, until the input is used up or the
+     * output is full. A full output may leave decoded bytes pending: call again, with the remaining
+     * (or an empty) input, until the output is no longer filled.
+     */
+    void decode(ByteBuffer input, ByteBuffer output) throws IOException;
+
+    /**
+     * Called once the input has ended; fails when it ended inside a gzip member or zstd frame
+     */
+    void finish() throws IOException;
+
+    @Override
+    void close();
+
+    /**
+     * A decoder for a single Content-Encoding token, null when the coding is not supported
+     */
+    static ContentDecoder forCoding(String coding) {
+        return switch (coding.trim().toLowerCase(Locale.ROOT)) {
+            case "gzip", "x-gzip" -> new GzipDecoder();
+            case "zstd" -> new ZstdDecoder();
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,91 @@
+package com.edi.processor.compression;
+
+import jakarta.servlet.ServletInputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Pull view of a {@link BodyDecoding} over the compressed stream, for readers that want an
+ * InputStream (the servlet request body). Compressed bytes are read in small chunks and decoded
+ * straight into the caller's array.
+ */
+final class DecodingInputStream extends InputStream {
+
+    private static final int CHUNK_BYTES = 8192;
+
+    private final InputStream compressed;
+    private final BodyDecoding decoding;
+    private final ByteBuffer input = ByteBuffer.allocate(CHUNK_BYTES).limit(0);
+
+    private boolean endOfInput;
+    private boolean finished;
+
+    DecodingInputStream(InputStream compressed, BodyDecoding decoding) {
+        this.compressed = compressed;
+        this.decoding = decoding;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        return read(single, 0, 1) < 0 ? -1 : single[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        return read(b, off, len, null);
+    }
+
+    /**
+     * Non-blocking read of a servlet body in async mode: compressed bytes are read only while
+     * {@code source} is ready, so this returns 0 rather than blocking, and a finished source is the
+     * end of input
+     */
+    int readAvailable(byte[] b, int off, int len, ServletInputStream source) throws IOException {
+        return read(b, off, len, source);
+    }
+
+    private int read(byte[] b, int off, int len, ServletInputStream source) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (finished) {
+            return -1;
+        }
+        ByteBuffer output = ByteBuffer.wrap(b, off, len);
+        while (output.position() == off) {
+            if (!input.hasRemaining() && !endOfInput && source != null && source.isFinished()) {
+                endOfInput = true;
+                input.limit(0);
+            } else if (!input.hasRemaining() && !endOfInput) {
+                if (source != null && !source.isReady()) {
+                    // Whatever the decoder still holds, else nothing until the source is ready
+                    decoding.decode(input, output);
+                    return output.position() - off;
+                }
+                int n = compressed.read(input.array(), 0, input.capacity());
+                if (n < 0) {
+                    endOfInput = true;
+                    input.limit(0);
+                } else {
+                    input.position(0).limit(n);
+                }
+            }
+            decoding.decode(input, output);
+            if (output.position() == off && endOfInput && !input.hasRemaining()) {
+                finished = true;
+                decoding.finish();
+                return -1;
+            }
+        }
+        return output.position() - off;
+    }
+
+    @Override
+    public void close() throws IOException {
+        decoding.close();
+        compressed.close();
+    }
+}
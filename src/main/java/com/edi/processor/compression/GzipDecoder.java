@@ -0,0 +1,208 @@
+package com.edi.processor.compression;
+
+import com.edi.processor.exception.ContentEncodingException;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * gzip (RFC 1952) over a raw {@link Inflater}. Header and trailer are parsed as a state machine so
+ * they may be split across any number of input buffers; concatenated members are decoded in turn,
+ * and each member's CRC-32 and length are checked.
+ */
+final class GzipDecoder implements ContentDecoder {
+
+    private static final int FHCRC = 0x02;
+    private static final int FEXTRA = 0x04;
+    private static final int FNAME = 0x08;
+    private static final int FCOMMENT = 0x10;
+    private static final int RESERVED_FLAGS = 0xE0;
+
+    private enum State { HEADER, EXTRA_LENGTH, EXTRA, NAME, COMMENT, HEADER_CRC, DATA, TRAILER, MEMBER_END }
+
+    private final Inflater inflater = new Inflater(true);
+    private final CRC32 crc = new CRC32();
+
+    // Fixed-size header and trailer fields, collected across buffers
+    private final byte[] field = new byte[10];
+    private int fieldLength;
+
+    private State state = State.HEADER;
+    private int flags;
+    private int skip;
+    private long memberSize;
+    private boolean started;
+
+    @Override
+    public void decode(ByteBuffer input, ByteBuffer output) throws IOException {
+        while (true) {
+            switch (state) {
+                case MEMBER_END, HEADER -> {
+                    if (state == State.MEMBER_END) {
+                        if (!input.hasRemaining()) {
+                            return;
+                        }
+                        state = State.HEADER;
+                    }
+                    if (!collect(input, 10)) {
+                        return;
+                    }
+                    started = true;
+                    if (field[0] != (byte) 0x1f || field[1] != (byte) 0x8b) {
+                        throw malformed("not in gzip format");
+                    }
+                    if (field[2] != 8) {
+                        throw malformed("unsupported compression method " + field[2]);
+                    }
+                    flags = field[3] & 0xff;
+                    if ((flags & RESERVED_FLAGS) != 0) {
+                        throw malformed("reserved header flags set");
+                    }
+                    state = (flags & FEXTRA) != 0 ? State.EXTRA_LENGTH : afterExtra();
+                }
+                case EXTRA_LENGTH -> {
+                    if (!collect(input, 2)) {
+                        return;
+                    }
+                    skip = (field[0] & 0xff) | (field[1] & 0xff) << 8;
+                    state = State.EXTRA;
+                }
+                case EXTRA -> {
+                    int n = Math.min(skip, input.remaining());
+                    input.position(input.position() + n);
+                    skip -= n;
+                    if (skip > 0) {
+                        return;
+                    }
+                    state = afterExtra();
+                }
+                case NAME, COMMENT -> {
+                    if (!skipPastZero(input)) {
+                        return;
+                    }
+                    state = state == State.NAME && (flags & FCOMMENT) != 0 ? State.COMMENT : afterComment();
+                }
+                case HEADER_CRC -> {
+                    if (!collect(input, 2)) {
+                        return;
+                    }
+                    state = State.DATA;
+                }
+                case DATA -> {
+                    if (!inflate(input, output)) {
+                        return;
+                    }
+                    state = State.TRAILER;
+                }
+                case TRAILER -> {
+                    if (!collect(input, 8)) {
+                        return;
+                    }
+                    if (littleEndianInt(0) != (int) crc.getValue()) {
+                        throw malformed("CRC-32 mismatch");
+                    }
+                    if (littleEndianInt(4) != (int) memberSize) {
+                        throw malformed("length mismatch");
+                    }
+                    inflater.reset();
+                    crc.reset();
+                    memberSize = 0;
+                    state = State.MEMBER_END;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (state != State.MEMBER_END && (started || fieldLength > 0)) {
+            throw malformed("unexpected end of gzip stream");
+        }
+    }
+
+    @Override
+    public void close() {
+        inflater.end();
+    }
+
+    private State afterExtra() {
+        return (flags & FNAME) != 0 ? State.NAME : (flags & FCOMMENT) != 0 ? State.COMMENT : afterComment();
+    }
+
+    private State afterComment() {
+        return (flags & FHCRC) != 0 ? State.HEADER_CRC : State.DATA;
+    }
+
+    /**
+     * Inflate until the member's deflate stream ends (true), or input runs out / output fills (false)
+     */
+    private boolean inflate(ByteBuffer input, ByteBuffer output) throws IOException {
+        while (true) {
+            if (inflater.needsInput()) {
+                if (!input.hasRemaining()) {
+                    return false;
+                }
+                inflater.setInput(input);
+            }
+            if (!output.hasRemaining()) {
+                return false;
+            }
+            int start = output.position();
+            int n;
+            try {
+                n = inflater.inflate(output);
+            } catch (DataFormatException e) {
+                throw new ContentEncodingException(HttpStatus.BAD_REQUEST, "Malformed gzip request body", e);
+            }
+            if (n > 0) {
+                crc.update(output.duplicate().limit(output.position()).position(start));
+                memberSize += n;
+            }
+            if (inflater.finished()) {
+                return true;
+            }
+            if (inflater.needsDictionary()) {
+                throw malformed("preset dictionary required");
+            }
+            if (n == 0 && !inflater.needsInput()) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Gather {@code length} bytes into {@link #field}; false until they have all arrived
+     */
+    private boolean collect(ByteBuffer input, int length) {
+        int n = Math.min(length - fieldLength, input.remaining());
+        input.get(field, fieldLength, n);
+        fieldLength += n;
+        if (fieldLength < length) {
+            return false;
+        }
+        fieldLength = 0;
+        return true;
+    }
+
+    private static boolean skipPastZero(ByteBuffer input) {
+        while (input.hasRemaining()) {
+            if (input.get() == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int littleEndianInt(int offset) {
+        return (field[offset] & 0xff) | (field[offset + 1] & 0xff) << 8
+                | (field[offset + 2] & 0xff) << 16 | (field[offset + 3] & 0xff) << 24;
+    }
+
+    private static ContentEncodingException malformed(String reason) {
+        return new ContentEncodingException(HttpStatus.BAD_REQUEST, "Malformed gzip request body: " + reason);
+    }
+}
@@ -0,0 +1,117 @@
+package com.edi.processor.compression;
+
+import com.edi.processor.service.RequestDecompressionService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * WebFlux side of request decompression. Each compressed DataBuffer is decoded on the thread that
+ * delivers it, as it arrives, into fresh buffers for the codecs; nothing blocks and the compressed
+ * buffers are released as soon as they have been decoded. Decoding errors are signalled on the body
+ * as {@link com.edi.processor.exception.ContentEncodingException}.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveRequestDecompressionFilter implements WebFilter {
+
+    private static final int CHUNK_BYTES = 8192;
+
+    private final RequestDecompressionService decompression;
+
+    public ReactiveRequestDecompressionFilter(RequestDecompressionService decompression) {
+        this.decompression = decompression;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String contentEncoding = request.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+        if (!decompression.applies(contentEncoding)) {
+            return chain.filter(exchange);
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(request.getHeaders());
+        headers.remove(HttpHeaders.CONTENT_ENCODING);
+        headers.remove(HttpHeaders.CONTENT_LENGTH);
+        DataBufferFactory bufferFactory = exchange.getResponse().bufferFactory();
+
+        ServerHttpRequest decompressed = new ServerHttpRequestDecorator(request) {
+            @Override
+            public HttpHeaders getHeaders() {
+                return headers;
+            }
+
+            @Override
+            public Flux<DataBuffer> getBody() {
+                return Flux.using(() -> decompression.open(contentEncoding),
+                        decoding -> decode(super.getBody(), decoding, bufferFactory),
+                        BodyDecoding::close);
+            }
+        };
+        return chain.filter(exchange.mutate().request(decompressed).build());
+    }
+
+    private static Flux<DataBuffer> decode(Flux<DataBuffer> body, BodyDecoding decoding, DataBufferFactory bufferFactory) {
+        ByteBuffer output = ByteBuffer.allocate(CHUNK_BYTES);
+        // handle() leaves each compressed buffer to us, released whether or not it decodes
+        return body.<DataBuffer>handle((buffer, sink) -> {
+            List<DataBuffer> decoded = new ArrayList<>();
+            try (DataBuffer.ByteBufferIterator input = buffer.readableByteBuffers()) {
+                while (input.hasNext()) {
+                    decodeInto(decoded, input.next(), decoding, output, bufferFactory);
+                }
+            } catch (IOException e) {
+                sink.error(e);
+                return;
+            } finally {
+                DataBufferUtils.release(buffer);
+            }
+            if (!decoded.isEmpty()) {
+                sink.next(bufferFactory.join(decoded));
+            }
+        }).concatWith(Mono.defer(() -> {
+            List<DataBuffer> decoded = new ArrayList<>();
+            try {
+                decodeInto(decoded, ByteBuffer.allocate(0), decoding, output, bufferFactory);
+                decoding.finish();
+            } catch (IOException e) {
+                return Mono.error(e);
+            }
+            return decoded.isEmpty() ? Mono.empty() : Mono.just(bufferFactory.join(decoded));
+        }));
+    }
+
+    /**
+     * Decode all of {@code input}, copying each filled chunk of output out as a new buffer
+     */
+    private static void decodeInto(List<DataBuffer> decoded, ByteBuffer input, BodyDecoding decoding,
+                                   ByteBuffer output, DataBufferFactory bufferFactory) throws IOException {
+        boolean filled;
+        do {
+            output.clear();
+            decoding.decode(input, output);
+            filled = !output.hasRemaining();
+            if (output.position() > 0) {
+                decoded.add(bufferFactory.wrap(Arrays.copyOf(output.array(), output.position())));
+            }
+        } while (filled || input.hasRemaining());
+    }
+}
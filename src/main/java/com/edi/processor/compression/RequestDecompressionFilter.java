@@ -0,0 +1,272 @@
+package com.edi.processor.compression;
+
+import com.edi.processor.service.RequestDecompressionService;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+
+/**
+ * Servlet side of request decompression: a compressed request is passed on with a body stream that
+ * decodes as it is read, and without its Content-Encoding and Content-Length headers. Decoding
+ * errors surface from the body stream as {@link com.edi.processor.exception.ContentEncodingException}.
+ * The body can also be read without blocking through a {@link ReadListener}; the decoder is then
+ * released when the async request completes rather than when the filter chain returns.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class RequestDecompressionFilter extends OncePerRequestFilter {
+
+    // Describe the compressed body, not the one the application reads
+    private static final List<String> HIDDEN_HEADERS = List.of(HttpHeaders.CONTENT_ENCODING, HttpHeaders.CONTENT_LENGTH);
+
+    private final RequestDecompressionService decompression;
+
+    public RequestDecompressionFilter(RequestDecompressionService decompression) {
+        this.decompression = decompression;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String contentEncoding = request.getHeader(HttpHeaders.CONTENT_ENCODING);
+        if (!decompression.applies(contentEncoding)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        DecompressedRequest decompressed = new DecompressedRequest(request, contentEncoding);
+        try {
+            chain.doFilter(decompressed, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                // The body may still be read by a ReadListener
+                request.getAsyncContext().addListener(decompressed);
+            } else {
+                decompressed.release();
+            }
+        }
+    }
+
+    private final class DecompressedRequest extends HttpServletRequestWrapper implements AsyncListener {
+
+        private final String contentEncoding;
+        private BodyDecoding decoding;
+        private ServletInputStream body;
+
+        DecompressedRequest(HttpServletRequest request, String contentEncoding) {
+            super(request);
+            this.contentEncoding = contentEncoding;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (body == null) {
+                decoding = decompression.open(contentEncoding);
+                ServletInputStream compressed = super.getInputStream();
+                body = new DecodingServletInputStream(compressed, new DecodingInputStream(compressed, decoding));
+            }
+            return body;
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+        @Override
+        public int getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return -1;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return isHidden(name) ? null : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return isHidden(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            List<String> names = Collections.list(super.getHeaderNames());
+            names.removeIf(this::isHidden);
+            return Collections.enumeration(names);
+        }
+
+        private boolean isHidden(String name) {
+            for (String hidden : HIDDEN_HEADERS) {
+                if (hidden.equalsIgnoreCase(name)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void release() {
+            if (decoding != null) {
+                decoding.close();
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Still registered for the new cycle
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
+    /**
+     * Blocking reads decode straight into the caller's array. Once a {@link ReadListener} is set,
+     * readiness follows the compressed stream: {@link #isReady()} decodes ahead only as far as the
+     * compressed bytes already received allow, and is false while more are needed.
+     */
+    private static final class DecodingServletInputStream extends ServletInputStream {
+
+        private final ServletInputStream compressed;
+        private final DecodingInputStream in;
+        private final byte[] ahead = new byte[8192];
+        private int aheadPosition;
+        private int aheadLimit;
+        private boolean nonBlocking;
+        private boolean endAhead;
+        private IOException failure;
+        private boolean finished;
+
+        DecodingServletInputStream(ServletInputStream compressed, DecodingInputStream in) {
+            this.compressed = compressed;
+            this.in = in;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) < 0 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (nonBlocking && !isReady() && !finished) {
+                throw new IllegalStateException("Compressed request body read while not ready");
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            if (aheadPosition < aheadLimit) {
+                int n = Math.min(len, aheadLimit - aheadPosition);
+                System.arraycopy(ahead, aheadPosition, b, off, n);
+                aheadPosition += n;
+                return n;
+            }
+            if (endAhead || finished) {
+                finished = true;
+                return -1;
+            }
+            int n = in.read(b, off, len);
+            finished = n < 0;
+            return n;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+
+        @Override
+        public boolean isReady() {
+            if (!nonBlocking || aheadPosition < aheadLimit || endAhead || failure != null) {
+                return true;
+            }
+            if (finished) {
+                return false;
+            }
+            try {
+                int n = in.readAvailable(ahead, 0, ahead.length, compressed);
+                aheadPosition = 0;
+                aheadLimit = Math.max(n, 0);
+                endAhead = n < 0;
+                return n != 0;
+            } catch (IOException e) {
+                // Reported by the next read
+                failure = e;
+                return true;
+            }
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            nonBlocking = true;
+            compressed.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    if (isReady()) {
+                        readListener.onDataAvailable();
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() throws IOException {
+                    // The decoder may still hold output for the last compressed bytes
+                    if (!finished && isReady()) {
+                        readListener.onDataAvailable();
+                    }
+                    readListener.onAllDataRead();
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    readListener.onError(t);
+                }
+            });
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.edi.processor.compression;
+
+import com.edi.processor.exception.ContentEncodingException;
+import com.github.luben.zstd.ZstdDecompressCtx;
+import com.github.luben.zstd.ZstdException;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * zstd (RFC 8878) over zstd-jni's streaming decompression context. The native side reads and writes
+ * direct buffers only, so input is staged through one and output drained from another; both are
+ * allocated once per body. Concatenated frames are decoded in turn.
+ */
+final class ZstdDecoder implements ContentDecoder {
+
+    private static final int STAGING_BYTES = 64 * 1024;
+
+    private final ZstdDecompressCtx context = new ZstdDecompressCtx();
+    private final ByteBuffer source = ByteBuffer.allocateDirect(STAGING_BYTES).limit(0);
+    private final ByteBuffer target = ByteBuffer.allocateDirect(STAGING_BYTES).limit(0);
+
+    // The last call filled the target, so the context may still hold decoded bytes
+    private boolean flushPending;
+    private boolean inFrame;
+
+    @Override
+    public void decode(ByteBuffer input, ByteBuffer output) throws IOException {
+        while (true) {
+            drain(output);
+            if (target.hasRemaining()) {
+                return;
+            }
+            if (!source.hasRemaining()) {
+                if (!input.hasRemaining() && !flushPending) {
+                    return;
+                }
+                source.clear();
+                int n = Math.min(source.capacity(), input.remaining());
+                source.put(input.slice().limit(n)).flip();
+                input.position(input.position() + n);
+            }
+
+            int consumed = source.position();
+            target.clear();
+            boolean frameDone;
+            try {
+                frameDone = context.decompressDirectByteBufferStream(target, source);
+            } catch (ZstdException e) {
+                throw new ContentEncodingException(HttpStatus.BAD_REQUEST,
+                        "Malformed zstd request body: " + e.getMessage(), e);
+            }
+            flushPending = !target.hasRemaining();
+            target.flip();
+            if (frameDone) {
+                inFrame = false;
+            } else if (source.position() > consumed || target.hasRemaining()) {
+                inFrame = true;
+            }
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (inFrame || source.hasRemaining()) {
+            throw new ContentEncodingException(HttpStatus.BAD_REQUEST,
+                    "Malformed zstd request body: unexpected end of zstd stream");
+        }
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+
+    private void drain(ByteBuffer output) {
+        int n = Math.min(target.remaining(), output.remaining());
+        if (n > 0) {
+            output.put(target.slice().limit(n));
+            target.position(target.position() + n);
+        }
+    }
+}
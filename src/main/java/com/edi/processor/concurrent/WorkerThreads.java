@@ -0,0 +1,89 @@
+package com.edi.processor.concurrent;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Threads for the internal workers that block on I/O: job workers, delivery senders and warmup
+ * clients. With {@code spring.threads.virtual.enabled} on Java 21 they are virtual threads, as
+ * Tomcat's request threads then are; otherwise named platform daemon threads. Timers and single
+ * background loops stay on platform threads either way.
+ *
+ * The build targets Java 17, so virtual threads are only reached through Spring's
+ * {@link VirtualThreadTaskExecutor} and a method handle for {@code Thread.isVirtual()}.
+ */
+@Component
+public class WorkerThreads {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkerThreads.class);
+
+    // Thread.isVirtual(), or null before Java 21
+    private static final MethodHandle IS_VIRTUAL = isVirtualHandle();
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    @PostConstruct
+    public void init() {
+        if (virtualThreadsEnabled && IS_VIRTUAL == null) {
+            log.warn("spring.threads.virtual.enabled needs Java 21; running on Java {} with platform threads",
+                    Runtime.version().feature());
+        } else if (isVirtual()) {
+            log.info("Request handling and I/O workers run on virtual threads");
+        }
+    }
+
+    /**
+     * Whether workers are virtual threads
+     */
+    public boolean isVirtual() {
+        return virtualThreadsEnabled && IS_VIRTUAL != null;
+    }
+
+    /**
+     * Factory for workers named {@code name-1}, {@code name-2}... (virtual threads are numbered from 0)
+     */
+    public ThreadFactory factory(String name) {
+        if (isVirtual()) {
+            return new VirtualThreadTaskExecutor(name + "-").getVirtualThreadFactory();
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Whether {@code thread} is a virtual thread; always false before Java 21
+     */
+    public static boolean isVirtual(Thread thread) {
+        if (IS_VIRTUAL == null) {
+            return false;
+        }
+        try {
+            return (boolean) IS_VIRTUAL.invokeExact(thread);
+        } catch (Throwable e) {
+            return false;
+        }
+    }
+
+    private static MethodHandle isVirtualHandle() {
+        try {
+            return MethodHandles.publicLookup().findVirtual(Thread.class, "isVirtual", MethodType.methodType(boolean.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+}
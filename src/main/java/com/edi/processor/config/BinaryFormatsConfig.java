@@ -0,0 +1,99 @@
+package com.edi.processor.config;
+
+import com.edi.processor.model.response.ContentSerializer;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Smile and CBOR encodings of EdiRequest / EdiResponse for service-to-service callers.
+ * The mappers are copies of Spring Boot's JSON ObjectMapper with a binary factory, so property
+ * names and inclusion rules match the JSON endpoint.
+ */
+@Configuration
+public class BinaryFormatsConfig {
+
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    public static final String APPLICATION_CBOR_VALUE = "application/cbor";
+
+    // Boot registers Module beans with its ObjectMapper, which the copies below then inherit
+    @Bean
+    public Module responseContentModule(ContentSerializer contentSerializer) {
+        return contentSerializer.module();
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2SmileHttpMessageConverter(smileMapper(objectMapper));
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2CborHttpMessageConverter(cborMapper(objectMapper));
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public CodecCustomizer binaryFormatsCodecCustomizer(ObjectMapper objectMapper) {
+        ObjectMapper smileMapper = smileMapper(objectMapper);
+        ObjectMapper cborMapper = cborMapper(objectMapper);
+        // Mime types must be explicit: the (mapper) constructors default to application/json
+        MimeType smile = MimeType.valueOf(APPLICATION_SMILE_VALUE);
+        MimeType cbor = MimeType.valueOf(APPLICATION_CBOR_VALUE);
+        return configurer -> {
+            configurer.customCodecs().register(new Jackson2SmileDecoder(smileMapper, smile));
+            configurer.customCodecs().register(new Jackson2SmileEncoder(smileMapper, smile));
+            configurer.customCodecs().register(new Jackson2CborDecoder(cborMapper, cbor));
+            configurer.customCodecs().register(new SingleValueCborEncoder(cborMapper, cbor));
+        };
+    }
+
+    public static ObjectMapper smileMapper(ObjectMapper objectMapper) {
+        return objectMapper.copyWith(new SmileFactory());
+    }
+
+    public static ObjectMapper cborMapper(ObjectMapper objectMapper) {
+        return objectMapper.copyWith(new CBORFactory());
+    }
+
+    // Jackson2CborEncoder rejects every Publisher; the single values this API writes can be encoded directly
+    private static final class SingleValueCborEncoder extends Jackson2CborEncoder {
+
+        SingleValueCborEncoder(ObjectMapper mapper, MimeType... mimeTypes) {
+            super(mapper, mimeTypes);
+        }
+
+        @Override
+        public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+                                       ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+            if (inputStream instanceof Mono) {
+                return Mono.from(inputStream)
+                        .map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints))
+                        .flux();
+            }
+            return super.encode(inputStream, bufferFactory, elementType, mimeType, hints);
+        }
+    }
+}
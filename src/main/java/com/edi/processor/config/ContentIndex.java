@@ -0,0 +1,103 @@
+package com.edi.processor.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Binary form of response-content.properties, written at build time by the fast-startup profile
+ * so startup reads length-prefixed UTF-8 entries instead of parsing and unescaping properties.
+ *
+ * Layout: magic, version, entry count, then (key length, key bytes, value length, value bytes) per entry.
+ */
+public final class ContentIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ContentIndex.class);
+
+    public static final String RESOURCE = "response-content.idx";
+
+    private static final int MAGIC = 0x45444943; // "EDIC"
+    private static final int VERSION = 1;
+
+    private ContentIndex() {
+    }
+
+    public static Map<String, String> fromProperties(Properties properties) {
+        Map<String, String> content = new HashMap<>();
+        for (String name : properties.stringPropertyNames()) {
+            content.put(name, properties.getProperty(name));
+        }
+        return Map.copyOf(content);
+    }
+
+    public static void write(Map<String, String> content, OutputStream output) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(content.size());
+        // Sorted so the resource is byte-for-byte reproducible
+        for (Map.Entry<String, String> entry : new TreeMap<>(content).entrySet()) {
+            writeString(out, entry.getKey());
+            writeString(out, entry.getValue());
+        }
+        out.flush();
+    }
+
+    public static Map<String, String> read(InputStream input) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(input));
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException("Not a content index (or unsupported version)");
+        }
+        int count = in.readInt();
+        Map<String, String> content = new HashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            content.put(readString(in), readString(in));
+        }
+        return Map.copyOf(content);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Build-time entry point: {@code ContentIndex <response-content.properties> <output .idx>}
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: ContentIndex <properties file> <index file>");
+        }
+        Properties properties = new Properties();
+        try (InputStream input = Files.newInputStream(Path.of(args[0]))) {
+            properties.load(input);
+        }
+        Path target = Path.of(args[1]);
+        Files.createDirectories(target.toAbsolutePath().getParent());
+        try (OutputStream output = Files.newOutputStream(target)) {
+            write(fromProperties(properties), output);
+        }
+        log.info("Wrote {} content entries to {}", properties.size(), target);
+    }
+}
@@ -0,0 +1,66 @@
+package com.edi.processor.config;
+
+import com.edi.processor.controller.EdiReactiveHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.DELETE;
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+import static org.springframework.web.reactive.function.server.RequestPredicates.POST;
+import static org.springframework.web.reactive.function.server.RequestPredicates.accept;
+import static org.springframework.web.reactive.function.server.RequestPredicates.contentType;
+import static org.springframework.web.reactive.function.server.RequestPredicates.queryParam;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * Functional routes for the reactive stack. Activate with the "reactive" profile
+ * (spring.main.web-application-type=reactive); the default servlet stack uses EdiController.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveRouterConfig {
+
+    // Tomcat is also on the classpath for the servlet stack; pin the reactive stack to Netty
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> ediRoutes(EdiReactiveHandler handler) {
+        MediaType[] mediaTypes = {
+                MediaType.APPLICATION_JSON,
+                MediaType.parseMediaType(BinaryFormatsConfig.APPLICATION_SMILE_VALUE),
+                MediaType.parseMediaType(BinaryFormatsConfig.APPLICATION_CBOR_VALUE)
+        };
+        return route(POST("/api/v1/edi/process")
+                        .and(contentType(mediaTypes))
+                        .and(accept(mediaTypes)), handler::process)
+                .andRoute(POST("/api/v1/edi/jobs")
+                        .and(contentType(mediaTypes))
+                        .and(accept(mediaTypes)), handler::submitJob)
+                .andRoute(GET("/api/v1/edi/jobs/{jobId}"), handler::getJob)
+                .andRoute(DELETE("/api/v1/edi/jobs/{jobId}"), handler::cancelJob)
+                .andRoute(GET("/api/v1/edi/catalog/items/{sku}"), handler::getCatalogItem)
+                .andRoute(GET("/api/v1/edi/catalog/items").and(queryParam("upc", upc -> true)),
+                        handler::getCatalogItemByUpc)
+                .andRoute(GET("/api/v1/edi/catalog/export"), handler::exportCatalog)
+                .andRoute(GET("/api/v1/edi/catalog/stats"), handler::catalogStats)
+                .andRoute(GET("/api/v1/edi/reconciliation/orders/{orderId}"), handler::getOpenOrder)
+                .andRoute(GET("/api/v1/edi/reconciliation/asns/{asnNumber}"), handler::getOpenAsn)
+                .andRoute(POST("/api/v1/edi/reconciliation/orders/{orderId}/shipconfirm"), handler::reconcileShipConfirm)
+                .andRoute(POST("/api/v1/edi/reconciliation/asns/{asnNumber}/receipt"), handler::reconcileReceipt)
+                .andRoute(GET("/api/v1/edi/search"), handler::search)
+                .andRoute(GET("/api/v1/edi/schemas/{responseType}"), handler::getSchema)
+                .andRoute(GET("/api/v1/edi/schemas/{responseType}/{orderType}"), handler::getSchema)
+                .andRoute(GET("/api/v1/edi/cluster"), handler::clusterStatus)
+                .andRoute(GET("/api/v1/edi/cluster/owner"), handler::clusterOwner)
+                .andRoute(GET("/api/v1/edi/health"), handler::health)
+                .andRoute(GET("/api/v1/edi/ready"), handler::readiness);
+    }
+}
@@ -0,0 +1,79 @@
+package com.edi.processor.controller;
+
+import com.edi.processor.catalog.ItemCatalog;
+import com.edi.processor.model.catalog.CatalogItem;
+import com.edi.processor.service.ItemCatalogService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+@RestController
+@RequestMapping("/api/v1/edi/catalog")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class CatalogController {
+
+    private final ItemCatalogService itemCatalog;
+    private final ObjectMapper lineMapper;
+
+    public CatalogController(ItemCatalogService itemCatalog, ObjectMapper objectMapper) {
+        this.itemCatalog = itemCatalog;
+        this.lineMapper = objectMapper.copy().disable(SerializationFeature.INDENT_OUTPUT)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * Item by SKU
+     */
+    @GetMapping(value = "/items/{sku}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<CatalogItem> getItem(@PathVariable String sku) {
+        CatalogItem item = itemCatalog.findBySku(sku);
+        return item != null ? ResponseEntity.ok(item) : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Item by UPC/GTIN
+     */
+    @GetMapping(value = "/items", params = "upc", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<CatalogItem> getItemByUpc(@RequestParam String upc) {
+        CatalogItem item = itemCatalog.findByUpc(upc);
+        return item != null ? ResponseEntity.ok(item) : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Whole catalog as newline-delimited JSON, one item per line
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export() {
+        StreamingResponseBody body = out -> {
+            try {
+                itemCatalog.forEach(item -> {
+                    try {
+                        lineMapper.writeValue(out, item);
+                        out.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Item count and off-heap memory use
+     */
+    @GetMapping(value = "/stats", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ItemCatalog.Stats stats() {
+        return itemCatalog.getStats();
+    }
+}
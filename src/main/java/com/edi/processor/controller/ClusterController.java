@@ -0,0 +1,38 @@
+package com.edi.processor.controller;
+
+import com.edi.processor.cluster.ClusterStatus;
+import com.edi.processor.service.ClusterService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/edi/cluster")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ClusterController {
+
+    private final ClusterService cluster;
+
+    public ClusterController(ClusterService cluster) {
+        this.cluster = cluster;
+    }
+
+    /**
+     * Configured and live nodes, and the share of keys each live node owns
+     */
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ClusterStatus status() {
+        return cluster.getStatus();
+    }
+
+    /**
+     * Node that owns a shard key, such as {@code partner:WALMART} or {@code uuid:abc-123}
+     */
+    @GetMapping(value = "/owner", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Map<String, String> owner(@RequestParam("key") String key) {
+        String owner = cluster.ownerOf(key);
+        return owner != null ? Map.of("key", key, "owner", owner) : Map.of("key", key);
+    }
+}
@@ -0,0 +1,71 @@
+package com.edi.processor.controller;
+
+import com.edi.processor.model.response.EdiResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for a partner callback endpoint, for running the delivery queue without a partner.
+ * Enabled with edi.delivery.stub.enabled=true. It can be told to reject the next batches, to
+ * exercise retries and dead-lettering.
+ */
+@RestController
+@RequestMapping("/api/v1/edi/delivery-stub")
+@ConditionalOnProperty(name = "edi.delivery.stub.enabled", havingValue = "true")
+public class DeliveryStubController {
+
+    private static final Logger log = LoggerFactory.getLogger(DeliveryStubController.class);
+
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong documents = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicInteger failuresRemaining = new AtomicInteger();
+    private volatile int failureStatus = 503;
+
+    /**
+     * Accept a batch of delivered documents, or reject it while failures are pending
+     */
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Void> receive(@RequestBody EdiResponse batch) {
+        int size = batch.getResponse() != null ? batch.getResponse().size() : 0;
+        if (failuresRemaining.getAndUpdate(remaining -> Math.max(0, remaining - 1)) > 0) {
+            rejected.incrementAndGet();
+            log.info("Delivery stub rejected batch of {} documents", size);
+            return ResponseEntity.status(failureStatus).build();
+        }
+        batches.incrementAndGet();
+        documents.addAndGet(size);
+        log.info("Delivery stub received batch of {} documents", size);
+        return ResponseEntity.accepted().build();
+    }
+
+    /**
+     * Reject the next {@code count} batches with {@code status}
+     */
+    @PostMapping("/failures")
+    public ResponseEntity<Void> failNext(@RequestParam int count, @RequestParam(defaultValue = "503") int status) {
+        if (count < 0 || status < 400 || status > 599) {
+            throw new IllegalArgumentException("count must be >= 0 and status 4xx or 5xx");
+        }
+        failureStatus = status;
+        failuresRemaining.set(count);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Counts of batches and documents accepted, and batches rejected, so far
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Long>> stats() {
+        return ResponseEntity.ok(Map.of("batches", batches.get(), "documents", documents.get(),
+                "rejected", rejected.get()));
+    }
+}
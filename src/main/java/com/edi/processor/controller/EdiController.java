@@ -1,54 +1,135 @@
 package com.edi.processor.controller;
 
+import com.edi.processor.cluster.ForwardedResponse;
+import com.edi.processor.config.BinaryFormatsConfig;
+import com.edi.processor.fault.FaultPlan;
+import com.edi.processor.logging.RequestLogSampler;
 import com.edi.processor.model.request.EdiRequest;
 import com.edi.processor.model.response.EdiResponse;
+import com.edi.processor.service.ClusterService;
 import com.edi.processor.service.EdiProcessorService;
+import com.edi.processor.service.FaultInjectionService;
+import com.edi.processor.service.WarmupService;
+import com.edi.processor.warmup.WarmupReport;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.util.concurrent.CompletionException;
+
 @RestController
 @RequestMapping("/api/v1/edi")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class EdiController {
 
     private static final Logger log = LoggerFactory.getLogger(EdiController.class);
 
     private final EdiProcessorService ediProcessorService;
+    private final RequestLogSampler logSampler;
+    private final FaultInjectionService faultInjection;
+    private final ServletFaultResponder faultResponder;
+    private final WarmupService warmupService;
+    private final ClusterService cluster;
 
-    public EdiController(EdiProcessorService ediProcessorService) {
+    public EdiController(EdiProcessorService ediProcessorService, RequestLogSampler logSampler,
+                         FaultInjectionService faultInjection, ServletFaultResponder faultResponder,
+                         WarmupService warmupService, ClusterService cluster) {
         this.ediProcessorService = ediProcessorService;
+        this.logSampler = logSampler;
+        this.faultInjection = faultInjection;
+        this.faultResponder = faultResponder;
+        this.warmupService = warmupService;
+        this.cluster = cluster;
     }
 
     /**
      * Process EDI request and return appropriate response
      * 
      * @param ediRequest The incoming EDI request
-     * @return ResponseEntity containing EdiResponse or no content for timeout scenarios
+     * @param faultProfile Optional fault injection profile for this request
+     * @param forwardedBy Cluster node that forwarded this request, if any
+     * @return ResponseEntity containing EdiResponse, no content for timeout scenarios, or null when
+     *         a fault profile applies and the response is written asynchronously, or the request was
+     *         forwarded to the cluster node that owns it and its response copied
      */
     @PostMapping(value = "/process", 
-                 consumes = MediaType.APPLICATION_JSON_VALUE, 
-                 produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<EdiResponse> processEdiRequest(@RequestBody EdiRequest ediRequest) {
-        
-        log.info("Received EDI request with UUID: {}", 
-                ediRequest != null ? ediRequest.getUuid() : "null");
-
-        // Check if this is an errortimeout transaction - don't send response
-        if (ediProcessorService.shouldSuppressResponse(ediRequest)) {
-            log.info("Transaction type is errortimeout - suppressing response for UUID: {}", 
-                    ediRequest.getUuid());
-            // Return no content for errortimeout scenario
-            return ResponseEntity.noContent().build();
+                 consumes = {MediaType.APPLICATION_JSON_VALUE, BinaryFormatsConfig.APPLICATION_SMILE_VALUE,
+                         BinaryFormatsConfig.APPLICATION_CBOR_VALUE},
+                 produces = {MediaType.APPLICATION_JSON_VALUE, BinaryFormatsConfig.APPLICATION_SMILE_VALUE,
+                         BinaryFormatsConfig.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<EdiResponse> processEdiRequest(@RequestBody EdiRequest ediRequest,
+            @RequestHeader(value = FaultInjectionService.PROFILE_HEADER, required = false) String faultProfile,
+            @RequestHeader(value = ClusterService.FORWARDED_HEADER, required = false) String forwardedBy,
+            HttpServletRequest servletRequest, HttpServletResponse servletResponse) throws IOException {
+
+        try (RequestLogSampler.Scope scope = logSampler.sample(ediRequest).open()) {
+            log.info("Received EDI request with UUID: {}",
+                    ediRequest != null ? ediRequest.getUuid() : "null");
+
+            String owner = cluster.route(ediRequest, forwardedBy);
+            if (owner != null) {
+                ForwardedResponse forwarded;
+                try {
+                    forwarded = cluster.forward(owner, ediRequest, servletRequest.getHeader(HttpHeaders.ACCEPT),
+                            faultProfile).join();
+                } catch (CompletionException e) {
+                    throw e.getCause() instanceof RuntimeException cause ? cause : e;
+                }
+                if (forwarded != null) {
+                    log.info("Forwarded request with UUID: {} to {}", ediRequest.getUuid(), forwarded.node());
+                    writeForwarded(forwarded, servletResponse);
+                    return null;
+                }
+            }
+            if (cluster.isEnabled()) {
+                servletResponse.setHeader(ClusterService.NODE_HEADER, cluster.getSelf());
+            }
+
+            // Check if this is an errortimeout transaction - don't send response
+            if (ediProcessorService.shouldSuppressResponse(ediRequest)) {
+                log.info("Transaction type is errortimeout - suppressing response for UUID: {}",
+                        ediRequest.getUuid());
+                // Return no content for errortimeout scenario
+                return ResponseEntity.noContent().build();
+            }
+
+            FaultPlan fault = faultInjection.plan(faultProfile, ediRequest);
+            if (fault != null) {
+                EdiResponse response = fault.action() == FaultPlan.Action.ERROR
+                        ? ediProcessorService.buildInjectedErrorResponse(ediRequest)
+                        : ediProcessorService.processRequest(ediRequest);
+                log.info("Fault profile {} - {} after {} ms for UUID: {}",
+                        fault.profile(), fault.action(), fault.delayMillis(), ediRequest.getUuid());
+                faultResponder.respond(fault, response, servletRequest);
+                return null;
+            }
+
+            // Process the request and return response
+            EdiResponse response = ediProcessorService.processRequest(ediRequest);
+
+            log.info("Successfully processed EDI request for UUID: {}", ediRequest.getUuid());
+
+            return ResponseEntity.ok(response);
         }
+    }
 
-        // Process the request and return response
-        EdiResponse response = ediProcessorService.processRequest(ediRequest);
-        
-        log.info("Successfully processed EDI request for UUID: {}", ediRequest.getUuid());
-        
-        return ResponseEntity.ok(response);
+    private static void writeForwarded(ForwardedResponse forwarded, HttpServletResponse servletResponse)
+            throws IOException {
+        servletResponse.setStatus(forwarded.status());
+        servletResponse.setHeader(ClusterService.NODE_HEADER, forwarded.node());
+        if (forwarded.contentType() != null) {
+            servletResponse.setContentType(forwarded.contentType());
+        }
+        servletResponse.setContentLength(forwarded.body().length);
+        servletResponse.getOutputStream().write(forwarded.body());
     }
 
     /**
@@ -60,4 +141,13 @@ public class EdiController {
     public ResponseEntity<String> healthCheck() {
         return ResponseEntity.ok("EDI Processor Service is running");
     }
+
+    /**
+     * Readiness: 503 until the startup JIT warmup has finished, with its progress or outcome
+     */
+    @GetMapping(value = "/ready", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<WarmupReport> readiness() {
+        WarmupReport report = warmupService.getReport();
+        return ResponseEntity.status(report.isReady() ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE).body(report);
+    }
 }
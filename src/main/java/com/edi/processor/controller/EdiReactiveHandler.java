@@ -0,0 +1,458 @@
+package com.edi.processor.controller;
+
+import com.edi.processor.cluster.ForwardedResponse;
+import com.edi.processor.config.BinaryFormatsConfig;
+import com.edi.processor.exception.GlobalExceptionHandler;
+import com.edi.processor.fault.FaultPlan;
+import com.edi.processor.logging.RequestLogSampler;
+import com.edi.processor.model.catalog.CatalogItem;
+import com.edi.processor.model.job.EdiJob;
+import com.edi.processor.model.job.JobStatus;
+import com.edi.processor.reconciliation.DocumentKind;
+import com.edi.processor.model.request.EdiRequest;
+import com.edi.processor.model.response.EdiResponse;
+import com.edi.processor.service.ClusterService;
+import com.edi.processor.service.EdiProcessorService;
+import com.edi.processor.service.ItemCatalogService;
+import com.edi.processor.service.ReconciliationService;
+import com.edi.processor.service.DocumentIndexService;
+import com.edi.processor.service.FaultInjectionService;
+import com.edi.processor.service.SchemaService;
+import com.edi.processor.service.WarmupService;
+import com.edi.processor.warmup.WarmupReport;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelOption;
+import com.edi.processor.service.JobSchedulerService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.Connection;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionException;
+
+/**
+ * WebFlux counterpart of {@link EdiController}, served on Netty when the "reactive" profile is active.
+ * Request bodies are decoded without blocking on the event loop. Processing can block (duplicate
+ * detector and catalog files and locks, delivery fsync, template compilation, large documents), so
+ * it always runs on the bounded-elastic scheduler and one slow request cannot stall a loop's
+ * other connections; so do catalog lookups and export, reconciliation and search.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class EdiReactiveHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(EdiReactiveHandler.class);
+
+    private static final List<MediaType> PRODUCIBLE_MEDIA_TYPES = List.of(
+            MediaType.APPLICATION_JSON,
+            MediaType.parseMediaType(BinaryFormatsConfig.APPLICATION_SMILE_VALUE),
+            MediaType.parseMediaType(BinaryFormatsConfig.APPLICATION_CBOR_VALUE)
+    );
+
+    private final EdiProcessorService ediProcessorService;
+    private final JobSchedulerService jobScheduler;
+    private final GlobalExceptionHandler exceptionHandler;
+    private final RequestLogSampler logSampler;
+    private final ItemCatalogService itemCatalog;
+    private final ReconciliationService reconciliation;
+    private final DocumentIndexService documentIndex;
+    private final FaultInjectionService faultInjection;
+    private final SchemaService schemaService;
+    private final WarmupService warmupService;
+    private final ClusterService cluster;
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper smileMapper;
+    private final ObjectMapper cborMapper;
+
+    public EdiReactiveHandler(EdiProcessorService ediProcessorService, JobSchedulerService jobScheduler,
+                              GlobalExceptionHandler exceptionHandler, RequestLogSampler logSampler,
+                              ItemCatalogService itemCatalog,
+                              ReconciliationService reconciliation, DocumentIndexService documentIndex,
+                              FaultInjectionService faultInjection, SchemaService schemaService,
+                              WarmupService warmupService, ClusterService cluster, ObjectMapper objectMapper) {
+        this.ediProcessorService = ediProcessorService;
+        this.jobScheduler = jobScheduler;
+        this.exceptionHandler = exceptionHandler;
+        this.logSampler = logSampler;
+        this.itemCatalog = itemCatalog;
+        this.reconciliation = reconciliation;
+        this.documentIndex = documentIndex;
+        this.faultInjection = faultInjection;
+        this.schemaService = schemaService;
+        this.warmupService = warmupService;
+        this.cluster = cluster;
+        this.jsonMapper = objectMapper;
+        this.smileMapper = BinaryFormatsConfig.smileMapper(objectMapper);
+        this.cborMapper = BinaryFormatsConfig.cborMapper(objectMapper);
+    }
+
+    /**
+     * Process EDI request and return appropriate response
+     */
+    public Mono<ServerResponse> process(ServerRequest request) {
+        MediaType responseType = selectResponseType(request);
+        return request.bodyToMono(EdiRequest.class)
+                .flatMap(ediRequest -> {
+                    String owner = cluster.route(ediRequest,
+                            request.headers().firstHeader(ClusterService.FORWARDED_HEADER));
+                    if (owner == null) {
+                        return processLocally(request, ediRequest, responseType);
+                    }
+                    // The owner's response is copied; null means the owner left the ring and this node took over
+                    return Mono.fromFuture(() -> cluster.forward(owner, ediRequest,
+                                    request.headers().firstHeader(HttpHeaders.ACCEPT),
+                                    request.headers().firstHeader(FaultInjectionService.PROFILE_HEADER)))
+                            .flatMap(this::toServerResponse)
+                            .switchIfEmpty(Mono.defer(() -> processLocally(request, ediRequest, responseType)));
+                })
+                .switchIfEmpty(Mono.defer(() -> toServerResponse(responseType,
+                        exceptionHandler.toErrorResponse(new IllegalArgumentException("Request cannot be null")))))
+                .onErrorResume(ex -> toServerResponse(responseType, exceptionHandler.toErrorResponse(
+                        ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex)));
+    }
+
+    private Mono<ServerResponse> processLocally(ServerRequest request, EdiRequest ediRequest, MediaType responseType) {
+        if (cluster.isEnabled()) {
+            request.exchange().getResponse().getHeaders().set(ClusterService.NODE_HEADER, cluster.getSelf());
+        }
+        // MDC is per thread, so the scope is reopened on whichever thread does the work
+        RequestLogSampler.Decision sampling = logSampler.sample(ediRequest);
+        try (RequestLogSampler.Scope scope = sampling.open()) {
+            log.info("Received EDI request with UUID: {}", ediRequest.getUuid());
+
+            if (ediProcessorService.shouldSuppressResponse(ediRequest)) {
+                log.info("Transaction type is errortimeout - suppressing response for UUID: {}",
+                        ediRequest.getUuid());
+                return ServerResponse.noContent().build();
+            }
+        }
+
+        FaultPlan fault = faultInjection.plan(
+                request.headers().firstHeader(FaultInjectionService.PROFILE_HEADER), ediRequest);
+        Mono<EdiResponse> response = Mono.fromCallable(() -> {
+            try (RequestLogSampler.Scope scope = sampling.open()) {
+                if (fault != null && fault.action() == FaultPlan.Action.ERROR) {
+                    return ediProcessorService.buildInjectedErrorResponse(ediRequest);
+                }
+                EdiResponse body = ediProcessorService.processRequest(ediRequest);
+                log.info("Successfully processed EDI request for UUID: {}", ediRequest.getUuid());
+                return body;
+            }
+        }).subscribeOn(Schedulers.boundedElastic());
+        if (fault != null) {
+            log.info("Fault profile {} - {} after {} ms for UUID: {}",
+                    fault.profile(), fault.action(), fault.delayMillis(), ediRequest.getUuid());
+            return faultResponse(request, fault, responseType, response);
+        }
+        return response.flatMap(body -> ServerResponse.ok().contentType(responseType).bodyValue(body));
+    }
+
+    private Mono<ServerResponse> toServerResponse(ForwardedResponse forwarded) {
+        ServerResponse.BodyBuilder builder = ServerResponse.status(forwarded.status())
+                .header(ClusterService.NODE_HEADER, forwarded.node());
+        if (forwarded.contentType() == null || forwarded.body().length == 0) {
+            return builder.build();
+        }
+        return builder.contentType(MediaType.parseMediaType(forwarded.contentType())).bodyValue(forwarded.body());
+    }
+
+    /**
+     * Deliver a /process response under a fault plan. Delays and drip pauses are Reactor timers, so
+     * held responses occupy no thread.
+     */
+    private Mono<ServerResponse> faultResponse(ServerRequest request, FaultPlan fault, MediaType responseType,
+                                               Mono<EdiResponse> response) {
+        Mono<EdiResponse> delayed = response.delayElement(Duration.ofMillis(fault.delayMillis()));
+        return switch (fault.action()) {
+            case RESPOND -> delayed.flatMap(body -> ServerResponse.ok().contentType(responseType).bodyValue(body));
+            case ERROR -> delayed.flatMap(body -> ServerResponse.status(fault.errorStatus())
+                    .contentType(responseType).bodyValue(body));
+            case DRIP -> delayed.map(body -> encode(body, responseType)).flatMap(bytes -> {
+                int chunks = (bytes.length + fault.dripChunkBytes() - 1) / fault.dripChunkBytes();
+                Flux<byte[]> body = Flux.range(0, chunks).concatMap(i -> {
+                    byte[] chunk = Arrays.copyOfRange(bytes, i * fault.dripChunkBytes(),
+                            Math.min(bytes.length, (i + 1) * fault.dripChunkBytes()));
+                    return i == 0 ? Mono.just(chunk)
+                            : Mono.just(chunk).delayElement(Duration.ofMillis(fault.dripIntervalMillis()));
+                });
+                return ServerResponse.ok().contentType(responseType).contentLength(bytes.length)
+                        .body(body, byte[].class);
+            });
+            case TRUNCATE -> delayed.map(body -> encode(body, responseType)).flatMap(bytes -> {
+                // Half the body, then an abortive close once it has been flushed
+                Flux<byte[]> body = Flux.just(Arrays.copyOf(bytes, bytes.length / 2))
+                        .concatWith(Mono.<byte[]>fromRunnable(() -> resetConnection(request))
+                                .delaySubscription(Duration.ofMillis(fault.dripIntervalMillis())));
+                return ServerResponse.ok().contentType(responseType).contentLength(bytes.length)
+                        .body(body, byte[].class);
+            });
+        };
+    }
+
+    private byte[] encode(EdiResponse response, MediaType type) {
+        ObjectMapper mapper = type.equals(PRODUCIBLE_MEDIA_TYPES.get(1)) ? smileMapper
+                : type.equals(PRODUCIBLE_MEDIA_TYPES.get(2)) ? cborMapper : jsonMapper;
+        try {
+            return mapper.writeValueAsBytes(response);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Close the connection with SO_LINGER 0 so the client sees a TCP reset rather than a clean close
+     */
+    private static void resetConnection(ServerRequest request) {
+        Object nativeResponse = ServerHttpResponseDecorator.getNativeResponse(request.exchange().getResponse());
+        if (!(nativeResponse instanceof Connection connection)) {
+            throw new IllegalStateException("Injected connection reset");
+        }
+        Channel channel = connection.channel();
+        channel.config().setOption(ChannelOption.SO_LINGER, 0);
+        channel.close();
+    }
+
+    /**
+     * Queue an EDI request for asynchronous processing
+     */
+    public Mono<ServerResponse> submitJob(ServerRequest request) {
+        MediaType responseType = selectResponseType(request);
+        return request.bodyToMono(EdiRequest.class)
+                .flatMap(ediRequest -> {
+                    EdiJob job = jobScheduler.submit(ediRequest);
+                    return ServerResponse.accepted()
+                            .location(URI.create("/api/v1/edi/jobs/" + job.getJobId()))
+                            .contentType(responseType)
+                            .bodyValue(job);
+                })
+                .switchIfEmpty(Mono.defer(() -> toServerResponse(responseType,
+                        exceptionHandler.toErrorResponse(new IllegalArgumentException("Request cannot be null")))))
+                .onErrorResume(ex -> toServerResponse(responseType, exceptionHandler.toErrorResponse(ex)));
+    }
+
+    /**
+     * Job status, with the /process response once completed
+     */
+    public Mono<ServerResponse> getJob(ServerRequest request) {
+        EdiJob job = jobScheduler.getJob(request.pathVariable("jobId"));
+        if (job == null) {
+            return ServerResponse.notFound().build();
+        }
+        return ServerResponse.ok().contentType(selectResponseType(request)).bodyValue(job);
+    }
+
+    /**
+     * Cancel a queued job; 409 Conflict with its status once it is running or finished
+     */
+    public Mono<ServerResponse> cancelJob(ServerRequest request) {
+        EdiJob job = jobScheduler.cancel(request.pathVariable("jobId"));
+        if (job == null) {
+            return ServerResponse.notFound().build();
+        }
+        return ServerResponse.status(job.getStatus() == JobStatus.CANCELLED ? HttpStatus.OK : HttpStatus.CONFLICT)
+                .contentType(selectResponseType(request))
+                .bodyValue(job);
+    }
+
+    /**
+     * Catalog item by SKU
+     */
+    public Mono<ServerResponse> getCatalogItem(ServerRequest request) {
+        String sku = request.pathVariable("sku");
+        return jsonOrNotFound(blocking(() -> itemCatalog.findBySku(sku)));
+    }
+
+    /**
+     * Catalog item by UPC/GTIN
+     */
+    public Mono<ServerResponse> getCatalogItemByUpc(ServerRequest request) {
+        return request.queryParam("upc")
+                .map(upc -> jsonOrNotFound(blocking(() -> itemCatalog.findByUpc(upc))))
+                .orElseGet(() -> ServerResponse.badRequest().build());
+    }
+
+    /**
+     * Whole catalog as newline-delimited JSON; the catalog is read on the bounded-elastic scheduler
+     */
+    public Mono<ServerResponse> exportCatalog(ServerRequest request) {
+        Flux<CatalogItem> items = Flux.<CatalogItem>create(sink -> {
+            itemCatalog.forEach(sink::next);
+            sink.complete();
+        }).subscribeOn(Schedulers.boundedElastic());
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_NDJSON).body(items, CatalogItem.class);
+    }
+
+    /**
+     * Item count and off-heap memory use
+     */
+    public Mono<ServerResponse> catalogStats(ServerRequest request) {
+        return jsonOrNotFound(blocking(itemCatalog::getStats));
+    }
+
+    /**
+     * Open order awaiting its ship confirmation
+     */
+    public Mono<ServerResponse> getOpenOrder(ServerRequest request) {
+        String orderId = request.pathVariable("orderId");
+        return jsonOrNotFound(blocking(() -> reconciliation.getOpenDocument(DocumentKind.ORDER, orderId)));
+    }
+
+    /**
+     * Open ASN awaiting its receipt
+     */
+    public Mono<ServerResponse> getOpenAsn(ServerRequest request) {
+        String asnNumber = request.pathVariable("asnNumber");
+        return jsonOrNotFound(blocking(() -> reconciliation.getOpenDocument(DocumentKind.ASN, asnNumber)));
+    }
+
+    /**
+     * Match a SHIPCONFIRM against the open order and close it
+     */
+    public Mono<ServerResponse> reconcileShipConfirm(ServerRequest request) {
+        return reconcile(request, DocumentKind.ORDER, request.pathVariable("orderId"));
+    }
+
+    /**
+     * Match a RECEIPT against the open ASN and close it
+     */
+    public Mono<ServerResponse> reconcileReceipt(ServerRequest request) {
+        return reconcile(request, DocumentKind.ASN, request.pathVariable("asnNumber"));
+    }
+
+    private Mono<ServerResponse> reconcile(ServerRequest request, DocumentKind kind, String key) {
+        return request.bodyToMono(byte[].class)
+                .defaultIfEmpty(new byte[0])
+                .flatMap(document -> blocking(() -> reconciliation.reconcile(kind, key, document)))
+                .flatMap(result -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(result))
+                .onErrorResume(ex -> toServerResponse(MediaType.APPLICATION_JSON, exceptionHandler.toErrorResponse(ex)));
+    }
+
+    /**
+     * Catalog lookups wait on the catalog lock during compaction and reconciliation parses whole
+     * documents, so both run on the bounded-elastic scheduler like /process. A null result completes empty.
+     */
+    private static <T> Mono<T> blocking(Callable<T> work) {
+        return Mono.fromCallable(work).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private static Mono<ServerResponse> jsonOrNotFound(Mono<?> body) {
+        return body.flatMap(value -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(value))
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build()));
+    }
+
+    /**
+     * Documents carrying the given identifier or UUID; segment files are read on the bounded-elastic scheduler
+     */
+    public Mono<ServerResponse> search(ServerRequest request) {
+        return Mono.fromCallable(() -> documentIndex.search(request.queryParam("q").orElse(null),
+                        request.queryParam("type").orElse(null),
+                        request.queryParam("limit").map(Integer::parseInt).orElse(100)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(documents -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(documents))
+                .onErrorResume(ex -> toServerResponse(MediaType.APPLICATION_JSON, exceptionHandler.toErrorResponse(ex)));
+    }
+
+    /**
+     * GETSCHEMA content for a response type, with an ETag; 304 when If-None-Match still matches
+     */
+    public Mono<ServerResponse> getSchema(ServerRequest request) {
+        SchemaService.SchemaDocument schema;
+        try {
+            schema = schemaService.getSchema(request.pathVariable("responseType"),
+                    request.pathVariables().get("orderType"), request.queryParam("format").orElse(null));
+        } catch (IllegalArgumentException ex) {
+            return toServerResponse(MediaType.APPLICATION_JSON, exceptionHandler.toErrorResponse(ex));
+        }
+        if (SchemaService.isNotModified(schema, request.headers().firstHeader(HttpHeaders.IF_NONE_MATCH))) {
+            return ServerResponse.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(schema.etag())
+                    .cacheControl(schemaService.getCacheControl())
+                    .build();
+        }
+        return ServerResponse.ok()
+                .eTag(schema.etag())
+                .lastModified(schema.lastModified())
+                .cacheControl(schemaService.getCacheControl())
+                .contentType(schema.contentType())
+                .bodyValue(schema.body());
+    }
+
+    /**
+     * Configured and live cluster nodes, and the share of keys each live node owns
+     */
+    public Mono<ServerResponse> clusterStatus(ServerRequest request) {
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(cluster.getStatus());
+    }
+
+    /**
+     * Node that owns a shard key, such as {@code partner:WALMART} or {@code uuid:abc-123}
+     */
+    public Mono<ServerResponse> clusterOwner(ServerRequest request) {
+        String key = request.queryParam("key").orElse(null);
+        if (key == null) {
+            return toServerResponse(MediaType.APPLICATION_JSON,
+                    exceptionHandler.toErrorResponse(new IllegalArgumentException("key is required")));
+        }
+        String owner = cluster.ownerOf(key);
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(owner != null ? Map.of("key", key, "owner", owner) : Map.of("key", key));
+    }
+
+    /**
+     * Health check endpoint
+     */
+    public Mono<ServerResponse> health(ServerRequest request) {
+        return ServerResponse.ok().contentType(MediaType.TEXT_PLAIN).bodyValue("EDI Processor Service is running");
+    }
+
+    /**
+     * Readiness: 503 until the startup JIT warmup has finished, with its progress or outcome
+     */
+    public Mono<ServerResponse> readiness(ServerRequest request) {
+        WarmupReport report = warmupService.getReport();
+        return ServerResponse.status(report.isReady() ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(report);
+    }
+
+    /**
+     * First producible type (JSON, Smile, CBOR) matching the Accept header, in the caller's order
+     */
+    private static MediaType selectResponseType(ServerRequest request) {
+        for (MediaType accepted : request.headers().accept()) {
+            for (MediaType producible : PRODUCIBLE_MEDIA_TYPES) {
+                if (accepted.isCompatibleWith(producible)) {
+                    return producible;
+                }
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    private static Mono<ServerResponse> toServerResponse(MediaType responseType, ResponseEntity<EdiResponse> entity) {
+        return ServerResponse.status(entity.getStatusCode())
+                .headers(headers -> headers.addAll(entity.getHeaders()))
+                .contentType(responseType)
+                .bodyValue(entity.getBody());
+    }
+}
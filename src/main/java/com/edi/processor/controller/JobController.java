@@ -0,0 +1,69 @@
+package com.edi.processor.controller;
+
+import com.edi.processor.config.BinaryFormatsConfig;
+import com.edi.processor.model.job.EdiJob;
+import com.edi.processor.model.job.JobStatus;
+import com.edi.processor.model.request.EdiRequest;
+import com.edi.processor.service.JobSchedulerService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+
+@RestController
+@RequestMapping("/api/v1/edi/jobs")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class JobController {
+
+    private final JobSchedulerService jobScheduler;
+
+    public JobController(JobSchedulerService jobScheduler) {
+        this.jobScheduler = jobScheduler;
+    }
+
+    /**
+     * Queue an EDI request for asynchronous processing
+     *
+     * @param ediRequest The incoming EDI request, as for /process
+     * @return 202 Accepted with the queued job and its status URL
+     */
+    @PostMapping(consumes = {MediaType.APPLICATION_JSON_VALUE, BinaryFormatsConfig.APPLICATION_SMILE_VALUE,
+                         BinaryFormatsConfig.APPLICATION_CBOR_VALUE},
+                 produces = {MediaType.APPLICATION_JSON_VALUE, BinaryFormatsConfig.APPLICATION_SMILE_VALUE,
+                         BinaryFormatsConfig.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<EdiJob> submitJob(@RequestBody EdiRequest ediRequest) {
+        EdiJob job = jobScheduler.submit(ediRequest);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/edi/jobs/" + job.getJobId()))
+                .body(job);
+    }
+
+    /**
+     * Job status, with the /process response once completed
+     */
+    @GetMapping(value = "/{jobId}",
+                produces = {MediaType.APPLICATION_JSON_VALUE, BinaryFormatsConfig.APPLICATION_SMILE_VALUE,
+                        BinaryFormatsConfig.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<EdiJob> getJob(@PathVariable String jobId) {
+        EdiJob job = jobScheduler.getJob(jobId);
+        return job != null ? ResponseEntity.ok(job) : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Cancel a queued job; 409 Conflict with its status once it is running or finished
+     */
+    @DeleteMapping(value = "/{jobId}",
+                   produces = {MediaType.APPLICATION_JSON_VALUE, BinaryFormatsConfig.APPLICATION_SMILE_VALUE,
+                           BinaryFormatsConfig.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<EdiJob> cancelJob(@PathVariable String jobId) {
+        EdiJob job = jobScheduler.cancel(jobId);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.status(job.getStatus() == JobStatus.CANCELLED ? HttpStatus.OK : HttpStatus.CONFLICT)
+                .body(job);
+    }
+}
@@ -0,0 +1,59 @@
+package com.edi.processor.controller;
+
+import com.edi.processor.model.reconciliation.ReconciliationResult;
+import com.edi.processor.reconciliation.DocumentKind;
+import com.edi.processor.reconciliation.OpenDocument;
+import com.edi.processor.service.ReconciliationService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/edi/reconciliation")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ReconciliationController {
+
+    private final ReconciliationService reconciliation;
+
+    public ReconciliationController(ReconciliationService reconciliation) {
+        this.reconciliation = reconciliation;
+    }
+
+    /**
+     * Open order awaiting its ship confirmation
+     */
+    @GetMapping(value = "/orders/{orderId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<OpenDocument> getOpenOrder(@PathVariable String orderId) {
+        return openDocument(DocumentKind.ORDER, orderId);
+    }
+
+    /**
+     * Open ASN awaiting its receipt
+     */
+    @GetMapping(value = "/asns/{asnNumber}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<OpenDocument> getOpenAsn(@PathVariable String asnNumber) {
+        return openDocument(DocumentKind.ASN, asnNumber);
+    }
+
+    /**
+     * Match a SHIPCONFIRM (X12 856, EDIFACT DESADV or JSON) against the open order and close it
+     */
+    @PostMapping(value = "/orders/{orderId}/shipconfirm", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ReconciliationResult reconcileShipConfirm(@PathVariable String orderId, @RequestBody byte[] document) {
+        return reconciliation.reconcile(DocumentKind.ORDER, orderId, document);
+    }
+
+    /**
+     * Match a RECEIPT (X12 944, EDIFACT RECADV or JSON) against the open ASN and close it
+     */
+    @PostMapping(value = "/asns/{asnNumber}/receipt", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ReconciliationResult reconcileReceipt(@PathVariable String asnNumber, @RequestBody byte[] document) {
+        return reconciliation.reconcile(DocumentKind.ASN, asnNumber, document);
+    }
+
+    private ResponseEntity<OpenDocument> openDocument(DocumentKind kind, String key) {
+        OpenDocument document = reconciliation.getOpenDocument(kind, key);
+        return document != null ? ResponseEntity.ok(document) : ResponseEntity.notFound().build();
+    }
+}
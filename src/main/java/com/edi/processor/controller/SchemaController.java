@@ -0,0 +1,43 @@
+package com.edi.processor.controller;
+
+import com.edi.processor.service.SchemaService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/edi/schemas")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class SchemaController {
+
+    private final SchemaService schemaService;
+
+    public SchemaController(SchemaService schemaService) {
+        this.schemaService = schemaService;
+    }
+
+    /**
+     * GETSCHEMA content for a response type, with an ETag; 304 when If-None-Match still matches
+     */
+    @GetMapping({"/{responseType}", "/{responseType}/{orderType}"})
+    public ResponseEntity<byte[]> getSchema(@PathVariable String responseType,
+                                            @PathVariable(required = false) String orderType,
+                                            @RequestParam(required = false) String format,
+                                            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        SchemaService.SchemaDocument schema = schemaService.getSchema(responseType, orderType, format);
+        if (SchemaService.isNotModified(schema, ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(schema.etag())
+                    .cacheControl(schemaService.getCacheControl())
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(schema.etag())
+                .lastModified(schema.lastModified())
+                .cacheControl(schemaService.getCacheControl())
+                .contentType(schema.contentType())
+                .body(schema.body());
+    }
+}
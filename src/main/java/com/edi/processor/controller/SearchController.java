@@ -0,0 +1,32 @@
+package com.edi.processor.controller;
+
+import com.edi.processor.model.search.IndexedDocument;
+import com.edi.processor.service.DocumentIndexService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/edi/search")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class SearchController {
+
+    private final DocumentIndexService documentIndex;
+
+    public SearchController(DocumentIndexService documentIndex) {
+        this.documentIndex = documentIndex;
+    }
+
+    /**
+     * Documents carrying the given PO, order, ASN, BOL, PRO or tracking number or UUID, newest first
+     */
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<IndexedDocument> search(@RequestParam("q") String term,
+                                        @RequestParam(required = false) String type,
+                                        @RequestParam(defaultValue = "100") int limit) throws IOException {
+        return documentIndex.search(term, type, limit);
+    }
+}
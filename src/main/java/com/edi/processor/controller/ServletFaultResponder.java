@@ -0,0 +1,179 @@
+package com.edi.processor.controller;
+
+import com.edi.processor.config.BinaryFormatsConfig;
+import com.edi.processor.fault.FaultPlan;
+import com.edi.processor.model.response.EdiResponse;
+import com.edi.processor.service.FaultInjectionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes /process responses under a {@link FaultPlan} on the servlet stack. The request is put in
+ * async mode and its thread released, and the body is written with non-blocking output
+ * ({@link WriteListener}): the fault scheduler only starts the response once the delay has passed and
+ * resumes a drip after each pause, and writes only while {@link ServletOutputStream#isReady()}, so a
+ * slow client leaves the rest to the container's write callback instead of blocking a scheduler
+ * thread. Held responses cost a timer entry rather than a Tomcat thread.
+ *
+ * A {@link FaultPlan.Action#TRUNCATE} response stops after half its declared {@code Content-Length}
+ * and closes the connection in order ({@code Connection: close}); the servlet API offers no abortive
+ * close, so unlike the reactive stack the client sees an early end of stream rather than a TCP reset.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ServletFaultResponder {
+
+    private static final Logger log = LoggerFactory.getLogger(ServletFaultResponder.class);
+
+    private static final MediaType SMILE = MediaType.parseMediaType(BinaryFormatsConfig.APPLICATION_SMILE_VALUE);
+    private static final MediaType CBOR = MediaType.parseMediaType(BinaryFormatsConfig.APPLICATION_CBOR_VALUE);
+
+    private final ScheduledExecutorService scheduler;
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper smileMapper;
+    private final ObjectMapper cborMapper;
+
+    public ServletFaultResponder(FaultInjectionService faultInjection, ObjectMapper objectMapper) {
+        this.scheduler = faultInjection.getScheduler();
+        this.jsonMapper = objectMapper;
+        this.smileMapper = BinaryFormatsConfig.smileMapper(objectMapper);
+        this.cborMapper = BinaryFormatsConfig.cborMapper(objectMapper);
+    }
+
+    /**
+     * Start async processing and schedule the response; the handler must not write anything itself
+     */
+    public void respond(FaultPlan plan, EdiResponse response, HttpServletRequest request) throws IOException {
+        MediaType type = selectResponseType(request.getHeader(HttpHeaders.ACCEPT));
+        ObjectMapper mapper = SMILE.equals(type) ? smileMapper : CBOR.equals(type) ? cborMapper : jsonMapper;
+        byte[] body = mapper.writeValueAsBytes(response);
+
+        AsyncContext async = request.startAsync();
+        async.setTimeout(0);
+        HttpServletResponse servletResponse = (HttpServletResponse) async.getResponse();
+        servletResponse.setStatus(plan.action() == FaultPlan.Action.ERROR
+                ? plan.errorStatus() : HttpServletResponse.SC_OK);
+        servletResponse.setContentType(type.toString());
+        servletResponse.setContentLength(body.length);
+        if (plan.action() == FaultPlan.Action.TRUNCATE) {
+            servletResponse.setHeader(HttpHeaders.CONNECTION, "close");
+        }
+        ServletOutputStream out = servletResponse.getOutputStream();
+        FaultWriter writer = new FaultWriter(plan, body, async, out);
+        out.setWriteListener(writer);
+        scheduler.schedule(writer::resume, plan.delayMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Writes one response as the plan says. Writing happens on whichever thread finds the stream ready:
+     * the container's {@link #onWritePossible()} callback or the scheduler resuming after a pause.
+     */
+    private final class FaultWriter implements WriteListener {
+        private final FaultPlan plan;
+        private final byte[] body;
+        private final AsyncContext async;
+        private final ServletOutputStream out;
+        private final int end;
+        private final int chunkBytes;
+        private int offset;
+        private boolean paused = true;
+        private boolean flushPending;
+        private boolean finished;
+
+        FaultWriter(FaultPlan plan, byte[] body, AsyncContext async, ServletOutputStream out) {
+            this.plan = plan;
+            this.body = body;
+            this.async = async;
+            this.out = out;
+            this.end = plan.action() == FaultPlan.Action.TRUNCATE ? body.length / 2 : body.length;
+            this.chunkBytes = plan.action() == FaultPlan.Action.DRIP ? plan.dripChunkBytes() : Math.max(1, end);
+        }
+
+        @Override
+        public synchronized void onWritePossible() throws IOException {
+            write();
+        }
+
+        @Override
+        public synchronized void onError(Throwable t) {
+            abandon(t);
+        }
+
+        /**
+         * Delay or drip pause over
+         */
+        synchronized void resume() {
+            paused = false;
+            try {
+                write();
+            } catch (IOException | RuntimeException e) {
+                abandon(e);
+            }
+        }
+
+        private void write() throws IOException {
+            while (!paused && !finished && out.isReady()) {
+                if (flushPending) {
+                    out.flush();
+                    flushPending = false;
+                    if (plan.action() == FaultPlan.Action.DRIP && offset < end) {
+                        paused = true;
+                        scheduler.schedule(this::resume, plan.dripIntervalMillis(), TimeUnit.MILLISECONDS);
+                    }
+                } else if (offset < end) {
+                    int length = Math.min(chunkBytes, end - offset);
+                    out.write(body, offset, length);
+                    offset += length;
+                    flushPending = true;
+                } else {
+                    finished = true;
+                    async.complete();
+                }
+            }
+        }
+
+        private void abandon(Throwable cause) {
+            if (!finished) {
+                finished = true;
+                log.debug("Fault response ({}) abandoned at byte {}: {}", plan.action(), offset, cause.getMessage());
+                async.complete();
+            }
+        }
+    }
+
+    /**
+     * First producible type (JSON, Smile, CBOR) matching the Accept header, in the caller's order
+     */
+    private static MediaType selectResponseType(String accept) {
+        if (accept != null && !accept.isBlank()) {
+            try {
+                for (MediaType accepted : MediaType.parseMediaTypes(accept)) {
+                    for (MediaType producible : List.of(MediaType.APPLICATION_JSON, SMILE, CBOR)) {
+                        if (accepted.isCompatibleWith(producible)) {
+                            return producible;
+                        }
+                    }
+                }
+            } catch (InvalidMediaTypeException e) {
+                // Fall back to JSON like the regular response path
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+}
@@ -0,0 +1,120 @@
+package com.edi.processor.duplicate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * One rotation period of seen interchange keys: an in-memory scalable Bloom filter in front of an
+ * exact on-disk set. The disk set is split into append-only bucket files by key hash, so a filter
+ * hit reads a single small file.
+ */
+public class InterchangeGeneration {
+
+    public static final int BUCKETS = 256;
+
+    private final long startedAt;
+    private final Path directory;
+    private final ScalableBloomFilter filter;
+
+    private InterchangeGeneration(long startedAt, Path directory, ScalableBloomFilter filter) {
+        this.startedAt = startedAt;
+        this.directory = directory;
+        this.filter = filter;
+    }
+
+    public static InterchangeGeneration create(Path directory, long startedAt, long expectedKeys,
+                                              double falsePositiveRate) throws IOException {
+        Files.createDirectories(directory);
+        return new InterchangeGeneration(startedAt, directory, new ScalableBloomFilter(expectedKeys, falsePositiveRate));
+    }
+
+    /**
+     * Reopen a generation written by an earlier run and rebuild its filter from the bucket files
+     */
+    public static InterchangeGeneration load(Path directory, long startedAt, long expectedKeys,
+                                            double falsePositiveRate) throws IOException {
+        InterchangeGeneration generation = create(directory, startedAt, expectedKeys, falsePositiveRate);
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            Path file = generation.bucketFile(bucket);
+            if (!Files.exists(file)) {
+                continue;
+            }
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.isEmpty()) {
+                        KeyHash hash = KeyHash.of(line);
+                        generation.filter.add(hash.hash1, hash.hash2);
+                    }
+                }
+            }
+        }
+        return generation;
+    }
+
+    public static int bucketOf(KeyHash hash) {
+        return (int) (hash.hash1 >>> 56) & (BUCKETS - 1);
+    }
+
+    /**
+     * Exact membership check; only touches disk when the filter reports a possible match. Appends
+     * are not locked against reads, so a final line without its newline is still being written and
+     * is skipped.
+     */
+    public boolean contains(String key, KeyHash hash) throws IOException {
+        if (!filter.mightContain(hash.hash1, hash.hash2)) {
+            return false;
+        }
+        Path file = bucketFile(bucketOf(hash));
+        if (!Files.exists(file)) {
+            return false;
+        }
+        byte[] wanted = key.getBytes(StandardCharsets.UTF_8);
+        byte[] keys = Files.readAllBytes(file);
+        int start = 0;
+        for (int end = 0; end < keys.length; end++) {
+            if (keys[end] == '\n') {
+                if (Arrays.equals(keys, start, end, wanted, 0, wanted.length)) {
+                    return true;
+                }
+                start = end + 1;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Append a key as a single write, so concurrent appends to one bucket do not interleave
+     */
+    public void add(String key, KeyHash hash) throws IOException {
+        byte[] line = (key + "\n").getBytes(StandardCharsets.UTF_8);
+        try (FileChannel channel = FileChannel.open(bucketFile(bucketOf(hash)),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(line));
+        }
+        filter.add(hash.hash1, hash.hash2);
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public long size() {
+        return filter.size();
+    }
+
+    private Path bucketFile(int bucket) {
+        return directory.resolve(String.format("bucket-%03d.keys", bucket));
+    }
+}
@@ -0,0 +1,43 @@
+package com.edi.processor.duplicate;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Two independent 64-bit hashes of a key (FNV-1a and a seeded variant, each passed through the
+ * MurmurHash3 finalizer), used for Bloom filter double hashing and bucket selection.
+ */
+public final class KeyHash {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final long SEED = 0x9e3779b97f4a7c15L;
+
+    public final long hash1;
+    public final long hash2;
+
+    private KeyHash(long hash1, long hash2) {
+        this.hash1 = hash1;
+        this.hash2 = hash2;
+    }
+
+    public static KeyHash of(String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        long h1 = FNV_OFFSET;
+        long h2 = FNV_OFFSET ^ SEED;
+        for (byte b : bytes) {
+            h1 = (h1 ^ (b & 0xff)) * FNV_PRIME;
+            h2 = (h2 ^ (b & 0xff)) * FNV_PRIME + SEED;
+        }
+        // Odd second hash so double hashing visits distinct bits
+        return new KeyHash(mix(h1), mix(h2) | 1L);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
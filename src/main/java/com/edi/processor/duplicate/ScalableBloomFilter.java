@@ -0,0 +1,68 @@
+package com.edi.processor.duplicate;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bloom filter that grows by chaining filters of doubling capacity with tightening error rates
+ * (Almeida et al.), keeping the compound false-positive rate under the configured bound however
+ * many keys arrive.
+ */
+public class ScalableBloomFilter {
+
+    private static final double TIGHTENING_RATIO = 0.5;
+
+    private final CopyOnWriteArrayList<BloomFilter> filters = new CopyOnWriteArrayList<>();
+    private final ReentrantLock growLock = new ReentrantLock();
+    private final long initialCapacity;
+    private final double falsePositiveRate;
+
+    public ScalableBloomFilter(long initialCapacity, double falsePositiveRate) {
+        this.initialCapacity = initialCapacity;
+        this.falsePositiveRate = falsePositiveRate;
+        filters.add(new BloomFilter(initialCapacity, falsePositiveRate * (1 - TIGHTENING_RATIO)));
+    }
+
+    public void add(long hash1, long hash2) {
+        BloomFilter current = filters.get(filters.size() - 1);
+        if (current.isFull()) {
+            current = grow(current);
+        }
+        current.add(hash1, hash2);
+    }
+
+    public boolean mightContain(long hash1, long hash2) {
+        for (BloomFilter filter : filters) {
+            if (filter.mightContain(hash1, hash2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public long size() {
+        long size = 0;
+        for (BloomFilter filter : filters) {
+            size += filter.size();
+        }
+        return size;
+    }
+
+    private BloomFilter grow(BloomFilter full) {
+        growLock.lock();
+        try {
+            BloomFilter last = filters.get(filters.size() - 1);
+            if (last != full) {
+                return last;
+            }
+            int level = filters.size();
+            long capacity = initialCapacity << Math.min(level, 20);
+            double rate = falsePositiveRate * (1 - TIGHTENING_RATIO) * Math.pow(TIGHTENING_RATIO, level);
+            BloomFilter next = new BloomFilter(capacity, rate);
+            filters.add(next);
+            return next;
+        } finally {
+            growLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.edi.processor.exception;
+
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+
+/**
+ * Thrown while reading a compressed request body: an unsupported Content-Encoding (415), malformed
+ * or truncated compressed data (400), or a body that expands past the decompression limits (413).
+ * An IOException, so it passes through the body stream and the JSON parser unchanged.
+ */
+public class ContentEncodingException extends IOException {
+
+    private final HttpStatus status;
+
+    public ContentEncodingException(HttpStatus status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public ContentEncodingException(HttpStatus status, String message, Throwable cause) {
+        super(message, cause);
+        this.status = status;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+}
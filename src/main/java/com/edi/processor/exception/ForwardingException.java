@@ -0,0 +1,11 @@
+package com.edi.processor.exception;
+
+/**
+ * Thrown when a request owned by another cluster node could not be forwarded to it
+ */
+public class ForwardingException extends RuntimeException {
+
+    public ForwardingException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -4,8 +4,10 @@ import com.edi.processor.model.response.EdiResponse;
 import com.edi.processor.model.response.ResponseItem;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.context.request.WebRequest;
@@ -97,6 +99,92 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(JobRejectedException.class)
+    public ResponseEntity<EdiResponse> handleJobRejectedException(
+            JobRejectedException ex, WebRequest request) {
+
+        log.warn("Job Rejected: {}", ex.getMessage());
+
+        String uniqueId = UUID.randomUUID().toString().substring(0, 8);
+        String filename = "UNKNOWN_UNKNOWN_ERROR_" + uniqueId + ".txt";
+
+        ResponseItem errorItem = ResponseItem.builder()
+                .success(false)
+                .filename(filename)
+                .content(ERROR_MESSAGE)
+                .mimeType(ERROR_MIME_TYPE)
+                .message(ex.getMessage())
+                .build();
+
+        EdiResponse response = EdiResponse.builder()
+                .response(Collections.singletonList(errorItem))
+                .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(response);
+    }
+
+    @ExceptionHandler(ForwardingException.class)
+    public ResponseEntity<EdiResponse> handleForwardingException(
+            ForwardingException ex, WebRequest request) {
+
+        log.error("Forwarding Exception: {}", ex.getMessage());
+
+        String uniqueId = UUID.randomUUID().toString().substring(0, 8);
+        String filename = "UNKNOWN_UNKNOWN_ERROR_" + uniqueId + ".txt";
+
+        ResponseItem errorItem = ResponseItem.builder()
+                .success(false)
+                .filename(filename)
+                .content(ERROR_MESSAGE)
+                .mimeType(ERROR_MIME_TYPE)
+                .message(ex.getMessage())
+                .build();
+
+        EdiResponse response = EdiResponse.builder()
+                .response(Collections.singletonList(errorItem))
+                .build();
+
+        return new ResponseEntity<>(response, HttpStatus.BAD_GATEWAY);
+    }
+
+    @ExceptionHandler(ContentEncodingException.class)
+    public ResponseEntity<EdiResponse> handleContentEncodingException(
+            ContentEncodingException ex, WebRequest request) {
+
+        log.warn("Content Encoding Exception: {}", ex.getMessage());
+
+        String uniqueId = UUID.randomUUID().toString().substring(0, 8);
+        String filename = "UNKNOWN_UNKNOWN_ERROR_" + uniqueId + ".txt";
+
+        ResponseItem errorItem = ResponseItem.builder()
+                .success(false)
+                .filename(filename)
+                .content(ERROR_MESSAGE)
+                .mimeType(ERROR_MIME_TYPE)
+                .message(ex.getMessage())
+                .build();
+
+        EdiResponse response = EdiResponse.builder()
+                .response(Collections.singletonList(errorItem))
+                .build();
+
+        return new ResponseEntity<>(response, ex.getStatus());
+    }
+
+    // Spring MVC wraps I/O errors from the body stream, such as a failed decompression
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<EdiResponse> handleHttpMessageNotReadableException(
+            HttpMessageNotReadableException ex, WebRequest request) {
+
+        ContentEncodingException contentEncodingException = findContentEncodingException(ex);
+        if (contentEncodingException != null) {
+            return handleContentEncodingException(contentEncodingException, request);
+        }
+        return handleGenericException(ex, request);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<EdiResponse> handleGenericException(
             Exception ex, WebRequest request) {
@@ -121,6 +209,45 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    /**
+     * Map an exception to the response the matching handler above produces. Used by the
+     * reactive router, which does not go through Spring MVC exception resolution.
+     */
+    public ResponseEntity<EdiResponse> toErrorResponse(Throwable ex) {
+        ContentEncodingException contentEncodingException = findContentEncodingException(ex);
+        if (contentEncodingException != null) {
+            return handleContentEncodingException(contentEncodingException, null);
+        }
+        if (ex instanceof EdiProcessingException ediProcessingException) {
+            return handleEdiProcessingException(ediProcessingException, null);
+        }
+        if (ex instanceof IllegalArgumentException illegalArgumentException) {
+            return handleIllegalArgumentException(illegalArgumentException, null);
+        }
+        if (ex instanceof JobRejectedException jobRejectedException) {
+            return handleJobRejectedException(jobRejectedException, null);
+        }
+        if (ex instanceof ForwardingException forwardingException) {
+            return handleForwardingException(forwardingException, null);
+        }
+        if (ex instanceof NullPointerException nullPointerException) {
+            return handleNullPointerException(nullPointerException, null);
+        }
+        if (ex instanceof Exception exception) {
+            return handleGenericException(exception, null);
+        }
+        return handleGenericException(new IllegalStateException(ex), null);
+    }
+
+    private static ContentEncodingException findContentEncodingException(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ContentEncodingException contentEncodingException) {
+                return contentEncodingException;
+            }
+        }
+        return null;
+    }
+
     private String buildErrorFilename(String transactionType, String responseType, 
                                        String uuid, String format) {
         String txnType = transactionType != null ? transactionType : "UNKNOWN";
@@ -0,0 +1,11 @@
+package com.edi.processor.exception;
+
+/**
+ * Thrown when the job queue is at capacity
+ */
+public class JobRejectedException extends RuntimeException {
+
+    public JobRejectedException(String message) {
+        super(message);
+    }
+}
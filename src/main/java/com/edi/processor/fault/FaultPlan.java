@@ -0,0 +1,30 @@
+package com.edi.processor.fault;
+
+/**
+ * What to do with one request under a {@link FaultProfile}: how long to hold the response and how to
+ * deliver it.
+ *
+ * @param profile            name of the profile the plan was drawn from
+ * @param action             how the response is delivered
+ * @param delayMillis        latency added before the first byte is written
+ * @param errorStatus        HTTP status of an {@link Action#ERROR} response
+ * @param dripChunkBytes     bytes written per chunk by {@link Action#DRIP}
+ * @param dripIntervalMillis pause between {@link Action#DRIP} chunks
+ */
+public record FaultPlan(String profile, Action action, long delayMillis, int errorStatus,
+                        int dripChunkBytes, long dripIntervalMillis) {
+
+    public enum Action {
+        /** Normal response, after the delay */
+        RESPOND,
+        /** ERRORRESPONSE body with the profile's error status */
+        ERROR,
+        /** Response body written in small chunks with a pause between them */
+        DRIP,
+        /**
+         * Connection closed after half the response body, short of its declared length: abortively
+         * (TCP RST) on the reactive stack, with an orderly close on the servlet stack
+         */
+        TRUNCATE
+    }
+}
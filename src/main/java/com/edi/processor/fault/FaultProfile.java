@@ -0,0 +1,197 @@
+package com.edi.processor.fault;
+
+import java.util.Locale;
+import java.util.random.RandomGenerator;
+
+/**
+ * A named latency and failure mix used when the service stands in for a trading partner in
+ * performance tests.
+ *
+ * Latency is drawn from a fixed, uniform or lognormal distribution. Each request then fails with
+ * {@code errorPercent}, has its response cut short with {@code truncatePercent}, is slow-dripped with
+ * {@code dripPercent}, and is otherwise answered normally.
+ */
+public final class FaultProfile {
+
+    public enum Latency {
+        NONE, FIXED, UNIFORM, LOGNORMAL;
+
+        public static Latency of(String value) {
+            return value == null || value.isBlank() ? NONE : valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private final String name;
+    private final Latency latency;
+    private final long latencyMs;
+    private final long minMs;
+    private final long maxMs;
+    private final double sigma;
+    private final double errorPercent;
+    private final int errorStatus;
+    private final double truncatePercent;
+    private final double dripPercent;
+    private final int dripChunkBytes;
+    private final long dripIntervalMs;
+
+    // Private constructor for builder
+    private FaultProfile(Builder builder) {
+        this.name = builder.name;
+        this.latency = builder.latency;
+        this.latencyMs = builder.latencyMs;
+        this.minMs = builder.minMs;
+        this.maxMs = builder.maxMs;
+        this.sigma = builder.sigma;
+        this.errorPercent = builder.errorPercent;
+        this.errorStatus = builder.errorStatus;
+        this.truncatePercent = builder.truncatePercent;
+        this.dripPercent = builder.dripPercent;
+        this.dripChunkBytes = builder.dripChunkBytes;
+        this.dripIntervalMs = builder.dripIntervalMs;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Latency getLatency() {
+        return latency;
+    }
+
+    /**
+     * Draw the delay and outcome for one request
+     */
+    public FaultPlan plan(RandomGenerator random) {
+        double roll = random.nextDouble() * 100.0;
+        FaultPlan.Action action;
+        if (roll < errorPercent) {
+            action = FaultPlan.Action.ERROR;
+        } else if (roll < errorPercent + truncatePercent) {
+            action = FaultPlan.Action.TRUNCATE;
+        } else if (roll < errorPercent + truncatePercent + dripPercent) {
+            action = FaultPlan.Action.DRIP;
+        } else {
+            action = FaultPlan.Action.RESPOND;
+        }
+        return new FaultPlan(name, action, sampleDelay(random), errorStatus, dripChunkBytes, dripIntervalMs);
+    }
+
+    private long sampleDelay(RandomGenerator random) {
+        return switch (latency) {
+            case NONE -> 0;
+            case FIXED -> latencyMs;
+            case UNIFORM -> maxMs > minMs ? random.nextLong(minMs, maxMs + 1) : minMs;
+            // latencyMs is the median: exp(N(ln median, sigma^2))
+            case LOGNORMAL -> Math.min(maxMs, Math.round(latencyMs * Math.exp(sigma * random.nextGaussian())));
+        };
+    }
+
+    public static class Builder {
+        private String name;
+        private Latency latency = Latency.NONE;
+        private long latencyMs;
+        private long minMs;
+        private long maxMs = Long.MAX_VALUE;
+        private double sigma = 0.5;
+        private double errorPercent;
+        private int errorStatus = 500;
+        private double truncatePercent;
+        private double dripPercent;
+        private int dripChunkBytes = 64;
+        private long dripIntervalMs = 100;
+
+        public Builder name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        public Builder latency(Latency latency) {
+            this.latency = latency;
+            return this;
+        }
+
+        /**
+         * Delay of a fixed profile, median of a lognormal one
+         */
+        public Builder latencyMs(long latencyMs) {
+            this.latencyMs = latencyMs;
+            return this;
+        }
+
+        public Builder minMs(long minMs) {
+            this.minMs = minMs;
+            return this;
+        }
+
+        /**
+         * Upper bound of a uniform profile (required), cap of a lognormal one
+         */
+        public Builder maxMs(long maxMs) {
+            this.maxMs = maxMs;
+            return this;
+        }
+
+        public Builder sigma(double sigma) {
+            this.sigma = sigma;
+            return this;
+        }
+
+        public Builder errorPercent(double errorPercent) {
+            this.errorPercent = errorPercent;
+            return this;
+        }
+
+        public Builder errorStatus(int errorStatus) {
+            this.errorStatus = errorStatus;
+            return this;
+        }
+
+        public Builder truncatePercent(double truncatePercent) {
+            this.truncatePercent = truncatePercent;
+            return this;
+        }
+
+        public Builder dripPercent(double dripPercent) {
+            this.dripPercent = dripPercent;
+            return this;
+        }
+
+        public Builder dripChunkBytes(int dripChunkBytes) {
+            this.dripChunkBytes = dripChunkBytes;
+            return this;
+        }
+
+        public Builder dripIntervalMs(long dripIntervalMs) {
+            this.dripIntervalMs = dripIntervalMs;
+            return this;
+        }
+
+        public FaultProfile build() {
+            if (name == null || name.isBlank()) {
+                throw new IllegalArgumentException("Fault profile requires a name");
+            }
+            if (latencyMs < 0 || minMs < 0 || maxMs < minMs || sigma < 0) {
+                throw new IllegalArgumentException("Fault profile '" + name + "' has an invalid latency range");
+            }
+            if (latency == Latency.UNIFORM && maxMs == Long.MAX_VALUE) {
+                throw new IllegalArgumentException("Fault profile '" + name + "' uniform latency requires max-ms");
+            }
+            if (errorPercent < 0 || truncatePercent < 0 || dripPercent < 0
+                    || errorPercent + truncatePercent + dripPercent > 100.0) {
+                throw new IllegalArgumentException("Fault profile '" + name
+                        + "' percentages must be non-negative and add up to at most 100");
+            }
+            if (errorStatus < 400 || errorStatus > 599) {
+                throw new IllegalArgumentException("Fault profile '" + name + "' error status must be 4xx or 5xx");
+            }
+            if (dripChunkBytes < 1 || dripIntervalMs < 0) {
+                throw new IllegalArgumentException("Fault profile '" + name + "' has invalid drip settings");
+            }
+            return new FaultProfile(this);
+        }
+    }
+}
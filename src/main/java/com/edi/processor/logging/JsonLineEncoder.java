@@ -0,0 +1,134 @@
+package com.edi.processor.logging;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.ThrowableProxyUtil;
+import ch.qos.logback.core.encoder.EncoderBase;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+
+/**
+ * Writes each event as one JSON object per line: ts, level, logger, thread, MDC entries, msg and,
+ * if present, the stack trace. Builds into a reused per-thread buffer and formats the timestamp
+ * only when the second changes.
+ */
+public class JsonLineEncoder extends EncoderBase<ILoggingEvent> {
+
+    private static final DateTimeFormatter SECONDS = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss")
+            .withZone(ZoneOffset.UTC);
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(512));
+
+    // Replaced as a whole so threads share it without a lock (a synchronized block pins a virtual thread)
+    private volatile CachedSecond cachedSecond = new CachedSecond(Long.MIN_VALUE, null);
+
+    @Override
+    public byte[] headerBytes() {
+        return null;
+    }
+
+    @Override
+    public byte[] footerBytes() {
+        return null;
+    }
+
+    @Override
+    public byte[] encode(ILoggingEvent event) {
+        StringBuilder out = BUFFER.get();
+        out.setLength(0);
+
+        out.append("{\"ts\":\"");
+        appendTimestamp(out, event.getTimeStamp());
+        out.append("\",\"level\":\"").append(event.getLevel().levelStr);
+        out.append("\",\"logger\":");
+        appendString(out, event.getLoggerName());
+        out.append(",\"thread\":");
+        appendString(out, event.getThreadName());
+
+        Map<String, String> mdc = event.getMDCPropertyMap();
+        if (mdc != null) {
+            for (Map.Entry<String, String> entry : mdc.entrySet()) {
+                out.append(',');
+                appendString(out, entry.getKey());
+                out.append(':');
+                appendString(out, entry.getValue());
+            }
+        }
+
+        out.append(",\"msg\":");
+        appendString(out, event.getFormattedMessage());
+
+        IThrowableProxy throwable = event.getThrowableProxy();
+        if (throwable != null) {
+            out.append(",\"error\":");
+            appendString(out, ThrowableProxyUtil.asString(throwable));
+        }
+        out.append("}\n");
+
+        byte[] bytes = out.toString().getBytes(StandardCharsets.UTF_8);
+        if (out.capacity() > 64 * 1024) {
+            BUFFER.remove();
+        }
+        return bytes;
+    }
+
+    private void appendTimestamp(StringBuilder out, long millis) {
+        long second = Math.floorDiv(millis, 1000);
+        CachedSecond cached = cachedSecond;
+        if (second != cached.second) {
+            cached = new CachedSecond(second, SECONDS.format(Instant.ofEpochSecond(second)));
+            cachedSecond = cached;
+        }
+        int fraction = (int) Math.floorMod(millis, 1000);
+        out.append(cached.text).append('.');
+        if (fraction < 100) {
+            out.append('0');
+        }
+        if (fraction < 10) {
+            out.append('0');
+        }
+        out.append(fraction).append('Z');
+    }
+
+    private static void appendString(StringBuilder out, String value) {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append("\\u00");
+                        out.append(Character.forDigit(c >> 4, 16));
+                        out.append(Character.forDigit(c & 0xf, 16));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        out.append('"');
+    }
+
+    private static final class CachedSecond {
+        private final long second;
+        private final String text;
+
+        CachedSecond(long second, String text) {
+            this.second = second;
+            this.text = text;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.edi.processor.logging;
+
+import com.edi.processor.model.request.EdiRequest;
+import com.edi.processor.warmup.SyntheticTraffic;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides once per request whether its INFO/DEBUG lines are logged, at a rate per transaction type.
+ * The decision and the request's UUID and transaction type are put in the MDC while the request is
+ * in scope; {@link SamplingTurboFilter} drops the lines of unsampled requests.
+ *
+ * Rates are configured as {@code edi.logging.sample-rates=GETSCHEMA:0.1,ITEM:0.1}; other types use
+ * {@code edi.logging.default-sample-rate}. Synthetic (warmup) requests log ERROR lines only.
+ */
+@Component
+public class RequestLogSampler {
+
+    static final String MDC_UUID = "uuid";
+    static final String MDC_TRANSACTION_TYPE = "txn";
+    static final String MDC_SAMPLED = "sampled";
+    static final String NOT_SAMPLED = "false";
+    static final String SYNTHETIC = "synthetic";
+
+    private final SyntheticTraffic syntheticTraffic;
+
+    @Value("${edi.logging.default-sample-rate:1.0}")
+    private double defaultRate;
+
+    @Value("${edi.logging.sample-rates:}")
+    private String sampleRates;
+
+    private Map<String, Double> rates = Map.of();
+
+    public RequestLogSampler(SyntheticTraffic syntheticTraffic) {
+        this.syntheticTraffic = syntheticTraffic;
+    }
+
+    @PostConstruct
+    public void init() {
+        Map<String, Double> parsed = new HashMap<>();
+        for (String entry : sampleRates.split(",")) {
+            int colon = entry.indexOf(':');
+            if (colon > 0) {
+                parsed.put(entry.substring(0, colon).trim().toUpperCase(Locale.ROOT),
+                        Double.parseDouble(entry.substring(colon + 1).trim()));
+            }
+        }
+        rates = Map.copyOf(parsed);
+    }
+
+    /**
+     * Sample a request. Open the returned scope around each piece of work done for the request.
+     */
+    public Decision sample(EdiRequest ediRequest) {
+        String uuid = ediRequest != null ? ediRequest.getUuid() : null;
+        String transactionType = ediRequest != null && ediRequest.getRequest() != null
+                ? ediRequest.getRequest().getTransactionType()
+                : null;
+        String key = transactionType != null ? transactionType.trim().toUpperCase(Locale.ROOT) : "";
+        if (syntheticTraffic.isSynthetic(uuid)) {
+            return new Decision(uuid, key.isEmpty() ? null : key, SYNTHETIC);
+        }
+        double rate = rates.getOrDefault(key, defaultRate);
+        boolean sampled = rate >= 1.0 || ThreadLocalRandom.current().nextDouble() < rate;
+        return new Decision(uuid, key.isEmpty() ? null : key, sampled ? null : NOT_SAMPLED);
+    }
+
+    public static final class Decision {
+
+        private final String uuid;
+        private final String transactionType;
+        // MDC value when lines are dropped: NOT_SAMPLED or SYNTHETIC, null when sampled
+        private final String suppression;
+
+        private Decision(String uuid, String transactionType, String suppression) {
+            this.uuid = uuid;
+            this.transactionType = transactionType;
+            this.suppression = suppression;
+        }
+
+        public boolean isSampled() {
+            return suppression == null;
+        }
+
+        public Scope open() {
+            if (uuid != null) {
+                MDC.put(MDC_UUID, uuid);
+            }
+            if (transactionType != null) {
+                MDC.put(MDC_TRANSACTION_TYPE, transactionType);
+            }
+            if (suppression != null) {
+                MDC.put(MDC_SAMPLED, suppression);
+            }
+            return new Scope();
+        }
+    }
+
+    public static final class Scope implements AutoCloseable {
+
+        private Scope() {
+        }
+
+        @Override
+        public void close() {
+            MDC.remove(MDC_UUID);
+            MDC.remove(MDC_TRANSACTION_TYPE);
+            MDC.remove(MDC_SAMPLED);
+        }
+    }
+}
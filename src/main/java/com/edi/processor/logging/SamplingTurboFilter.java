@@ -0,0 +1,32 @@
+package com.edi.processor.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+/**
+ * Drops INFO and lower events logged while a request that was not sampled is in scope (see
+ * {@link RequestLogSampler}), and WARN too for synthetic (warmup) requests. Runs before the event is
+ * created or its message formatted, so a dropped line costs one MDC lookup. ERROR always passes.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+                              Throwable t) {
+        if (level != null && level.isGreaterOrEqual(Level.ERROR)) {
+            return FilterReply.NEUTRAL;
+        }
+        String suppression = MDC.get(RequestLogSampler.MDC_SAMPLED);
+        if (suppression == null) {
+            return FilterReply.NEUTRAL;
+        }
+        if (level != null && level.isGreaterOrEqual(Level.WARN)) {
+            return RequestLogSampler.SYNTHETIC.equals(suppression) ? FilterReply.DENY : FilterReply.NEUTRAL;
+        }
+        return FilterReply.DENY;
+    }
+}
@@ -0,0 +1,12 @@
+package com.edi.processor.mapping;
+
+import com.edi.processor.parser.X12SegmentIndex;
+
+/**
+ * A partner's mapping of one document type onto the canonical fields
+ */
+@FunctionalInterface
+public interface DocumentMapping {
+
+    MappedDocument map(X12SegmentIndex segments);
+}
@@ -0,0 +1,42 @@
+package com.edi.processor.mapping;
+
+import com.edi.processor.reconciliation.DocumentLines;
+
+import java.util.Map;
+
+/**
+ * Canonical fields read from a partner's document by its {@link DocumentMapping}
+ */
+public final class MappedDocument {
+
+    private final String key;
+    private final Map<String, String> references;
+    private final DocumentLines lines;
+
+    public MappedDocument(String key, Map<String, String> references, DocumentLines lines) {
+        this.key = key;
+        this.references = references;
+        this.lines = lines;
+    }
+
+    /**
+     * Order or ASN number, or null
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Identifiers by search type (PO, BOL, PRO...), in spec order
+     */
+    public Map<String, String> getReferences() {
+        return references;
+    }
+
+    /**
+     * Units per product; empty when the spec has no lines
+     */
+    public DocumentLines getLines() {
+        return lines;
+    }
+}
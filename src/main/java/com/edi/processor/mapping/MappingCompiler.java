@@ -0,0 +1,324 @@
+package com.edi.processor.mapping;
+
+import com.edi.processor.model.mapping.Condition;
+import com.edi.processor.model.mapping.DocumentSpec;
+import com.edi.processor.model.mapping.FieldRule;
+import com.edi.processor.model.mapping.LineSpec;
+import com.edi.processor.model.mapping.MappingSpec;
+import com.edi.processor.parser.X12SegmentIndex;
+import com.edi.processor.reconciliation.DocumentLines;
+import com.edi.processor.search.DocumentIdExtractor;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Compiles a {@link MappingSpec} into a tree of lambdas, one per rule, with the segment IDs, element
+ * positions and condition values bound as constants. Mapping a document then runs only that code
+ * against the segment index: no spec is consulted, nothing is looked up by name and no reflection
+ * is involved. Rules without a condition compile to a plain scan and fields with a single rule to
+ * that rule's reader.
+ *
+ * Compiling also validates the spec; {@link IllegalArgumentException} names the offending field.
+ */
+public final class MappingCompiler {
+
+    public static final Set<String> DOCUMENT_TYPES = Set.of("ORDER", "ASN", "SHIPCONFIRM", "RECEIPT");
+
+    private static final Set<String> REFERENCE_TYPES = Set.of(DocumentIdExtractor.PO, DocumentIdExtractor.ORDER,
+            DocumentIdExtractor.ASN, DocumentIdExtractor.BOL, DocumentIdExtractor.PRO, DocumentIdExtractor.TRACKING);
+
+    private static final Pattern SEGMENT_ID = Pattern.compile("[A-Z][A-Z0-9]{1,2}");
+
+    // Quantity reader result when no rule yields a number
+    private static final long ABSENT = Long.MIN_VALUE;
+
+    @FunctionalInterface
+    interface SegmentCondition {
+        boolean test(X12SegmentIndex segments, int segment);
+    }
+
+    /**
+     * Field value from segments {@code from} (inclusive) to {@code to} (exclusive), or null
+     */
+    @FunctionalInterface
+    interface FieldReader {
+        String read(X12SegmentIndex segments, int from, int to);
+    }
+
+    @FunctionalInterface
+    interface QuantityReader {
+        long read(X12SegmentIndex segments, int from, int to);
+    }
+
+    private MappingCompiler() {
+    }
+
+    /**
+     * Compile every document of a spec, keyed by document type
+     */
+    public static Map<String, DocumentMapping> compile(MappingSpec spec) {
+        validate(spec);
+        Map<String, DocumentMapping> mappings = new LinkedHashMap<>();
+        spec.getDocuments().forEach((type, document) -> mappings.put(type, compileDocument(document)));
+        return Map.copyOf(mappings);
+    }
+
+    /**
+     * Check a spec without compiling it: known document and reference types, segment IDs, element
+     * positions, conditions and numeric quantity defaults
+     */
+    public static void validate(MappingSpec spec) {
+        if (spec.getDocuments() == null || spec.getDocuments().isEmpty()) {
+            throw new IllegalArgumentException("documents: at least one document type is required");
+        }
+        spec.getDocuments().forEach((type, document) -> {
+            if (!DOCUMENT_TYPES.contains(type)) {
+                throw new IllegalArgumentException("documents." + type + ": unknown document type, expected one of "
+                        + DOCUMENT_TYPES);
+            }
+            if (document == null) {
+                throw new IllegalArgumentException("documents." + type + ": empty document");
+            }
+            validateRules(type + ".key", document.getKey(), false);
+            if (document.getReferences() != null) {
+                document.getReferences().forEach((reference, rules) -> {
+                    if (!REFERENCE_TYPES.contains(reference)) {
+                        throw new IllegalArgumentException(type + ".references." + reference
+                                + ": unknown reference type, expected one of " + REFERENCE_TYPES);
+                    }
+                    validateRules(type + ".references." + reference, rules, false);
+                });
+            }
+            LineSpec lines = document.getLines();
+            if (lines != null) {
+                checkSegment(type + ".lines.start", lines.getStart());
+                validateCondition(type + ".lines.when", lines.getWhen());
+                validateRules(type + ".lines.product", lines.getProduct(), false);
+                validateRules(type + ".lines.quantity", lines.getQuantity(), true);
+                if (lines.getProduct() == null || lines.getProduct().isEmpty()) {
+                    throw new IllegalArgumentException(type + ".lines.product: at least one rule is required");
+                }
+            }
+        });
+    }
+
+    private static void validateRules(String field, List<FieldRule> rules, boolean numeric) {
+        if (rules == null) {
+            return;
+        }
+        for (int i = 0; i < rules.size(); i++) {
+            FieldRule rule = rules.get(i);
+            String name = field + "[" + i + "]";
+            if (rule.getSegment() == null) {
+                if (rule.getDefaultValue() == null) {
+                    throw new IllegalArgumentException(name + ": a segment or a default is required");
+                }
+            } else {
+                checkSegment(name + ".segment", rule.getSegment());
+                if (rule.getElement() < 1) {
+                    throw new IllegalArgumentException(name + ".element: must be 1 or more");
+                }
+                validateCondition(name + ".when", rule.getWhen());
+            }
+            if (numeric && rule.getDefaultValue() != null) {
+                try {
+                    Long.parseLong(rule.getDefaultValue().trim());
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException(name + ".default: not a whole number");
+                }
+            }
+        }
+    }
+
+    private static void validateCondition(String field, Condition condition) {
+        if (condition == null) {
+            return;
+        }
+        if (condition.getElement() < 1) {
+            throw new IllegalArgumentException(field + ".element: must be 1 or more");
+        }
+        if ((condition.getEquals() == null) == (condition.getIn() == null || condition.getIn().isEmpty())) {
+            throw new IllegalArgumentException(field + ": exactly one of equals or in is required");
+        }
+    }
+
+    private static void checkSegment(String field, String segmentId) {
+        if (segmentId == null || !SEGMENT_ID.matcher(segmentId).matches()) {
+            throw new IllegalArgumentException(field + ": '" + segmentId + "' is not a segment ID");
+        }
+    }
+
+    private static DocumentMapping compileDocument(DocumentSpec document) {
+        FieldReader key = field(document.getKey());
+        Map<String, List<FieldRule>> references = document.getReferences() != null ? document.getReferences() : Map.of();
+        String[] referenceTypes = references.keySet().toArray(new String[0]);
+        FieldReader[] referenceReaders = new FieldReader[referenceTypes.length];
+        for (int i = 0; i < referenceTypes.length; i++) {
+            referenceReaders[i] = field(references.get(referenceTypes[i]));
+        }
+        LineReader lines = document.getLines() != null ? lines(document.getLines()) : segments -> DocumentLines.EMPTY;
+
+        return segments -> {
+            int size = segments.size();
+            Map<String, String> mapped = new LinkedHashMap<>(referenceTypes.length * 2);
+            for (int i = 0; i < referenceTypes.length; i++) {
+                String value = referenceReaders[i].read(segments, 0, size);
+                if (value != null) {
+                    mapped.put(referenceTypes[i], value);
+                }
+            }
+            return new MappedDocument(key.read(segments, 0, size), mapped, lines.read(segments));
+        };
+    }
+
+    @FunctionalInterface
+    private interface LineReader {
+        DocumentLines read(X12SegmentIndex segments);
+    }
+
+    private static LineReader lines(LineSpec spec) {
+        String start = spec.getStart();
+        SegmentCondition startCondition = spec.getWhen() != null ? condition(spec.getWhen()) : null;
+        FieldReader product = field(spec.getProduct());
+        QuantityReader quantity = quantity(spec.getQuantity());
+        return segments -> {
+            int size = segments.size();
+            String[] products = new String[16];
+            long[] quantities = new long[16];
+            int count = 0;
+            for (int s = 0; s < size; s++) {
+                if (!segments.isSegment(s, start) || (startCondition != null && !startCondition.test(segments, s))) {
+                    continue;
+                }
+                int end = s + 1;
+                while (end < size && !segments.isSegment(end, start) && !segments.isSegment(end, "SE")) {
+                    end++;
+                }
+                if (count == products.length) {
+                    products = Arrays.copyOf(products, count * 2);
+                    quantities = Arrays.copyOf(quantities, count * 2);
+                }
+                products[count] = product.read(segments, s, end);
+                long units = quantity.read(segments, s, end);
+                quantities[count++] = units == ABSENT ? 0 : units;
+                s = end - 1;
+            }
+            return DocumentLines.sum(products, quantities, count);
+        };
+    }
+
+    private static FieldReader field(List<FieldRule> rules) {
+        if (rules == null || rules.isEmpty()) {
+            return (segments, from, to) -> null;
+        }
+        if (rules.size() == 1) {
+            return rule(rules.get(0));
+        }
+        FieldReader[] readers = rules.stream().map(MappingCompiler::rule).toArray(FieldReader[]::new);
+        return (segments, from, to) -> {
+            for (FieldReader reader : readers) {
+                String value = reader.read(segments, from, to);
+                if (value != null) {
+                    return value;
+                }
+            }
+            return null;
+        };
+    }
+
+    private static FieldReader rule(FieldRule rule) {
+        String fallback = rule.getDefaultValue();
+        if (rule.getSegment() == null) {
+            return (segments, from, to) -> fallback;
+        }
+        String segmentId = rule.getSegment();
+        int element = rule.getElement();
+        if (rule.getWhen() == null) {
+            return (segments, from, to) -> {
+                for (int s = from; s < to; s++) {
+                    if (segments.isSegment(s, segmentId)) {
+                        String value = segments.element(s, element);
+                        if (value != null && !value.isEmpty()) {
+                            return value;
+                        }
+                    }
+                }
+                return fallback;
+            };
+        }
+        SegmentCondition condition = condition(rule.getWhen());
+        return (segments, from, to) -> {
+            for (int s = from; s < to; s++) {
+                if (segments.isSegment(s, segmentId) && condition.test(segments, s)) {
+                    String value = segments.element(s, element);
+                    if (value != null && !value.isEmpty()) {
+                        return value;
+                    }
+                }
+            }
+            return fallback;
+        };
+    }
+
+    private static QuantityReader quantity(List<FieldRule> rules) {
+        if (rules == null || rules.isEmpty()) {
+            return (segments, from, to) -> ABSENT;
+        }
+        if (rules.size() == 1) {
+            return quantityRule(rules.get(0));
+        }
+        QuantityReader[] readers = rules.stream().map(MappingCompiler::quantityRule).toArray(QuantityReader[]::new);
+        return (segments, from, to) -> {
+            for (QuantityReader reader : readers) {
+                long value = reader.read(segments, from, to);
+                if (value != ABSENT) {
+                    return value;
+                }
+            }
+            return ABSENT;
+        };
+    }
+
+    private static QuantityReader quantityRule(FieldRule rule) {
+        long fallback = rule.getDefaultValue() != null ? Long.parseLong(rule.getDefaultValue().trim()) : ABSENT;
+        if (rule.getSegment() == null) {
+            return (segments, from, to) -> fallback;
+        }
+        String segmentId = rule.getSegment();
+        int element = rule.getElement();
+        SegmentCondition condition = rule.getWhen() != null ? condition(rule.getWhen()) : (segments, s) -> true;
+        return (segments, from, to) -> {
+            for (int s = from; s < to; s++) {
+                if (segments.isSegment(s, segmentId) && condition.test(segments, s)) {
+                    long value = segments.elementAsLong(s, element, ABSENT);
+                    if (value != ABSENT) {
+                        return value;
+                    }
+                }
+            }
+            return fallback;
+        };
+    }
+
+    private static SegmentCondition condition(Condition condition) {
+        int element = condition.getElement();
+        if (condition.getEquals() != null || condition.getIn().size() == 1) {
+            String value = condition.getEquals() != null ? condition.getEquals() : condition.getIn().get(0);
+            return (segments, s) -> segments.elementEquals(s, element, value);
+        }
+        String[] values = condition.getIn().toArray(new String[0]);
+        return (segments, s) -> {
+            for (String value : values) {
+                if (segments.elementEquals(s, element, value)) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+}
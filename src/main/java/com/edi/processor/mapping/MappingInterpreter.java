@@ -0,0 +1,125 @@
+package com.edi.processor.mapping;
+
+import com.edi.processor.model.mapping.Condition;
+import com.edi.processor.model.mapping.DocumentSpec;
+import com.edi.processor.model.mapping.FieldRule;
+import com.edi.processor.model.mapping.LineSpec;
+import com.edi.processor.parser.X12SegmentIndex;
+import com.edi.processor.reconciliation.DocumentLines;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps a document by walking its {@link DocumentSpec} on every call, the reference behaviour for
+ * {@link MappingCompiler}: both give the same result for a valid spec. Used when
+ * {@code edi.mapping.compiled=false}, to compare the two.
+ */
+public final class MappingInterpreter implements DocumentMapping {
+
+    private final DocumentSpec spec;
+
+    public MappingInterpreter(DocumentSpec spec) {
+        this.spec = spec;
+    }
+
+    @Override
+    public MappedDocument map(X12SegmentIndex segments) {
+        Map<String, String> references = new LinkedHashMap<>();
+        if (spec.getReferences() != null) {
+            for (Map.Entry<String, List<FieldRule>> reference : spec.getReferences().entrySet()) {
+                String value = field(segments, reference.getValue(), 0, segments.size());
+                if (value != null) {
+                    references.put(reference.getKey(), value);
+                }
+            }
+        }
+        DocumentLines lines = spec.getLines() != null ? lines(segments, spec.getLines()) : DocumentLines.EMPTY;
+        return new MappedDocument(field(segments, spec.getKey(), 0, segments.size()), references, lines);
+    }
+
+    private static DocumentLines lines(X12SegmentIndex segments, LineSpec lines) {
+        List<String> products = new ArrayList<>();
+        List<Long> quantities = new ArrayList<>();
+        for (int s = 0; s < segments.size(); s++) {
+            if (!segments.isSegment(s, lines.getStart()) || !matches(segments, s, lines.getWhen())) {
+                continue;
+            }
+            int end = s + 1;
+            while (end < segments.size() && !segments.isSegment(end, lines.getStart()) && !segments.isSegment(end, "SE")) {
+                end++;
+            }
+            products.add(field(segments, lines.getProduct(), s, end));
+            String quantity = quantity(segments, lines.getQuantity(), s, end);
+            quantities.add(quantity != null ? Long.parseLong(quantity) : 0L);
+            s = end - 1;
+        }
+        long[] units = new long[quantities.size()];
+        for (int i = 0; i < units.length; i++) {
+            units[i] = quantities.get(i);
+        }
+        return DocumentLines.sum(products.toArray(new String[0]), units, units.length);
+    }
+
+    private static String field(X12SegmentIndex segments, List<FieldRule> rules, int from, int to) {
+        if (rules == null) {
+            return null;
+        }
+        for (FieldRule rule : rules) {
+            if (rule.getSegment() != null) {
+                for (int s = from; s < to; s++) {
+                    if (segments.isSegment(s, rule.getSegment()) && matches(segments, s, rule.getWhen())) {
+                        String value = segments.element(s, rule.getElement());
+                        if (value != null && !value.isEmpty()) {
+                            return value;
+                        }
+                    }
+                }
+            }
+            if (rule.getDefaultValue() != null) {
+                return rule.getDefaultValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Like {@link #field}, but only elements that read as a number count
+     */
+    private static String quantity(X12SegmentIndex segments, List<FieldRule> rules, int from, int to) {
+        if (rules == null) {
+            return null;
+        }
+        for (FieldRule rule : rules) {
+            if (rule.getSegment() != null) {
+                for (int s = from; s < to; s++) {
+                    if (segments.isSegment(s, rule.getSegment()) && matches(segments, s, rule.getWhen())) {
+                        long value = segments.elementAsLong(s, rule.getElement(), Long.MIN_VALUE);
+                        if (value != Long.MIN_VALUE) {
+                            return Long.toString(value);
+                        }
+                    }
+                }
+            }
+            if (rule.getDefaultValue() != null) {
+                return rule.getDefaultValue().trim();
+            }
+        }
+        return null;
+    }
+
+    private static boolean matches(X12SegmentIndex segments, int segment, Condition condition) {
+        if (condition == null) {
+            return true;
+        }
+        List<String> values = condition.getEquals() != null ? List.of(condition.getEquals()) : condition.getIn();
+        for (String value : values) {
+            if (segments.elementEquals(segment, condition.getElement(), value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,128 @@
+package com.edi.processor.model.catalog;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/**
+ * Item master entry as received in an ITEM (888) transaction. The SKU is the vendor item number;
+ * the UPC/GTIN is optional.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({"sku", "upc", "description", "uom", "packQuantity", "weight", "weightUnit", "updatedAt"})
+public class CatalogItem {
+
+    private final String sku;
+    private final String upc;
+    private final String description;
+    private final String uom;
+    private final int packQuantity;
+    private final double weight;
+    private final String weightUnit;
+    private final long updatedAt;
+
+    // Private constructor for builder
+    private CatalogItem(Builder builder) {
+        this.sku = builder.sku;
+        this.upc = builder.upc;
+        this.description = builder.description;
+        this.uom = builder.uom;
+        this.packQuantity = builder.packQuantity;
+        this.weight = builder.weight;
+        this.weightUnit = builder.weightUnit;
+        this.updatedAt = builder.updatedAt;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public String getSku() {
+        return sku;
+    }
+
+    public String getUpc() {
+        return upc;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getUom() {
+        return uom;
+    }
+
+    public int getPackQuantity() {
+        return packQuantity;
+    }
+
+    public double getWeight() {
+        return weight;
+    }
+
+    public String getWeightUnit() {
+        return weightUnit;
+    }
+
+    /**
+     * Epoch milliseconds of the ITEM transaction that last upserted this entry
+     */
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public static class Builder {
+        private String sku;
+        private String upc;
+        private String description;
+        private String uom;
+        private int packQuantity;
+        private double weight;
+        private String weightUnit;
+        private long updatedAt;
+
+        public Builder sku(String sku) {
+            this.sku = sku;
+            return this;
+        }
+
+        public Builder upc(String upc) {
+            this.upc = upc;
+            return this;
+        }
+
+        public Builder description(String description) {
+            this.description = description;
+            return this;
+        }
+
+        public Builder uom(String uom) {
+            this.uom = uom;
+            return this;
+        }
+
+        public Builder packQuantity(int packQuantity) {
+            this.packQuantity = packQuantity;
+            return this;
+        }
+
+        public Builder weight(double weight) {
+            this.weight = weight;
+            return this;
+        }
+
+        public Builder weightUnit(String weightUnit) {
+            this.weightUnit = weightUnit;
+            return this;
+        }
+
+        public Builder updatedAt(long updatedAt) {
+            this.updatedAt = updatedAt;
+            return this;
+        }
+
+        public CatalogItem build() {
+            return new CatalogItem(this);
+        }
+    }
+}
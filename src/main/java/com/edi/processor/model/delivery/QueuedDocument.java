@@ -0,0 +1,110 @@
+package com.edi.processor.model.delivery;
+
+import com.edi.processor.model.response.ResponseItem;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A follow-up document (SHIPCONFIRM, RECEIPT) waiting for delivery to the partner callback.
+ * Persisted as one JSON file per document in the delivery queue directory.
+ */
+public class QueuedDocument implements Delayed {
+
+    @JsonProperty("id")
+    private String id;
+
+    @JsonProperty("uuid")
+    private String uuid;
+
+    @JsonProperty("item")
+    private ResponseItem item;
+
+    @JsonProperty("attempts")
+    private int attempts;
+
+    @JsonProperty("enqueuedAt")
+    private long enqueuedAt;
+
+    @JsonProperty("nextAttemptAt")
+    private long nextAttemptAt;
+
+    public QueuedDocument() {
+    }
+
+    public QueuedDocument(String id, String uuid, ResponseItem item, long enqueuedAt) {
+        this.id = id;
+        this.uuid = uuid;
+        this.item = item;
+        this.enqueuedAt = enqueuedAt;
+        this.nextAttemptAt = enqueuedAt;
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+        return unit.convert(nextAttemptAt - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+        if (other instanceof QueuedDocument document) {
+            return Long.compare(nextAttemptAt, document.nextAttemptAt);
+        }
+        return Long.compare(getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS));
+    }
+
+    @JsonIgnore
+    public String getFileName() {
+        return id + ".json";
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getUuid() {
+        return uuid;
+    }
+
+    public void setUuid(String uuid) {
+        this.uuid = uuid;
+    }
+
+    public ResponseItem getItem() {
+        return item;
+    }
+
+    public void setItem(ResponseItem item) {
+        this.item = item;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public long getEnqueuedAt() {
+        return enqueuedAt;
+    }
+
+    public void setEnqueuedAt(long enqueuedAt) {
+        this.enqueuedAt = enqueuedAt;
+    }
+
+    public long getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(long nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+}
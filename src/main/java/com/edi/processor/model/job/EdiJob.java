@@ -0,0 +1,132 @@
+package com.edi.processor.model.job;
+
+import com.edi.processor.model.request.EdiRequest;
+import com.edi.processor.model.response.EdiResponse;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/**
+ * An /process request accepted through the jobs API. Jobs are ordered by their rank,
+ * submission time plus a per-priority delay, so a waiting low-priority job eventually
+ * runs ahead of newer high-priority ones.
+ */
+@JsonPropertyOrder({"jobId", "UUID", "transactionType", "status", "submittedAt", "startedAt", "completedAt",
+        "result", "error"})
+public class EdiJob implements Comparable<EdiJob> {
+
+    private final String jobId;
+    private final String uuid;
+    private final String transactionType;
+    private final int priority;
+    private final long submittedAt;
+    private final long rank;
+    private final long sequence;
+
+    // Dropped once the job finishes: the input payload can be large and finished jobs are retained
+    private volatile EdiRequest request;
+
+    private volatile JobStatus status = JobStatus.QUEUED;
+    private volatile Long startedAt;
+    private volatile Long completedAt;
+    private volatile EdiResponse result;
+    private volatile String error;
+
+    public EdiJob(String jobId, EdiRequest request, String transactionType, int priority, long submittedAt,
+                  long rank, long sequence) {
+        this.jobId = jobId;
+        this.uuid = request.getUuid();
+        this.request = request;
+        this.transactionType = transactionType;
+        this.priority = priority;
+        this.submittedAt = submittedAt;
+        this.rank = rank;
+        this.sequence = sequence;
+    }
+
+    @Override
+    public int compareTo(EdiJob other) {
+        int byRank = Long.compare(rank, other.rank);
+        return byRank != 0 ? byRank : Long.compare(sequence, other.sequence);
+    }
+
+    public void markRunning(long now) {
+        this.startedAt = now;
+        this.status = JobStatus.RUNNING;
+    }
+
+    public void markCompleted(EdiResponse result, long now) {
+        this.result = result;
+        this.completedAt = now;
+        this.status = JobStatus.COMPLETED;
+        this.request = null;
+    }
+
+    public void markFailed(String error, long now) {
+        this.error = error;
+        this.completedAt = now;
+        this.status = JobStatus.FAILED;
+        this.request = null;
+    }
+
+    public void markCancelled(long now) {
+        this.completedAt = now;
+        this.status = JobStatus.CANCELLED;
+        this.request = null;
+    }
+
+    @JsonIgnore
+    public boolean isFinished() {
+        return status == JobStatus.COMPLETED || status == JobStatus.FAILED || status == JobStatus.CANCELLED;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    @JsonProperty("UUID")
+    public String getUuid() {
+        return uuid;
+    }
+
+    /**
+     * The submitted request, or null once the job has finished
+     */
+    @JsonIgnore
+    public EdiRequest getRequest() {
+        return request;
+    }
+
+    public String getTransactionType() {
+        return transactionType;
+    }
+
+    @JsonIgnore
+    public int getPriority() {
+        return priority;
+    }
+
+    public long getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public JobStatus getStatus() {
+        return status;
+    }
+
+    public Long getStartedAt() {
+        return startedAt;
+    }
+
+    public Long getCompletedAt() {
+        return completedAt;
+    }
+
+    public EdiResponse getResult() {
+        return result;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,9 @@
+package com.edi.processor.model.job;
+
+public enum JobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    CANCELLED
+}
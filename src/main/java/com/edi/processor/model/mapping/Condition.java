@@ -0,0 +1,38 @@
+package com.edi.processor.model.mapping;
+
+import java.util.List;
+
+/**
+ * Test on another element of the same segment, e.g. REF-01 {@code equals: BM} or W01-03
+ * {@code in: [VN, SK]}
+ */
+public class Condition {
+
+    private int element;
+    private String equals;
+    private List<String> in;
+
+    public int getElement() {
+        return element;
+    }
+
+    public void setElement(int element) {
+        this.element = element;
+    }
+
+    public String getEquals() {
+        return equals;
+    }
+
+    public void setEquals(String equals) {
+        this.equals = equals;
+    }
+
+    public List<String> getIn() {
+        return in;
+    }
+
+    public void setIn(List<String> in) {
+        this.in = in;
+    }
+}
@@ -0,0 +1,41 @@
+package com.edi.processor.model.mapping;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Canonical fields of one document type: its key (order or ASN number), searchable references by
+ * identifier type (PO, BOL, PRO...) and its lines. Each field lists rules tried in order.
+ */
+public class DocumentSpec {
+
+    private List<FieldRule> key = new ArrayList<>();
+    private Map<String, List<FieldRule>> references = new LinkedHashMap<>();
+    private LineSpec lines;
+
+    public List<FieldRule> getKey() {
+        return key;
+    }
+
+    public void setKey(List<FieldRule> key) {
+        this.key = key;
+    }
+
+    public Map<String, List<FieldRule>> getReferences() {
+        return references;
+    }
+
+    public void setReferences(Map<String, List<FieldRule>> references) {
+        this.references = references;
+    }
+
+    public LineSpec getLines() {
+        return lines;
+    }
+
+    public void setLines(LineSpec lines) {
+        this.lines = lines;
+    }
+}
@@ -0,0 +1,50 @@
+package com.edi.processor.model.mapping;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * One source of a canonical field: element {@code element} (1-based) of the first {@code segment}
+ * meeting {@code when} that has a value, else {@code default}. A rule without a segment is just its
+ * default.
+ */
+public class FieldRule {
+
+    private String segment;
+    private int element;
+    private Condition when;
+
+    @JsonProperty("default")
+    private String defaultValue;
+
+    public String getSegment() {
+        return segment;
+    }
+
+    public void setSegment(String segment) {
+        this.segment = segment;
+    }
+
+    public int getElement() {
+        return element;
+    }
+
+    public void setElement(int element) {
+        this.element = element;
+    }
+
+    public Condition getWhen() {
+        return when;
+    }
+
+    public void setWhen(Condition when) {
+        this.when = when;
+    }
+
+    public String getDefaultValue() {
+        return defaultValue;
+    }
+
+    public void setDefaultValue(String defaultValue) {
+        this.defaultValue = defaultValue;
+    }
+}
@@ -0,0 +1,48 @@
+package com.edi.processor.model.mapping;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Line groups of a document: each starts at a {@code start} segment meeting {@code when} and runs to
+ * the next segment with the same ID, or SE. Product and quantity are read within the group.
+ */
+public class LineSpec {
+
+    private String start;
+    private Condition when;
+    private List<FieldRule> product = new ArrayList<>();
+    private List<FieldRule> quantity = new ArrayList<>();
+
+    public String getStart() {
+        return start;
+    }
+
+    public void setStart(String start) {
+        this.start = start;
+    }
+
+    public Condition getWhen() {
+        return when;
+    }
+
+    public void setWhen(Condition when) {
+        this.when = when;
+    }
+
+    public List<FieldRule> getProduct() {
+        return product;
+    }
+
+    public void setProduct(List<FieldRule> product) {
+        this.product = product;
+    }
+
+    public List<FieldRule> getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(List<FieldRule> quantity) {
+        this.quantity = quantity;
+    }
+}
@@ -0,0 +1,21 @@
+package com.edi.processor.model.mapping;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A trading partner's mapping spec, read from {@code <PARTNERID>.yaml} or {@code .json}: how each of
+ * the partner's documents (ORDER, ASN, SHIPCONFIRM, RECEIPT) maps onto the canonical fields.
+ */
+public class MappingSpec {
+
+    private Map<String, DocumentSpec> documents = new LinkedHashMap<>();
+
+    public Map<String, DocumentSpec> getDocuments() {
+        return documents;
+    }
+
+    public void setDocuments(Map<String, DocumentSpec> documents) {
+        this.documents = documents;
+    }
+}
@@ -0,0 +1,190 @@
+package com.edi.processor.model.partner;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+public class TradingPartner {
+
+    private final String partnerId;
+    private final String name;
+    private final String senderQualifier;
+    private final String senderId;
+    private final String receiverQualifier;
+    private final String receiverId;
+    private final char elementSeparator;
+    private final char segmentTerminator;
+    private final char subElementSeparator;
+    private final String x12Version;
+    private final String faultProfile;
+    private final Map<String, String> templateOverrides;
+
+    // Private constructor for builder
+    private TradingPartner(Builder builder) {
+        this.partnerId = builder.partnerId;
+        this.name = builder.name;
+        this.senderQualifier = builder.senderQualifier;
+        this.senderId = builder.senderId;
+        this.receiverQualifier = builder.receiverQualifier;
+        this.receiverId = builder.receiverId;
+        this.elementSeparator = builder.elementSeparator;
+        this.segmentTerminator = builder.segmentTerminator;
+        this.subElementSeparator = builder.subElementSeparator;
+        this.x12Version = builder.x12Version;
+        this.faultProfile = builder.faultProfile;
+        this.templateOverrides = Collections.unmodifiableMap(new HashMap<>(builder.templateOverrides));
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Index key for an interchange sent by {@code senderId} to {@code receiverId} (ISA06 / ISA08)
+     */
+    public static String indexKey(String senderId, String receiverId) {
+        return senderId.trim().toUpperCase() + "|" + receiverId.trim().toUpperCase();
+    }
+
+    public String getIndexKey() {
+        return indexKey(senderId, receiverId);
+    }
+
+    public String getPartnerId() {
+        return partnerId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getSenderQualifier() {
+        return senderQualifier;
+    }
+
+    public String getSenderId() {
+        return senderId;
+    }
+
+    public String getReceiverQualifier() {
+        return receiverQualifier;
+    }
+
+    public String getReceiverId() {
+        return receiverId;
+    }
+
+    public char getElementSeparator() {
+        return elementSeparator;
+    }
+
+    public char getSegmentTerminator() {
+        return segmentTerminator;
+    }
+
+    public char getSubElementSeparator() {
+        return subElementSeparator;
+    }
+
+    /**
+     * GS08 version code, e.g. 004010. ISA12 is derived from its first five characters.
+     */
+    public String getX12Version() {
+        return x12Version;
+    }
+
+    /**
+     * Fault injection profile applied to this partner's requests, or null
+     */
+    public String getFaultProfile() {
+        return faultProfile;
+    }
+
+    public Map<String, String> getTemplateOverrides() {
+        return templateOverrides;
+    }
+
+    // Builder class
+    public static class Builder {
+        private String partnerId;
+        private String name;
+        private String senderQualifier = "ZZ";
+        private String senderId;
+        private String receiverQualifier = "ZZ";
+        private String receiverId;
+        private char elementSeparator = '*';
+        private char segmentTerminator = '~';
+        private char subElementSeparator = '>';
+        private String x12Version = "004010";
+        private String faultProfile;
+        private final Map<String, String> templateOverrides = new HashMap<>();
+
+        public Builder partnerId(String partnerId) {
+            this.partnerId = partnerId;
+            return this;
+        }
+
+        public Builder name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        public Builder senderQualifier(String senderQualifier) {
+            this.senderQualifier = senderQualifier;
+            return this;
+        }
+
+        public Builder senderId(String senderId) {
+            this.senderId = senderId;
+            return this;
+        }
+
+        public Builder receiverQualifier(String receiverQualifier) {
+            this.receiverQualifier = receiverQualifier;
+            return this;
+        }
+
+        public Builder receiverId(String receiverId) {
+            this.receiverId = receiverId;
+            return this;
+        }
+
+        public Builder elementSeparator(char elementSeparator) {
+            this.elementSeparator = elementSeparator;
+            return this;
+        }
+
+        public Builder segmentTerminator(char segmentTerminator) {
+            this.segmentTerminator = segmentTerminator;
+            return this;
+        }
+
+        public Builder subElementSeparator(char subElementSeparator) {
+            this.subElementSeparator = subElementSeparator;
+            return this;
+        }
+
+        public Builder x12Version(String x12Version) {
+            this.x12Version = x12Version;
+            return this;
+        }
+
+        public Builder faultProfile(String faultProfile) {
+            this.faultProfile = faultProfile;
+            return this;
+        }
+
+        public Builder templateOverride(String contentKey, String content) {
+            this.templateOverrides.put(contentKey, content);
+            return this;
+        }
+
+        public TradingPartner build() {
+            if (partnerId == null || senderId == null || receiverId == null) {
+                throw new IllegalArgumentException("Trading partner '" + partnerId
+                        + "' requires partner id, sender id and receiver id");
+            }
+            return new TradingPartner(this);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.edi.processor.model.reconciliation;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/**
+ * One line of a receipt or ship confirmation that does not match the ASN or order
+ */
+@JsonPropertyOrder({"productId", "type", "expected", "actual"})
+public class Discrepancy {
+
+    public enum Type {
+        /** Fewer units than expected */
+        SHORT,
+        /** More units than expected */
+        OVER,
+        /** Expected product absent from the counterpart document */
+        MISSING,
+        /** Product not on the ASN or order */
+        UNEXPECTED
+    }
+
+    private final String productId;
+    private final Type type;
+    private final long expected;
+    private final long actual;
+
+    public Discrepancy(String productId, Type type, long expected, long actual) {
+        this.productId = productId;
+        this.type = type;
+        this.expected = expected;
+        this.actual = actual;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public long getExpected() {
+        return expected;
+    }
+
+    public long getActual() {
+        return actual;
+    }
+
+    @Override
+    public String toString() {
+        return productId + " " + type + " expected " + expected + " actual " + actual;
+    }
+}
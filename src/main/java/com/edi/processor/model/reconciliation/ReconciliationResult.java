@@ -0,0 +1,118 @@
+package com.edi.processor.model.reconciliation;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of matching a RECEIPT against its ASN, or a SHIPCONFIRM against its order
+ */
+@JsonPropertyOrder({"documentType", "key", "status", "expectedUnits", "actualUnits", "discrepancies"})
+public class ReconciliationResult {
+
+    public enum Status {
+        /** Every line matches */
+        MATCHED,
+        /** At least one line differs */
+        DISCREPANT,
+        /** No open ASN or order with this key */
+        UNMATCHED
+    }
+
+    private final String documentType;
+    private final String key;
+    private final Status status;
+    private final long expectedUnits;
+    private final long actualUnits;
+    private final List<Discrepancy> discrepancies;
+
+    // Private constructor for builder
+    private ReconciliationResult(Builder builder) {
+        this.documentType = builder.documentType;
+        this.key = builder.key;
+        this.status = builder.status;
+        this.expectedUnits = builder.expectedUnits;
+        this.actualUnits = builder.actualUnits;
+        this.discrepancies = builder.discrepancies != null
+                ? Collections.unmodifiableList(builder.discrepancies)
+                : Collections.emptyList();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * ORDER or ASN
+     */
+    public String getDocumentType() {
+        return documentType;
+    }
+
+    /**
+     * Order number (W05-02) or ASN number (BSN-02)
+     */
+    public String getKey() {
+        return key;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public long getExpectedUnits() {
+        return expectedUnits;
+    }
+
+    public long getActualUnits() {
+        return actualUnits;
+    }
+
+    public List<Discrepancy> getDiscrepancies() {
+        return discrepancies;
+    }
+
+    public static class Builder {
+        private String documentType;
+        private String key;
+        private Status status;
+        private long expectedUnits;
+        private long actualUnits;
+        private List<Discrepancy> discrepancies;
+
+        public Builder documentType(String documentType) {
+            this.documentType = documentType;
+            return this;
+        }
+
+        public Builder key(String key) {
+            this.key = key;
+            return this;
+        }
+
+        public Builder status(Status status) {
+            this.status = status;
+            return this;
+        }
+
+        public Builder expectedUnits(long expectedUnits) {
+            this.expectedUnits = expectedUnits;
+            return this;
+        }
+
+        public Builder actualUnits(long actualUnits) {
+            this.actualUnits = actualUnits;
+            return this;
+        }
+
+        public Builder discrepancies(List<Discrepancy> discrepancies) {
+            this.discrepancies = discrepancies;
+            return this;
+        }
+
+        public ReconciliationResult build() {
+            return new ReconciliationResult(this);
+        }
+    }
+}
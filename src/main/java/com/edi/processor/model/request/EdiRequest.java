@@ -1,7 +1,9 @@
 package com.edi.processor.model.request;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 
+@JsonDeserialize(using = EdiRequestDeserializer.class)
 public class EdiRequest {
 
     @JsonProperty("UUID")
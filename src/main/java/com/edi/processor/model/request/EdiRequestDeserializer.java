@@ -0,0 +1,45 @@
+package com.edi.processor.model.request;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+
+/**
+ * Streaming reader for the request envelope; "Request" is read by {@link RequestDetailsDeserializer}
+ */
+public class EdiRequestDeserializer extends StdDeserializer<EdiRequest> {
+
+    public EdiRequestDeserializer() {
+        super(EdiRequest.class);
+    }
+
+    @Override
+    public EdiRequest deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        String name;
+        if (p.isExpectedStartObjectToken()) {
+            name = p.nextFieldName();
+        } else if (p.hasToken(JsonToken.FIELD_NAME)) {
+            name = p.currentName();
+        } else if (p.hasToken(JsonToken.END_OBJECT)) {
+            name = null;
+        } else {
+            return (EdiRequest) ctxt.handleUnexpectedToken(EdiRequest.class, p);
+        }
+
+        EdiRequest request = new EdiRequest();
+        for (; name != null; name = p.nextFieldName()) {
+            JsonToken token = p.nextToken();
+            switch (name) {
+                case "UUID" -> request.setUuid(token == JsonToken.VALUE_STRING ? p.getText()
+                        : token == JsonToken.VALUE_NULL ? null : ctxt.readValue(p, String.class));
+                case "Request" -> request.setRequest(token == JsonToken.VALUE_NULL ? null
+                        : RequestDetailsDeserializer.INSTANCE.deserialize(p, ctxt));
+                default -> handleUnknownProperty(p, ctxt, request, name);
+            }
+        }
+        return request;
+    }
+}
@@ -1,8 +1,23 @@
 package com.edi.processor.model.request;
 
+import com.edi.processor.parser.InputFileDecoder;
 import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
-
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Read by {@link RequestDetailsDeserializer}, which upper-cases the type and format fields and
+ * decodes "Input File" straight into {@link #getInputFileBytes()}. The annotations describe the
+ * serialized form and the accepted spellings.
+ *
+ * An "Input File" that is neither a raw document nor valid Base64 is kept as
+ * {@link #getInputFileError()}, which the processor answers with a validation error.
+ */
+@JsonDeserialize(using = RequestDetailsDeserializer.class)
 public class RequestDetails {
 
     @JsonProperty("TRANSACTION TYPE")
@@ -25,7 +40,13 @@ public class RequestDetails {
     @JsonAlias({"INPUT_FILE", "inputFile", "InputFile"})
     private String inputFile;
 
-    // ... rest of constructors, getters, setters remain the same
+    // Decoded "Input File": set by the deserializer (inputFile is then left null) or decoded on first use
+    private byte[] inputFileBytes;
+
+    private String inputFileError;
+
+    public RequestDetails() {
+    }
 
     public RequestDetails(String transactionType, String orderType, String format, 
                           String responseType, String inputFile) {
@@ -68,11 +89,80 @@ public class RequestDetails {
         this.responseType = responseType;
     }
 
+    /**
+     * The input document as sent, or its decoded text when it was read straight into bytes
+     */
+    @JsonIgnore
     public String getInputFile() {
+        if (inputFile == null && inputFileBytes != null && inputFileBytes.length > 0) {
+            return new String(inputFileBytes, StandardCharsets.UTF_8);
+        }
         return inputFile;
     }
 
     public void setInputFile(String inputFile) {
         this.inputFile = inputFile;
+        this.inputFileBytes = null;
+        this.inputFileError = null;
+    }
+
+    /**
+     * "Input File" as serialized: as sent, or Base64 when only the bytes are held, so it reads back
+     * the same whatever the document contains
+     */
+    @JsonProperty("Input File")
+    String getSerializedInputFile() {
+        if (inputFile == null && inputFileBytes != null && inputFileBytes.length > 0) {
+            return Base64.getEncoder().encodeToString(inputFileBytes);
+        }
+        return inputFile;
+    }
+
+    /**
+     * The input document's raw bytes, decoded from Base64 where the request sent it encoded
+     *
+     * @throws IllegalArgumentException if "Input File" is neither a raw document nor valid Base64
+     */
+    @JsonIgnore
+    public byte[] getInputFileBytes() {
+        decodeInputFile();
+        if (inputFileError != null) {
+            throw new IllegalArgumentException(inputFileError);
+        }
+        return inputFileBytes;
+    }
+
+    /**
+     * Why "Input File" could not be decoded, or null when it can
+     */
+    @JsonIgnore
+    public String getInputFileError() {
+        decodeInputFile();
+        return inputFileError;
+    }
+
+    void setInputFileError(String inputFileError) {
+        this.inputFile = null;
+        this.inputFileBytes = null;
+        this.inputFileError = inputFileError;
+    }
+
+    /**
+     * Set the input document's raw bytes directly, as when it was read from a file
+     */
+    public void setInputFileBytes(byte[] inputFileBytes) {
+        this.inputFile = null;
+        this.inputFileBytes = inputFileBytes;
+        this.inputFileError = null;
+    }
+
+    private void decodeInputFile() {
+        if (inputFileBytes == null && inputFileError == null) {
+            try {
+                inputFileBytes = InputFileDecoder.decode(inputFile);
+            } catch (IllegalArgumentException e) {
+                inputFileError = e.getMessage();
+            }
+        }
     }
 }
@@ -0,0 +1,124 @@
+package com.edi.processor.model.request;
+
+import com.edi.processor.parser.InputFileDecoder;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Streaming reader for the "Request" object.
+ *
+ * Field names, including the {@code @JsonAlias} spellings on {@link RequestDetails}, are matched by a
+ * string switch over the parser's canonicalized names. Type and format values are trimmed and
+ * upper-cased here, once, and resolve to shared constants when they are known codes. "Input File" is
+ * decoded from the parser's text buffer (or taken as is from a Smile / CBOR binary value) straight
+ * into bytes, so the document is never held as a String.
+ */
+public class RequestDetailsDeserializer extends StdDeserializer<RequestDetails> {
+
+    static final RequestDetailsDeserializer INSTANCE = new RequestDetailsDeserializer();
+
+    // Transaction, response and order types and formats, as the processor compares them
+    private static final String[] CODES = {
+            "ORDER", "ASN", "ITEM", "GETSCHEMA", "ERRORRESPONSE", "ERRORTIMEOUT",
+            "ACK", "SHIPCONFIRM", "RECEIPT", "LTL", "PARCEL", "EDI", "JSON"
+    };
+
+    public RequestDetailsDeserializer() {
+        super(RequestDetails.class);
+    }
+
+    @Override
+    public RequestDetails deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        String name;
+        if (p.isExpectedStartObjectToken()) {
+            name = p.nextFieldName();
+        } else if (p.hasToken(JsonToken.FIELD_NAME)) {
+            name = p.currentName();
+        } else if (p.hasToken(JsonToken.END_OBJECT)) {
+            name = null;
+        } else {
+            return (RequestDetails) ctxt.handleUnexpectedToken(RequestDetails.class, p);
+        }
+
+        RequestDetails details = new RequestDetails();
+        for (; name != null; name = p.nextFieldName()) {
+            p.nextToken();
+            switch (name) {
+                case "TRANSACTION TYPE", "TRANSACTION_TYPE", "TRANSACTIONTYPE", "transactionType" ->
+                        details.setTransactionType(readCode(p, ctxt));
+                case "ORDER TYPE", "ORDER_TYPE", "ORDERTYPE", "orderType" ->
+                        details.setOrderType(readCode(p, ctxt));
+                case "FORMAT", "format" -> details.setFormat(readCode(p, ctxt));
+                case "RESPONSE TYPE", "RESPONSE_TYPE", "RESPONSETYPE", "responseType" ->
+                        details.setResponseType(readCode(p, ctxt));
+                case "Input File", "INPUT_FILE", "inputFile", "InputFile" -> readInputFile(p, ctxt, details);
+                default -> handleUnknownProperty(p, ctxt, details, name);
+            }
+        }
+        return details;
+    }
+
+    /**
+     * A trimmed, upper-cased code; known codes come back as the shared constant without allocating
+     */
+    private static String readCode(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.hasToken(JsonToken.VALUE_NULL)) {
+            return null;
+        }
+        if (!p.hasToken(JsonToken.VALUE_STRING)) {
+            String value = ctxt.readValue(p, String.class);
+            return value != null ? value.trim().toUpperCase(Locale.ROOT) : null;
+        }
+        char[] chars = p.getTextCharacters();
+        int start = p.getTextOffset();
+        int end = start + p.getTextLength();
+        while (start < end && chars[start] <= ' ') {
+            start++;
+        }
+        while (end > start && chars[end - 1] <= ' ') {
+            end--;
+        }
+        for (String code : CODES) {
+            if (equalsIgnoreCase(code, chars, start, end)) {
+                return code;
+            }
+        }
+        return new String(chars, start, end - start).toUpperCase(Locale.ROOT);
+    }
+
+    private static boolean equalsIgnoreCase(String code, char[] chars, int start, int end) {
+        if (code.length() != end - start) {
+            return false;
+        }
+        for (int i = 0; i < code.length(); i++) {
+            char c = chars[start + i];
+            if (c != code.charAt(i) && Character.toUpperCase(c) != code.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void readInputFile(JsonParser p, DeserializationContext ctxt, RequestDetails details)
+            throws IOException {
+        switch (p.currentToken()) {
+            case VALUE_STRING -> {
+                try {
+                    details.setInputFileBytes(
+                            InputFileDecoder.decode(p.getTextCharacters(), p.getTextOffset(), p.getTextLength()));
+                } catch (IllegalArgumentException e) {
+                    // Answered with a validation error once the rest of the request is known
+                    details.setInputFileError(e.getMessage());
+                }
+            }
+            case VALUE_EMBEDDED_OBJECT -> details.setInputFileBytes(p.getBinaryValue());
+            case VALUE_NULL -> details.setInputFile(null);
+            default -> details.setInputFile(ctxt.readValue(p, String.class));
+        }
+    }
+}
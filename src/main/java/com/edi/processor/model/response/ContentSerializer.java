@@ -0,0 +1,107 @@
+package com.edi.processor.model.response;
+
+import com.edi.processor.template.CompiledTemplate;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.json.JsonWriteFeature;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Serializer for {@link ResponseItem} content. Static templates registered through
+ * {@link #precompute(CompiledTemplate)} are written from pre-encoded bytes: quoted UTF-8 for JSON
+ * and raw UTF-8 for Smile and CBOR, so the same multi-KB bodies are not re-encoded per response.
+ *
+ * Entries are keyed by the identity of the string the template renders to, so a lookup is an
+ * identity hash rather than a hash of the whole content, and rendered dynamic content, which is
+ * always a fresh string, misses without being hashed.
+ *
+ * It is installed through {@link #module()} into Spring's ObjectMapper, and so into the Smile and
+ * CBOR copies made from it. Mappers built without the module write content as plain strings.
+ * Generators that escape beyond the JSON defaults also get the plain string, so the mapper's
+ * escaping settings always apply.
+ */
+@Component
+public class ContentSerializer extends StdSerializer<String> {
+
+    // Immutable snapshot, replaced on each registration
+    private final AtomicReference<Map<String, SerializedString>> precomputed =
+            new AtomicReference<>(new IdentityHashMap<>());
+
+    public ContentSerializer() {
+        super(String.class);
+    }
+
+    /**
+     * Encode a static template once for every supported output format
+     */
+    public void precompute(CompiledTemplate template) {
+        String content = template.getStaticContent();
+        if (content == null || precomputed.get().containsKey(content)) {
+            return;
+        }
+        SerializedString encoded = new SerializedString(content);
+        encoded.asQuotedUTF8();
+        encoded.asUnquotedUTF8();
+        encoded.asQuotedChars();
+        precomputed.updateAndGet(current -> {
+            Map<String, SerializedString> updated = new IdentityHashMap<>(current);
+            updated.put(content, encoded);
+            return updated;
+        });
+    }
+
+    /**
+     * Drop every registered template, before the content is reloaded
+     */
+    public void clear() {
+        precomputed.set(new IdentityHashMap<>());
+    }
+
+    /**
+     * Jackson module that writes {@link ResponseItem} content with this serializer
+     */
+    @SuppressWarnings("unchecked")
+    public Module module() {
+        JsonSerializer<Object> serializer = (JsonSerializer<Object>) (JsonSerializer<?>) this;
+        return new SimpleModule("ResponseContent").setSerializerModifier(new BeanSerializerModifier() {
+            @Override
+            public List<BeanPropertyWriter> changeProperties(SerializationConfig config, BeanDescription description,
+                                                             List<BeanPropertyWriter> properties) {
+                if (description.getBeanClass() == ResponseItem.class) {
+                    for (BeanPropertyWriter property : properties) {
+                        if (property.getName().equals("content")) {
+                            property.assignSerializer(serializer);
+                        }
+                    }
+                }
+                return properties;
+            }
+        });
+    }
+
+    @Override
+    public void serialize(String value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        SerializedString encoded = precomputed.get().get(value);
+        if (encoded != null && gen.getCharacterEscapes() == null
+                && !gen.isEnabled(JsonWriteFeature.ESCAPE_NON_ASCII.mappedFeature())) {
+            gen.writeString(encoded);
+        } else {
+            gen.writeString(value);
+        }
+    }
+}
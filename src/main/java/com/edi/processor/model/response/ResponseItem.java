@@ -10,6 +10,7 @@ public class ResponseItem {
     @JsonProperty("filename")
     private String filename;
 
+    // Written by ContentSerializer when the mapper has its module
     @JsonProperty("content")
     private String content;
 
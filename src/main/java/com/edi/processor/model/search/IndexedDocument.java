@@ -0,0 +1,164 @@
+package com.edi.processor.model.search;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A processed document as recorded in the search index: the request it belongs to, where it sits
+ * (the inbound request or a response file, and its ISA13 / GS06 / ST02 control numbers) and the
+ * business identifiers found in it, by type (PO, ORDER, ASN, BOL, PRO, TRACKING).
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({"uuid", "transactionType", "document", "partnerId", "interchangeControlNumber",
+        "groupControlNumber", "transactionSetControlNumber", "indexedAt", "ids"})
+public class IndexedDocument {
+
+    /** {@link #getDocument()} of the inbound request payload */
+    public static final String REQUEST_DOCUMENT = "request";
+
+    private String uuid;
+    private String transactionType;
+    private String document;
+    private String partnerId;
+    private String interchangeControlNumber;
+    private String groupControlNumber;
+    private String transactionSetControlNumber;
+    private long indexedAt;
+    private Map<String, List<String>> ids = Collections.emptyMap();
+
+    public IndexedDocument() {
+    }
+
+    // Private constructor for builder
+    private IndexedDocument(Builder builder) {
+        this.uuid = builder.uuid;
+        this.transactionType = builder.transactionType;
+        this.document = builder.document;
+        this.partnerId = builder.partnerId;
+        this.interchangeControlNumber = builder.interchangeControlNumber;
+        this.groupControlNumber = builder.groupControlNumber;
+        this.transactionSetControlNumber = builder.transactionSetControlNumber;
+        this.indexedAt = builder.indexedAt;
+        this.ids = builder.ids;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public String getUuid() {
+        return uuid;
+    }
+
+    public String getTransactionType() {
+        return transactionType;
+    }
+
+    /**
+     * "request" for the inbound payload, otherwise the response filename
+     */
+    public String getDocument() {
+        return document;
+    }
+
+    public String getPartnerId() {
+        return partnerId;
+    }
+
+    public String getInterchangeControlNumber() {
+        return interchangeControlNumber;
+    }
+
+    public String getGroupControlNumber() {
+        return groupControlNumber;
+    }
+
+    public String getTransactionSetControlNumber() {
+        return transactionSetControlNumber;
+    }
+
+    public long getIndexedAt() {
+        return indexedAt;
+    }
+
+    public Map<String, List<String>> getIds() {
+        return ids;
+    }
+
+    public static class Builder {
+        private String uuid;
+        private String transactionType;
+        private String document;
+        private String partnerId;
+        private String interchangeControlNumber;
+        private String groupControlNumber;
+        private String transactionSetControlNumber;
+        private long indexedAt;
+        private final Map<String, List<String>> ids = new LinkedHashMap<>();
+
+        public Builder uuid(String uuid) {
+            this.uuid = uuid;
+            return this;
+        }
+
+        public Builder transactionType(String transactionType) {
+            this.transactionType = transactionType;
+            return this;
+        }
+
+        public Builder document(String document) {
+            this.document = document;
+            return this;
+        }
+
+        public Builder partnerId(String partnerId) {
+            this.partnerId = partnerId;
+            return this;
+        }
+
+        public Builder interchangeControlNumber(String interchangeControlNumber) {
+            this.interchangeControlNumber = interchangeControlNumber;
+            return this;
+        }
+
+        public Builder groupControlNumber(String groupControlNumber) {
+            this.groupControlNumber = groupControlNumber;
+            return this;
+        }
+
+        public Builder transactionSetControlNumber(String transactionSetControlNumber) {
+            this.transactionSetControlNumber = transactionSetControlNumber;
+            return this;
+        }
+
+        public Builder indexedAt(long indexedAt) {
+            this.indexedAt = indexedAt;
+            return this;
+        }
+
+        /**
+         * Add an identifier of the given type; blank and repeated values are ignored
+         */
+        public Builder id(String type, String value) {
+            if (value == null || value.isBlank()) {
+                return this;
+            }
+            List<String> values = ids.computeIfAbsent(type, t -> new ArrayList<>(1));
+            String trimmed = value.trim();
+            if (!values.contains(trimmed)) {
+                values.add(trimmed);
+            }
+            return this;
+        }
+
+        public IndexedDocument build() {
+            return new IndexedDocument(this);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.edi.processor.parser;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Service characters and UNB interchange header of a UN/EDIFACT interchange. The delimiters come
+ * from the UNA service string advice when there is one and are the syntax defaults {@code :+.? '}
+ * otherwise; UNB is then split on them, honouring the release character.
+ */
+public class EdifactHeader {
+
+    private static final int UNA_LENGTH = 9;
+    private static final int UNB_ELEMENT_COUNT = 6;
+    private static final int UNB_COMPONENT_COUNT = 3;
+
+    private final char componentSeparator;
+    private final char elementSeparator;
+    private final char decimalMark;
+    private final char releaseCharacter;
+    private final char segmentTerminator;
+    private final boolean serviceStringAdvice;
+    private final int unbOffset;
+
+    private final String syntaxIdentifier;
+    private final String syntaxVersion;
+    private final String senderId;
+    private final String senderQualifier;
+    private final String recipientId;
+    private final String recipientQualifier;
+    private final String date;
+    private final String time;
+    private final String controlReference;
+
+    private EdifactHeader(byte[] delimiters, boolean serviceStringAdvice, int unbOffset, String[][] unb) {
+        this.componentSeparator = (char) delimiters[0];
+        this.elementSeparator = (char) delimiters[1];
+        this.decimalMark = (char) delimiters[2];
+        this.releaseCharacter = (char) delimiters[3];
+        this.segmentTerminator = (char) delimiters[5];
+        this.serviceStringAdvice = serviceStringAdvice;
+        this.unbOffset = unbOffset;
+        this.syntaxIdentifier = unb[1][0];
+        this.syntaxVersion = unb[1][1];
+        this.senderId = unb[2][0];
+        this.senderQualifier = unb[2][1];
+        this.recipientId = unb[3][0];
+        this.recipientQualifier = unb[3][1];
+        this.date = unb[4][0];
+        this.time = unb[4][1];
+        this.controlReference = unb[5][0];
+    }
+
+    /**
+     * Parse the UNA / UNB header at the start of {@code payload}, or return null when the payload is
+     * not an EDIFACT interchange
+     */
+    public static EdifactHeader parse(byte[] payload) {
+        int start = skipWhitespace(payload, 0);
+        byte[] delimiters = {':', '+', '.', '?', ' ', '\''};
+        boolean serviceStringAdvice = startsWith(payload, start, 'U', 'N', 'A');
+        if (serviceStringAdvice) {
+            if (payload.length - start < UNA_LENGTH) {
+                return null;
+            }
+            System.arraycopy(payload, start + 3, delimiters, 0, delimiters.length);
+            start = skipWhitespace(payload, start + UNA_LENGTH);
+        }
+        if (!startsWith(payload, start, 'U', 'N', 'B')
+                || start + 3 >= payload.length || payload[start + 3] != delimiters[1]) {
+            return null;
+        }
+        String[][] unb = splitUnb(payload, start, delimiters);
+        return unb != null ? new EdifactHeader(delimiters, serviceStringAdvice, start, unb) : null;
+    }
+
+    /**
+     * The first components of UNB01 to UNB05, unescaped; null if UNB is not terminated
+     */
+    private static String[][] splitUnb(byte[] payload, int start, byte[] delimiters) {
+        byte componentSeparator = delimiters[0];
+        byte elementSeparator = delimiters[1];
+        byte release = delimiters[3];
+        byte segmentTerminator = delimiters[5];
+        boolean releaseEnabled = release != ' ';
+
+        String[][] unb = new String[UNB_ELEMENT_COUNT][UNB_COMPONENT_COUNT];
+        StringBuilder value = new StringBuilder(16);
+        int element = 0;
+        int component = 0;
+        for (int pos = start; pos < payload.length; pos++) {
+            byte b = payload[pos];
+            if (releaseEnabled && b == release && pos + 1 < payload.length) {
+                value.append((char) (payload[++pos] & 0xff));
+            } else if (b == componentSeparator || b == elementSeparator || b == segmentTerminator) {
+                if (element < UNB_ELEMENT_COUNT && component < UNB_COMPONENT_COUNT) {
+                    unb[element][component] = value.toString();
+                }
+                value.setLength(0);
+                if (b == segmentTerminator) {
+                    return unb;
+                }
+                if (b == elementSeparator) {
+                    element++;
+                    component = 0;
+                } else {
+                    component++;
+                }
+            } else {
+                value.append((char) (b & 0xff));
+            }
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] payload, int start, char a, char b, char c) {
+        return payload.length - start >= 3 && payload[start] == a && payload[start + 1] == b && payload[start + 2] == c;
+    }
+
+    private static int skipWhitespace(byte[] payload, int from) {
+        int i = from;
+        while (i < payload.length && Character.isWhitespace(payload[i])) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Character set of the interchange's syntax level: UTF-8 for UNOW / UNOY, ISO 8859-1 (a superset
+     * of the UNOA / UNOB repertoire) for the others
+     */
+    public Charset getCharset() {
+        return "UNOW".equals(syntaxIdentifier) || "UNOY".equals(syntaxIdentifier)
+                ? StandardCharsets.UTF_8 : StandardCharsets.ISO_8859_1;
+    }
+
+    /**
+     * Whether the interchange carries a release character (UNA may turn it off with a space)
+     */
+    public boolean hasReleaseCharacter() {
+        return releaseCharacter != ' ';
+    }
+
+    /**
+     * Whether the interchange opened with a UNA service string advice
+     */
+    public boolean hasServiceStringAdvice() {
+        return serviceStringAdvice;
+    }
+
+    /**
+     * Offset of the UNB segment in the payload, after any UNA
+     */
+    public int getUnbOffset() {
+        return unbOffset;
+    }
+
+    public String getSyntaxIdentifier() {
+        return syntaxIdentifier;
+    }
+
+    public String getSyntaxVersion() {
+        return syntaxVersion;
+    }
+
+    public String getSenderId() {
+        return senderId;
+    }
+
+    public String getSenderQualifier() {
+        return senderQualifier;
+    }
+
+    public String getRecipientId() {
+        return recipientId;
+    }
+
+    public String getRecipientQualifier() {
+        return recipientQualifier;
+    }
+
+    public String getDate() {
+        return date;
+    }
+
+    public String getTime() {
+        return time;
+    }
+
+    public String getControlReference() {
+        return controlReference;
+    }
+
+    public char getComponentSeparator() {
+        return componentSeparator;
+    }
+
+    public char getElementSeparator() {
+        return elementSeparator;
+    }
+
+    public char getDecimalMark() {
+        return decimalMark;
+    }
+
+    public char getReleaseCharacter() {
+        return releaseCharacter;
+    }
+
+    public char getSegmentTerminator() {
+        return segmentTerminator;
+    }
+}
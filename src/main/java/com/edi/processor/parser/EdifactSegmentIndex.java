@@ -0,0 +1,250 @@
+package com.edi.processor.parser;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * Segment boundaries of a raw EDIFACT payload, found in one pass using the service characters from
+ * its {@link EdifactHeader}; the counterpart of {@link X12SegmentIndex}. A delimiter preceded by the
+ * release character is data, so boundaries are only ever found by a scan that skips released bytes.
+ * Segments are addressed by index and elements (1-based after the tag) and their components
+ * (1-based) are read straight from the payload bytes; only values that contain a release character
+ * are copied to be unescaped.
+ */
+public final class EdifactSegmentIndex {
+
+    private final byte[] payload;
+    private final EdifactHeader header;
+    private final byte componentSeparator;
+    private final byte elementSeparator;
+    private final byte release;
+    private final boolean releaseEnabled;
+    private final Charset charset;
+    private final int[] starts;
+    private final int[] ends;
+    private final int size;
+
+    private EdifactSegmentIndex(byte[] payload, EdifactHeader header, int[] starts, int[] ends, int size) {
+        this.payload = payload;
+        this.header = header;
+        this.componentSeparator = (byte) header.getComponentSeparator();
+        this.elementSeparator = (byte) header.getElementSeparator();
+        this.release = (byte) header.getReleaseCharacter();
+        this.releaseEnabled = header.hasReleaseCharacter();
+        this.charset = header.getCharset();
+        this.starts = starts;
+        this.ends = ends;
+        this.size = size;
+    }
+
+    /**
+     * Index the segments from UNB on; the UNA service string advice is not a segment
+     */
+    public static EdifactSegmentIndex build(byte[] payload, EdifactHeader header) {
+        byte segmentTerminator = (byte) header.getSegmentTerminator();
+        byte release = (byte) header.getReleaseCharacter();
+        boolean releaseEnabled = header.hasReleaseCharacter();
+        int[] starts = new int[64];
+        int[] ends = new int[64];
+        int size = 0;
+
+        int position = header.getUnbOffset();
+        while (position < payload.length) {
+            while (position < payload.length
+                    && (payload[position] == '\r' || payload[position] == '\n' || payload[position] == ' ')) {
+                position++;
+            }
+            if (position >= payload.length) {
+                break;
+            }
+            int end = position;
+            while (end < payload.length) {
+                byte b = payload[end];
+                if (b == segmentTerminator) {
+                    break;
+                }
+                end += releaseEnabled && b == release ? 2 : 1;
+            }
+            end = Math.min(end, payload.length);
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+            }
+            starts[size] = position;
+            ends[size] = end;
+            size++;
+            position = end + 1;
+        }
+        return new EdifactSegmentIndex(payload, header, starts, ends, size);
+    }
+
+    public EdifactHeader getHeader() {
+        return header;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Index of the first segment with the given tag at or after {@code from}, or -1
+     */
+    public int next(String tag, int from) {
+        for (int s = from; s < size; s++) {
+            if (isSegment(s, tag)) {
+                return s;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Whether segment {@code segment} has the given tag (UNH, LIN, QTY...)
+     */
+    public boolean isSegment(int segment, String tag) {
+        int start = starts[segment];
+        int tagLength = tag.length();
+        if (ends[segment] - start < tagLength
+                || (ends[segment] - start > tagLength && payload[start + tagLength] != elementSeparator)) {
+            return false;
+        }
+        for (int i = 0; i < tagLength; i++) {
+            if (payload[start + i] != tag.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Element {@code elementIndex} of a segment with its component separators, unescaped, or null
+     * if absent
+     */
+    public String element(int segment, int elementIndex) {
+        return text(bounds(segment, elementIndex, 0));
+    }
+
+    /**
+     * Component {@code componentIndex} of element {@code elementIndex}, unescaped, or null if
+     * absent. A simple element is its own first component.
+     */
+    public String component(int segment, int elementIndex, int componentIndex) {
+        return text(bounds(segment, elementIndex, componentIndex));
+    }
+
+    /**
+     * Component parsed as a whole number, or {@code defaultValue} if absent or not numeric.
+     * Decimal places are truncated, whichever decimal mark the interchange uses.
+     */
+    public long componentAsLong(int segment, int elementIndex, int componentIndex, long defaultValue) {
+        long bounds = bounds(segment, elementIndex, componentIndex);
+        if (bounds < 0) {
+            return defaultValue;
+        }
+        int from = (int) (bounds >>> 32);
+        int to = (int) bounds;
+        boolean negative = from < to && payload[from] == '-';
+        if (negative) {
+            from++;
+        }
+        if (from >= to || payload[from] < '0' || payload[from] > '9') {
+            return defaultValue;
+        }
+        long value = 0;
+        for (int i = from; i < to && payload[i] >= '0' && payload[i] <= '9'; i++) {
+            value = value * 10 + (payload[i] - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Whether a component equals {@code value} once unescaped, without allocating
+     */
+    public boolean componentEquals(int segment, int elementIndex, int componentIndex, String value) {
+        long bounds = bounds(segment, elementIndex, componentIndex);
+        if (bounds < 0) {
+            return false;
+        }
+        int from = (int) (bounds >>> 32);
+        int to = (int) bounds;
+        int matched = 0;
+        for (int i = from; i < to; i++) {
+            if (releaseEnabled && payload[i] == release && i + 1 < to) {
+                i++;
+            }
+            if (matched == value.length() || (payload[i] & 0xff) != value.charAt(matched)) {
+                return false;
+            }
+            matched++;
+        }
+        return matched == value.length();
+    }
+
+    private String text(long bounds) {
+        if (bounds < 0) {
+            return null;
+        }
+        int from = (int) (bounds >>> 32);
+        int to = (int) bounds;
+        if (releaseEnabled) {
+            for (int i = from; i < to; i++) {
+                if (payload[i] == release) {
+                    return unescape(from, to);
+                }
+            }
+        }
+        return new String(payload, from, to - from, charset);
+    }
+
+    private String unescape(int from, int to) {
+        byte[] value = new byte[to - from];
+        int length = 0;
+        for (int i = from; i < to; i++) {
+            if (payload[i] == release && i + 1 < to) {
+                i++;
+            }
+            value[length++] = payload[i];
+        }
+        return new String(value, 0, length, charset);
+    }
+
+    /**
+     * Start (high 32 bits) and end (low 32 bits) offsets of an element, or of one of its components
+     * when {@code componentIndex} is not 0, or -1
+     */
+    private long bounds(int segment, int elementIndex, int componentIndex) {
+        int end = ends[segment];
+        int element = 0;
+        int component = 1;
+        int from = starts[segment];
+        for (int position = from; position <= end; position++) {
+            if (position < end) {
+                byte b = payload[position];
+                if (releaseEnabled && b == release && position + 1 < end) {
+                    position++;
+                    continue;
+                }
+                if (b == componentSeparator) {
+                    if (element == elementIndex && componentIndex > 0) {
+                        if (component == componentIndex) {
+                            return ((long) from << 32) | position;
+                        }
+                        from = position + 1;
+                    }
+                    component++;
+                    continue;
+                }
+                if (b != elementSeparator) {
+                    continue;
+                }
+            }
+            if (element == elementIndex) {
+                return componentIndex == 0 || component == componentIndex ? ((long) from << 32) | position : -1;
+            }
+            element++;
+            component = 1;
+            from = position + 1;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,290 @@
+package com.edi.processor.parser;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * HL loop hierarchy of an 856 (ASN / ship confirm) held as parallel int arrays rather than node
+ * objects: per node the parent, first child, next sibling, level code (HL03) and the range of
+ * segments belonging to its loop. Segment content stays in the {@link X12SegmentIndex}.
+ *
+ * Nodes are numbered in document order. HL02 parents are resolved within each transaction set.
+ */
+public final class HlTree {
+
+    public static final byte LEVEL_SHIPMENT = 'S';
+    public static final byte LEVEL_ORDER = 'O';
+    public static final byte LEVEL_TARE = 'T';
+    public static final byte LEVEL_PACK = 'P';
+    public static final byte LEVEL_ITEM = 'I';
+
+    private static final int NONE = -1;
+
+    private final X12SegmentIndex segments;
+    private int size;
+    private int[] hlNumber;
+    private int[] parent;
+    private int[] firstChild;
+    private int[] lastChild;
+    private int[] nextSibling;
+    private byte[] level;
+    private int[] segmentFrom;
+    private int[] segmentTo;
+
+    private HlTree(X12SegmentIndex segments, int capacity) {
+        this.segments = segments;
+        this.hlNumber = new int[capacity];
+        this.parent = new int[capacity];
+        this.firstChild = new int[capacity];
+        this.lastChild = new int[capacity];
+        this.nextSibling = new int[capacity];
+        this.level = new byte[capacity];
+        this.segmentFrom = new int[capacity];
+        this.segmentTo = new int[capacity];
+    }
+
+    public static HlTree parse(byte[] payload, IsaHeader isa) {
+        return parse(X12SegmentIndex.build(payload, isa));
+    }
+
+    public static HlTree parse(X12SegmentIndex segments) {
+        HlTree tree = new HlTree(segments, 16);
+        int transactionStart = 0;
+        int open = NONE;
+        for (int s = 0; s < segments.size(); s++) {
+            if (segments.isSegment(s, "HL")) {
+                if (open != NONE) {
+                    tree.segmentTo[open] = s;
+                }
+                open = tree.addNode(s, transactionStart);
+            } else if (segments.isSegment(s, "ST")) {
+                transactionStart = tree.size;
+            } else if (open != NONE && (segments.isSegment(s, "CTT") || segments.isSegment(s, "SE"))) {
+                tree.segmentTo[open] = s;
+                open = NONE;
+            }
+        }
+        if (open != NONE) {
+            tree.segmentTo[open] = segments.size();
+        }
+        return tree;
+    }
+
+    private int addNode(int hlSegment, int transactionStart) {
+        if (size == parent.length) {
+            int capacity = size * 2;
+            hlNumber = Arrays.copyOf(hlNumber, capacity);
+            parent = Arrays.copyOf(parent, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            lastChild = Arrays.copyOf(lastChild, capacity);
+            nextSibling = Arrays.copyOf(nextSibling, capacity);
+            level = Arrays.copyOf(level, capacity);
+            segmentFrom = Arrays.copyOf(segmentFrom, capacity);
+            segmentTo = Arrays.copyOf(segmentTo, capacity);
+        }
+        int node = size++;
+        hlNumber[node] = (int) segments.elementAsLong(hlSegment, 1, NONE);
+        String levelCode = segments.element(hlSegment, 3);
+        level[node] = levelCode != null && !levelCode.isEmpty() ? (byte) levelCode.charAt(0) : 0;
+        segmentFrom[node] = hlSegment + 1;
+        segmentTo[node] = hlSegment + 1;
+        firstChild[node] = NONE;
+        lastChild[node] = NONE;
+        nextSibling[node] = NONE;
+
+        int parentNode = findNode((int) segments.elementAsLong(hlSegment, 2, NONE), transactionStart, node);
+        parent[node] = parentNode;
+        if (parentNode != NONE) {
+            if (firstChild[parentNode] == NONE) {
+                firstChild[parentNode] = node;
+            } else {
+                nextSibling[lastChild[parentNode]] = node;
+            }
+            lastChild[parentNode] = node;
+        }
+        return node;
+    }
+
+    /**
+     * Node with HL01 {@code number} among nodes [from, to). HL01 is normally sequential from 1,
+     * which is checked first; otherwise the range is scanned.
+     */
+    private int findNode(int number, int from, int to) {
+        if (number <= 0) {
+            return NONE;
+        }
+        int guess = from + number - 1;
+        if (guess < to && hlNumber[guess] == number) {
+            return guess;
+        }
+        for (int node = to - 1; node >= from; node--) {
+            if (hlNumber[node] == number) {
+                return node;
+            }
+        }
+        return NONE;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public X12SegmentIndex getSegments() {
+        return segments;
+    }
+
+    public int getHlNumber(int node) {
+        return hlNumber[node];
+    }
+
+    public int getParent(int node) {
+        return parent[node];
+    }
+
+    public byte getLevel(int node) {
+        return level[node];
+    }
+
+    /**
+     * Segment range [from, to) of a node's own loop, excluding its HL segment and child loops
+     */
+    public int getSegmentFrom(int node) {
+        return segmentFrom[node];
+    }
+
+    public int getSegmentTo(int node) {
+        return segmentTo[node];
+    }
+
+    public int count(byte levelCode) {
+        int count = 0;
+        for (int node = 0; node < size; node++) {
+            if (level[node] == levelCode) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Nodes of the given level within the subtree of {@code root}, in document order
+     */
+    public int[] descendants(int root, byte levelCode) {
+        int[] found = new int[8];
+        int count = 0;
+        int[] stack = new int[16];
+        int depth = 0;
+        stack[depth++] = root;
+        while (depth > 0) {
+            int node = stack[--depth];
+            if (node != root && level[node] == levelCode) {
+                if (count == found.length) {
+                    found = Arrays.copyOf(found, count * 2);
+                }
+                found[count++] = node;
+            }
+            // Push children in reverse so they pop in document order
+            int childCount = 0;
+            for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+                childCount++;
+            }
+            if (depth + childCount > stack.length) {
+                stack = Arrays.copyOf(stack, Math.max(stack.length * 2, depth + childCount));
+            }
+            int position = depth + childCount;
+            for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+                stack[--position] = child;
+            }
+            depth += childCount;
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    /**
+     * Items packed in the carton (P) or pallet (T) whose MAN segment carries {@code mark},
+     * e.g. an SSCC-18 label; empty if there is no such container
+     */
+    public int[] itemsInContainer(String mark) {
+        int container = findContainer(mark);
+        return container != NONE ? descendants(container, LEVEL_ITEM) : new int[0];
+    }
+
+    /**
+     * Pack or tare node whose MAN02 equals {@code mark}, or -1
+     */
+    public int findContainer(String mark) {
+        for (int node = 0; node < size; node++) {
+            if (level[node] != LEVEL_PACK && level[node] != LEVEL_TARE) {
+                continue;
+            }
+            for (int s = segmentFrom[node]; s < segmentTo[node]; s++) {
+                if (segments.isSegment(s, "MAN") && segments.elementEquals(s, 2, mark)) {
+                    return node;
+                }
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * First element of a node's loop segment, e.g. {@code firstElement(order, "PRF", 1)} for the PO number
+     */
+    public String firstElement(int node, String segmentId, int elementIndex) {
+        for (int s = segmentFrom[node]; s < segmentTo[node]; s++) {
+            if (segments.isSegment(s, segmentId)) {
+                return segments.element(s, elementIndex);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Product ID of an item: the first LIN product ID, LIN03
+     */
+    public String itemId(int item) {
+        return firstElement(item, "LIN", 3);
+    }
+
+    /**
+     * Units shipped for an item, SN1-02
+     */
+    public long itemQuantity(int item) {
+        for (int s = segmentFrom[item]; s < segmentTo[item]; s++) {
+            if (segments.isSegment(s, "SN1")) {
+                return segments.elementAsLong(s, 2, 0);
+            }
+        }
+        return 0;
+    }
+
+    public long totalUnits() {
+        long total = 0;
+        for (int node = 0; node < size; node++) {
+            if (level[node] == LEVEL_ITEM) {
+                total += itemQuantity(node);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Units shipped per order, keyed by PRF01 (PO number), or "HL" + HL01 for orders without PRF
+     */
+    public Map<String, Long> unitsByOrder() {
+        Map<String, Long> totals = new LinkedHashMap<>();
+        for (int node = 0; node < size; node++) {
+            if (level[node] != LEVEL_ORDER) {
+                continue;
+            }
+            String po = firstElement(node, "PRF", 1);
+            String key = po != null && !po.isEmpty() ? po : "HL" + hlNumber[node];
+            long units = 0;
+            for (int item : descendants(node, LEVEL_ITEM)) {
+                units += itemQuantity(item);
+            }
+            totals.merge(key, units, Long::sum);
+        }
+        return totals;
+    }
+}
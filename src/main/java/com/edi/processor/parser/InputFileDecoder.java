@@ -0,0 +1,155 @@
+package com.edi.processor.parser;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Turns the "Input File" request field into raw document bytes.
+ * Callers send either the document itself (X12, EDIFACT, JSON or XML, recognised by its first
+ * characters once surrounding whitespace and a byte order mark are stripped) or its Base64 encoding,
+ * which is decoded strictly: anything else is rejected rather than decoded to garbage.
+ * The char range variant decodes straight from a parser's text buffer, without a String copy.
+ */
+public final class InputFileDecoder {
+
+    static final String INVALID_MESSAGE = "Input File must be an X12, EDIFACT, JSON or XML document or valid Base64";
+
+    private static final byte[] EMPTY = new byte[0];
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    // Base64 alphabet value by character, -1 when not in the alphabet
+    private static final int[] BASE64_VALUES = new int[128];
+
+    static {
+        Arrays.fill(BASE64_VALUES, -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+        for (int i = 0; i < alphabet.length(); i++) {
+            BASE64_VALUES[alphabet.charAt(i)] = i;
+        }
+    }
+
+    private InputFileDecoder() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if the value is neither a raw document nor valid Base64
+     */
+    public static byte[] decode(String inputFile) {
+        if (inputFile == null) {
+            return EMPTY;
+        }
+        return decode(inputFile.toCharArray(), 0, inputFile.length());
+    }
+
+    /**
+     * Same as {@link #decode(String)} for {@code length} chars of {@code chars} from {@code offset}
+     */
+    public static byte[] decode(char[] chars, int offset, int length) {
+        int start = offset;
+        int end = offset + length;
+        while (start < end && (Character.isWhitespace(chars[start]) || chars[start] == BYTE_ORDER_MARK)) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(chars[end - 1])) {
+            end--;
+        }
+        if (start == end) {
+            return EMPTY;
+        }
+        if (looksLikeRawDocument(chars, start, end)) {
+            return encodeUtf8(chars, start, end);
+        }
+        byte[] decoded = decodeBase64(chars, start, end);
+        if (decoded == null) {
+            throw new IllegalArgumentException(INVALID_MESSAGE);
+        }
+        return decoded;
+    }
+
+    /**
+     * Base64 as {@link Base64#getDecoder()} decodes it: only alphabet characters, padding optional
+     * but, when present, complete and last. Null when the input is not valid Base64.
+     */
+    private static byte[] decodeBase64(char[] chars, int start, int end) {
+        int dataEnd = end;
+        for (int i = start; i < end; i++) {
+            char c = chars[i];
+            if (c == '=') {
+                dataEnd = i;
+                break;
+            }
+            if (value(c) < 0) {
+                return null;
+            }
+        }
+        int symbols = dataEnd - start;
+        int remainder = symbols % 4;
+        if (remainder == 1 || (dataEnd < end && !validPadding(chars, dataEnd, end, remainder))) {
+            return null;
+        }
+
+        byte[] out = new byte[symbols / 4 * 3 + (remainder == 0 ? 0 : remainder - 1)];
+        int position = 0;
+        int i = start;
+        for (; i + 4 <= dataEnd; i += 4) {
+            int unit = (value(chars[i]) << 18) | (value(chars[i + 1]) << 12)
+                    | (value(chars[i + 2]) << 6) | value(chars[i + 3]);
+            out[position++] = (byte) (unit >> 16);
+            out[position++] = (byte) (unit >> 8);
+            out[position++] = (byte) unit;
+        }
+        if (remainder == 2) {
+            out[position] = (byte) (((value(chars[i]) << 6) | value(chars[i + 1])) >> 4);
+        } else if (remainder == 3) {
+            int bits = (value(chars[i]) << 12) | (value(chars[i + 1]) << 6) | value(chars[i + 2]);
+            out[position++] = (byte) (bits >> 10);
+            out[position] = (byte) (bits >> 2);
+        }
+        return out;
+    }
+
+    private static int value(char c) {
+        return c < 128 ? BASE64_VALUES[c] : -1;
+    }
+
+    /**
+     * Padding must complete the last unit ("=" after 3 symbols, "==" after 2) and end the input
+     */
+    private static boolean validPadding(char[] chars, int padStart, int end, int remainder) {
+        int padding = remainder == 2 ? 2 : remainder == 3 ? 1 : 0;
+        if (padding == 0 || end - padStart != padding) {
+            return false;
+        }
+        return padding == 1 || chars[padStart + 1] == '=';
+    }
+
+    private static byte[] encodeUtf8(char[] chars, int start, int end) {
+        byte[] out = new byte[end - start];
+        for (int i = start; i < end; i++) {
+            char c = chars[i];
+            if (c >= 0x80) {
+                return new String(chars, start, end - start).getBytes(StandardCharsets.UTF_8);
+            }
+            out[i - start] = (byte) c;
+        }
+        return out;
+    }
+
+    private static boolean looksLikeRawDocument(char[] chars, int start, int end) {
+        return startsWith(chars, start, end, "ISA") || startsWith(chars, start, end, "UNA")
+                || startsWith(chars, start, end, "UNB") || chars[start] == '{' || chars[start] == '<';
+    }
+
+    private static boolean startsWith(char[] chars, int start, int end, String prefix) {
+        if (end - start < prefix.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (chars[start + i] != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,121 @@
+package com.edi.processor.parser;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Fields of an X12 ISA interchange header. The ISA segment is fixed width, so the
+ * delimiters are read from their fixed positions and the elements are split on them.
+ */
+public class IsaHeader {
+
+    private static final int ISA_ELEMENT_COUNT = 16;
+    private static final int ISA_MIN_LENGTH = 106;
+
+    private final String senderQualifier;
+    private final String senderId;
+    private final String receiverQualifier;
+    private final String receiverId;
+    private final String date;
+    private final String time;
+    private final String version;
+    private final String controlNumber;
+    private final char elementSeparator;
+    private final char subElementSeparator;
+    private final char segmentTerminator;
+
+    private IsaHeader(String[] elements, char elementSeparator, char subElementSeparator, char segmentTerminator) {
+        this.senderQualifier = elements[5].trim();
+        this.senderId = elements[6].trim();
+        this.receiverQualifier = elements[7].trim();
+        this.receiverId = elements[8].trim();
+        this.date = elements[9].trim();
+        this.time = elements[10].trim();
+        this.version = elements[12].trim();
+        this.controlNumber = elements[13].trim();
+        this.elementSeparator = elementSeparator;
+        this.subElementSeparator = subElementSeparator;
+        this.segmentTerminator = segmentTerminator;
+    }
+
+    /**
+     * Parse the ISA header at the start of {@code payload}, or return null when the
+     * payload is not an X12 interchange
+     */
+    public static IsaHeader parse(byte[] payload) {
+        int start = skipWhitespace(payload);
+        if (payload.length - start < ISA_MIN_LENGTH
+                || payload[start] != 'I' || payload[start + 1] != 'S' || payload[start + 2] != 'A') {
+            return null;
+        }
+        char elementSeparator = (char) payload[start + 3];
+        String[] elements = new String[ISA_ELEMENT_COUNT];
+        int element = 0;
+        int from = start;
+        int pos = start;
+        while (element < ISA_ELEMENT_COUNT && pos < payload.length) {
+            if (payload[pos] == elementSeparator) {
+                elements[element++] = new String(payload, from, pos - from, StandardCharsets.US_ASCII);
+                from = pos + 1;
+            }
+            pos++;
+        }
+        if (element < ISA_ELEMENT_COUNT || from + 1 >= payload.length) {
+            return null;
+        }
+        char subElementSeparator = (char) payload[from];
+        char segmentTerminator = (char) payload[from + 1];
+        return new IsaHeader(elements, elementSeparator, subElementSeparator, segmentTerminator);
+    }
+
+    private static int skipWhitespace(byte[] payload) {
+        int i = 0;
+        while (i < payload.length && Character.isWhitespace(payload[i])) {
+            i++;
+        }
+        return i;
+    }
+
+    public String getSenderQualifier() {
+        return senderQualifier;
+    }
+
+    public String getSenderId() {
+        return senderId;
+    }
+
+    public String getReceiverQualifier() {
+        return receiverQualifier;
+    }
+
+    public String getReceiverId() {
+        return receiverId;
+    }
+
+    public String getDate() {
+        return date;
+    }
+
+    public String getTime() {
+        return time;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public String getControlNumber() {
+        return controlNumber;
+    }
+
+    public char getElementSeparator() {
+        return elementSeparator;
+    }
+
+    public char getSubElementSeparator() {
+        return subElementSeparator;
+    }
+
+    public char getSegmentTerminator() {
+        return segmentTerminator;
+    }
+}
@@ -0,0 +1,159 @@
+package com.edi.processor.parser;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Segment boundaries of a raw X12 payload, found in one pass using the delimiters from its ISA
+ * header. Segments are addressed by index; elements are read straight from the payload bytes.
+ */
+public final class X12SegmentIndex {
+
+    private final byte[] payload;
+    private final byte elementSeparator;
+    private final int[] starts;
+    private final int[] ends;
+    private final int size;
+
+    private X12SegmentIndex(byte[] payload, byte elementSeparator, int[] starts, int[] ends, int size) {
+        this.payload = payload;
+        this.elementSeparator = elementSeparator;
+        this.starts = starts;
+        this.ends = ends;
+        this.size = size;
+    }
+
+    public static X12SegmentIndex build(byte[] payload, IsaHeader isa) {
+        byte segmentTerminator = (byte) isa.getSegmentTerminator();
+        int[] starts = new int[64];
+        int[] ends = new int[64];
+        int size = 0;
+
+        int position = 0;
+        while (position < payload.length) {
+            while (position < payload.length
+                    && (payload[position] == '\r' || payload[position] == '\n' || payload[position] == ' ')) {
+                position++;
+            }
+            if (position >= payload.length) {
+                break;
+            }
+            int end = position;
+            while (end < payload.length && payload[end] != segmentTerminator) {
+                end++;
+            }
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+            }
+            starts[size] = position;
+            ends[size] = end;
+            size++;
+            position = end + 1;
+        }
+        return new X12SegmentIndex(payload, (byte) isa.getElementSeparator(), starts, ends, size);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Whether segment {@code segment} has the given ID (HL, LIN, SN1...)
+     */
+    public boolean isSegment(int segment, String segmentId) {
+        int start = starts[segment];
+        int idLength = segmentId.length();
+        if (ends[segment] - start < idLength
+                || (ends[segment] - start > idLength && payload[start + idLength] != elementSeparator)) {
+            return false;
+        }
+        for (int i = 0; i < idLength; i++) {
+            if (payload[start + i] != segmentId.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Element {@code elementIndex} (1-based) of a segment, or null if absent
+     */
+    public String element(int segment, int elementIndex) {
+        long bounds = elementBounds(segment, elementIndex);
+        if (bounds < 0) {
+            return null;
+        }
+        int from = (int) (bounds >>> 32);
+        int to = (int) bounds;
+        return new String(payload, from, to - from, StandardCharsets.US_ASCII).trim();
+    }
+
+    /**
+     * Element parsed as a whole number, or {@code defaultValue} if absent or not numeric.
+     * Decimal places are truncated.
+     */
+    public long elementAsLong(int segment, int elementIndex, long defaultValue) {
+        long bounds = elementBounds(segment, elementIndex);
+        if (bounds < 0) {
+            return defaultValue;
+        }
+        int from = (int) (bounds >>> 32);
+        int to = (int) bounds;
+        while (from < to && payload[from] == ' ') {
+            from++;
+        }
+        boolean negative = from < to && payload[from] == '-';
+        if (negative) {
+            from++;
+        }
+        if (from >= to || payload[from] < '0' || payload[from] > '9') {
+            return defaultValue;
+        }
+        long value = 0;
+        for (int i = from; i < to && payload[i] >= '0' && payload[i] <= '9'; i++) {
+            value = value * 10 + (payload[i] - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Whether an element equals {@code value}, without allocating
+     */
+    public boolean elementEquals(int segment, int elementIndex, String value) {
+        long bounds = elementBounds(segment, elementIndex);
+        if (bounds < 0) {
+            return false;
+        }
+        int from = (int) (bounds >>> 32);
+        int to = (int) bounds;
+        if (to - from != value.length()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (payload[from + i] != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Start (high 32 bits) and end (low 32 bits) offsets of an element, or -1
+     */
+    private long elementBounds(int segment, int elementIndex) {
+        int end = ends[segment];
+        int index = 0;
+        int from = starts[segment];
+        for (int position = from; position <= end; position++) {
+            if (position == end || payload[position] == elementSeparator) {
+                if (index == elementIndex) {
+                    return ((long) from << 32) | position;
+                }
+                index++;
+                from = position + 1;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,76 @@
+package com.edi.processor.parser;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Element lookups over a raw X12 payload, using the delimiters from its ISA header.
+ */
+public final class X12Segments {
+
+    private X12Segments() {
+    }
+
+    /**
+     * Value of element {@code elementIndex} (1-based, as in GS06) of the first segment with the
+     * given ID, or null if there is no such segment or element
+     */
+    public static String findElement(byte[] payload, IsaHeader isa, String segmentId, int elementIndex) {
+        byte elementSeparator = (byte) isa.getElementSeparator();
+        byte segmentTerminator = (byte) isa.getSegmentTerminator();
+        int segmentStart = 0;
+        while (segmentStart < payload.length) {
+            segmentStart = skipWhitespace(payload, segmentStart);
+            int segmentEnd = indexOf(payload, segmentTerminator, segmentStart);
+            if (matchesId(payload, segmentStart, segmentEnd, segmentId, elementSeparator)) {
+                return element(payload, segmentStart, segmentEnd, elementSeparator, elementIndex);
+            }
+            segmentStart = segmentEnd + 1;
+        }
+        return null;
+    }
+
+    private static boolean matchesId(byte[] payload, int start, int end, String segmentId, byte elementSeparator) {
+        int idLength = segmentId.length();
+        if (end - start <= idLength || payload[start + idLength] != elementSeparator) {
+            return false;
+        }
+        for (int i = 0; i < idLength; i++) {
+            if (payload[start + i] != segmentId.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String element(byte[] payload, int start, int end, byte elementSeparator, int elementIndex) {
+        int index = 0;
+        int from = start;
+        for (int pos = start; pos <= end; pos++) {
+            if (pos == end || payload[pos] == elementSeparator) {
+                if (index == elementIndex) {
+                    return new String(payload, from, pos - from, StandardCharsets.US_ASCII).trim();
+                }
+                index++;
+                from = pos + 1;
+            }
+        }
+        return null;
+    }
+
+    private static int indexOf(byte[] payload, byte value, int from) {
+        for (int i = from; i < payload.length; i++) {
+            if (payload[i] == value) {
+                return i;
+            }
+        }
+        return payload.length;
+    }
+
+    private static int skipWhitespace(byte[] payload, int from) {
+        int i = from;
+        while (i < payload.length && (payload[i] == '\r' || payload[i] == '\n' || payload[i] == ' ')) {
+            i++;
+        }
+        return i;
+    }
+}
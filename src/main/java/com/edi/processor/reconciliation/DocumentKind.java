@@ -0,0 +1,20 @@
+package com.edi.processor.reconciliation;
+
+/**
+ * Documents kept open for reconciliation, with the counterpart that closes them
+ */
+public enum DocumentKind {
+
+    ORDER("SHIPCONFIRM"),
+    ASN("RECEIPT");
+
+    private final String counterpart;
+
+    DocumentKind(String counterpart) {
+        this.counterpart = counterpart;
+    }
+
+    public String getCounterpart() {
+        return counterpart;
+    }
+}
@@ -0,0 +1,229 @@
+package com.edi.processor.reconciliation;
+
+import com.edi.processor.model.reconciliation.Discrepancy;
+import com.edi.processor.parser.EdifactSegmentIndex;
+import com.edi.processor.parser.HlTree;
+import com.edi.processor.parser.X12SegmentIndex;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Units per product of a document, summed over its lines, held as two parallel arrays in
+ * document order. Open documents keep only this, not their payload.
+ */
+public final class DocumentLines {
+
+    public static final DocumentLines EMPTY = new DocumentLines(new String[0], new long[0]);
+
+    // LIN / W01 / W07 product ID qualifiers: vendor, buyer and UPC/EAN numbers
+    private static final Set<String> PRODUCT_QUALIFIERS = Set.of("VN", "SK", "BP", "IN", "MG", "UP", "UK", "EN", "UA");
+
+    private final String[] products;
+    private final long[] quantities;
+
+    private DocumentLines(String[] products, long[] quantities) {
+        this.products = products;
+        this.quantities = quantities;
+    }
+
+    /**
+     * Items of an 856 (ASN / ship confirm): LIN03 and SN1-02 of each item loop
+     */
+    public static DocumentLines fromHlTree(HlTree tree) {
+        Map<String, Long> lines = new LinkedHashMap<>();
+        for (int node = 0; node < tree.size(); node++) {
+            if (tree.getLevel(node) == HlTree.LEVEL_ITEM) {
+                add(lines, tree.itemId(node), tree.itemQuantity(node));
+            }
+        }
+        return of(lines);
+    }
+
+    /**
+     * Detail segments with the quantity in element 1 and a qualified product ID from element 3,
+     * e.g. W01 (940 order) or W07 (944 receipt): {@code W07*100*EA*VN*SKU-1001}
+     */
+    public static DocumentLines fromX12(X12SegmentIndex segments, String segmentId) {
+        Map<String, Long> lines = new LinkedHashMap<>();
+        for (int s = 0; s < segments.size(); s++) {
+            if (segments.isSegment(s, segmentId)) {
+                add(lines, productId(segments, s, 3), segments.elementAsLong(s, 1, 0));
+            }
+        }
+        return of(lines);
+    }
+
+    /**
+     * LIN groups of an EDIFACT message (ORDERS, DESADV, RECADV): the item number of LIN-03, or of
+     * the first PIA when LIN carries none, and the first QTY with one of {@code quantityQualifiers},
+     * e.g. 21 (ordered) or 12 (despatched): {@code LIN+1++SKU-1001:SA'QTY+12:100'}
+     */
+    public static DocumentLines fromEdifact(EdifactSegmentIndex segments, String... quantityQualifiers) {
+        Map<String, Long> lines = new LinkedHashMap<>();
+        String productId = null;
+        long quantity = 0;
+        boolean quantitySeen = false;
+        boolean inLine = false;
+        for (int s = 0; s < segments.size(); s++) {
+            if (segments.isSegment(s, "LIN")) {
+                if (inLine) {
+                    add(lines, productId, quantity);
+                }
+                inLine = true;
+                productId = segments.component(s, 3, 1);
+                quantity = 0;
+                quantitySeen = false;
+            } else if (!inLine) {
+                continue;
+            } else if (segments.isSegment(s, "PIA")) {
+                if (productId == null || productId.isEmpty()) {
+                    productId = segments.component(s, 2, 1);
+                }
+            } else if (segments.isSegment(s, "QTY")) {
+                if (!quantitySeen && hasQualifier(segments, s, quantityQualifiers)) {
+                    quantity = segments.componentAsLong(s, 1, 2, 0);
+                    quantitySeen = true;
+                }
+            } else if (segments.isSegment(s, "UNS") || segments.isSegment(s, "UNT")) {
+                add(lines, productId, quantity);
+                inLine = false;
+            }
+        }
+        if (inLine) {
+            add(lines, productId, quantity);
+        }
+        return of(lines);
+    }
+
+    /**
+     * The first {@code count} products and quantities, summed per product in order of first
+     * appearance; blank products are skipped
+     */
+    public static DocumentLines sum(String[] products, long[] quantities, int count) {
+        Map<String, Long> lines = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            add(lines, products[i], quantities[i]);
+        }
+        return of(lines);
+    }
+
+    private static boolean hasQualifier(EdifactSegmentIndex segments, int segment, String[] qualifiers) {
+        for (String qualifier : qualifiers) {
+            if (segments.componentEquals(segment, 1, 1, qualifier)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Entries of a JSON {@code items[]} array: {@code sku} and the first present quantity field
+     */
+    public static DocumentLines fromJson(JsonNode root, String... quantityFields) {
+        Map<String, Long> lines = new LinkedHashMap<>();
+        for (JsonNode item : root.path("items")) {
+            long quantity = 0;
+            for (String field : quantityFields) {
+                if (item.has(field)) {
+                    quantity = item.path(field).asLong(0);
+                    break;
+                }
+            }
+            add(lines, item.path("sku").asText(""), quantity);
+        }
+        return of(lines);
+    }
+
+    private static String productId(X12SegmentIndex segments, int segment, int fromElement) {
+        for (int e = fromElement; ; e++) {
+            String qualifier = segments.element(segment, e);
+            if (qualifier == null) {
+                return null;
+            }
+            if (PRODUCT_QUALIFIERS.contains(qualifier)) {
+                return segments.element(segment, e + 1);
+            }
+        }
+    }
+
+    private static void add(Map<String, Long> lines, String productId, long quantity) {
+        if (productId != null && !productId.isEmpty()) {
+            lines.merge(productId, quantity, Long::sum);
+        }
+    }
+
+    private static DocumentLines of(Map<String, Long> lines) {
+        if (lines.isEmpty()) {
+            return EMPTY;
+        }
+        String[] products = new String[lines.size()];
+        long[] quantities = new long[lines.size()];
+        int i = 0;
+        for (Map.Entry<String, Long> line : lines.entrySet()) {
+            products[i] = line.getKey();
+            quantities[i++] = line.getValue();
+        }
+        return new DocumentLines(products, quantities);
+    }
+
+    public int size() {
+        return products.length;
+    }
+
+    public boolean isEmpty() {
+        return products.length == 0;
+    }
+
+    public long totalUnits() {
+        long total = 0;
+        for (long quantity : quantities) {
+            total += quantity;
+        }
+        return total;
+    }
+
+    public Map<String, Long> toMap() {
+        Map<String, Long> map = new LinkedHashMap<>();
+        for (int i = 0; i < products.length; i++) {
+            map.put(products[i], quantities[i]);
+        }
+        return map;
+    }
+
+    /**
+     * Lines of {@code actual} that differ from these expected lines: expected products first, in
+     * document order, then products that were not expected
+     */
+    public List<Discrepancy> compare(DocumentLines actual) {
+        Map<String, Integer> actualIndex = new HashMap<>(actual.products.length * 2);
+        for (int i = 0; i < actual.products.length; i++) {
+            actualIndex.put(actual.products[i], i);
+        }
+        List<Discrepancy> discrepancies = new ArrayList<>();
+        for (int i = 0; i < products.length; i++) {
+            Integer match = actualIndex.remove(products[i]);
+            if (match == null) {
+                discrepancies.add(new Discrepancy(products[i], Discrepancy.Type.MISSING, quantities[i], 0));
+            } else if (actual.quantities[match] < quantities[i]) {
+                discrepancies.add(new Discrepancy(products[i], Discrepancy.Type.SHORT, quantities[i],
+                        actual.quantities[match]));
+            } else if (actual.quantities[match] > quantities[i]) {
+                discrepancies.add(new Discrepancy(products[i], Discrepancy.Type.OVER, quantities[i],
+                        actual.quantities[match]));
+            }
+        }
+        for (int i = 0; i < actual.products.length; i++) {
+            if (actualIndex.containsKey(actual.products[i])) {
+                discrepancies.add(new Discrepancy(actual.products[i], Discrepancy.Type.UNEXPECTED, 0,
+                        actual.quantities[i]));
+            }
+        }
+        return discrepancies;
+    }
+}
@@ -0,0 +1,60 @@
+package com.edi.processor.reconciliation;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.util.Map;
+
+/**
+ * An ASN or order waiting for its receipt or ship confirmation
+ */
+@JsonPropertyOrder({"documentType", "key", "uuid", "registeredAt", "totalUnits", "lines"})
+public final class OpenDocument {
+
+    private final DocumentKind kind;
+    private final String key;
+    private final String uuid;
+    private final long registeredAt;
+    private final DocumentLines lines;
+
+    public OpenDocument(DocumentKind kind, String key, String uuid, long registeredAt, DocumentLines lines) {
+        this.kind = kind;
+        this.key = key;
+        this.uuid = uuid;
+        this.registeredAt = registeredAt;
+        this.lines = lines;
+    }
+
+    public String getDocumentType() {
+        return kind.name();
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * UUID of the request that delivered the document
+     */
+    public String getUuid() {
+        return uuid;
+    }
+
+    public long getRegisteredAt() {
+        return registeredAt;
+    }
+
+    public long getTotalUnits() {
+        return lines.totalUnits();
+    }
+
+    /**
+     * Units per product ID
+     */
+    public Map<String, Long> getLines() {
+        return lines.toMap();
+    }
+
+    public DocumentLines lines() {
+        return lines;
+    }
+}
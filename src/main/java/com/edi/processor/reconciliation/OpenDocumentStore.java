@@ -0,0 +1,104 @@
+package com.edi.processor.reconciliation;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Open documents by key, split into lock stripes chosen by key hash. Each stripe keeps its documents
+ * in registration order, so expiry only visits documents that are actually expired.
+ */
+public final class OpenDocumentStore {
+
+    private final Stripe[] stripes;
+    private final int mask;
+    private final AtomicInteger size = new AtomicInteger();
+
+    public OpenDocumentStore(int stripeCount) {
+        int count = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe();
+        }
+        mask = count - 1;
+    }
+
+    /**
+     * Add a document, replacing (and re-dating) any open document with the same key
+     */
+    public void put(OpenDocument document) {
+        Stripe stripe = stripe(document.getKey());
+        stripe.lock.lock();
+        try {
+            if (stripe.documents.remove(document.getKey()) == null) {
+                size.incrementAndGet();
+            }
+            stripe.documents.put(document.getKey(), document);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public OpenDocument get(String key) {
+        Stripe stripe = stripe(key);
+        stripe.lock.lock();
+        try {
+            return stripe.documents.get(key);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Remove and return the open document with this key, or null
+     */
+    public OpenDocument remove(String key) {
+        Stripe stripe = stripe(key);
+        stripe.lock.lock();
+        try {
+            OpenDocument removed = stripe.documents.remove(key);
+            if (removed != null) {
+                size.decrementAndGet();
+            }
+            return removed;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Drop documents registered before {@code cutoff}; returns how many were dropped
+     */
+    public int removeRegisteredBefore(long cutoff) {
+        int removed = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                Iterator<OpenDocument> oldestFirst = stripe.documents.values().iterator();
+                while (oldestFirst.hasNext() && oldestFirst.next().getRegisteredAt() < cutoff) {
+                    oldestFirst.remove();
+                    removed++;
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        size.addAndGet(-removed);
+        return removed;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    private Stripe stripe(String key) {
+        int h = key.hashCode();
+        return stripes[(h ^ (h >>> 16)) & mask];
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<String, OpenDocument> documents = new LinkedHashMap<>();
+    }
+}
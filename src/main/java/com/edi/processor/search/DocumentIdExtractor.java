@@ -0,0 +1,174 @@
+package com.edi.processor.search;
+
+import com.edi.processor.model.search.IndexedDocument;
+import com.edi.processor.parser.EdifactHeader;
+import com.edi.processor.parser.EdifactSegmentIndex;
+import com.edi.processor.parser.IsaHeader;
+import com.edi.processor.parser.X12SegmentIndex;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Reads the identifiers support searches by from an X12 or EDIFACT interchange or JSON document.
+ *
+ * X12: BEG-03 and W05-03 (PO), W05-02 (ORDER), BSN-02 (ASN), PRF-01 (PO), REF*PO, REF*BM (BOL)
+ * and REF*CN (PRO), plus the ISA13 / GS06 / ST02 control numbers.
+ * EDIFACT: BGM-02 (ORDER in ORDERS, ASN in DESADV), RFF+ON (PO), RFF+AAK (ASN), RFF+BM (BOL) and
+ * RFF+CN (PRO), plus the UNB-05 / UNH-01 references.
+ * JSON: orderId, asnNumber, poNumber, bolNumber, proNumber and trackingNumber at any depth.
+ */
+public final class DocumentIdExtractor {
+
+    public static final String PO = "PO";
+    public static final String ORDER = "ORDER";
+    public static final String ASN = "ASN";
+    public static final String BOL = "BOL";
+    public static final String PRO = "PRO";
+    public static final String TRACKING = "TRACKING";
+
+    private static final Map<String, String> JSON_FIELDS = Map.of(
+            "orderId", ORDER,
+            "originalOrderId", ORDER,
+            "asnNumber", ASN,
+            "poNumber", PO,
+            "purchaseOrderNumber", PO,
+            "bolNumber", BOL,
+            "proNumber", PRO,
+            "trackingNumber", TRACKING);
+
+    private final ObjectMapper objectMapper;
+
+    public DocumentIdExtractor(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Add the identifiers and control numbers of {@code payload} to {@code document}. Payloads that
+     * are neither X12, EDIFACT nor JSON add nothing.
+     */
+    public void extract(byte[] payload, IndexedDocument.Builder document) {
+        IsaHeader isa = IsaHeader.parse(payload);
+        EdifactHeader unb;
+        if (isa != null) {
+            extractX12(payload, isa, document);
+        } else if ((unb = EdifactHeader.parse(payload)) != null) {
+            extractEdifact(payload, unb, document);
+        } else if (isJson(payload)) {
+            try {
+                extractJson(objectMapper.readTree(payload), document);
+            } catch (IOException e) {
+                // Not indexable; the document is still recorded under its UUID
+            }
+        }
+    }
+
+    private static void extractX12(byte[] payload, IsaHeader isa, IndexedDocument.Builder document) {
+        document.interchangeControlNumber(isa.getControlNumber());
+        X12SegmentIndex segments = X12SegmentIndex.build(payload, isa);
+        boolean groupSeen = false;
+        boolean transactionSetSeen = false;
+        for (int s = 0; s < segments.size(); s++) {
+            if (!groupSeen && segments.isSegment(s, "GS")) {
+                document.groupControlNumber(segments.element(s, 6));
+                groupSeen = true;
+            } else if (!transactionSetSeen && segments.isSegment(s, "ST")) {
+                document.transactionSetControlNumber(segments.element(s, 2));
+                transactionSetSeen = true;
+            } else if (segments.isSegment(s, "BEG")) {
+                document.id(PO, segments.element(s, 3));
+            } else if (segments.isSegment(s, "W05")) {
+                document.id(ORDER, segments.element(s, 2));
+                String po = segments.element(s, 3);
+                // Some senders put the date in W05-03
+                if (po != null && !isDate(po)) {
+                    document.id(PO, po);
+                }
+            } else if (segments.isSegment(s, "BSN")) {
+                document.id(ASN, segments.element(s, 2));
+            } else if (segments.isSegment(s, "PRF")) {
+                document.id(PO, segments.element(s, 1));
+            } else if (segments.isSegment(s, "REF")) {
+                String qualifier = segments.element(s, 1);
+                if ("PO".equals(qualifier)) {
+                    document.id(PO, segments.element(s, 2));
+                } else if ("BM".equals(qualifier)) {
+                    document.id(BOL, segments.element(s, 2));
+                } else if ("CN".equals(qualifier)) {
+                    document.id(PRO, segments.element(s, 2));
+                }
+            }
+        }
+    }
+
+    private static void extractEdifact(byte[] payload, EdifactHeader unb, IndexedDocument.Builder document) {
+        document.interchangeControlNumber(unb.getControlReference());
+        EdifactSegmentIndex segments = EdifactSegmentIndex.build(payload, unb);
+        String documentType = null;
+        for (int s = 0; s < segments.size(); s++) {
+            if (documentType == null && segments.isSegment(s, "UNH")) {
+                document.transactionSetControlNumber(segments.element(s, 1));
+                documentType = segments.componentEquals(s, 2, 1, "ORDERS") ? ORDER
+                        : segments.componentEquals(s, 2, 1, "DESADV") ? ASN
+                        : "";
+            } else if (segments.isSegment(s, "BGM")) {
+                if (documentType != null && !documentType.isEmpty()) {
+                    document.id(documentType, segments.component(s, 2, 1));
+                }
+            } else if (segments.isSegment(s, "RFF")) {
+                String qualifier = segments.component(s, 1, 1);
+                String type = "ON".equals(qualifier) ? PO
+                        : "AAK".equals(qualifier) ? ASN
+                        : "BM".equals(qualifier) ? BOL
+                        : "CN".equals(qualifier) ? PRO
+                        : null;
+                if (type != null) {
+                    document.id(type, segments.component(s, 1, 2));
+                }
+            }
+        }
+    }
+
+    private static void extractJson(JsonNode node, IndexedDocument.Builder document) {
+        if (node.isArray()) {
+            for (JsonNode element : node) {
+                extractJson(element, document);
+            }
+        } else if (node.isObject()) {
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                String type = JSON_FIELDS.get(field.getKey());
+                if (type != null && field.getValue().isValueNode()) {
+                    document.id(type, field.getValue().asText());
+                } else if (field.getValue().isContainerNode()) {
+                    extractJson(field.getValue(), document);
+                }
+            }
+        }
+    }
+
+    private static boolean isDate(String value) {
+        if (value.length() != 8) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) < '0' || value.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return value.startsWith("19") || value.startsWith("20");
+    }
+
+    private static boolean isJson(byte[] payload) {
+        for (byte b : payload) {
+            if (b != ' ' && b != '\r' && b != '\n' && b != '\t') {
+                return b == '{';
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,586 @@
+package com.edi.processor.search;
+
+import com.edi.processor.model.search.IndexedDocument;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index from identifier values to documents, kept on local disk.
+ *
+ * Documents are appended to {@code documents.log} as length-prefixed JSON; a document's ID is its
+ * offset in that file. New postings collect in memory and are flushed to immutable, sorted segment
+ * files ({@code segment-N.idx}); once there are more than {@code maxSegments}, the smallest are
+ * merged. Each segment's term dictionary is held in memory and its postings are read from disk.
+ *
+ * On open, documents logged after the newest segment are re-read into memory, so nothing logged is
+ * lost if the process stops before a flush.
+ *
+ * One thread calls {@link #add}, {@link #flush} and {@link #close}; searches may run concurrently.
+ */
+public final class InvertedIndex implements Closeable {
+
+    private static final String LOG_FILE = "documents.log";
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".idx";
+    private static final int SEGMENT_MAGIC = 0x45444958;
+    private static final int SEGMENT_VERSION = 1;
+    private static final int MERGE_FACTOR = 8;
+
+    private final Path directory;
+    private final ObjectMapper mapper;
+    private final int maxSegments;
+    private final FileChannel log;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long logLength;
+    private Map<String, Postings> buffer = new HashMap<>();
+    private Map<String, Postings> flushing = Map.of();
+    private int bufferedDocuments;
+    private volatile List<Segment> segments = new ArrayList<>();
+    private long nextGeneration;
+
+    private InvertedIndex(Path directory, ObjectMapper mapper, int maxSegments) throws IOException {
+        this.directory = directory;
+        this.mapper = mapper;
+        this.maxSegments = Math.max(1, maxSegments);
+        this.log = FileChannel.open(directory.resolve(LOG_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    public static InvertedIndex open(Path directory, ObjectMapper mapper, int maxSegments) throws IOException {
+        Files.createDirectories(directory);
+        InvertedIndex index = new InvertedIndex(directory, mapper, maxSegments);
+        try {
+            index.loadSegments();
+            index.replayLog();
+        } catch (IOException | RuntimeException e) {
+            index.close();
+            throw e;
+        }
+        return index;
+    }
+
+    /**
+     * Append documents to the log and make them searchable
+     */
+    public void add(List<IndexedDocument> documents) throws IOException {
+        if (documents.isEmpty()) {
+            return;
+        }
+        List<byte[]> records = new ArrayList<>(documents.size());
+        int total = 0;
+        for (IndexedDocument document : documents) {
+            byte[] record = mapper.writeValueAsBytes(document);
+            records.add(record);
+            total += Integer.BYTES + record.length;
+        }
+        ByteBuffer batch = ByteBuffer.allocate(total);
+        long[] offsets = new long[documents.size()];
+        long position = logLength;
+        for (int i = 0; i < records.size(); i++) {
+            offsets[i] = position + batch.position();
+            batch.putInt(records.get(i).length).put(records.get(i));
+        }
+        batch.flip();
+        while (batch.hasRemaining()) {
+            position += log.write(batch, position);
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < documents.size(); i++) {
+                addPostings(documents.get(i), offsets[i]);
+            }
+            logLength = position;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int getBufferedDocuments() {
+        return bufferedDocuments;
+    }
+
+    /**
+     * Write the in-memory postings to a new segment, then merge segments if there are too many
+     */
+    public void flush() throws IOException {
+        if (bufferedDocuments == 0) {
+            return;
+        }
+        long covered;
+        lock.writeLock().lock();
+        try {
+            flushing = buffer;
+            buffer = new HashMap<>();
+            bufferedDocuments = 0;
+            covered = logLength;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.force(false);
+
+        String[] terms = flushing.keySet().toArray(new String[0]);
+        Arrays.sort(terms);
+        Path file = nextSegmentFile();
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(temp), 1 << 16))) {
+            writeHeader(out, covered, terms.length);
+            for (String term : terms) {
+                Postings postings = flushing.get(term);
+                writeTerm(out, term, postings.values, postings.size);
+            }
+        }
+        Segment segment = publish(temp, file);
+
+        lock.writeLock().lock();
+        try {
+            List<Segment> updated = new ArrayList<>(segments);
+            updated.add(segment);
+            segments = updated;
+            flushing = Map.of();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        while (segments.size() > maxSegments) {
+            merge();
+        }
+    }
+
+    /**
+     * Documents with an identifier (or UUID) equal to {@code term}, ignoring case, newest first.
+     * With a {@code type}, only documents where the term is an identifier of that type.
+     */
+    public List<IndexedDocument> search(String term, String type, int limit) throws IOException {
+        String key = normalize(term);
+        lock.readLock().lock();
+        try {
+            Postings matches = new Postings();
+            appendPostings(buffer.get(key), matches);
+            appendPostings(flushing.get(key), matches);
+            for (Segment segment : segments) {
+                segment.read(key, matches);
+            }
+            long[] offsets = Arrays.copyOf(matches.values, matches.size);
+            Arrays.sort(offsets);
+
+            List<IndexedDocument> results = new ArrayList<>();
+            long previous = -1;
+            for (int i = offsets.length - 1; i >= 0 && results.size() < limit; i--) {
+                if (offsets[i] == previous) {
+                    continue;
+                }
+                previous = offsets[i];
+                IndexedDocument document = readDocument(offsets[i]);
+                if (type == null || hasId(document, type, key)) {
+                    results.add(document);
+                }
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    public long getLogBytes() {
+        return logLength;
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            for (Segment segment : segments) {
+                segment.channel.close();
+            }
+            log.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addPostings(IndexedDocument document, long offset) {
+        for (String term : terms(document)) {
+            buffer.computeIfAbsent(term, t -> new Postings()).add(offset);
+        }
+        bufferedDocuments++;
+    }
+
+    private static List<String> terms(IndexedDocument document) {
+        List<String> terms = new ArrayList<>();
+        if (document.getUuid() != null) {
+            terms.add(normalize(document.getUuid()));
+        }
+        for (List<String> values : document.getIds().values()) {
+            for (String value : values) {
+                String term = normalize(value);
+                if (!terms.contains(term)) {
+                    terms.add(term);
+                }
+            }
+        }
+        return terms;
+    }
+
+    private static boolean hasId(IndexedDocument document, String type, String key) {
+        if ("UUID".equalsIgnoreCase(type)) {
+            return document.getUuid() != null && normalize(document.getUuid()).equals(key);
+        }
+        List<String> values = document.getIds().get(type.toUpperCase(Locale.ROOT));
+        if (values != null) {
+            for (String value : values) {
+                if (normalize(value).equals(key)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    static String normalize(String value) {
+        return value.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static void appendPostings(Postings postings, Postings target) {
+        if (postings != null) {
+            for (int i = 0; i < postings.size; i++) {
+                target.add(postings.values[i]);
+            }
+        }
+    }
+
+    private IndexedDocument readDocument(long offset) throws IOException {
+        ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+        readFully(log, length, offset);
+        ByteBuffer record = ByteBuffer.allocate(length.getInt(0));
+        readFully(log, record, offset + Integer.BYTES);
+        return mapper.readValue(record.array(), IndexedDocument.class);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer target, long position) throws IOException {
+        while (target.hasRemaining()) {
+            int read = channel.read(target, position + target.position());
+            if (read < 0) {
+                throw new EOFException("Unexpected end of " + LOG_FILE);
+            }
+        }
+    }
+
+    /**
+     * Re-index documents logged after the newest segment; a partly written last record is cut off
+     */
+    private void replayLog() throws IOException {
+        long position = 0;
+        for (Segment segment : segments) {
+            position = Math.max(position, segment.coveredLogLength);
+        }
+        long size = log.size();
+        ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+        while (position + Integer.BYTES <= size) {
+            length.clear();
+            readFully(log, length, position);
+            int recordLength = length.getInt(0);
+            if (recordLength <= 0 || position + Integer.BYTES + recordLength > size) {
+                break;
+            }
+            addPostings(readDocument(position), position);
+            position += Integer.BYTES + recordLength;
+        }
+        if (position < size) {
+            log.truncate(position);
+        }
+        logLength = position;
+    }
+
+    private void loadSegments() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*")) {
+            for (Path file : stream) {
+                if (file.getFileName().toString().endsWith(SEGMENT_SUFFIX)) {
+                    files.add(file);
+                } else {
+                    // Leftover of an interrupted flush or merge
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+        files.sort(Comparator.comparingLong(InvertedIndex::generation));
+        for (Path file : files) {
+            segments.add(Segment.open(file));
+            nextGeneration = Math.max(nextGeneration, generation(file) + 1);
+        }
+    }
+
+    /**
+     * Merge the smallest segments into one
+     */
+    private void merge() throws IOException {
+        List<Segment> inputs = new ArrayList<>(segments);
+        inputs.sort(Comparator.comparingLong(Segment::size));
+        inputs = inputs.subList(0, Math.min(MERGE_FACTOR, inputs.size()));
+
+        long covered = 0;
+        PriorityQueue<SegmentReader> readers = new PriorityQueue<>(Comparator.comparing(r -> r.term));
+        List<SegmentReader> opened = new ArrayList<>();
+        Path file = nextSegmentFile();
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            int termCount = 0;
+            for (Segment segment : inputs) {
+                covered = Math.max(covered, segment.coveredLogLength);
+                SegmentReader reader = new SegmentReader(segment.file);
+                opened.add(reader);
+                if (reader.next()) {
+                    readers.add(reader);
+                }
+            }
+            // The term count is written after the merge, so count distinct terms on the way
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(temp), 1 << 16))) {
+                writeHeader(out, covered, 0);
+                Postings merged = new Postings();
+                while (!readers.isEmpty()) {
+                    String term = readers.peek().term;
+                    merged.size = 0;
+                    while (!readers.isEmpty() && readers.peek().term.equals(term)) {
+                        SegmentReader reader = readers.poll();
+                        for (long value : reader.postings) {
+                            merged.add(value);
+                        }
+                        if (reader.next()) {
+                            readers.add(reader);
+                        }
+                    }
+                    Arrays.sort(merged.values, 0, merged.size);
+                    writeTerm(out, term, merged.values, merged.size);
+                    termCount++;
+                }
+            }
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer count = ByteBuffer.allocate(Integer.BYTES).putInt(0, termCount);
+                channel.write(count, 16);
+            }
+        } finally {
+            for (SegmentReader reader : opened) {
+                reader.in.close();
+            }
+        }
+        Segment segment = publish(temp, file);
+
+        lock.writeLock().lock();
+        try {
+            List<Segment> updated = new ArrayList<>(segments);
+            updated.removeAll(inputs);
+            updated.add(segment);
+            segments = updated;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        for (Segment input : inputs) {
+            input.channel.close();
+            Files.deleteIfExists(input.file);
+        }
+    }
+
+    private Segment publish(Path temp, Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+        return Segment.open(file);
+    }
+
+    private Path nextSegmentFile() {
+        return directory.resolve(SEGMENT_PREFIX + (nextGeneration++) + SEGMENT_SUFFIX);
+    }
+
+    private static long generation(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /*
+     * Segment layout: magic (int), version (int), covered log length (long), term count (int), then
+     * per term in ascending order: UTF-8 length (short), term bytes, posting count (int), offsets (long[]).
+     */
+
+    private static void writeHeader(DataOutputStream out, long coveredLogLength, int termCount) throws IOException {
+        out.writeInt(SEGMENT_MAGIC);
+        out.writeInt(SEGMENT_VERSION);
+        out.writeLong(coveredLogLength);
+        out.writeInt(termCount);
+    }
+
+    private static void writeTerm(DataOutputStream out, String term, long[] postings, int count) throws IOException {
+        byte[] bytes = term.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+        out.writeInt(count);
+        for (int i = 0; i < count; i++) {
+            out.writeLong(postings[i]);
+        }
+    }
+
+    /**
+     * Growable list of document offsets
+     */
+    private static final class Postings {
+        private long[] values = new long[2];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+
+    /**
+     * Open segment: sorted term dictionary in memory, postings read from the file on demand
+     */
+    private static final class Segment {
+        private final Path file;
+        private final FileChannel channel;
+        private final long size;
+        private final long coveredLogLength;
+        private final String[] terms;
+        private final long[] postingPositions;
+        private final int[] postingCounts;
+
+        private Segment(Path file, FileChannel channel, long size, long coveredLogLength, String[] terms,
+                        long[] postingPositions, int[] postingCounts) {
+            this.file = file;
+            this.channel = channel;
+            this.size = size;
+            this.coveredLogLength = coveredLogLength;
+            this.terms = terms;
+            this.postingPositions = postingPositions;
+            this.postingCounts = postingCounts;
+        }
+
+        static Segment open(Path file) throws IOException {
+            try (SegmentReader reader = new SegmentReader(file)) {
+                String[] terms = new String[reader.termCount];
+                long[] positions = new long[reader.termCount];
+                int[] counts = new int[reader.termCount];
+                for (int i = 0; i < reader.termCount && reader.next(false); i++) {
+                    terms[i] = reader.term;
+                    positions[i] = reader.postingsPosition;
+                    counts[i] = reader.postingCount;
+                }
+                return new Segment(file, FileChannel.open(file, StandardOpenOption.READ), Files.size(file),
+                        reader.coveredLogLength, terms, positions, counts);
+            }
+        }
+
+        long size() {
+            return size;
+        }
+
+        void read(String term, Postings target) throws IOException {
+            int i = Arrays.binarySearch(terms, term);
+            if (i < 0) {
+                return;
+            }
+            ByteBuffer postings = ByteBuffer.allocate(postingCounts[i] * Long.BYTES);
+            readFully(channel, postings, postingPositions[i]);
+            postings.flip();
+            while (postings.hasRemaining()) {
+                target.add(postings.getLong());
+            }
+        }
+    }
+
+    /**
+     * Sequential reader over a segment file's terms
+     */
+    private static final class SegmentReader implements Closeable {
+        private final DataInputStream in;
+        private final long coveredLogLength;
+        private final int termCount;
+        private int read;
+        private long position;
+        private String term;
+        private long postingsPosition;
+        private int postingCount;
+        private long[] postings;
+
+        SegmentReader(Path file) throws IOException {
+            in = new DataInputStream(new BufferedInputStream(
+                    Channels.newInputStream(FileChannel.open(file, StandardOpenOption.READ)), 1 << 16));
+            if (in.readInt() != SEGMENT_MAGIC || in.readInt() != SEGMENT_VERSION) {
+                in.close();
+                throw new IOException("Not a search index segment: " + file);
+            }
+            coveredLogLength = in.readLong();
+            termCount = in.readInt();
+            position = 20;
+        }
+
+        boolean next() throws IOException {
+            return next(true);
+        }
+
+        /**
+         * Advance to the next term, reading its postings or skipping over them
+         */
+        boolean next(boolean loadPostings) throws IOException {
+            if (read == termCount) {
+                return false;
+            }
+            byte[] bytes = new byte[in.readUnsignedShort()];
+            in.readFully(bytes);
+            term = new String(bytes, StandardCharsets.UTF_8);
+            postingCount = in.readInt();
+            postingsPosition = position + 2 + bytes.length + 4;
+            if (loadPostings) {
+                postings = new long[postingCount];
+                for (int i = 0; i < postingCount; i++) {
+                    postings[i] = in.readLong();
+                }
+            } else {
+                in.skipNBytes((long) postingCount * Long.BYTES);
+            }
+            position = postingsPosition + (long) postingCount * Long.BYTES;
+            read++;
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
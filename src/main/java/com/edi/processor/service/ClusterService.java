@@ -0,0 +1,355 @@
+package com.edi.processor.service;
+
+import com.edi.processor.cluster.ClusterStatus;
+import com.edi.processor.cluster.ForwardedResponse;
+import com.edi.processor.cluster.HashRing;
+import com.edi.processor.exception.ForwardingException;
+import com.edi.processor.model.partner.TradingPartner;
+import com.edi.processor.model.request.EdiRequest;
+import com.edi.processor.parser.EdifactHeader;
+import com.edi.processor.parser.IsaHeader;
+import com.edi.processor.warmup.SyntheticTraffic;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * Cluster mode: each /process request is sent to the one node that owns it, so the per-partner and
+ * per-UUID state that processing builds (duplicate detection, reconciliation registrations, catalog
+ * ITEMs, search) is kept on that node. Nothing else is routed or replicated: reconciliation posts,
+ * search, catalog reads, jobs and drop-folder files use the state of the node they reach. Since a
+ * node's catalog holds only the ITEMs of the partners it owns, SKU validation {@code reject} is
+ * refused in cluster mode; it would reject products another node knows.
+ *
+ * Nodes are the static list {@code edi.cluster.nodes}, identified by base URL. Live nodes are
+ * placed on a {@link HashRing}, and the owner of a request is the ring node for its shard key: the
+ * trading partner ID (or the interchange sender when the partner is unknown), or the UUID with
+ * {@code shard-key=uuid} or when the request has no interchange. Requests owned elsewhere are
+ * forwarded over HTTP with {@link #FORWARDED_HEADER}, and a forwarded request is always processed
+ * where it lands, so a node that disagrees about ownership during a membership change cannot bounce
+ * it back.
+ *
+ * Peers are probed every {@code probe-interval-ms}; a peer that fails a probe, or refuses a
+ * forwarded connection, leaves the ring and rejoins when it answers again. Each change rebuilds
+ * the ring, moving only the keys of the node that left or joined.
+ */
+@Service
+public class ClusterService {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterService.class);
+
+    public static final String FORWARDED_HEADER = "X-EDI-Forwarded-By";
+    public static final String NODE_HEADER = "X-EDI-Node";
+
+    static final String SHARD_KEY_PARTNER = "partner";
+    static final String SHARD_KEY_UUID = "uuid";
+
+    private static final String PROCESS_PATH = "/api/v1/edi/process";
+    private static final String HEALTH_PATH = "/api/v1/edi/health";
+
+    private final TradingPartnerRegistry partnerRegistry;
+    private final ItemCatalogService itemCatalog;
+    private final SyntheticTraffic syntheticTraffic;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${edi.cluster.enabled:false}")
+    private boolean enabled;
+
+    @Value("${edi.cluster.nodes:}")
+    private String nodeList;
+
+    @Value("${edi.cluster.self:http://localhost:${server.port:8080}}")
+    private String selfUrl;
+
+    @Value("${edi.cluster.shard-key:partner}")
+    private String shardKey;
+
+    @Value("${edi.cluster.virtual-nodes:128}")
+    private int virtualNodes;
+
+    @Value("${edi.cluster.probe-interval-ms:2000}")
+    private long probeIntervalMs;
+
+    @Value("${edi.cluster.forward-timeout-ms:30000}")
+    private long forwardTimeoutMs;
+
+    private String self;
+    private List<String> nodes = List.of();
+    private final AtomicReference<Membership> membership = new AtomicReference<>();
+    private HttpClient httpClient;
+    private ScheduledExecutorService monitor;
+    private Counter forwarded;
+    private Counter rebalances;
+
+    public ClusterService(TradingPartnerRegistry partnerRegistry, ItemCatalogService itemCatalog,
+                          SyntheticTraffic syntheticTraffic, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.partnerRegistry = partnerRegistry;
+        this.itemCatalog = itemCatalog;
+        this.syntheticTraffic = syntheticTraffic;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        self = normalize(selfUrl);
+        Set<String> configured = new LinkedHashSet<>();
+        for (String node : nodeList.split(",")) {
+            if (!node.isBlank()) {
+                configured.add(normalize(node));
+            }
+        }
+        if (!configured.contains(self)) {
+            throw new IllegalArgumentException("edi.cluster.self " + self + " is not in edi.cluster.nodes " + configured);
+        }
+        if (!SHARD_KEY_PARTNER.equals(shardKey) && !SHARD_KEY_UUID.equals(shardKey)) {
+            throw new IllegalArgumentException("edi.cluster.shard-key must be partner or uuid, not " + shardKey);
+        }
+        if (itemCatalog.getValidation() == ItemCatalogService.Validation.REJECT) {
+            throw new IllegalArgumentException("edi.catalog.sku-validation=reject cannot be used with cluster mode: "
+                    + "each node's catalog holds only the ITEMs of the partners it owns");
+        }
+        nodes = List.copyOf(configured);
+        forwarded = Counter.builder("edi.cluster.forwarded")
+                .description("Requests forwarded to the owning node")
+                .register(meterRegistry);
+        rebalances = Counter.builder("edi.cluster.rebalances")
+                .description("Ring rebuilds after a membership change")
+                .register(meterRegistry);
+        // Every configured node starts on the ring; probes and refused forwards take dead ones off
+        membership.set(new Membership(Set.copyOf(nodes), HashRing.of(nodes, virtualNodes)));
+
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(Math.min(probeIntervalMs, 2000)))
+                .build();
+        monitor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "edi-cluster-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        monitor.scheduleWithFixedDelay(this::probe, 0, probeIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("Cluster mode enabled - self {}, nodes {}, shard key {}, {} virtual nodes",
+                self, nodes, shardKey, virtualNodes);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (monitor != null) {
+            monitor.shutdownNow();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getSelf() {
+        return self;
+    }
+
+    public ClusterStatus getStatus() {
+        Membership current = membership.get();
+        if (current == null) {
+            return new ClusterStatus(false, null, shardKey, virtualNodes, List.of(), List.of(), Map.of());
+        }
+        return new ClusterStatus(true, self, shardKey, virtualNodes, nodes, current.ring.nodes(),
+                current.ring.shares());
+    }
+
+    /**
+     * Node that owns a shard key, whether or not it is this one
+     */
+    public String ownerOf(String key) {
+        Membership current = membership.get();
+        return current != null ? current.ring.owner(key) : null;
+    }
+
+    /**
+     * Node to forward a request to, or null to process it here: cluster mode is off, this node owns
+     * it, another node already forwarded it, or it is this node's own warmup traffic
+     */
+    public String route(EdiRequest ediRequest, String forwardedBy) {
+        if (!enabled || forwardedBy != null || ediRequest == null || ediRequest.getRequest() == null
+                || syntheticTraffic.isSynthetic(ediRequest.getUuid())) {
+            return null;
+        }
+        String owner = ownerOf(shardKey(ediRequest));
+        return owner == null || owner.equals(self) ? null : owner;
+    }
+
+    /**
+     * Partner ID, interchange sender or UUID of a request, as configured by {@code shard-key}
+     */
+    String shardKey(EdiRequest ediRequest) {
+        if (SHARD_KEY_PARTNER.equals(shardKey)) {
+            byte[] payload = ediRequest.getRequest().getInputFileBytes();
+            IsaHeader isa = IsaHeader.parse(payload);
+            if (isa != null) {
+                TradingPartner partner = partnerRegistry.findByIsaHeader(isa);
+                return "partner:" + (partner != null ? partner.getPartnerId() : isa.getSenderId());
+            }
+            EdifactHeader unb = EdifactHeader.parse(payload);
+            if (unb != null) {
+                TradingPartner partner = partnerRegistry.findByUnbHeader(unb);
+                return "partner:" + (partner != null ? partner.getPartnerId() : unb.getSenderId());
+            }
+        }
+        return "uuid:" + ediRequest.getUuid();
+    }
+
+    /**
+     * Send a request to its owner and return the owner's response. If the owner refuses the
+     * connection it leaves the ring and the request goes to the next owner; the future then
+     * completes with null when that is this node.
+     *
+     * @param accept       the client's Accept header, passed on so the owner picks the same format
+     * @param faultProfile the client's fault injection profile header, if any
+     */
+    public CompletableFuture<ForwardedResponse> forward(String owner, EdiRequest ediRequest, String accept,
+                                                        String faultProfile) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(ediRequest);
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return send(owner, ediRequest, body, accept, faultProfile);
+    }
+
+    private CompletableFuture<ForwardedResponse> send(String owner, EdiRequest ediRequest, byte[] body,
+                                                      String accept, String faultProfile) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(owner + PROCESS_PATH))
+                .timeout(Duration.ofMillis(forwardTimeoutMs))
+                .header("Content-Type", "application/json")
+                .header("Accept", accept != null ? accept : "application/json")
+                .header(FORWARDED_HEADER, self)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body));
+        if (faultProfile != null) {
+            request.header(FaultInjectionService.PROFILE_HEADER, faultProfile);
+        }
+        forwarded.increment();
+        return httpClient.sendAsync(request.build(), HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> new ForwardedResponse(
+                        response.headers().firstValue(NODE_HEADER).orElse(owner), response.statusCode(),
+                        response.headers().firstValue("Content-Type").orElse(null), response.body()))
+                .exceptionallyCompose(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (!(cause instanceof ConnectException) && !(cause instanceof HttpConnectTimeoutException)) {
+                        // The owner may have received the request, so it is not sent anywhere else
+                        return CompletableFuture.failedFuture(new ForwardingException(
+                                "Forwarding UUID " + ediRequest.getUuid() + " to " + owner + " failed: " + cause,
+                                cause));
+                    }
+                    markDown(owner, cause.toString());
+                    String next = route(ediRequest, null);
+                    return next == null ? CompletableFuture.completedFuture(null)
+                            : send(next, ediRequest, body, accept, faultProfile);
+                });
+    }
+
+    private void probe() {
+        List<String> peers = new ArrayList<>(nodes);
+        peers.remove(self);
+        List<CompletableFuture<Boolean>> probes = new ArrayList<>(peers.size());
+        for (String peer : peers) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(peer + HEALTH_PATH))
+                    .timeout(Duration.ofMillis(probeIntervalMs))
+                    .GET()
+                    .build();
+            probes.add(httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .handle((response, e) -> e == null && response.statusCode() == 200));
+        }
+        Set<String> live = new HashSet<>();
+        live.add(self);
+        for (int i = 0; i < peers.size(); i++) {
+            if (probes.get(i).join()) {
+                live.add(peers.get(i));
+            }
+        }
+        update(current -> live, "probe");
+    }
+
+    private void markDown(String node, String reason) {
+        update(current -> {
+            Set<String> live = new HashSet<>(current);
+            live.remove(node);
+            return live;
+        }, node + " unreachable: " + reason);
+    }
+
+    /**
+     * Apply a change to the live set and rebuild the ring if it differs
+     */
+    private void update(UnaryOperator<Set<String>> change, String reason) {
+        while (true) {
+            Membership current = membership.get();
+            Set<String> live = Set.copyOf(change.apply(current.live));
+            if (live.equals(current.live)) {
+                return;
+            }
+            Membership next = new Membership(live, HashRing.of(live, virtualNodes));
+            if (membership.compareAndSet(current, next)) {
+                rebalances.increment();
+                log.warn("Cluster membership changed ({}) - live nodes {}, key shares {}", reason,
+                        next.ring.nodes(), formatShares(next.ring.shares()));
+                return;
+            }
+        }
+    }
+
+    private static String formatShares(Map<String, Double> shares) {
+        StringBuilder out = new StringBuilder();
+        shares.forEach((node, share) -> out.append(out.length() > 0 ? ", " : "")
+                .append(node).append('=').append(String.format(Locale.ROOT, "%.1f%%", share * 100)));
+        return out.toString();
+    }
+
+    private static String normalize(String url) {
+        String trimmed = url.trim();
+        return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+
+    private static final class Membership {
+        private final Set<String> live;
+        private final HashRing ring;
+
+        Membership(Set<String> live, HashRing ring) {
+            this.live = live;
+            this.ring = ring;
+        }
+    }
+}
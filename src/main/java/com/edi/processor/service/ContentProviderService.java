@@ -1,27 +1,117 @@
 package com.edi.processor.service;
 
+import com.edi.processor.config.ContentIndex;
+import com.edi.processor.model.partner.TradingPartner;
+import com.edi.processor.model.response.ContentSerializer;
+import com.edi.processor.template.CompiledTemplate;
+import com.edi.processor.template.RenderContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
 import java.io.IOException;
 import java.io.InputStream;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class ContentProviderService {
 
     private static final Logger log = LoggerFactory.getLogger(ContentProviderService.class);
 
-    private Properties contentProperties;
+    // Immutable content lookup, built from response-content.properties or the precomputed index
+    private volatile Map<String, String> contentIndex = Map.of();
+
+    // Templates compiled from contentIndex, by content key
+    private volatile Map<String, CompiledTemplate> templates = Map.of();
+
+    // Bumped on every (re)load so caches of rendered content can tell snapshots apart
+    private volatile long snapshotVersion;
+    private volatile Instant loadedAt = Instant.now();
+
+    @Value("${edi.content.precomputed-index:false}")
+    private boolean usePrecomputedIndex;
+
+    // Resolved and compiled partner templates, keyed by partner id and content key
+    private final Map<String, CompiledTemplate> partnerTemplateCache = new ConcurrentHashMap<>();
+
+    private final ContentSerializer contentSerializer;
 
     private static final String PROPERTIES_FILE = "response-content.properties";
     private static final String DEFAULT_CONTENT = "Default response content";
 
+    public ContentProviderService(ContentSerializer contentSerializer) {
+        this.contentSerializer = contentSerializer;
+    }
+
     @PostConstruct
     public void init() {
-        contentProperties = new Properties();
+        // Encodings of the previous snapshot's templates would otherwise outlive the reload
+        contentSerializer.clear();
+        Map<String, String> loaded = usePrecomputedIndex ? loadPrecomputedIndex() : null;
+        if (loaded == null) {
+            loaded = loadProperties();
+        }
+        Map<String, CompiledTemplate> compiled = new HashMap<>();
+        loaded.forEach((key, content) -> compiled.put(key, compile(key, content)));
+        contentIndex = loaded;
+        templates = Map.copyOf(compiled);
+        partnerTemplateCache.clear();
+        loadedAt = Instant.now();
+        snapshotVersion++;
+    }
+
+    /**
+     * Version of the loaded content, changed whenever the content is reloaded
+     */
+    public long getSnapshotVersion() {
+        return snapshotVersion;
+    }
+
+    /**
+     * When the current content snapshot was loaded
+     */
+    public Instant getLoadedAt() {
+        return loadedAt;
+    }
+
+    /**
+     * Compile a template; static templates are pre-encoded for serialization. A template that does
+     * not compile is served verbatim.
+     */
+    private CompiledTemplate compile(String key, String content) {
+        CompiledTemplate template;
+        try {
+            template = CompiledTemplate.compile(content);
+        } catch (IllegalArgumentException e) {
+            log.error("Template '{}' is served verbatim: {}", key, e.getMessage());
+            template = CompiledTemplate.literal(content);
+        }
+        contentSerializer.precompute(template);
+        return template;
+    }
+
+    private Map<String, String> loadPrecomputedIndex() {
+        try (InputStream input = getClass().getClassLoader().getResourceAsStream(ContentIndex.RESOURCE)) {
+            if (input != null) {
+                Map<String, String> loaded = ContentIndex.read(input);
+                log.info("Loaded {} content entries from {}", loaded.size(), ContentIndex.RESOURCE);
+                return loaded;
+            }
+            log.warn("Content index '{}' not found. Falling back to {}", ContentIndex.RESOURCE, PROPERTIES_FILE);
+        } catch (IOException e) {
+            log.error("Error loading content index: {}", e.getMessage(), e);
+        }
+        return null;
+    }
+
+    private Map<String, String> loadProperties() {
+        Properties contentProperties = new Properties();
         try (InputStream input = getClass().getClassLoader().getResourceAsStream(PROPERTIES_FILE)) {
             if (input != null) {
                 contentProperties.load(input);
@@ -32,44 +122,163 @@ public class ContentProviderService {
         } catch (IOException e) {
             log.error("Error loading properties file: {}", e.getMessage(), e);
         }
+        return ContentIndex.fromProperties(contentProperties);
     }
 
     /**
      * Get content for GETSCHEMA transaction
      */
     public String getfileWithOrdTypeContent(String transactionType,String responseType,String orderType,String format) {
-        String key = transactionType.toUpperCase() + "." + responseType.toUpperCase() + "." + orderType.toUpperCase() + "." + format.toUpperCase() + ".content";
-        String content = contentProperties.getProperty(key);
-        
-        if (content != null) {
-            return content;
-        }
-        
-        return contentProperties.getProperty("DEFAULT.content", DEFAULT_CONTENT);
+        return getfileWithOrdTypeContent(null, RenderContext.now(), transactionType, responseType, orderType, format);
     }
     public String getfileWithoutOrdTypeContent(String transactionType,String responseType,String format) {
+        return getfileWithoutOrdTypeContent(null, RenderContext.now(), transactionType, responseType, format);
+    }
+
+    /**
+     * Render content for a request: partner override, then the default template adapted to the
+     * partner's envelope IDs, version and delimiters. A null partner renders the default template.
+     */
+    public String getfileWithOrdTypeContent(TradingPartner partner, RenderContext context, String transactionType,
+                                            String responseType, String orderType, String format) {
+        String key = transactionType.toUpperCase() + "." + responseType.toUpperCase() + "." + orderType.toUpperCase() + "." + format.toUpperCase() + ".content";
+        return resolveTemplate(partner, key).render(context);
+    }
+
+    public String getfileWithoutOrdTypeContent(TradingPartner partner, RenderContext context, String transactionType,
+                                               String responseType, String format) {
         String key = transactionType.toUpperCase() + "." + responseType.toUpperCase() + "." + format.toUpperCase() + ".content";
-        String content = contentProperties.getProperty(key);
-        
-        if (content != null) {
+        return resolveTemplate(partner, key).render(context);
+    }
+
+    private CompiledTemplate resolveTemplate(TradingPartner partner, String key) {
+        if (partner == null) {
+            return defaultTemplate(key);
+        }
+        // Hits are read without computeIfAbsent, which can lock the bin: a virtual thread waiting
+        // for a monitor pins its carrier thread
+        String partnerKey = partner.getPartnerId() + "|" + key;
+        CompiledTemplate cached = partnerTemplateCache.get(partnerKey);
+        if (cached != null) {
+            return cached;
+        }
+        return partnerTemplateCache.computeIfAbsent(partnerKey, cacheKey -> {
+            String override = partner.getTemplateOverrides().get(key);
+            if (override != null) {
+                return compile(cacheKey, override);
+            }
+            String content = contentIndex.get(key);
+            if (content != null) {
+                return compile(cacheKey, adaptToPartner(content, partner));
+            }
+            override = partner.getTemplateOverrides().get("DEFAULT.content");
+            return override != null ? compile(cacheKey, override) : defaultTemplate(key);
+        });
+    }
+
+    private CompiledTemplate defaultTemplate(String key) {
+        CompiledTemplate template = templates.get(key);
+        if (template == null) {
+            template = templates.get("DEFAULT.content");
+        }
+        return template != null ? template : CompiledTemplate.literal(DEFAULT_CONTENT);
+    }
+
+    /**
+     * Rewrite an X12 template's envelope for a partner. Templates use SENDERID for the partner and
+     * RECEIVERID for us, with * ~ > delimiters and version 00401/004010. EDIFACT templates only get
+     * the partner's IDs; they keep the default service characters their UNA declares.
+     */
+    private String adaptToPartner(String content, TradingPartner partner) {
+        if (content.startsWith("UNA") || content.startsWith("UNB")) {
+            return content
+                    .replace("SENDERID", partner.getSenderId())
+                    .replace("RECEIVERID", partner.getReceiverId());
+        }
+        if (!content.startsWith("ISA")) {
             return content;
         }
-        
-        return contentProperties.getProperty("DEFAULT.content", DEFAULT_CONTENT);
+        String delimited = withPartnerDelimiters(content, partner);
+        char e = partner.getElementSeparator();
+        String version = partner.getX12Version();
+        return delimited
+                .replace(e + "12" + e + "SENDERID      " + e,
+                        e + dataValue(partner.getSenderQualifier(), partner) + e
+                                + padIsaId(dataValue(partner.getSenderId(), partner)) + e)
+                .replace(e + "12" + e + "RECEIVERID    " + e,
+                        e + dataValue(partner.getReceiverQualifier(), partner) + e
+                                + padIsaId(dataValue(partner.getReceiverId(), partner)) + e)
+                .replace("SENDERID", dataValue(partner.getSenderId(), partner))
+                .replace("RECEIVERID", dataValue(partner.getReceiverId(), partner))
+                .replace(e + "U" + e + "00401" + e,
+                        e + "U" + e + dataValue(version.substring(0, Math.min(5, version.length())), partner) + e)
+                .replace(e + "X" + e + "004010" + partner.getSegmentTerminator(),
+                        e + "X" + e + dataValue(version, partner) + partner.getSegmentTerminator());
     }
-    
+
+    /**
+     * Replace the template's * ~ > delimiters with the partner's. Every other character is data,
+     * and X12 has no release character, so data characters that are one of the partner's
+     * delimiters are dropped, as {@code Escaping} does for request values. Placeholders are copied
+     * as written.
+     */
+    private static String withPartnerDelimiters(String content, TradingPartner partner) {
+        StringBuilder out = new StringBuilder(content.length());
+        int dropped = 0;
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
+            if (c == '$' && i + 1 < content.length() && content.charAt(i + 1) == '{') {
+                int close = content.indexOf('}', i + 2);
+                int end = close >= 0 ? close + 1 : content.length();
+                out.append(content, i, end);
+                i = end - 1;
+                continue;
+            }
+            switch (c) {
+                case '*' -> out.append(partner.getElementSeparator());
+                case '~' -> out.append(partner.getSegmentTerminator());
+                case '>' -> out.append(partner.getSubElementSeparator());
+                default -> {
+                    if (isPartnerDelimiter(c, partner)) {
+                        dropped++;
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        if (dropped > 0) {
+            log.warn("Dropped {} data characters that are delimiters for partner '{}'", dropped, partner.getPartnerId());
+        }
+        return out.toString();
+    }
+
+    private static String dataValue(String value, TradingPartner partner) {
+        StringBuilder out = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!isPartnerDelimiter(c, partner)) {
+                out.append(c);
+            }
+        }
+        return out.toString();
+    }
+
+    private static boolean isPartnerDelimiter(char c, TradingPartner partner) {
+        return c == partner.getElementSeparator() || c == partner.getSegmentTerminator()
+                || c == partner.getSubElementSeparator();
+    }
+
+    private static String padIsaId(String id) {
+        return id.length() >= 15 ? id.substring(0, 15) : String.format("%-15s", id);
+    }
+
     /**
      * Get content for GETSCHEMA transaction
      */
     public String getGetSchemaContent(String responseType) {
         String key = "GETSCHEMA." + responseType.toUpperCase() + ".content";
-        String content = contentProperties.getProperty(key);
-        
-        if (content != null) {
-            return content;
-        }
-        
-        return contentProperties.getProperty("DEFAULT.content", DEFAULT_CONTENT);
+        return defaultTemplate(key).render(RenderContext.now());
     }
 
     /**
@@ -77,13 +286,7 @@ public class ContentProviderService {
      */
     public String getOrderAckContent(String orderType) {
         String key = "ORDER." + orderType.toUpperCase() + ".ACK.content";
-        String content = contentProperties.getProperty(key);
-        
-        if (content != null) {
-            return content;
-        }
-        
-        return contentProperties.getProperty("DEFAULT.content", DEFAULT_CONTENT);
+        return defaultTemplate(key).render(RenderContext.now());
     }
 
     /**
@@ -91,13 +294,7 @@ public class ContentProviderService {
      */
     public String getOrderShipconfirmAckContent(String orderType) {
         String key = "ORDER." + orderType.toUpperCase() + ".SHIPCONFIRM.ACK.content";
-        String content = contentProperties.getProperty(key);
-        
-        if (content != null) {
-            return content;
-        }
-        
-        return contentProperties.getProperty("DEFAULT.content", DEFAULT_CONTENT);
+        return defaultTemplate(key).render(RenderContext.now());
     }
 
     /**
@@ -105,78 +302,48 @@ public class ContentProviderService {
      */
     public String getOrderShipconfirmContent(String orderType) {
         String key = "ORDER." + orderType.toUpperCase() + ".SHIPCONFIRM.content";
-        String content = contentProperties.getProperty(key);
-        
-        if (content != null) {
-            return content;
-        }
-        
-        return contentProperties.getProperty("DEFAULT.content", DEFAULT_CONTENT);
+        return defaultTemplate(key).render(RenderContext.now());
     }
 
     /**
      * Get content for ASN ACK response
      */
     public String getAsnAckContent() {
-        String content = contentProperties.getProperty("ASN.ACK.content");
-        
-        if (content != null) {
-            return content;
-        }
-        
-        return contentProperties.getProperty("DEFAULT.content", DEFAULT_CONTENT);
+        return defaultTemplate("ASN.ACK.content").render(RenderContext.now());
     }
 
     /**
      * Get ACK content for ASN RECEIPT dual response
      */
     public String getAsnReceiptAckContent() {
-        String content = contentProperties.getProperty("ASN.RECEIPT.ACK.content");
-        
-        if (content != null) {
-            return content;
-        }
-        
-        return contentProperties.getProperty("DEFAULT.content", DEFAULT_CONTENT);
+        return defaultTemplate("ASN.RECEIPT.ACK.content").render(RenderContext.now());
     }
 
     /**
      * Get RECEIPT content for ASN transaction
      */
     public String getAsnReceiptContent() {
-        String content = contentProperties.getProperty("ASN.RECEIPT.content");
-        
-        if (content != null) {
-            return content;
-        }
-        
-        return contentProperties.getProperty("DEFAULT.content", DEFAULT_CONTENT);
+        return defaultTemplate("ASN.RECEIPT.content").render(RenderContext.now());
     }
 
     /**
      * Get content for ITEM ACK response
      */
     public String getItemAckContent() {
-        String content = contentProperties.getProperty("ITEM.ACK.content");
-        
-        if (content != null) {
-            return content;
-        }
-        
-        return contentProperties.getProperty("DEFAULT.content", DEFAULT_CONTENT);
+        return defaultTemplate("ITEM.ACK.content").render(RenderContext.now());
     }
 
     /**
      * Get error content
      */
     public String getErrorContent() {
-        return contentProperties.getProperty("ERROR.content", "Unable to process request");
+        return contentIndex.getOrDefault("ERROR.content", "Unable to process request");
     }
 
     /**
      * Get validation error content
      */
     public String getValidationErrorContent() {
-        return contentProperties.getProperty("VALIDATION.ERROR.content", "Invalid value provided");
+        return contentIndex.getOrDefault("VALIDATION.ERROR.content", "Invalid value provided");
     }
 }
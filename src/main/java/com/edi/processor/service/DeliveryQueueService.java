@@ -0,0 +1,277 @@
+package com.edi.processor.service;
+
+import com.edi.processor.concurrent.WorkerThreads;
+import com.edi.processor.model.delivery.QueuedDocument;
+import com.edi.processor.model.response.EdiResponse;
+import com.edi.processor.model.response.ResponseItem;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durable outbound queue for follow-up documents (ORDER/SHIPCONFIRM, ASN/RECEIPT).
+ *
+ * Each document is written to {@code pending/} before the request returns, then posted to the
+ * callback URL in batches by a dispatcher thread. Concurrency is bounded by a semaphore; failed
+ * batches are retried with exponential backoff and moved to {@code dead/} after the last attempt.
+ * Pending files are reloaded on startup.
+ */
+@Service
+public class DeliveryQueueService {
+
+    private static final Logger log = LoggerFactory.getLogger(DeliveryQueueService.class);
+
+    private final ObjectMapper objectMapper;
+    private final WorkerThreads threads;
+
+    @Value("${edi.delivery.enabled:false}")
+    private boolean enabled;
+
+    @Value("${edi.delivery.callback-url:http://localhost:8080/api/v1/edi/delivery-stub}")
+    private String callbackUrl;
+
+    @Value("${edi.delivery.queue-dir:${java.io.tmpdir}/edi-delivery}")
+    private String queueDir;
+
+    @Value("${edi.delivery.batch-size:50}")
+    private int batchSize;
+
+    @Value("${edi.delivery.max-concurrency:4}")
+    private int maxConcurrency;
+
+    @Value("${edi.delivery.initial-backoff-ms:1000}")
+    private long initialBackoffMs;
+
+    @Value("${edi.delivery.max-backoff-ms:300000}")
+    private long maxBackoffMs;
+
+    @Value("${edi.delivery.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${edi.delivery.request-timeout-ms:10000}")
+    private long requestTimeoutMs;
+
+    private final DelayQueue<QueuedDocument> queue = new DelayQueue<>();
+
+    private Path pendingDir;
+    private Path deadDir;
+    private HttpClient httpClient;
+    private Semaphore permits;
+    private ExecutorService senders;
+    private Thread dispatcher;
+    private volatile boolean running;
+
+    public DeliveryQueueService(ObjectMapper objectMapper, WorkerThreads threads) {
+        this.objectMapper = objectMapper;
+        this.threads = threads;
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        pendingDir = Files.createDirectories(Path.of(queueDir, "pending"));
+        deadDir = Files.createDirectories(Path.of(queueDir, "dead"));
+        httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(requestTimeoutMs))
+                .build();
+        permits = new Semaphore(maxConcurrency);
+        senders = Executors.newFixedThreadPool(maxConcurrency, threads.factory("edi-delivery-sender"));
+
+        recoverPending();
+
+        running = true;
+        dispatcher = new Thread(this::dispatchLoop, "edi-delivery-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+        log.info("Outbound delivery enabled - callback: {}, queue: {}, recovered {} pending documents",
+                callbackUrl, queueDir, queue.size());
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+        }
+        if (senders != null) {
+            senders.shutdown();
+            senders.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * Persist a document and schedule it for delivery. Returns once the document is on disk.
+     */
+    public void enqueue(String uuid, ResponseItem item) {
+        QueuedDocument document = new QueuedDocument(UUID.randomUUID().toString(), uuid, item,
+                System.currentTimeMillis());
+        try {
+            write(document);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to persist outbound document " + item.getFilename(), e);
+        }
+        queue.put(document);
+        log.debug("Queued {} for delivery (UUID: {})", item.getFilename(), uuid);
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                QueuedDocument first = queue.take();
+                permits.acquire();
+                List<QueuedDocument> batch = new ArrayList<>(batchSize);
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                senders.execute(() -> {
+                    try {
+                        deliver(batch);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Delivery dispatcher error: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private void deliver(List<QueuedDocument> batch) {
+        List<ResponseItem> items = new ArrayList<>(batch.size());
+        for (QueuedDocument document : batch) {
+            items.add(document.getItem());
+        }
+
+        boolean delivered = false;
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(EdiResponse.builder().response(items).build());
+            HttpRequest request = HttpRequest.newBuilder(URI.create(callbackUrl))
+                    .timeout(Duration.ofMillis(requestTimeoutMs))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                    .build();
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            delivered = response.statusCode() / 100 == 2;
+            if (!delivered) {
+                log.warn("Callback returned HTTP {} for batch of {} documents", response.statusCode(), batch.size());
+            }
+        } catch (IOException e) {
+            log.warn("Callback delivery failed for batch of {} documents: {}", batch.size(), e.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            // e.g. a malformed callback URL: still retry, so the batch is not dropped from memory
+            log.error("Callback delivery failed for batch of {} documents: {}", batch.size(), e.toString(), e);
+        }
+
+        for (QueuedDocument document : batch) {
+            if (delivered) {
+                delete(document);
+            } else {
+                retryOrDeadLetter(document);
+            }
+        }
+    }
+
+    private void retryOrDeadLetter(QueuedDocument document) {
+        int attempts = document.getAttempts() + 1;
+        document.setAttempts(attempts);
+        // Backoff is set before any file operation, so a document re-queued after a disk error
+        // waits too instead of spinning on the same failure
+        document.setNextAttemptAt(System.currentTimeMillis() + backoffMillis(attempts));
+        try {
+            if (attempts >= maxAttempts) {
+                Files.move(pendingDir.resolve(document.getFileName()), deadDir.resolve(document.getFileName()),
+                        StandardCopyOption.REPLACE_EXISTING);
+                log.error("Giving up on {} (UUID: {}) after {} attempts",
+                        document.getItem().getFilename(), document.getUuid(), attempts);
+                return;
+            }
+            write(document);
+        } catch (IOException | RuntimeException e) {
+            log.error("Unable to update queued document {}: {}", document.getId(), e.getMessage(), e);
+        }
+        queue.put(document);
+    }
+
+    /**
+     * Exponential backoff with up to 20% jitter, capped at max-backoff-ms
+     */
+    private long backoffMillis(int attempts) {
+        long backoff = initialBackoffMs << Math.min(attempts - 1, 30);
+        if (backoff <= 0 || backoff > maxBackoffMs) {
+            backoff = maxBackoffMs;
+        }
+        return backoff + ThreadLocalRandom.current().nextLong(backoff / 5 + 1);
+    }
+
+    private void recoverPending() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(pendingDir, "*.json")) {
+            for (Path file : files) {
+                try {
+                    queue.put(objectMapper.readValue(file.toFile(), QueuedDocument.class));
+                } catch (IOException e) {
+                    log.error("Skipping unreadable queued document {}: {}", file, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void write(QueuedDocument document) throws IOException {
+        Path target = pendingDir.resolve(document.getFileName());
+        Path temp = pendingDir.resolve(document.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.wrap(objectMapper.writeValueAsBytes(document)));
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void delete(QueuedDocument document) {
+        try {
+            Files.deleteIfExists(pendingDir.resolve(document.getFileName()));
+        } catch (IOException e) {
+            log.error("Unable to remove delivered document {}: {}", document.getId(), e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.edi.processor.service;
+
+import com.edi.processor.model.search.IndexedDocument;
+import com.edi.processor.search.DocumentIdExtractor;
+import com.edi.processor.search.InvertedIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Indexes inbound documents by their business identifiers (PO, order, ASN, BOL, PRO and tracking
+ * numbers) and UUID. Generated responses are not indexed: they are rendered from canned templates, so
+ * their identifiers are template constants shared by every response.
+ *
+ * Requests only enqueue the payload; one indexer thread extracts identifiers, appends to the
+ * {@link InvertedIndex} in batches and flushes segments every {@code flush-interval-ms} or
+ * {@code flush-documents}. When the queued payloads reach {@code queue-max-mb}, or the document log
+ * reaches {@code max-log-mb}, documents are dropped (counted as {@code edi.search.dropped}) rather
+ * than slowing down processing or filling the disk. The index has no retention of its own.
+ */
+@Service
+public class DocumentIndexService {
+
+    private static final Logger log = LoggerFactory.getLogger(DocumentIndexService.class);
+
+    private static final int BATCH_SIZE = 512;
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${edi.search.enabled:false}")
+    private boolean enabled;
+
+    @Value("${edi.search.dir:${java.io.tmpdir}/edi-search}")
+    private String directory;
+
+    @Value("${edi.search.queue-max-mb:64}")
+    private long queueMaxMb;
+
+    @Value("${edi.search.max-log-mb:1024}")
+    private long maxLogMb;
+
+    @Value("${edi.search.flush-interval-ms:5000}")
+    private long flushIntervalMs;
+
+    @Value("${edi.search.flush-documents:50000}")
+    private int flushDocuments;
+
+    @Value("${edi.search.max-segments:16}")
+    private int maxSegments;
+
+    @Value("${edi.search.max-results:1000}")
+    private int maxResults;
+
+    private BlockingQueue<PendingDocument> queue;
+    private final AtomicLong queuedBytes = new AtomicLong();
+    private long queueMaxBytes;
+    private long maxLogBytes;
+    private boolean logFull;
+    private InvertedIndex index;
+    private DocumentIdExtractor extractor;
+    private Counter indexed;
+    private Counter dropped;
+    private Thread indexer;
+    private volatile boolean running;
+
+    public DocumentIndexService(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        ObjectMapper recordMapper = new ObjectMapper();
+        index = InvertedIndex.open(Path.of(directory), recordMapper, maxSegments);
+        extractor = new DocumentIdExtractor(objectMapper);
+        queue = new LinkedBlockingQueue<>();
+        queueMaxBytes = queueMaxMb * 1024 * 1024;
+        maxLogBytes = maxLogMb * 1024 * 1024;
+        meterRegistry.gaugeCollectionSize("edi.search.queue.depth", List.of(), queue);
+        meterRegistry.gauge("edi.search.queue.bytes", queuedBytes);
+        indexed = Counter.builder("edi.search.indexed")
+                .description("Documents added to the search index")
+                .register(meterRegistry);
+        dropped = Counter.builder("edi.search.dropped")
+                .description("Documents not indexed because the indexing queue or document log was full")
+                .register(meterRegistry);
+
+        running = true;
+        indexer = new Thread(this::indexLoop, "edi-search-indexer");
+        indexer.setDaemon(true);
+        indexer.start();
+        log.info("Search index at {}: {} segment(s), {} unflushed document(s)",
+                directory, index.getSegmentCount(), index.getBufferedDocuments());
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException, IOException {
+        if (indexer == null) {
+            return;
+        }
+        running = false;
+        indexer.interrupt();
+        indexer.join(TimeUnit.SECONDS.toMillis(10));
+        index.close();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queue an inbound payload for indexing
+     */
+    public void submit(String uuid, String transactionType, String partnerId, byte[] payload) {
+        submit(uuid, transactionType, partnerId, payload, null);
+    }
+
+    /**
+     * As {@link #submit(String, String, String, byte[])}, with identifiers already read from the
+     * payload by the partner's mapping spec, by type
+     */
+    public void submit(String uuid, String transactionType, String partnerId, byte[] payload,
+                       Map<String, String> references) {
+        if (!enabled) {
+            return;
+        }
+        offer(new PendingDocument(uuid, transactionType, partnerId, IndexedDocument.REQUEST_DOCUMENT, payload,
+                references));
+    }
+
+    /**
+     * Indexed documents with an identifier or UUID equal to {@code term}, newest first
+     *
+     * @param type optional identifier type (PO, ORDER, ASN, BOL, PRO, TRACKING, UUID)
+     */
+    public List<IndexedDocument> search(String term, String type, int limit) throws IOException {
+        if (term == null || term.isBlank()) {
+            throw new IllegalArgumentException("Search term is required");
+        }
+        if (!enabled) {
+            return List.of();
+        }
+        return index.search(term, type, Math.max(1, Math.min(limit, maxResults)));
+    }
+
+    private void offer(PendingDocument document) {
+        long size = document.payload.length;
+        if (queuedBytes.addAndGet(size) > queueMaxBytes) {
+            queuedBytes.addAndGet(-size);
+            dropped.increment();
+            return;
+        }
+        queue.add(document);
+    }
+
+    private void indexLoop() {
+        List<PendingDocument> pending = new ArrayList<>(BATCH_SIZE);
+        List<IndexedDocument> batch = new ArrayList<>(BATCH_SIZE);
+        long lastFlush = System.currentTimeMillis();
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingDocument first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    pending.add(first);
+                    queue.drainTo(pending, BATCH_SIZE - 1);
+                    for (PendingDocument document : pending) {
+                        queuedBytes.addAndGet(-document.payload.length);
+                    }
+                    if (hasLogRoom()) {
+                        for (PendingDocument document : pending) {
+                            batch.add(document.toIndexedDocument(extractor));
+                        }
+                        index.add(batch);
+                        indexed.increment(batch.size());
+                    } else {
+                        dropped.increment(pending.size());
+                    }
+                    pending.clear();
+                    batch.clear();
+                }
+                long now = System.currentTimeMillis();
+                if (index.getBufferedDocuments() >= flushDocuments
+                        || (index.getBufferedDocuments() > 0 && now - lastFlush >= flushIntervalMs)) {
+                    index.flush();
+                    lastFlush = now;
+                }
+            } catch (InterruptedException e) {
+                if (!running) {
+                    // Drain what is left below, then stop
+                    Thread.interrupted();
+                }
+            } catch (Exception e) {
+                log.error("Search indexing failed: {}", e.getMessage(), e);
+                pending.clear();
+                batch.clear();
+            }
+        }
+        try {
+            index.flush();
+        } catch (IOException e) {
+            log.warn("Final search index flush failed; documents will be re-read from the log: {}", e.getMessage());
+        }
+    }
+
+    private boolean hasLogRoom() {
+        if (index.getLogBytes() < maxLogBytes) {
+            return true;
+        }
+        if (!logFull) {
+            logFull = true;
+            log.warn("Search document log at {} reached {} MB; new documents are no longer indexed",
+                    directory, maxLogMb);
+        }
+        return false;
+    }
+
+    private static final class PendingDocument {
+        private final String uuid;
+        private final String transactionType;
+        private final String partnerId;
+        private final String document;
+        private final byte[] payload;
+        private final Map<String, String> references;
+        private final long receivedAt = System.currentTimeMillis();
+
+        PendingDocument(String uuid, String transactionType, String partnerId, String document, byte[] payload,
+                        Map<String, String> references) {
+            this.uuid = uuid;
+            this.transactionType = transactionType;
+            this.partnerId = partnerId;
+            this.document = document;
+            this.payload = payload;
+            this.references = references;
+        }
+
+        IndexedDocument toIndexedDocument(DocumentIdExtractor extractor) {
+            IndexedDocument.Builder builder = IndexedDocument.builder()
+                    .uuid(uuid)
+                    .transactionType(transactionType)
+                    .partnerId(partnerId)
+                    .document(document)
+                    .indexedAt(receivedAt);
+            extractor.extract(payload, builder);
+            if (references != null) {
+                references.forEach(builder::id);
+            }
+            return builder.build();
+        }
+    }
+}
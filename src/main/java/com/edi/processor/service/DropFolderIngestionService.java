@@ -0,0 +1,435 @@
+package com.edi.processor.service;
+
+import com.edi.processor.concurrent.WorkerThreads;
+import com.edi.processor.logging.RequestLogSampler;
+import com.edi.processor.model.request.EdiRequest;
+import com.edi.processor.model.request.RequestDetails;
+import com.edi.processor.model.response.EdiResponse;
+import com.edi.processor.model.response.ResponseItem;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Processes documents that partners drop into inbox folders (typically an SFTP server's upload
+ * directories mounted locally) instead of calling the REST API.
+ *
+ * Each inbox in {@code edi.ingest.inboxes} is a folder under {@code <dir>/inbox/} with the request
+ * fields its files are processed with. A scanner thread claims files by renaming them into
+ * {@code work/}; only one claimer can win the rename, and at most {@code 2 x workers} files are
+ * claimed ahead of the worker pool, so the rest stay in the inbox. The response items are written
+ * under their {@code filename} to a staging folder, which is then renamed to
+ * {@code outbox/<inbox>/<claim>/}: that rename is the checkpoint. The claimed file then moves to
+ * {@code done/} (or is deleted), or to {@code failed/} with a {@code .error} note if processing
+ * threw.
+ *
+ * On startup, a claimed file whose outbox folder exists is only moved on; any other is processed
+ * again, since its result was never committed. No file is lost and no outbox folder is written twice,
+ * but processing is at least once: a file that went through {@link EdiProcessorService#processRequest}
+ * just before a crash, ahead of the outbox rename, goes through it again, and so do the side effects
+ * of that call. Its response may be queued for delivery twice, and with duplicate detection on, the
+ * second run can be answered as a duplicate of the first. Reconciliation and catalog entries are
+ * overwritten, so repeating those is harmless.
+ */
+@Service
+public class DropFolderIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(DropFolderIngestionService.class);
+
+    private static final String DEFAULT_FORMAT = "EDI";
+
+    private static final Pattern INBOX_NAME = Pattern.compile("[A-Za-z0-9_-]+");
+
+    private final EdiProcessorService ediProcessorService;
+    private final RequestLogSampler logSampler;
+    private final MeterRegistry meterRegistry;
+    private final WorkerThreads threads;
+
+    @Value("${edi.ingest.enabled:false}")
+    private boolean enabled;
+
+    @Value("${edi.ingest.dir:${java.io.tmpdir}/edi-ingest}")
+    private String directory;
+
+    @Value("${edi.ingest.inboxes:}")
+    private String inboxes;
+
+    @Value("${edi.ingest.workers:8}")
+    private int workers;
+
+    @Value("${edi.ingest.poll-interval-ms:500}")
+    private long pollIntervalMs;
+
+    @Value("${edi.ingest.min-age-ms:1000}")
+    private long minAgeMs;
+
+    @Value("${edi.ingest.keep-processed:true}")
+    private boolean keepProcessed;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private List<Inbox> routes = List.of();
+    private Semaphore permits;
+    private ExecutorService pool;
+    private ScheduledExecutorService scanner;
+    private Counter processed;
+    private Counter failed;
+
+    public DropFolderIngestionService(EdiProcessorService ediProcessorService, RequestLogSampler logSampler,
+                                      MeterRegistry meterRegistry, WorkerThreads threads) {
+        this.ediProcessorService = ediProcessorService;
+        this.logSampler = logSampler;
+        this.meterRegistry = meterRegistry;
+        this.threads = threads;
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        routes = parseInboxes(Path.of(directory), inboxes);
+        if (routes.isEmpty()) {
+            log.warn("Drop-folder ingestion enabled but edi.ingest.inboxes is empty");
+            return;
+        }
+        for (Inbox inbox : routes) {
+            for (Path folder : List.of(inbox.inbox, inbox.work, inbox.staging, inbox.outbox, inbox.done, inbox.failed)) {
+                Files.createDirectories(folder);
+            }
+        }
+        processed = Counter.builder("edi.ingest.files")
+                .description("Dropped files processed")
+                .tag("outcome", "processed")
+                .register(meterRegistry);
+        failed = Counter.builder("edi.ingest.files")
+                .description("Dropped files processed")
+                .tag("outcome", "failed")
+                .register(meterRegistry);
+
+        permits = new Semaphore(workers * 2);
+        pool = Executors.newFixedThreadPool(workers, threads.factory("edi-ingest-worker"));
+        scanner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "edi-ingest-scanner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scanner.execute(this::recover);
+        scanner.scheduleWithFixedDelay(this::scan, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("Drop-folder ingestion enabled - {} inboxes under {}, {} workers", routes.size(), directory, workers);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (scanner != null) {
+            scanner.shutdownNow();
+        }
+        if (pool != null) {
+            // Files still claimed are picked up again by recovery on the next start
+            pool.shutdown();
+            pool.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Inboxes from {@code name:TRANSACTION TYPE:ORDER TYPE:RESPONSE TYPE[:FORMAT]} entries, e.g.
+     * {@code orders:ORDER:LTL:SHIPCONFIRM,asn:ASN::RECEIPT}; FORMAT defaults to EDI
+     */
+    private static List<Inbox> parseInboxes(Path root, String value) {
+        List<Inbox> parsed = new ArrayList<>();
+        for (String entry : value.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] fields = entry.trim().split(":", -1);
+            if (fields.length < 4 || fields.length > 5 || !INBOX_NAME.matcher(fields[0]).matches()
+                    || fields[1].isBlank()) {
+                throw new IllegalArgumentException("edi.ingest.inboxes: '" + entry.trim()
+                        + "' is not name:TRANSACTION TYPE:ORDER TYPE:RESPONSE TYPE[:FORMAT]");
+            }
+            parsed.add(new Inbox(root, fields[0], upper(fields[1]), upper(fields[2]), upper(fields[3]),
+                    fields.length == 5 && !fields[4].isBlank() ? upper(fields[4]) : DEFAULT_FORMAT));
+        }
+        return List.copyOf(parsed);
+    }
+
+    private static String upper(String field) {
+        return field.isBlank() ? null : field.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Finish or reprocess files claimed before the last shutdown, and clear unfinished staging
+     */
+    private void recover() {
+        for (Inbox inbox : routes) {
+            try {
+                for (Path staged : list(inbox.staging)) {
+                    deleteRecursively(staged);
+                }
+                List<Path> claimed = list(inbox.work);
+                for (Path file : claimed) {
+                    submit(inbox, file);
+                }
+                if (!claimed.isEmpty()) {
+                    log.info("Recovered {} claimed files in inbox {}", claimed.size(), inbox.name);
+                }
+            } catch (IOException e) {
+                log.error("Cannot recover inbox {}: {}", inbox.name, e.getMessage(), e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void scan() {
+        long settledBefore = System.currentTimeMillis() - minAgeMs;
+        for (Inbox inbox : routes) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(inbox.inbox)) {
+                for (Path file : files) {
+                    if (!isReady(file, settledBefore)) {
+                        continue;
+                    }
+                    Path claimed = claim(inbox, file);
+                    if (claimed != null) {
+                        submit(inbox, claimed);
+                    }
+                }
+            } catch (IOException e) {
+                log.warn("Cannot list inbox {}: {}", inbox.inbox, e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Inbox scan failed for {}: {}", inbox.name, e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Whether a file is complete: not hidden or named as an upload in progress, and not modified
+     * for {@code min-age-ms}
+     */
+    private static boolean isReady(Path file, long settledBefore) {
+        String name = file.getFileName().toString();
+        if (name.startsWith(".") || name.endsWith(".tmp") || name.endsWith(".part") || name.endsWith(".filepart")) {
+            return false;
+        }
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            return attributes.isRegularFile() && attributes.lastModifiedTime().toMillis() <= settledBefore;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Rename a file into {@code work/} under a unique claim name, or null if another claimer took it
+     */
+    private Path claim(Inbox inbox, Path file) throws IOException {
+        String claimId = System.currentTimeMillis() + "-" + sequence.incrementAndGet() + "-" + file.getFileName();
+        Path claimed = inbox.work.resolve(claimId);
+        try {
+            Files.move(file, claimed, StandardCopyOption.ATOMIC_MOVE);
+            return claimed;
+        } catch (NoSuchFileException | FileAlreadyExistsException e) {
+            return null;
+        }
+    }
+
+    private void submit(Inbox inbox, Path claimed) throws InterruptedException {
+        permits.acquire();
+        try {
+            pool.execute(() -> {
+                try {
+                    process(inbox, claimed);
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void process(Inbox inbox, Path claimed) {
+        String claimId = claimed.getFileName().toString();
+        Path committed = inbox.outbox.resolve(claimId);
+        try {
+            if (!Files.exists(committed)) {
+                EdiResponse response = processFile(inbox, claimId, Files.readAllBytes(claimed));
+                if (response == null) {
+                    return;
+                }
+                commit(inbox, claimId, response);
+            }
+            if (keepProcessed) {
+                Files.move(claimed, inbox.done.resolve(claimId), StandardCopyOption.ATOMIC_MOVE);
+            } else {
+                Files.delete(claimed);
+            }
+            syncDirectory(inbox.work);
+            processed.increment();
+        } catch (IOException e) {
+            // Left claimed; processed again on the next start
+            log.error("Cannot complete dropped file {} in inbox {}: {}", claimId, inbox.name, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Run a claimed file through the processor, or move it to {@code failed/} and return null
+     */
+    private EdiResponse processFile(Inbox inbox, String claimId, byte[] content) throws IOException {
+        RequestDetails details = new RequestDetails(inbox.transactionType, inbox.orderType, inbox.format,
+                inbox.responseType, null);
+        details.setInputFileBytes(content);
+        EdiRequest request = new EdiRequest(claimId, details);
+        try (RequestLogSampler.Scope scope = logSampler.sample(request).open()) {
+            return ediProcessorService.processRequest(request);
+        } catch (RuntimeException e) {
+            failed.increment();
+            String message = e.getMessage() != null ? e.getMessage() : e.toString();
+            log.error("Dropped file {} in inbox {} failed: {}", claimId, inbox.name, message, e);
+            write(inbox.failed.resolve(claimId + ".error"), message.getBytes(StandardCharsets.UTF_8));
+            Files.move(inbox.work.resolve(claimId), inbox.failed.resolve(claimId), StandardCopyOption.ATOMIC_MOVE);
+            syncDirectory(inbox.failed);
+            return null;
+        }
+    }
+
+    /**
+     * Write the response items to a staging folder and rename it into the outbox
+     */
+    private void commit(Inbox inbox, String claimId, EdiResponse response) throws IOException {
+        Path staged = inbox.staging.resolve(claimId);
+        if (Files.exists(staged)) {
+            deleteRecursively(staged);
+        }
+        Files.createDirectory(staged);
+        List<ResponseItem> items = response.getResponse() != null ? response.getResponse() : List.of();
+        for (int i = 0; i < items.size(); i++) {
+            ResponseItem item = items.get(i);
+            String content = item.getContent() != null ? item.getContent() : "";
+            Path target = staged.resolve(outputName(item.getFilename(), i));
+            if (Files.exists(target)) {
+                target = staged.resolve((i + 1) + "-" + target.getFileName());
+            }
+            write(target, content.getBytes(StandardCharsets.UTF_8));
+        }
+        syncDirectory(staged);
+        Files.move(staged, inbox.outbox.resolve(claimId), StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory(inbox.outbox);
+    }
+
+    /**
+     * The item's filename without any directory part, or a numbered name if it has none
+     */
+    private static String outputName(String filename, int index) {
+        String name = "";
+        try {
+            Path path = filename != null ? Path.of(filename.replace('\\', '/')).getFileName() : null;
+            name = path != null ? path.toString() : "";
+        } catch (InvalidPathException e) {
+            // Numbered below
+        }
+        return name.isBlank() || name.equals("..") ? "response-" + (index + 1) : name;
+    }
+
+    private static void write(Path file, byte[] content) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.wrap(content));
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Flush a directory's entries so renames into it survive a crash; not supported everywhere
+     */
+    private static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Best effort: some platforms cannot open a directory as a channel
+        }
+    }
+
+    private static List<Path> list(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        try (Stream<Path> paths = Files.walk(path)) {
+            for (Path entry : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(entry);
+            }
+        }
+    }
+
+    private static final class Inbox {
+        private final String name;
+        private final String transactionType;
+        private final String orderType;
+        private final String responseType;
+        private final String format;
+        private final Path inbox;
+        private final Path work;
+        private final Path staging;
+        private final Path outbox;
+        private final Path done;
+        private final Path failed;
+
+        Inbox(Path root, String name, String transactionType, String orderType, String responseType,
+              String format) {
+            this.name = name;
+            this.transactionType = transactionType;
+            this.orderType = orderType;
+            this.responseType = responseType;
+            this.format = format;
+            this.inbox = root.resolve("inbox").resolve(name);
+            this.work = root.resolve("work").resolve(name);
+            this.staging = root.resolve("staging").resolve(name);
+            this.outbox = root.resolve("outbox").resolve(name);
+            this.done = root.resolve("done").resolve(name);
+            this.failed = root.resolve("failed").resolve(name);
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.edi.processor.service;
+
+import com.edi.processor.duplicate.InterchangeGeneration;
+import com.edi.processor.duplicate.KeyHash;
+import com.edi.processor.model.partner.TradingPartner;
+import com.edi.processor.parser.EdifactHeader;
+import com.edi.processor.parser.IsaHeader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Flags interchanges resent with an already seen (partner, ISA13, GS06) key, or (partner, UNB-05)
+ * for EDIFACT.
+ *
+ * Keys live in rotating generations, each a scalable Bloom filter backed by an exact on-disk set
+ * that is read only on a filter hit. A new generation starts every rotation interval and the oldest
+ * is dropped once more than the retained count exist, which bounds memory and the look-back window.
+ * Generations are reloaded from disk on startup.
+ *
+ * A key is reserved before its interchange is processed and only recorded once processing
+ * succeeds, so a resend of an interchange that was rejected or failed is processed again. A resend
+ * that arrives while the original is still in flight is a duplicate.
+ */
+@Service
+public class DuplicateInterchangeDetector {
+
+    private static final Logger log = LoggerFactory.getLogger(DuplicateInterchangeDetector.class);
+
+    private static final String GENERATION_PREFIX = "gen-";
+
+    @Value("${edi.duplicate-detection.enabled:false}")
+    private boolean enabled;
+
+    @Value("${edi.duplicate-detection.dir:${java.io.tmpdir}/edi-duplicates}")
+    private String directory;
+
+    @Value("${edi.duplicate-detection.expected-per-generation:1000000}")
+    private long expectedPerGeneration;
+
+    @Value("${edi.duplicate-detection.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    @Value("${edi.duplicate-detection.rotation-minutes:1440}")
+    private long rotationMinutes;
+
+    @Value("${edi.duplicate-detection.retained-generations:7}")
+    private int retainedGenerations;
+
+    // Newest first
+    private final CopyOnWriteArrayList<InterchangeGeneration> generations = new CopyOnWriteArrayList<>();
+
+    // Keys reserved by requests still being processed; recorded to the newest generation on success
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    private ScheduledExecutorService rotator;
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Path root = Files.createDirectories(Path.of(directory));
+        loadGenerations(root);
+        if (generations.isEmpty()) {
+            rotate();
+        }
+
+        rotator = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "edi-duplicate-rotation");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long elapsed = System.currentTimeMillis() - generations.get(0).getStartedAt();
+        long initialDelay = Math.max(0, TimeUnit.MINUTES.toMillis(rotationMinutes) - elapsed);
+        rotator.scheduleAtFixedRate(this::rotateQuietly, initialDelay, TimeUnit.MINUTES.toMillis(rotationMinutes),
+                TimeUnit.MILLISECONDS);
+        log.info("Duplicate interchange detection enabled - {} generations loaded from {}", generations.size(), root);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (rotator != null) {
+            rotator.shutdownNow();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Reserve the interchange's key while it is processed, or report it as a duplicate if it was
+     * already recorded or is being processed by another request. Interchanges without an ISA
+     * header reserve nothing.
+     */
+    public Reservation reserve(TradingPartner partner, IsaHeader header, String groupControlNumber) {
+        if (!enabled || header == null) {
+            return Reservation.NONE;
+        }
+        String partnerKey = partner != null
+                ? partner.getPartnerId()
+                : header.getSenderQualifier() + ":" + header.getSenderId();
+        return reserve(partnerKey + "|" + header.getControlNumber() + "|"
+                + (groupControlNumber != null ? groupControlNumber : ""));
+    }
+
+    /**
+     * Same as for ISA, keyed by the partner and UNB interchange control reference (UNB-05)
+     */
+    public Reservation reserve(TradingPartner partner, EdifactHeader header) {
+        if (!enabled || header == null) {
+            return Reservation.NONE;
+        }
+        String partnerKey = partner != null
+                ? partner.getPartnerId()
+                : header.getSenderQualifier() + ":" + header.getSenderId();
+        return reserve(partnerKey + "|UNB|" + header.getControlReference());
+    }
+
+    private Reservation reserve(String key) {
+        // The in-flight set makes reserve-then-check atomic per key without a lock around disk reads
+        if (!inFlight.add(key)) {
+            return Reservation.DUPLICATE;
+        }
+        KeyHash hash = KeyHash.of(key);
+        try {
+            for (InterchangeGeneration generation : generations) {
+                if (generation.contains(key, hash)) {
+                    inFlight.remove(key);
+                    return Reservation.DUPLICATE;
+                }
+            }
+        } catch (IOException e) {
+            inFlight.remove(key);
+            throw new UncheckedIOException("Duplicate interchange store unavailable", e);
+        } catch (RuntimeException e) {
+            inFlight.remove(key);
+            throw e;
+        }
+        return new Reservation(key, hash);
+    }
+
+    /**
+     * Record a reserved key once its interchange has been processed, so resends are rejected
+     */
+    public void record(Reservation reservation) {
+        if (reservation.key == null || reservation.settled) {
+            return;
+        }
+        reservation.settled = true;
+        try {
+            generations.get(0).add(reservation.key, reservation.hash);
+        } catch (IOException e) {
+            // The interchange was processed; failing its response now would only invite a resend
+            log.error("Unable to record interchange key {}: {}", reservation.key, e.getMessage(), e);
+        } finally {
+            inFlight.remove(reservation.key);
+        }
+    }
+
+    /**
+     * Drop a reservation that was not recorded, e.g. after a rejection or error, so a retry of
+     * the interchange is processed normally. Does nothing once recorded.
+     */
+    public void release(Reservation reservation) {
+        if (reservation.key == null || reservation.settled) {
+            return;
+        }
+        reservation.settled = true;
+        inFlight.remove(reservation.key);
+    }
+
+    /**
+     * Key held by one request between {@link #reserve} and {@link #record} or {@link #release}
+     */
+    public static final class Reservation {
+
+        static final Reservation NONE = new Reservation(null, null);
+        static final Reservation DUPLICATE = new Reservation(null, null);
+
+        private final String key;
+        private final KeyHash hash;
+        private boolean settled;
+
+        private Reservation(String key, KeyHash hash) {
+            this.key = key;
+            this.hash = hash;
+        }
+
+        public boolean isDuplicate() {
+            return this == DUPLICATE;
+        }
+    }
+
+    private void rotateQuietly() {
+        try {
+            rotate();
+        } catch (IOException | RuntimeException e) {
+            log.error("Duplicate interchange generation rotation failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void rotate() throws IOException {
+        long now = System.currentTimeMillis();
+        Path root = Path.of(directory);
+        generations.add(0, InterchangeGeneration.create(root.resolve(GENERATION_PREFIX + now), now,
+                expectedPerGeneration, falsePositiveRate));
+
+        while (generations.size() > retainedGenerations) {
+            InterchangeGeneration expired = generations.remove(generations.size() - 1);
+            deleteDirectory(expired.getDirectory());
+            log.info("Dropped duplicate interchange generation {} ({} keys)", expired.getDirectory(), expired.size());
+        }
+    }
+
+    private void loadGenerations(Path root) throws IOException {
+        List<InterchangeGeneration> loaded = new ArrayList<>();
+        try (DirectoryStream<Path> directories = Files.newDirectoryStream(root, GENERATION_PREFIX + "*")) {
+            for (Path generationDir : directories) {
+                long startedAt = Long.parseLong(generationDir.getFileName().toString().substring(GENERATION_PREFIX.length()));
+                loaded.add(InterchangeGeneration.load(generationDir, startedAt, expectedPerGeneration, falsePositiveRate));
+            }
+        } catch (NumberFormatException e) {
+            throw new IOException("Unexpected directory in " + root, e);
+        }
+        loaded.sort(Comparator.comparingLong(InterchangeGeneration::getStartedAt).reversed());
+        generations.addAll(loaded);
+        while (generations.size() > retainedGenerations) {
+            deleteDirectory(generations.remove(generations.size() - 1).getDirectory());
+        }
+    }
+
+    private static void deleteDirectory(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
@@ -1,18 +1,36 @@
 package com.edi.processor.service;
 
 import com.edi.processor.exception.EdiProcessingException;
+import com.edi.processor.model.partner.TradingPartner;
 import com.edi.processor.model.request.EdiRequest;
 import com.edi.processor.model.request.RequestDetails;
 import com.edi.processor.model.response.EdiResponse;
 import com.edi.processor.model.response.ResponseItem;
+import com.edi.processor.parser.EdifactHeader;
+import com.edi.processor.parser.EdifactSegmentIndex;
+import com.edi.processor.parser.HlTree;
+import com.edi.processor.parser.IsaHeader;
+import com.edi.processor.parser.X12Segments;
+import com.edi.processor.mapping.MappedDocument;
+import com.edi.processor.reconciliation.DocumentKind;
+import com.edi.processor.template.RenderContext;
+import com.edi.processor.warmup.SyntheticTraffic;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class EdiProcessorService {
@@ -20,13 +38,39 @@ public class EdiProcessorService {
     private static final Logger log = LoggerFactory.getLogger(EdiProcessorService.class);
 
     private final ContentProviderService contentProvider;
+    private final TradingPartnerRegistry partnerRegistry;
+    private final DeliveryQueueService deliveryQueue;
+    private final DuplicateInterchangeDetector duplicateDetector;
+    private final ItemCatalogService itemCatalog;
+    private final ReconciliationService reconciliation;
+    private final DocumentIndexService documentIndex;
+    private final PartnerMappingService partnerMappings;
+    private final SyntheticTraffic syntheticTraffic;
+
+    // Outbound ISA13 / GS06 sequence, wrapping within nine digits
+    private final AtomicLong interchangeSequence = new AtomicLong();
 
     private static final String MIME_TYPE_EDI = "application/edi-x12";
+    private static final String MIME_TYPE_EDIFACT = "application/edifact";
     private static final String MIME_TYPE_JSON = "application/json";
     private static final String MIME_TYPE_TEXT = "plain/text";
     private static final String SUCCESS_MESSAGE = "File processed successfully";
     private static final String ERROR_MESSAGE = "unable to process request";
     private static final String INVALID_VALUE_MESSAGE = "Invalid value provided";
+    private static final String UNKNOWN_PRODUCTS_MESSAGE = "Products not in item catalog";
+    private static final String CATALOG_FULL_MESSAGE = "Item catalog full";
+    private static final String DUPLICATE_INTERCHANGE_MESSAGE = "Duplicate interchange control number";
+
+    // TA1 interchange note code for a duplicate interchange control number
+    private static final String TA1_NOTE_DUPLICATE_INTERCHANGE = "025";
+
+    // CONTRL action codes (0083): acknowledged, rejected; syntax error code (0085) for a duplicate
+    private static final String CONTRL_ACKNOWLEDGED = "7";
+    private static final String CONTRL_REJECTED = "4";
+    private static final String CONTRL_ERROR_DUPLICATE = "26";
+
+    private static final DateTimeFormatter UNB_DATE = DateTimeFormatter.ofPattern("yyMMdd");
+    private static final DateTimeFormatter UNB_TIME = DateTimeFormatter.ofPattern("HHmm");
 
     // Transaction Type Constants
     private static final String TRANSACTION_TYPE_GETSCHEMA = "GETSCHEMA";
@@ -91,9 +135,30 @@ public class EdiProcessorService {
             FORMAT_JSON
     );
 
+    // Content key format of EDI responses to an EDIFACT interchange
+    private static final String CONTENT_FORMAT_EDIFACT = "EDIFACT";
+
+    // EDIFACT message type (UNH-02) each inbound transaction type accepts
+    private static final Map<String, String> EDIFACT_MESSAGE_TYPES = Map.of(
+            TRANSACTION_TYPE_ORDER, "ORDERS",
+            TRANSACTION_TYPE_ASN, "DESADV"
+    );
+
     // Constructor injection
-    public EdiProcessorService(ContentProviderService contentProvider) {
+    public EdiProcessorService(ContentProviderService contentProvider, TradingPartnerRegistry partnerRegistry,
+                               DeliveryQueueService deliveryQueue, DuplicateInterchangeDetector duplicateDetector,
+                               ItemCatalogService itemCatalog, ReconciliationService reconciliation,
+                               DocumentIndexService documentIndex, PartnerMappingService partnerMappings,
+                               SyntheticTraffic syntheticTraffic) {
         this.contentProvider = contentProvider;
+        this.partnerRegistry = partnerRegistry;
+        this.deliveryQueue = deliveryQueue;
+        this.duplicateDetector = duplicateDetector;
+        this.itemCatalog = itemCatalog;
+        this.reconciliation = reconciliation;
+        this.documentIndex = documentIndex;
+        this.partnerMappings = partnerMappings;
+        this.syntheticTraffic = syntheticTraffic;
     }
 
     /**
@@ -114,16 +179,97 @@ public class EdiProcessorService {
 
         // Validate all field values
         String validationError = validateFieldValues(transactionType, orderType, format, responseType);
+        if (validationError == null) {
+            validationError = request.getInputFileError();
+        }
         if (validationError != null) {
             log.error("Validation failed: {}", validationError);
             return buildValidationErrorResponse(transactionType, responseType, format, uuid, validationError);
         }
 
+        DuplicateInterchangeDetector.Reservation reservation = DuplicateInterchangeDetector.Reservation.NONE;
         try {
-            return processBusinessLogic(transactionType, orderType, format, responseType, uuid);
+            // Synthetic (warmup) requests are processed in full but leave no records behind
+            boolean synthetic = syntheticTraffic.isSynthetic(uuid);
+            byte[] payload = request.getInputFileBytes();
+            IsaHeader header = IsaHeader.parse(payload);
+            EdifactHeader unb = header == null ? EdifactHeader.parse(payload) : null;
+            EdifactSegmentIndex edifact = unb != null ? EdifactSegmentIndex.build(payload, unb) : null;
+            TradingPartner partner = header != null ? resolvePartner(header) : resolvePartner(unb);
+            String groupControlNumber = header != null ? X12Segments.findElement(payload, header, "GS", 6) : null;
+
+            if (edifact != null && isInboundDocument(transactionType)) {
+                String messageError = validateEdifactMessage(transactionType, edifact);
+                if (messageError != null) {
+                    log.error("Validation failed: {}", messageError);
+                    return buildValidationErrorResponse(transactionType, responseType, format, uuid, messageError);
+                }
+            }
+
+            // The interchange key is recorded only once the request succeeds; rejections and errors
+            // release it, so a retry is not answered as a duplicate
+            if (isInboundDocument(transactionType) && duplicateDetector.isEnabled() && !synthetic) {
+                reservation = header != null
+                        ? duplicateDetector.reserve(partner, header, groupControlNumber)
+                        : duplicateDetector.reserve(partner, unb);
+                if (reservation.isDuplicate() && header != null) {
+                    log.warn("Duplicate interchange - UUID: {}, ISA13: {}, GS06: {}",
+                            uuid, header.getControlNumber(), groupControlNumber);
+                    return buildDuplicateInterchangeResponse(transactionType, uuid, header, groupControlNumber);
+                }
+                if (reservation.isDuplicate()) {
+                    log.warn("Duplicate interchange - UUID: {}, UNB05: {}", uuid, unb.getControlReference());
+                    return buildDuplicateInterchangeResponse(transactionType, uuid, edifact);
+                }
+            }
+
+            if (TRANSACTION_TYPE_ITEM.equalsIgnoreCase(transactionType) && itemCatalog.isEnabled() && !synthetic) {
+                ItemCatalogService.Ingested ingested = itemCatalog.ingest(payload, header);
+                log.info("Item catalog - UUID: {}, items upserted: {}", uuid, ingested.stored());
+                if (ingested.refused() > 0) {
+                    // Not acknowledged, so the partner resends once compaction or an export frees room
+                    return buildValidationErrorResponse(transactionType, responseType, format, uuid,
+                            CATALOG_FULL_MESSAGE + ": " + ingested.refused() + " of "
+                                    + (ingested.stored() + ingested.refused()) + " items not stored");
+                }
+            }
+
+            String unknownProducts = findUnknownProducts(transactionType, payload, header);
+            if (unknownProducts != null) {
+                if (itemCatalog.getValidation() == ItemCatalogService.Validation.REJECT) {
+                    log.error("Unknown products - UUID: {}, {}", uuid, unknownProducts);
+                    return buildValidationErrorResponse(transactionType, responseType, format, uuid,
+                            UNKNOWN_PRODUCTS_MESSAGE + ": " + unknownProducts);
+                }
+                log.warn("Unknown products - UUID: {}, {}", uuid, unknownProducts);
+            }
+
+            if (header != null && TRANSACTION_TYPE_ASN.equalsIgnoreCase(transactionType) && log.isDebugEnabled()) {
+                logShipmentSummary(uuid, HlTree.parse(payload, header));
+            }
+
+            // Partners with a mapping spec have their key, references and lines read through it
+            MappedDocument mapped = partnerMappings.map(partner, transactionType, payload, header);
+            String documentKey = synthetic ? null
+                    : registerForReconciliation(transactionType, uuid, payload, header, mapped);
+            if (documentKey == null && mapped != null) {
+                documentKey = mapped.getKey();
+            }
+            RenderContext context = buildRenderContext(transactionType, uuid, payload, header, edifact,
+                    groupControlNumber, documentKey);
+            EdiResponse response = processBusinessLogic(partner, context, edifact, transactionType, orderType, format,
+                    responseType, uuid);
+            duplicateDetector.record(reservation);
+            if (isInboundDocument(transactionType) && !synthetic) {
+                documentIndex.submit(uuid, transactionType, partner != null ? partner.getPartnerId() : null,
+                        payload, mappedIdentifiers(transactionType, mapped));
+            }
+            return response;
         } catch (Exception e) {
             log.error("Error processing request: {}", e.getMessage(), e);
             throw new EdiProcessingException(e.getMessage(), transactionType, responseType, format, uuid, e);
+        } finally {
+            duplicateDetector.release(reservation);
         }
     }
 
@@ -214,6 +360,39 @@ public class EdiProcessorService {
                 .anyMatch(valid -> valid.equalsIgnoreCase(format));
     }
 
+    /**
+     * Every valid transaction, order type, response type and format combination, without input
+     * files; ERRORRESPONSE and ERRORTIMEOUT are listed once per format
+     */
+    public List<RequestDetails> getSupportedRequestTypes() {
+        List<RequestDetails> types = new ArrayList<>();
+        for (String format : VALID_FORMATS) {
+            for (String responseType : GETSCHEMA_RESPONSE_TYPES) {
+                if (RESPONSE_TYPE_ORDER.equals(responseType)) {
+                    for (String orderType : VALID_ORDER_TYPES) {
+                        types.add(new RequestDetails(TRANSACTION_TYPE_GETSCHEMA, orderType, format, responseType, null));
+                    }
+                } else {
+                    types.add(new RequestDetails(TRANSACTION_TYPE_GETSCHEMA, null, format, responseType, null));
+                }
+            }
+            for (String orderType : VALID_ORDER_TYPES) {
+                for (String responseType : ORDER_RESPONSE_TYPES) {
+                    types.add(new RequestDetails(TRANSACTION_TYPE_ORDER, orderType, format, responseType, null));
+                }
+            }
+            for (String responseType : ASN_RESPONSE_TYPES) {
+                types.add(new RequestDetails(TRANSACTION_TYPE_ASN, null, format, responseType, null));
+            }
+            for (String responseType : ITEM_RESPONSE_TYPES) {
+                types.add(new RequestDetails(TRANSACTION_TYPE_ITEM, null, format, responseType, null));
+            }
+            types.add(new RequestDetails(TRANSACTION_TYPE_ERROR_RESPONSE, null, format, RESPONSE_TYPE_ACK, null));
+            types.add(new RequestDetails(TRANSACTION_TYPE_ERROR_TIMEOUT, null, format, RESPONSE_TYPE_ACK, null));
+        }
+        return types;
+    }
+
     public boolean shouldSuppressResponse(EdiRequest ediRequest) {
         if (ediRequest == null || ediRequest.getRequest() == null) {
             return false;
@@ -222,7 +401,149 @@ public class EdiProcessorService {
         return TRANSACTION_TYPE_ERROR_TIMEOUT.equalsIgnoreCase(transactionType);
     }
 
-    private EdiResponse processBusinessLogic(String transactionType, String orderType,
+    /**
+     * The ERRORRESPONSE body for a request, returned when a fault profile injects an error
+     */
+    public EdiResponse buildInjectedErrorResponse(EdiRequest ediRequest) {
+        RequestDetails request = ediRequest.getRequest();
+        return buildErrorResponse(normalizeString(request.getTransactionType()),
+                normalizeString(request.getResponseType()), normalizeString(request.getFormat()),
+                ediRequest.getUuid());
+    }
+
+    /**
+     * Identify the trading partner from the ISA header of the input file, if any
+     */
+    private TradingPartner resolvePartner(IsaHeader header) {
+        TradingPartner partner = partnerRegistry.findByIsaHeader(header);
+        if (partner != null) {
+            log.debug("Resolved trading partner {} for ISA {} -> {}",
+                    partner.getPartnerId(), header.getSenderId(), header.getReceiverId());
+        }
+        return partner;
+    }
+
+    /**
+     * Identify the trading partner from the UNB header of an EDIFACT input file, if any
+     */
+    private TradingPartner resolvePartner(EdifactHeader header) {
+        TradingPartner partner = partnerRegistry.findByUnbHeader(header);
+        if (partner != null) {
+            log.debug("Resolved trading partner {} for UNB {} -> {}",
+                    partner.getPartnerId(), header.getSenderId(), header.getRecipientId());
+        }
+        return partner;
+    }
+
+    /**
+     * Reject an EDIFACT interchange whose messages are not of the type the transaction type maps to:
+     * ORDERS for ORDER, DESADV for ASN
+     */
+    private String validateEdifactMessage(String transactionType, EdifactSegmentIndex edifact) {
+        String expected = EDIFACT_MESSAGE_TYPES.get(transactionType.toUpperCase());
+        if (expected == null) {
+            return "EDIFACT input is not supported for TRANSACTION TYPE '" + transactionType
+                    + "'. Supported message types are: " + EDIFACT_MESSAGE_TYPES;
+        }
+        int messages = 0;
+        for (int s = edifact.next("UNH", 0); s >= 0; s = edifact.next("UNH", s + 1)) {
+            if (!edifact.componentEquals(s, 2, 1, expected)) {
+                return "Invalid EDIFACT message type: '" + edifact.component(s, 2, 1) + "' for TRANSACTION TYPE '"
+                        + transactionType + "'. Expected: " + expected;
+            }
+            messages++;
+        }
+        return messages == 0 ? "EDIFACT interchange has no UNH message" : null;
+    }
+
+    /**
+     * Product IDs of an ORDER (W01) or ASN (LIN) not found in the item catalog, or null if all are known
+     */
+    private String findUnknownProducts(String transactionType, byte[] payload, IsaHeader header) throws IOException {
+        String segmentId = TRANSACTION_TYPE_ORDER.equalsIgnoreCase(transactionType) ? "W01"
+                : TRANSACTION_TYPE_ASN.equalsIgnoreCase(transactionType) ? "LIN"
+                : null;
+        if (segmentId == null) {
+            return null;
+        }
+        List<String> unknown = itemCatalog.findUnknownProducts(payload, header, segmentId);
+        return unknown.isEmpty() ? null : unknown.toString();
+    }
+
+    private void logShipmentSummary(String uuid, HlTree shipment) {
+        log.debug("ASN hierarchy - UUID: {}, orders: {}, packs: {}, items: {}, units: {}, units by order: {}",
+                uuid, shipment.count(HlTree.LEVEL_ORDER), shipment.count(HlTree.LEVEL_PACK),
+                shipment.count(HlTree.LEVEL_ITEM), shipment.totalUnits(), shipment.unitsByOrder());
+    }
+
+    /**
+     * Open an inbound ORDER or ASN for reconciliation; returns its order or ASN number, if any
+     */
+    private String registerForReconciliation(String transactionType, String uuid, byte[] payload,
+                                             IsaHeader header, MappedDocument mapped) throws IOException {
+        DocumentKind kind = TRANSACTION_TYPE_ORDER.equalsIgnoreCase(transactionType) ? DocumentKind.ORDER
+                : TRANSACTION_TYPE_ASN.equalsIgnoreCase(transactionType) ? DocumentKind.ASN
+                : null;
+        if (kind == null) {
+            return null;
+        }
+        return mapped != null ? reconciliation.register(kind, uuid, mapped)
+                : reconciliation.register(kind, uuid, payload, header);
+    }
+
+    /**
+     * Values for the response templates: timestamp, our next control number and references read
+     * from the inbound document (W05 / orderId order number, BSN / asnNumber shipment ID, EDIFACT BGM
+     * document number, or the key of the partner's mapping spec)
+     */
+    private RenderContext buildRenderContext(String transactionType, String uuid, byte[] payload,
+                                             IsaHeader header, EdifactSegmentIndex edifact,
+                                             String groupControlNumber, String documentKey) {
+        RenderContext.Builder builder = RenderContext.builder()
+                .uuid(uuid)
+                .controlNumber(nextControlNumber())
+                .receivedGroupControlNumber(groupControlNumber);
+        if (TRANSACTION_TYPE_ORDER.equalsIgnoreCase(transactionType)) {
+            builder.orderId(documentKey != null ? documentKey
+                    : header != null ? X12Segments.findElement(payload, header, "W05", 2)
+                    : documentNumber(edifact));
+        } else if (TRANSACTION_TYPE_ASN.equalsIgnoreCase(transactionType)) {
+            builder.asnNumber(documentKey != null ? documentKey
+                    : header != null ? X12Segments.findElement(payload, header, "BSN", 2)
+                    : documentNumber(edifact));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Search identifiers read by a partner's mapping spec: its references, and its key as the ORDER
+     * or ASN number
+     */
+    private static Map<String, String> mappedIdentifiers(String transactionType, MappedDocument mapped) {
+        if (mapped == null) {
+            return null;
+        }
+        Map<String, String> identifiers = new LinkedHashMap<>(mapped.getReferences());
+        if (mapped.getKey() != null) {
+            identifiers.putIfAbsent(transactionType.toUpperCase(Locale.ROOT), mapped.getKey());
+        }
+        return identifiers;
+    }
+
+    private long nextControlNumber() {
+        return interchangeSequence.getAndIncrement() % 999_999_999L + 1;
+    }
+
+    /**
+     * BGM-02 of an EDIFACT message: the order or despatch advice number
+     */
+    private static String documentNumber(EdifactSegmentIndex edifact) {
+        int bgm = edifact != null ? edifact.next("BGM", 0) : -1;
+        return bgm >= 0 ? edifact.component(bgm, 2, 1) : null;
+    }
+
+    private EdiResponse processBusinessLogic(TradingPartner partner, RenderContext context, EdifactSegmentIndex edifact,
+                                              String transactionType, String orderType,
                                               String format, String responseType, String uuid) {
 
         // ERRORRESPONSE - return error
@@ -239,22 +560,22 @@ public class EdiProcessorService {
 
         // GETSCHEMA Transaction - always returns 1 response
         if (TRANSACTION_TYPE_GETSCHEMA.equalsIgnoreCase(transactionType)) {
-            return handleGetSchemaTransaction(transactionType,orderType,format, responseType, uuid);
+            return handleGetSchemaTransaction(partner, context, transactionType,orderType,format, responseType, uuid);
         }
 
         // ORDER Transaction
         if (TRANSACTION_TYPE_ORDER.equalsIgnoreCase(transactionType)) {
-            return handleOrderTransaction(transactionType,orderType, format, responseType, uuid);
+            return handleOrderTransaction(partner, context, edifact, transactionType,orderType, format, responseType, uuid);
         }
 
         // ASN Transaction
         if (TRANSACTION_TYPE_ASN.equalsIgnoreCase(transactionType)) {
-            return handleAsnTransaction(transactionType,format, responseType, uuid);
+            return handleAsnTransaction(partner, context, edifact, transactionType,format, responseType, uuid);
         }
 
         // ITEM Transaction - always returns 1 response
         if (TRANSACTION_TYPE_ITEM.equalsIgnoreCase(transactionType)) {
-            return handleItemTransaction(transactionType,format, responseType, uuid);
+            return handleItemTransaction(partner, context, transactionType,format, responseType, uuid);
         }
 
         // Default - return error
@@ -265,16 +586,16 @@ public class EdiProcessorService {
      * Handle GETSCHEMA Transaction - Returns 1 response
      * Valid Response Types: ASN, ITEM, SHIPCONFIRM, RECEIPT
      */
-    private EdiResponse handleGetSchemaTransaction(String transactionType, String orderType, String format, String responseType, String uuid) {
+    private EdiResponse handleGetSchemaTransaction(TradingPartner partner, RenderContext context, String transactionType, String orderType, String format, String responseType, String uuid) {
         String mimeType = determineMimeType(format);
         String fileExtension = determineFileExtension(format);
         String filename = transactionType + "_" + responseType + "_" + uuid + "." + fileExtension;
         String content;
         if (orderType != null && !orderType.trim().isEmpty()) {
             filename = transactionType + "_" + responseType + "_" + orderType + "_" + uuid + "." + fileExtension;
-            content = contentProvider.getfileWithOrdTypeContent(transactionType,responseType,orderType,format);
+            content = contentProvider.getfileWithOrdTypeContent(partner, context, transactionType,responseType,orderType,format);
         }else{
-            content = contentProvider.getfileWithoutOrdTypeContent(transactionType,responseType,format);
+            content = contentProvider.getfileWithoutOrdTypeContent(partner, context, transactionType,responseType,format);
         }
         return buildSuccessResponse(filename, content, mimeType);
     }
@@ -282,11 +603,15 @@ public class EdiProcessorService {
     /**
      * Handle ORDER Transaction
      * Valid Response Types: ACK (1 response), SHIPCONFIRM (2 responses)
+     * EDI responses to an EDIFACT ORDERS are a CONTRL and a DESADV.
      */
-    private EdiResponse handleOrderTransaction(String transactionType,String orderType, String format,
+    private EdiResponse handleOrderTransaction(TradingPartner partner, RenderContext context, EdifactSegmentIndex edifact,
+                                                String transactionType,String orderType, String format,
                                                 String responseType, String uuid) {
-        String mimeType = determineMimeType(format);
+        boolean edifactReply = edifact != null && FORMAT_EDI.equalsIgnoreCase(format);
+        String mimeType = edifactReply ? MIME_TYPE_EDIFACT : determineMimeType(format);
         String fileExtension = determineFileExtension(format);
+        String contentFormat = edifactReply ? CONTENT_FORMAT_EDIFACT : format;
 
         // SHIPCONFIRM - returns 2 responses (ACK + SHIPCONFIRM)
         if (RESPONSE_TYPE_SHIPCONFIRM.equalsIgnoreCase(responseType)) {
@@ -294,7 +619,8 @@ public class EdiProcessorService {
 
             // First response - ACK
             String ackFilename = transactionType + "_" + orderType + "_ACK_" + uuid + "." + fileExtension;
-            String ackContent = contentProvider.getfileWithOrdTypeContent(transactionType,"ACK",orderType,format);
+            String ackContent = edifactReply ? buildControlMessage(context.getControlNumber(), edifact, null)
+                    : contentProvider.getfileWithOrdTypeContent(partner, context, transactionType,"ACK",orderType,format);
             items.add(ResponseItem.builder()
                     .success(true)
                     .filename(ackFilename)
@@ -305,8 +631,8 @@ public class EdiProcessorService {
 
             // Second response - SHIPCONFIRM
             String shipFilename = transactionType + "_" + orderType + "_" + responseType + "_" + uuid + "." + fileExtension;
-            String shipContent = contentProvider.getfileWithOrdTypeContent(transactionType,responseType,orderType,format);
-            items.add(ResponseItem.builder()
+            String shipContent = contentProvider.getfileWithOrdTypeContent(partner, context, transactionType,responseType,orderType,contentFormat);
+            addFollowUpDocument(items, uuid, ResponseItem.builder()
                     .success(true)
                     .filename(shipFilename)
                     .content(shipContent)
@@ -319,17 +645,22 @@ public class EdiProcessorService {
 
         // ACK - returns 1 response
         String filename = transactionType + "_" + orderType + "_" + responseType + "_" + uuid + "." + fileExtension;
-        String content = contentProvider.getfileWithOrdTypeContent(transactionType,"ACK",orderType,format);
+        String content = edifactReply ? buildControlMessage(context.getControlNumber(), edifact, null)
+                : contentProvider.getfileWithOrdTypeContent(partner, context, transactionType,"ACK",orderType,format);
         return buildSuccessResponse(filename, content, mimeType);
     }
 
     /**
      * Handle ASN Transaction
      * Valid Response Types: ACK (1 response), RECEIPT (2 responses)
+     * EDI responses to an EDIFACT DESADV are a CONTRL and a RECADV.
      */
-    private EdiResponse handleAsnTransaction(String transactionType, String format, String responseType, String uuid) {
-        String mimeType = determineMimeType(format);
+    private EdiResponse handleAsnTransaction(TradingPartner partner, RenderContext context, EdifactSegmentIndex edifact,
+                                             String transactionType, String format, String responseType, String uuid) {
+        boolean edifactReply = edifact != null && FORMAT_EDI.equalsIgnoreCase(format);
+        String mimeType = edifactReply ? MIME_TYPE_EDIFACT : determineMimeType(format);
         String fileExtension = determineFileExtension(format);
+        String contentFormat = edifactReply ? CONTENT_FORMAT_EDIFACT : format;
 
         // RECEIPT - returns 2 responses (ACK + RECEIPT)
         if (RESPONSE_TYPE_RECEIPT.equalsIgnoreCase(responseType)) {
@@ -337,7 +668,8 @@ public class EdiProcessorService {
 
             // First response - ACK
             String ackFilename = transactionType+"_ACK_" + uuid + "." + fileExtension;
-            String ackContent = contentProvider.getfileWithoutOrdTypeContent(transactionType,"ACK",format);
+            String ackContent = edifactReply ? buildControlMessage(context.getControlNumber(), edifact, null)
+                    : contentProvider.getfileWithoutOrdTypeContent(partner, context, transactionType,"ACK",format);
             items.add(ResponseItem.builder()
                     .success(true)
                     .filename(ackFilename)
@@ -348,8 +680,8 @@ public class EdiProcessorService {
 
             // Second response - RECEIPT
             String receiptFilename = transactionType+"_"+responseType+"_" + uuid + "." + fileExtension;
-            String receiptContent = contentProvider.getfileWithoutOrdTypeContent(transactionType,responseType,format);
-            items.add(ResponseItem.builder()
+            String receiptContent = contentProvider.getfileWithoutOrdTypeContent(partner, context, transactionType,responseType,contentFormat);
+            addFollowUpDocument(items, uuid, ResponseItem.builder()
                     .success(true)
                     .filename(receiptFilename)
                     .content(receiptContent)
@@ -362,7 +694,8 @@ public class EdiProcessorService {
 
         // ACK - returns 1 response
         String filename = transactionType+"_"+responseType+"_" + uuid + "." + fileExtension;
-        String content = contentProvider.getfileWithoutOrdTypeContent(transactionType,"ACK",format);
+        String content = edifactReply ? buildControlMessage(context.getControlNumber(), edifact, null)
+                : contentProvider.getfileWithoutOrdTypeContent(partner, context, transactionType,"ACK",format);
         return buildSuccessResponse(filename, content, mimeType);
     }
 
@@ -370,16 +703,28 @@ public class EdiProcessorService {
      * Handle ITEM Transaction - Returns 1 response
      * Valid Response Types: ACK
      */
-    private EdiResponse handleItemTransaction(String transactionType, String format, String responseType, String uuid) {
+    private EdiResponse handleItemTransaction(TradingPartner partner, RenderContext context, String transactionType, String format, String responseType, String uuid) {
         String mimeType = determineMimeType(format);
         String fileExtension = determineFileExtension(format);
 
         String filename = transactionType+"_"+responseType+"_" + uuid + "." + fileExtension;
-        String content = contentProvider.getfileWithoutOrdTypeContent(transactionType,responseType,format);
+        String content = contentProvider.getfileWithoutOrdTypeContent(partner, context, transactionType,responseType,format);
 
         return buildSuccessResponse(filename, content, mimeType);
     }
 
+    /**
+     * Add a follow-up document (SHIPCONFIRM, RECEIPT) to the response, or hand it to the
+     * outbound delivery queue when asynchronous delivery is enabled
+     */
+    private void addFollowUpDocument(List<ResponseItem> items, String uuid, ResponseItem document) {
+        if (deliveryQueue.isEnabled() && !syntheticTraffic.isSynthetic(uuid)) {
+            deliveryQueue.enqueue(uuid, document);
+            return;
+        }
+        items.add(document);
+    }
+
     private EdiResponse buildSuccessResponse(String filename, String content, String mimeType) {
         ResponseItem item = ResponseItem.builder()
                 .success(true)
@@ -415,6 +760,141 @@ public class EdiProcessorService {
                 .build();
     }
 
+    /**
+     * TA1 rejecting an interchange whose (partner, ISA13, GS06) was already received
+     */
+    private EdiResponse buildDuplicateInterchangeResponse(String transactionType, String uuid,
+                                                          IsaHeader header, String groupControlNumber) {
+        char e = header.getElementSeparator();
+        char t = header.getSegmentTerminator();
+        String content = "ISA" + e + "00" + e + "          " + e + "00" + e + "          "
+                + e + header.getReceiverQualifier() + e + String.format("%-15s", header.getReceiverId())
+                + e + header.getSenderQualifier() + e + String.format("%-15s", header.getSenderId())
+                + e + header.getDate() + e + header.getTime() + e + "U" + e + header.getVersion()
+                + e + header.getControlNumber() + e + "0" + e + "P" + e + header.getSubElementSeparator() + t
+                + "TA1" + e + header.getControlNumber() + e + header.getDate() + e + header.getTime()
+                + e + "R" + e + TA1_NOTE_DUPLICATE_INTERCHANGE + t
+                + "IEA" + e + "0" + e + header.getControlNumber() + t;
+
+        ResponseItem item = ResponseItem.builder()
+                .success(false)
+                .filename(transactionType + "_TA1_" + uuid + ".edi")
+                .content(content)
+                .mimeType(MIME_TYPE_EDI)
+                .message(DUPLICATE_INTERCHANGE_MESSAGE + " " + header.getControlNumber()
+                        + (groupControlNumber != null ? " (GS06 " + groupControlNumber + ")" : ""))
+                .build();
+
+        return EdiResponse.builder()
+                .response(Collections.singletonList(item))
+                .build();
+    }
+
+    /**
+     * CONTRL rejecting an EDIFACT interchange whose (partner, UNB05) was already received
+     */
+    private EdiResponse buildDuplicateInterchangeResponse(String transactionType, String uuid,
+                                                          EdifactSegmentIndex edifact) {
+        String controlReference = edifact.getHeader().getControlReference();
+        ResponseItem item = ResponseItem.builder()
+                .success(false)
+                .filename(transactionType + "_CONTRL_" + uuid + ".edi")
+                .content(buildControlMessage(nextControlNumber(), edifact, CONTRL_ERROR_DUPLICATE))
+                .mimeType(MIME_TYPE_EDIFACT)
+                .message(DUPLICATE_INTERCHANGE_MESSAGE + " " + controlReference)
+                .build();
+
+        return EdiResponse.builder()
+                .response(Collections.singletonList(item))
+                .build();
+    }
+
+    /**
+     * CONTRL for an EDIFACT interchange, in its own service characters and from its recipient back
+     * to its sender. Without {@code syntaxError} the interchange is acknowledged with a UCM per
+     * message; with one, UCI rejects the whole interchange with that error code.
+     */
+    private static String buildControlMessage(long controlReference, EdifactSegmentIndex edifact, String syntaxError) {
+        EdifactHeader unb = edifact.getHeader();
+        char c = unb.getComponentSeparator();
+        char e = unb.getElementSeparator();
+        char t = unb.getSegmentTerminator();
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        String messageType = "4".equals(unb.getSyntaxVersion()) ? "CONTRL" + c + "4" + c + "1" + c + "UN"
+                : "CONTRL" + c + "D" + c + "3" + c + "UN";
+
+        StringBuilder out = new StringBuilder(256);
+        if (unb.hasServiceStringAdvice()) {
+            out.append("UNA").append(c).append(e).append(unb.getDecimalMark()).append(unb.getReleaseCharacter())
+                    .append(' ').append(t);
+        }
+        out.append("UNB").append(e).append(escape(unb.getSyntaxIdentifier(), unb)).append(c)
+                .append(escape(unb.getSyntaxVersion(), unb))
+                .append(e).append(party(unb.getRecipientId(), unb.getRecipientQualifier(), unb))
+                .append(e).append(party(unb.getSenderId(), unb.getSenderQualifier(), unb))
+                .append(e).append(UNB_DATE.format(now)).append(c).append(UNB_TIME.format(now))
+                .append(e).append(controlReference).append(t);
+        out.append("UNH").append(e).append('1').append(e).append(messageType).append(t);
+        out.append("UCI").append(e).append(escape(unb.getControlReference(), unb))
+                .append(e).append(party(unb.getSenderId(), unb.getSenderQualifier(), unb))
+                .append(e).append(party(unb.getRecipientId(), unb.getRecipientQualifier(), unb))
+                .append(e).append(syntaxError == null ? CONTRL_ACKNOWLEDGED : CONTRL_REJECTED);
+        if (syntaxError != null) {
+            out.append(e).append(syntaxError);
+        }
+        out.append(t);
+        int segments = 3;
+        if (syntaxError == null) {
+            for (int s = edifact.next("UNH", 0); s >= 0; s = edifact.next("UNH", s + 1)) {
+                out.append("UCM").append(e).append(escape(edifact.component(s, 1, 1), unb))
+                        .append(e).append(escape(edifact.element(s, 2), unb, c))
+                        .append(e).append(CONTRL_ACKNOWLEDGED).append(t);
+                segments++;
+            }
+        }
+        out.append("UNT").append(e).append(segments).append(e).append('1').append(t);
+        out.append("UNZ").append(e).append('1').append(e).append(controlReference).append(t);
+        return out.toString();
+    }
+
+    private static String party(String id, String qualifier, EdifactHeader unb) {
+        String escaped = escape(id, unb);
+        return qualifier != null ? escaped + unb.getComponentSeparator() + escape(qualifier, unb) : escaped;
+    }
+
+    private static String escape(String value, EdifactHeader unb) {
+        return escape(value, unb, (char) 0);
+    }
+
+    /**
+     * Release the service characters in {@code value}, except {@code keep} (a composite's own
+     * component separators)
+     */
+    private static String escape(String value, EdifactHeader unb, char keep) {
+        if (value == null) {
+            return "";
+        }
+        if (!unb.hasReleaseCharacter()) {
+            return value;
+        }
+        StringBuilder out = null;
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            boolean special = ch != keep && (ch == unb.getComponentSeparator() || ch == unb.getElementSeparator()
+                    || ch == unb.getReleaseCharacter() || ch == unb.getSegmentTerminator());
+            if (special && out == null) {
+                out = new StringBuilder(value.length() + 4).append(value, 0, i);
+            }
+            if (out != null) {
+                if (special) {
+                    out.append(unb.getReleaseCharacter());
+                }
+                out.append(ch);
+            }
+        }
+        return out != null ? out.toString() : value;
+    }
+
     private EdiResponse buildValidationErrorResponse(String transactionType, String responseType,
                                                       String format, String uuid, String errorMessage) {
         String fileExtension = format != null ? format.toLowerCase() : "txt";
@@ -457,11 +937,20 @@ public class EdiProcessorService {
         };
     }
 
+    private boolean isInboundDocument(String transactionType) {
+        return TRANSACTION_TYPE_ORDER.equalsIgnoreCase(transactionType)
+                || TRANSACTION_TYPE_ASN.equalsIgnoreCase(transactionType)
+                || TRANSACTION_TYPE_ITEM.equalsIgnoreCase(transactionType);
+    }
+
     private String normalizeString(String value) {
         return value != null ? value.trim() : null;
     }
 
-    private void validateRequest(EdiRequest ediRequest) {
+    /**
+     * Reject requests missing the UUID or transaction type
+     */
+    public void validateRequest(EdiRequest ediRequest) {
         if (ediRequest == null) {
             throw new IllegalArgumentException("Request cannot be null");
         }
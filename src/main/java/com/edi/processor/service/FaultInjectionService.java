@@ -0,0 +1,266 @@
+package com.edi.processor.service;
+
+import com.edi.processor.fault.FaultPlan;
+import com.edi.processor.fault.FaultProfile;
+import com.edi.processor.model.partner.TradingPartner;
+import com.edi.processor.model.request.EdiRequest;
+import com.edi.processor.parser.EdifactHeader;
+import com.edi.processor.parser.IsaHeader;
+import com.edi.processor.warmup.SyntheticTraffic;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Latency and failure injection for running the service as a partner stub.
+ *
+ * Profiles are declared in fault-profiles.properties (and optionally an external file) as
+ * {@code profile.<name>.<attribute>=value}. A request uses the profile named in its
+ * {@value #PROFILE_HEADER} header, else its trading partner's {@code fault.profile}, else
+ * {@code edi.faults.default-profile}. Delays are served from a small scheduler (or Reactor timers on
+ * the reactive stack), never by sleeping on a request thread.
+ */
+@Service
+public class FaultInjectionService {
+
+    private static final Logger log = LoggerFactory.getLogger(FaultInjectionService.class);
+
+    public static final String PROFILE_HEADER = "X-Fault-Profile";
+
+    private static final String PROPERTIES_FILE = "fault-profiles.properties";
+    private static final String PROFILE_PREFIX = "profile.";
+
+    private final TradingPartnerRegistry partnerRegistry;
+    private final MeterRegistry meterRegistry;
+    private final SyntheticTraffic syntheticTraffic;
+    private final Map<String, Counter> injected = new ConcurrentHashMap<>();
+
+    @Value("${edi.faults.enabled:true}")
+    private boolean enabled;
+
+    @Value("${edi.faults.file:}")
+    private String externalFile;
+
+    @Value("${edi.faults.default-profile:}")
+    private String defaultProfile;
+
+    @Value("${edi.faults.scheduler-threads:2}")
+    private int schedulerThreads;
+
+    private volatile Map<String, FaultProfile> profiles = Map.of();
+    private ScheduledThreadPoolExecutor scheduler;
+
+    public FaultInjectionService(TradingPartnerRegistry partnerRegistry, MeterRegistry meterRegistry,
+                                 SyntheticTraffic syntheticTraffic) {
+        this.partnerRegistry = partnerRegistry;
+        this.meterRegistry = meterRegistry;
+        this.syntheticTraffic = syntheticTraffic;
+    }
+
+    @PostConstruct
+    public void init() {
+        Properties properties = new Properties();
+        try (InputStream input = getClass().getClassLoader().getResourceAsStream(PROPERTIES_FILE)) {
+            if (input != null) {
+                properties.load(input);
+            }
+        } catch (IOException e) {
+            log.error("Error loading fault profiles file: {}", e.getMessage(), e);
+        }
+        if (externalFile != null && !externalFile.isBlank()) {
+            try (InputStream input = Files.newInputStream(Path.of(externalFile))) {
+                properties.load(input);
+            } catch (IOException e) {
+                log.error("Error loading external fault profiles file '{}': {}", externalFile, e.getMessage(), e);
+            }
+        }
+        load(properties);
+
+        if (defaultProfile != null && !defaultProfile.isBlank() && !profiles.containsKey(defaultProfile.trim())) {
+            throw new IllegalStateException("edi.faults.default-profile '" + defaultProfile + "' is not defined");
+        }
+        for (TradingPartner partner : partnerRegistry.getPartners()) {
+            if (partner.getFaultProfile() != null && !profiles.containsKey(partner.getFaultProfile())) {
+                log.warn("Trading partner '{}' uses undefined fault profile '{}' - ignored",
+                        partner.getPartnerId(), partner.getFaultProfile());
+            }
+        }
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        scheduler = new ScheduledThreadPoolExecutor(Math.max(1, schedulerThreads), runnable -> {
+            Thread thread = new Thread(runnable, "edi-fault-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Build the profiles from {@code profile.<name>.*} properties and swap them in
+     */
+    public void load(Properties properties) {
+        Map<String, FaultProfile> loaded = new HashMap<>();
+        for (String name : profileNames(properties)) {
+            try {
+                loaded.put(name, buildProfile(name, properties));
+            } catch (IllegalArgumentException e) {
+                log.error("Skipping fault profile '{}': {}", name, e.getMessage());
+            }
+        }
+        this.profiles = Map.copyOf(loaded);
+        log.info("Loaded {} fault profiles {}", loaded.size(), new TreeSet<>(loaded.keySet()));
+    }
+
+    public Map<String, FaultProfile> getProfiles() {
+        return profiles;
+    }
+
+    /**
+     * Timer for delayed and dripped servlet responses
+     */
+    public ScheduledExecutorService getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Draw the fault plan for a request, or null when no profile applies
+     *
+     * @param requestedProfile value of the {@value #PROFILE_HEADER} header, if any
+     * @throws IllegalArgumentException if the requested profile is not defined
+     */
+    public FaultPlan plan(String requestedProfile, EdiRequest ediRequest) {
+        if (!enabled || ediRequest == null || ediRequest.getRequest() == null
+                || syntheticTraffic.isSynthetic(ediRequest.getUuid())) {
+            return null;
+        }
+        FaultProfile profile = resolve(requestedProfile, ediRequest);
+        if (profile == null) {
+            return null;
+        }
+        FaultPlan plan = profile.plan(ThreadLocalRandom.current());
+        if (plan.action() != FaultPlan.Action.RESPOND || plan.delayMillis() > 0) {
+            String key = profile.getName() + "|" + plan.action();
+            Counter counter = injected.get(key);
+            if (counter == null) {
+                counter = injected.computeIfAbsent(key, k -> Counter.builder("edi.faults.injected")
+                        .description("Requests answered with injected latency or failures")
+                        .tag("profile", profile.getName())
+                        .tag("action", plan.action().name())
+                        .register(meterRegistry));
+            }
+            counter.increment();
+        }
+        return plan;
+    }
+
+    private FaultProfile resolve(String requestedProfile, EdiRequest ediRequest) {
+        if (requestedProfile != null && !requestedProfile.isBlank()) {
+            FaultProfile profile = profiles.get(requestedProfile.trim());
+            if (profile == null) {
+                throw new IllegalArgumentException("Unknown fault profile: " + requestedProfile.trim());
+            }
+            return profile;
+        }
+        if (partnerRegistry.hasFaultProfiles()) {
+            byte[] payload = ediRequest.getRequest().getInputFileBytes();
+            IsaHeader isa = IsaHeader.parse(payload);
+            TradingPartner partner = isa != null ? partnerRegistry.findByIsaHeader(isa)
+                    : partnerRegistry.findByUnbHeader(EdifactHeader.parse(payload));
+            if (partner != null && partner.getFaultProfile() != null) {
+                FaultProfile profile = profiles.get(partner.getFaultProfile());
+                if (profile != null) {
+                    return profile;
+                }
+            }
+        }
+        return defaultProfile == null || defaultProfile.isBlank() ? null : profiles.get(defaultProfile.trim());
+    }
+
+    private static FaultProfile buildProfile(String name, Properties properties) {
+        String prefix = PROFILE_PREFIX + name + ".";
+        FaultProfile.Builder builder = FaultProfile.builder()
+                .name(name)
+                .latency(FaultProfile.Latency.of(properties.getProperty(prefix + "latency")));
+
+        String value = properties.getProperty(prefix + "latency.ms");
+        if (value != null) {
+            builder.latencyMs(Long.parseLong(value.trim()));
+        }
+        value = properties.getProperty(prefix + "latency.min-ms");
+        if (value != null) {
+            builder.minMs(Long.parseLong(value.trim()));
+        }
+        value = properties.getProperty(prefix + "latency.max-ms");
+        if (value != null) {
+            builder.maxMs(Long.parseLong(value.trim()));
+        }
+        value = properties.getProperty(prefix + "latency.sigma");
+        if (value != null) {
+            builder.sigma(Double.parseDouble(value.trim()));
+        }
+        value = properties.getProperty(prefix + "error.percent");
+        if (value != null) {
+            builder.errorPercent(Double.parseDouble(value.trim()));
+        }
+        value = properties.getProperty(prefix + "error.status");
+        if (value != null) {
+            builder.errorStatus(Integer.parseInt(value.trim()));
+        }
+        value = properties.getProperty(prefix + "truncate.percent");
+        if (value != null) {
+            builder.truncatePercent(Double.parseDouble(value.trim()));
+        }
+        value = properties.getProperty(prefix + "drip.percent");
+        if (value != null) {
+            builder.dripPercent(Double.parseDouble(value.trim()));
+        }
+        value = properties.getProperty(prefix + "drip.chunk-bytes");
+        if (value != null) {
+            builder.dripChunkBytes(Integer.parseInt(value.trim()));
+        }
+        value = properties.getProperty(prefix + "drip.interval-ms");
+        if (value != null) {
+            builder.dripIntervalMs(Long.parseLong(value.trim()));
+        }
+        return builder.build();
+    }
+
+    private static TreeSet<String> profileNames(Properties properties) {
+        TreeSet<String> names = new TreeSet<>();
+        for (String name : properties.stringPropertyNames()) {
+            if (name.startsWith(PROFILE_PREFIX)) {
+                int end = name.indexOf('.', PROFILE_PREFIX.length());
+                if (end > PROFILE_PREFIX.length()) {
+                    names.add(name.substring(PROFILE_PREFIX.length(), end));
+                }
+            }
+        }
+        return names;
+    }
+}
@@ -0,0 +1,300 @@
+package com.edi.processor.service;
+
+import com.edi.processor.catalog.ItemCatalog;
+import com.edi.processor.model.catalog.CatalogItem;
+import com.edi.processor.parser.EdifactHeader;
+import com.edi.processor.parser.EdifactSegmentIndex;
+import com.edi.processor.parser.IsaHeader;
+import com.edi.processor.parser.X12SegmentIndex;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Item master built from inbound ITEM transactions, used to check the products referenced by
+ * ORDER and ASN transactions.
+ *
+ * X12 888: each LIN loop is one item. LIN product ID pairs give the SKU (VN, SK, BP, IN) and UPC
+ * (UP, UK, EN, UA); PID-05 the description, PO4 the pack size and unit, MEA the weight.
+ * JSON ITEM_MASTER: each entry of {@code items[]}.
+ *
+ * Validation only runs once the catalog holds at least one item.
+ */
+@Service
+public class ItemCatalogService {
+
+    private static final Logger log = LoggerFactory.getLogger(ItemCatalogService.class);
+
+    private static final Set<String> SKU_QUALIFIERS = Set.of("VN", "SK", "BP", "IN", "MG");
+    private static final Set<String> UPC_QUALIFIERS = Set.of("UP", "UK", "EN", "UA");
+
+    // EDIFACT item type codes (7143) of LIN / PIA item numbers
+    private static final Set<String> EDIFACT_SKU_TYPES = Set.of("SA", "BP", "IN", "MF");
+    private static final Set<String> EDIFACT_UPC_TYPES = Set.of("SRV", "EN", "UP");
+
+    public enum Validation { OFF, WARN, REJECT }
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${edi.catalog.enabled:false}")
+    private boolean enabled;
+
+    @Value("${edi.catalog.max-off-heap-mb:512}")
+    private long maxOffHeapMb;
+
+    @Value("${edi.catalog.expected-items:100000}")
+    private int expectedItems;
+
+    @Value("${edi.catalog.sku-validation:warn}")
+    private String skuValidation;
+
+    private ItemCatalog catalog;
+    private Validation validation;
+
+    public ItemCatalogService(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    public void init() {
+        catalog = new ItemCatalog(maxOffHeapMb << 20, expectedItems);
+        validation = enabled ? Validation.valueOf(skuValidation.trim().toUpperCase(Locale.ROOT)) : Validation.OFF;
+        log.info("Item catalog enabled: {}, off-heap limit {} MB, SKU validation {}", enabled, maxOffHeapMb, validation);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Validation getValidation() {
+        return validation;
+    }
+
+    /**
+     * Upsert the items of an ITEM payload, X12 888 when {@code isa} is present, JSON otherwise.
+     * Items the catalog has no room for (see {@link ItemCatalog#upsert}) are counted as refused.
+     */
+    public Ingested ingest(byte[] payload, IsaHeader isa) throws IOException {
+        if (!enabled) {
+            return new Ingested(0, 0);
+        }
+        long now = System.currentTimeMillis();
+        List<CatalogItem> items = isa != null ? parseX12(X12SegmentIndex.build(payload, isa), now)
+                : isJson(payload) ? parseJson(payload, now) : List.of();
+        int refused = 0;
+        for (CatalogItem item : items) {
+            if (!catalog.upsert(item)) {
+                refused++;
+            }
+        }
+        if (refused > 0) {
+            log.warn("Item catalog full - {} of {} items not stored (limit {} MB)", refused, items.size(), maxOffHeapMb);
+        }
+        return new Ingested(items.size() - refused, refused);
+    }
+
+    /**
+     * Product IDs of an ORDER (W01) or ASN (LIN) payload that are not in the catalog, in document
+     * order; for EDIFACT the typed item numbers of LIN and PIA. Empty when validation is off or the
+     * catalog is empty.
+     */
+    public List<String> findUnknownProducts(byte[] payload, IsaHeader isa, String segmentId) throws IOException {
+        if (validation == Validation.OFF || catalog.size() == 0) {
+            return List.of();
+        }
+        Set<String> unknown = new LinkedHashSet<>();
+        EdifactHeader unb;
+        if (isa != null) {
+            X12SegmentIndex segments = X12SegmentIndex.build(payload, isa);
+            for (int s = 0; s < segments.size(); s++) {
+                if (segments.isSegment(s, segmentId)) {
+                    collectUnknown(segments, s, unknown);
+                }
+            }
+        } else if ((unb = EdifactHeader.parse(payload)) != null) {
+            EdifactSegmentIndex segments = EdifactSegmentIndex.build(payload, unb);
+            for (int s = 0; s < segments.size(); s++) {
+                if (segments.isSegment(s, "LIN")) {
+                    collectUnknown(segments, s, 3, 3, unknown);
+                } else if (segments.isSegment(s, "PIA")) {
+                    collectUnknown(segments, s, 2, 6, unknown);
+                }
+            }
+        } else if (isJson(payload)) {
+            for (String sku : objectMapper.readTree(payload).findValuesAsText("sku")) {
+                if (!sku.isEmpty() && !catalog.containsSku(sku)) {
+                    unknown.add(sku);
+                }
+            }
+        }
+        return new ArrayList<>(unknown);
+    }
+
+    public CatalogItem findBySku(String sku) {
+        return catalog.findBySku(sku);
+    }
+
+    public CatalogItem findByUpc(String upc) {
+        return catalog.findByUpc(upc);
+    }
+
+    public void forEach(Consumer<CatalogItem> consumer) {
+        catalog.forEach(consumer);
+    }
+
+    public ItemCatalog.Stats getStats() {
+        return catalog.stats();
+    }
+
+    public record Ingested(int stored, int refused) {
+    }
+
+    private void collectUnknown(X12SegmentIndex segments, int segment, Set<String> unknown) {
+        for (int e = 1; ; e++) {
+            String qualifier = segments.element(segment, e);
+            if (qualifier == null) {
+                return;
+            }
+            String id = segments.element(segment, e + 1);
+            if (id == null || id.isEmpty()) {
+                continue;
+            }
+            if (SKU_QUALIFIERS.contains(qualifier) && !catalog.containsSku(id)
+                    || UPC_QUALIFIERS.contains(qualifier) && catalog.findByUpc(id) == null) {
+                unknown.add(id);
+            }
+        }
+    }
+
+    /**
+     * Item number (component 1) and type (component 2) of elements {@code from} to {@code to}
+     */
+    private void collectUnknown(EdifactSegmentIndex segments, int segment, int from, int to, Set<String> unknown) {
+        for (int e = from; e <= to; e++) {
+            String id = segments.component(segment, e, 1);
+            String type = segments.component(segment, e, 2);
+            if (id == null || id.isEmpty() || type == null) {
+                continue;
+            }
+            if (EDIFACT_SKU_TYPES.contains(type) && !catalog.containsSku(id)
+                    || EDIFACT_UPC_TYPES.contains(type) && catalog.findByUpc(id) == null) {
+                unknown.add(id);
+            }
+        }
+    }
+
+    private List<CatalogItem> parseX12(X12SegmentIndex segments, long now) {
+        List<CatalogItem> items = new ArrayList<>();
+        CatalogItem.Builder current = null;
+        for (int s = 0; s < segments.size(); s++) {
+            if (segments.isSegment(s, "LIN")) {
+                addItem(items, current);
+                current = CatalogItem.builder().updatedAt(now);
+                readProductIds(segments, s, current);
+            } else if (current == null) {
+                continue;
+            } else if (segments.isSegment(s, "PID")) {
+                String description = segments.element(s, 5);
+                if (description != null && !description.isEmpty()) {
+                    current.description(description);
+                }
+            } else if (segments.isSegment(s, "PO4")) {
+                current.packQuantity((int) segments.elementAsLong(s, 1, 0)).uom(segments.element(s, 2));
+            } else if (segments.isSegment(s, "MEA") && segments.elementEquals(s, 2, "G")) {
+                // MEA*PD*G*5*LB - gross weight
+                String value = segments.element(s, 3);
+                current.weight(parseDouble(value)).weightUnit(segments.element(s, 4));
+            } else if (segments.isSegment(s, "SE")) {
+                addItem(items, current);
+                current = null;
+            }
+        }
+        addItem(items, current);
+        return items;
+    }
+
+    private void readProductIds(X12SegmentIndex segments, int segment, CatalogItem.Builder builder) {
+        // LIN01 is the line number; qualifier / ID pairs start at LIN02
+        boolean skuSet = false;
+        boolean upcSet = false;
+        for (int e = 2; ; e += 2) {
+            String qualifier = segments.element(segment, e);
+            String id = segments.element(segment, e + 1);
+            if (qualifier == null || id == null) {
+                return;
+            }
+            if (!skuSet && SKU_QUALIFIERS.contains(qualifier)) {
+                builder.sku(id);
+                skuSet = true;
+            } else if (!upcSet && UPC_QUALIFIERS.contains(qualifier)) {
+                builder.upc(id);
+                upcSet = true;
+            }
+        }
+    }
+
+    private void addItem(List<CatalogItem> items, CatalogItem.Builder builder) {
+        if (builder == null) {
+            return;
+        }
+        CatalogItem item = builder.build();
+        if (item.getSku() != null && !item.getSku().isEmpty()) {
+            items.add(item);
+        }
+    }
+
+    private List<CatalogItem> parseJson(byte[] payload, long now) throws IOException {
+        List<CatalogItem> items = new ArrayList<>();
+        for (JsonNode node : objectMapper.readTree(payload).path("items")) {
+            String sku = node.path("sku").asText("");
+            if (sku.isEmpty()) {
+                continue;
+            }
+            JsonNode uom = node.path("uom");
+            items.add(CatalogItem.builder()
+                    .sku(sku)
+                    .upc(textOrNull(node.has("upc") ? node.path("upc") : node.path("gtin")))
+                    .description(textOrNull(node.path("description")))
+                    .uom(textOrNull(uom.isObject() ? uom.path("baseUom") : uom))
+                    .packQuantity(node.path("packaging").path("unitsPerCarton").asInt(0))
+                    .weight(node.path("weight").path("value").asDouble(0))
+                    .weightUnit(textOrNull(node.path("weight").path("unit")))
+                    .updatedAt(now)
+                    .build());
+        }
+        return items;
+    }
+
+    private static String textOrNull(JsonNode node) {
+        return node.isValueNode() && !node.asText().isEmpty() ? node.asText() : null;
+    }
+
+    private static boolean isJson(byte[] payload) {
+        for (byte b : payload) {
+            if (b != ' ' && b != '\r' && b != '\n' && b != '\t') {
+                return b == '{';
+            }
+        }
+        return false;
+    }
+
+    private static double parseDouble(String value) {
+        try {
+            return value != null && !value.isEmpty() ? Double.parseDouble(value) : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.edi.processor.service;
+
+import com.edi.processor.concurrent.WorkerThreads;
+import com.edi.processor.exception.JobRejectedException;
+import com.edi.processor.logging.RequestLogSampler;
+import com.edi.processor.model.job.EdiJob;
+import com.edi.processor.model.request.EdiRequest;
+import com.edi.processor.model.response.EdiResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Clock;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs /process requests submitted through the jobs API on a bounded pool of workers.
+ *
+ * Jobs are taken in rank order, where rank is the submission time plus {@code aging-ms} per priority
+ * level below ORDER/ASN. ITEM jobs therefore wait behind ORDER and ASN work submitted up to one
+ * aging step after them, GETSCHEMA up to two, and no job waits behind an unbounded stream of
+ * higher-priority work. Queued jobs can be cancelled. Finished jobs are kept for
+ * {@code retention-minutes}.
+ */
+@Service
+public class JobSchedulerService {
+
+    private static final Logger log = LoggerFactory.getLogger(JobSchedulerService.class);
+
+    private static final int PRIORITY_DOCUMENT = 0;
+    private static final int PRIORITY_ITEM = 1;
+    private static final int PRIORITY_DEFAULT = 2;
+
+    // Metric tag values; anything else is tagged OTHER to bound tag cardinality
+    private static final Set<String> TAGGED_TRANSACTION_TYPES = Set.of(
+            "ORDER", "ASN", "ITEM", "GETSCHEMA", "ERRORRESPONSE", "ERRORTIMEOUT");
+
+    private final EdiProcessorService ediProcessorService;
+    private final MeterRegistry meterRegistry;
+    private final RequestLogSampler logSampler;
+    private final WorkerThreads threads;
+    private final Clock clock;
+
+    @Value("${edi.jobs.workers:4}")
+    private int workers;
+
+    @Value("${edi.jobs.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${edi.jobs.aging-ms:2000}")
+    private long agingMs;
+
+    @Value("${edi.jobs.retention-minutes:60}")
+    private long retentionMinutes;
+
+    private final PriorityBlockingQueue<EdiJob> queue = new PriorityBlockingQueue<>();
+    private final Map<String, EdiJob> jobs = new ConcurrentHashMap<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private Counter rejected;
+    private Counter cancelled;
+    private Thread[] workerThreads;
+    private ScheduledExecutorService sweeper;
+    private volatile boolean running;
+
+    @Autowired
+    public JobSchedulerService(EdiProcessorService ediProcessorService, MeterRegistry meterRegistry,
+                               RequestLogSampler logSampler, WorkerThreads threads) {
+        this(ediProcessorService, meterRegistry, logSampler, threads, Clock.systemUTC());
+    }
+
+    JobSchedulerService(EdiProcessorService ediProcessorService, MeterRegistry meterRegistry,
+                        RequestLogSampler logSampler, WorkerThreads threads, Clock clock) {
+        this.ediProcessorService = ediProcessorService;
+        this.meterRegistry = meterRegistry;
+        this.logSampler = logSampler;
+        this.threads = threads;
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    public void init() {
+        meterRegistry.gauge("edi.jobs.queue.depth", queued);
+        rejected = Counter.builder("edi.jobs.rejected")
+                .description("Jobs rejected because the queue was full")
+                .register(meterRegistry);
+        cancelled = Counter.builder("edi.jobs.cancelled")
+                .description("Jobs cancelled while queued")
+                .register(meterRegistry);
+
+        running = true;
+        ThreadFactory factory = threads.factory("edi-job-worker");
+        workerThreads = new Thread[workers];
+        for (int i = 0; i < workers; i++) {
+            workerThreads[i] = factory.newThread(this::workLoop);
+            workerThreads[i].start();
+        }
+
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "edi-job-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(this::removeExpired, 1, 1, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (workerThreads != null) {
+            for (Thread worker : workerThreads) {
+                worker.interrupt();
+            }
+        }
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+
+    /**
+     * Validate and queue a request. Returns the queued job, or throws {@link JobRejectedException}
+     * when the queue is full.
+     */
+    public EdiJob submit(EdiRequest ediRequest) {
+        ediProcessorService.validateRequest(ediRequest);
+        if (queued.incrementAndGet() > queueCapacity) {
+            queued.decrementAndGet();
+            rejected.increment();
+            throw new JobRejectedException("Job queue is full (" + queueCapacity + " jobs)");
+        }
+
+        String transactionType = ediRequest.getRequest().getTransactionType().trim().toUpperCase();
+        int priority = priorityOf(transactionType);
+        long now = clock.millis();
+        EdiJob job = new EdiJob(UUID.randomUUID().toString(), ediRequest, transactionType, priority, now,
+                now + priority * agingMs, sequence.getAndIncrement());
+        jobs.put(job.getJobId(), job);
+        queue.put(job);
+        log.info("Queued job {} for UUID: {}, TransactionType: {}", job.getJobId(), job.getUuid(), transactionType);
+        return job;
+    }
+
+    public EdiJob getJob(String jobId) {
+        return jobs.get(jobId);
+    }
+
+    /**
+     * Cancel a job that is still queued. Returns the job, CANCELLED unless a worker had already
+     * taken it, or null if there is no such job.
+     */
+    public EdiJob cancel(String jobId) {
+        EdiJob job = jobs.get(jobId);
+        if (job == null) {
+            return null;
+        }
+        // Whichever of the cancel and a worker's take removes the job from the queue owns it
+        if (queue.remove(job)) {
+            queued.decrementAndGet();
+            job.markCancelled(clock.millis());
+            cancelled.increment();
+            log.info("Cancelled job {} for UUID: {}", job.getJobId(), job.getUuid());
+        }
+        return job;
+    }
+
+    public int getQueueDepth() {
+        return queued.get();
+    }
+
+    private static int priorityOf(String transactionType) {
+        return switch (transactionType) {
+            case "ORDER", "ASN" -> PRIORITY_DOCUMENT;
+            case "ITEM" -> PRIORITY_ITEM;
+            default -> PRIORITY_DEFAULT;
+        };
+    }
+
+    private void workLoop() {
+        while (running) {
+            EdiJob job;
+            try {
+                job = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queued.decrementAndGet();
+            run(job);
+        }
+    }
+
+    private void run(EdiJob job) {
+        long started = clock.millis();
+        job.markRunning(started);
+        Timer.builder("edi.jobs.wait")
+                .description("Time jobs spend queued")
+                .tag("transaction", transactionTag(job))
+                .register(meterRegistry)
+                .record(started - job.getSubmittedAt(), TimeUnit.MILLISECONDS);
+
+        String outcome = "completed";
+        long startNanos = System.nanoTime();
+        try (RequestLogSampler.Scope scope = logSampler.sample(job.getRequest()).open()) {
+            EdiResponse response = ediProcessorService.processRequest(job.getRequest());
+            job.markCompleted(response, clock.millis());
+        } catch (RuntimeException e) {
+            outcome = "failed";
+            log.error("Job {} failed for UUID: {}: {}", job.getJobId(), job.getUuid(), e.getMessage(), e);
+            job.markFailed(e.getMessage() != null ? e.getMessage() : e.toString(), clock.millis());
+        }
+        Timer.builder("edi.jobs.run")
+                .description("Time jobs spend processing")
+                .tag("transaction", transactionTag(job))
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static String transactionTag(EdiJob job) {
+        return TAGGED_TRANSACTION_TYPES.contains(job.getTransactionType()) ? job.getTransactionType() : "OTHER";
+    }
+
+    void removeExpired() {
+        long cutoff = clock.millis() - TimeUnit.MINUTES.toMillis(retentionMinutes);
+        jobs.values().removeIf(job -> job.isFinished() && job.getCompletedAt() < cutoff);
+    }
+}
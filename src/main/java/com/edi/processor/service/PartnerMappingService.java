@@ -0,0 +1,224 @@
+package com.edi.processor.service;
+
+import com.edi.processor.mapping.DocumentMapping;
+import com.edi.processor.mapping.MappedDocument;
+import com.edi.processor.mapping.MappingCompiler;
+import com.edi.processor.mapping.MappingInterpreter;
+import com.edi.processor.model.mapping.MappingSpec;
+import com.edi.processor.model.partner.TradingPartner;
+import com.edi.processor.parser.IsaHeader;
+import com.edi.processor.parser.X12SegmentIndex;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-partner mapping specs: {@code <PARTNERID>.yaml}, {@code .yml} or {@code .json} files in
+ * {@code edi.mapping.dir}, each saying where that partner's 940, 856 and 944 documents carry the
+ * canonical key, references and lines. Specs are compiled by {@link MappingCompiler} when they are
+ * loaded, so mapping a document costs no more than the hand-written readers.
+ *
+ * The directory is polled for changed files; a changed spec is recompiled and swapped in. A spec
+ * that fails to load or compile is logged and the partner keeps its previous mapping.
+ */
+@Service
+public class PartnerMappingService {
+
+    private static final Logger log = LoggerFactory.getLogger(PartnerMappingService.class);
+
+    private final TradingPartnerRegistry partnerRegistry;
+    private final ObjectMapper specMapper;
+    private final Counter failures;
+
+    @Value("${edi.mapping.dir:}")
+    private String directory;
+
+    @Value("${edi.mapping.reload-interval-ms:5000}")
+    private long reloadIntervalMs;
+
+    @Value("${edi.mapping.compiled:true}")
+    private boolean compiled;
+
+    // Partner ID -> document type -> mapping; replaced wholesale on reload
+    private volatile Map<String, Map<String, DocumentMapping>> mappings = Map.of();
+    // Only touched by init and the watcher thread
+    private final Map<String, LoadedSpec> loaded = new HashMap<>();
+    private ScheduledExecutorService watcher;
+
+    public PartnerMappingService(TradingPartnerRegistry partnerRegistry, ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry) {
+        this.partnerRegistry = partnerRegistry;
+        this.specMapper = objectMapper.copy()
+                .enable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .enable(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY);
+        this.failures = Counter.builder("edi.mapping.failures")
+                .description("Mapping specs that failed to load or compile")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        if (directory == null || directory.isBlank()) {
+            return;
+        }
+        reload();
+        watcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "edi-mapping-watcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        watcher.scheduleWithFixedDelay(this::reload, reloadIntervalMs, reloadIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (watcher != null) {
+            watcher.shutdownNow();
+        }
+    }
+
+    /**
+     * Mapping of {@code documentType} (ORDER, ASN, SHIPCONFIRM, RECEIPT) for a partner, or null if
+     * the partner has no spec for it
+     */
+    public DocumentMapping find(TradingPartner partner, String documentType) {
+        if (partner == null || documentType == null) {
+            return null;
+        }
+        Map<String, DocumentMapping> partnerMappings = mappings.get(partner.getPartnerId());
+        return partnerMappings != null ? partnerMappings.get(documentType.toUpperCase(Locale.ROOT)) : null;
+    }
+
+    /**
+     * Canonical fields of an X12 document from its partner's spec, or null if there is none
+     */
+    public MappedDocument map(TradingPartner partner, String documentType, byte[] payload, IsaHeader isa) {
+        DocumentMapping mapping = isa != null ? find(partner, documentType) : null;
+        return mapping != null ? mapping.map(X12SegmentIndex.build(payload, isa)) : null;
+    }
+
+    /**
+     * As {@link #map(TradingPartner, String, byte[], IsaHeader)}, for the partner that sent the
+     * interchange
+     */
+    public MappedDocument map(String documentType, byte[] payload, IsaHeader isa) {
+        if (isa == null || mappings.isEmpty()) {
+            return null;
+        }
+        return map(partnerRegistry.findByIsaHeader(isa), documentType, payload, isa);
+    }
+
+    /**
+     * Load new and changed spec files, drop those that were removed, and swap in the result. Runs
+     * on init and then only on the watcher thread, so it needs no lock.
+     */
+    void reload() {
+        Map<String, Path> files = new HashMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(Path.of(directory), "*.{yaml,yml,json}")) {
+            for (Path file : stream) {
+                String name = file.getFileName().toString();
+                files.put(name.substring(0, name.lastIndexOf('.')).toUpperCase(Locale.ROOT), file);
+            }
+        } catch (IOException e) {
+            log.warn("Cannot list mapping directory '{}': {}", directory, e.getMessage());
+            return;
+        }
+
+        boolean changed = loaded.keySet().retainAll(files.keySet());
+        for (Map.Entry<String, Path> file : files.entrySet()) {
+            String partnerId = file.getKey();
+            long modified;
+            try {
+                modified = Files.getLastModifiedTime(file.getValue()).toMillis();
+            } catch (IOException e) {
+                continue;
+            }
+            LoadedSpec previous = loaded.get(partnerId);
+            if (previous != null && previous.modified == modified) {
+                continue;
+            }
+            try {
+                MappingSpec spec = read(file.getValue());
+                loaded.put(partnerId, new LoadedSpec(modified, compile(spec)));
+                changed = true;
+                if (partnerRegistry.findById(partnerId) == null) {
+                    log.warn("Mapping spec {} is for unknown partner {}", file.getValue(), partnerId);
+                }
+                log.info("Compiled mapping spec for partner {}: {}", partnerId, spec.getDocuments().keySet());
+            } catch (IOException | RuntimeException e) {
+                failures.increment();
+                // Keep the previous mapping, but do not retry until the file changes again
+                loaded.put(partnerId, new LoadedSpec(modified, previous != null ? previous.mappings : null));
+                log.error("Mapping spec {} not loaded, partner {} keeps its {} mapping: {}", file.getValue(),
+                        partnerId, previous != null && previous.mappings != null ? "previous" : "default",
+                        e.getMessage());
+            }
+        }
+
+        if (changed) {
+            Map<String, Map<String, DocumentMapping>> next = new HashMap<>();
+            loaded.forEach((partnerId, spec) -> {
+                if (spec.mappings != null) {
+                    next.put(partnerId, spec.mappings);
+                }
+            });
+            mappings = Map.copyOf(next);
+        }
+    }
+
+    private MappingSpec read(Path file) throws IOException {
+        if (file.getFileName().toString().endsWith(".json")) {
+            return specMapper.readValue(file.toFile(), MappingSpec.class);
+        }
+        try (InputStream input = Files.newInputStream(file)) {
+            Object document = new Yaml(new SafeConstructor(new LoaderOptions())).load(input);
+            if (document == null) {
+                throw new IllegalArgumentException("empty spec");
+            }
+            return specMapper.convertValue(document, MappingSpec.class);
+        }
+    }
+
+    private Map<String, DocumentMapping> compile(MappingSpec spec) {
+        Map<String, DocumentMapping> documentMappings = MappingCompiler.compile(spec);
+        if (compiled) {
+            return documentMappings;
+        }
+        Map<String, DocumentMapping> interpreted = new LinkedHashMap<>();
+        spec.getDocuments().forEach((type, document) -> interpreted.put(type, new MappingInterpreter(document)));
+        return Map.copyOf(interpreted);
+    }
+
+    private static final class LoadedSpec {
+        private final long modified;
+        private final Map<String, DocumentMapping> mappings;
+
+        LoadedSpec(long modified, Map<String, DocumentMapping> mappings) {
+            this.modified = modified;
+            this.mappings = mappings;
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.edi.processor.service;
+
+import com.edi.processor.mapping.MappedDocument;
+import com.edi.processor.model.reconciliation.Discrepancy;
+import com.edi.processor.model.reconciliation.ReconciliationResult;
+import com.edi.processor.parser.EdifactHeader;
+import com.edi.processor.parser.EdifactSegmentIndex;
+import com.edi.processor.parser.HlTree;
+import com.edi.processor.parser.IsaHeader;
+import com.edi.processor.parser.X12SegmentIndex;
+import com.edi.processor.reconciliation.DocumentKind;
+import com.edi.processor.reconciliation.DocumentLines;
+import com.edi.processor.reconciliation.OpenDocument;
+import com.edi.processor.reconciliation.OpenDocumentStore;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps inbound ASNs and orders open until their RECEIPT or SHIPCONFIRM is posted to
+ * /api/v1/edi/reconciliation, then matches the two line by line. The RECEIPT / SHIPCONFIRM this
+ * service generates is a canned template, not a record of what was received or shipped, so it is
+ * never reconciled.
+ *
+ * Lines are units per product ID:
+ * ORDER from 940 W01 or JSON {@code items[].quantity}; ASN and SHIPCONFIRM from 856 HL item loops
+ * or JSON {@code items[].quantityShipped}; RECEIPT from 944 W07 or JSON {@code items[].quantityReceived}.
+ * EDIFACT ORDERS, DESADV and RECADV count LIN groups by their QTY 21, 12 and 48 / 194.
+ * Documents are keyed by W05-02 / {@code orderId}, BSN-02 / {@code asnNumber} and EDIFACT BGM-02.
+ * X12 from a partner with a mapping spec is read through the spec instead.
+ *
+ * A reconciliation closes the open document. Documents without a counterpart expire after the TTL.
+ */
+@Service
+public class ReconciliationService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReconciliationService.class);
+
+    // EDIFACT QTY qualifiers: ordered, despatched, received and received-and-accepted quantity
+    private static final String ORDERED_QUANTITY = "21";
+    private static final String DESPATCHED_QUANTITY = "12";
+    private static final String RECEIVED_QUANTITY = "48";
+    private static final String ACCEPTED_QUANTITY = "194";
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final PartnerMappingService partnerMappings;
+
+    @Value("${edi.reconciliation.enabled:false}")
+    private boolean enabled;
+
+    @Value("${edi.reconciliation.stripes:64}")
+    private int stripes;
+
+    @Value("${edi.reconciliation.ttl-hours:72}")
+    private long ttlHours;
+
+    private final Map<DocumentKind, OpenDocumentStore> stores = new EnumMap<>(DocumentKind.class);
+    private final Map<DocumentKind, Counter> expired = new EnumMap<>(DocumentKind.class);
+    private ScheduledExecutorService sweeper;
+
+    public ReconciliationService(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                 PartnerMappingService partnerMappings) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.partnerMappings = partnerMappings;
+    }
+
+    @PostConstruct
+    public void init() {
+        for (DocumentKind kind : DocumentKind.values()) {
+            OpenDocumentStore store = new OpenDocumentStore(stripes);
+            stores.put(kind, store);
+            Gauge.builder("edi.reconciliation.open", store, OpenDocumentStore::size)
+                    .description("Documents awaiting their receipt or ship confirmation")
+                    .tag("document", kind.name())
+                    .register(meterRegistry);
+            expired.put(kind, Counter.builder("edi.reconciliation.expired")
+                    .description("Documents dropped without a counterpart")
+                    .tag("document", kind.name())
+                    .register(meterRegistry));
+        }
+        if (!enabled) {
+            return;
+        }
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "edi-reconciliation-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(this::removeExpired, 1, 1, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Open an inbound ORDER or ASN. Returns its key (order or ASN number), or null if it has none;
+     * documents without a key or lines are not opened.
+     */
+    public String register(DocumentKind kind, String uuid, byte[] payload, IsaHeader isa) throws IOException {
+        if (!enabled) {
+            return null;
+        }
+        String key;
+        DocumentLines lines;
+        EdifactHeader unb;
+        if (isa != null) {
+            X12SegmentIndex segments = X12SegmentIndex.build(payload, isa);
+            key = kind == DocumentKind.ORDER ? firstElement(segments, "W05", 2) : firstElement(segments, "BSN", 2);
+            lines = kind == DocumentKind.ORDER ? DocumentLines.fromX12(segments, "W01")
+                    : DocumentLines.fromHlTree(HlTree.parse(segments));
+        } else if ((unb = EdifactHeader.parse(payload)) != null) {
+            // ORDERS / DESADV: BGM-02 is the order or despatch advice number
+            EdifactSegmentIndex segments = EdifactSegmentIndex.build(payload, unb);
+            int bgm = segments.next("BGM", 0);
+            key = bgm >= 0 ? segments.component(bgm, 2, 1) : null;
+            lines = DocumentLines.fromEdifact(segments,
+                    kind == DocumentKind.ORDER ? ORDERED_QUANTITY : DESPATCHED_QUANTITY);
+        } else if (isJson(payload)) {
+            JsonNode root = objectMapper.readTree(payload);
+            key = root.path(kind == DocumentKind.ORDER ? "orderId" : "asnNumber").asText("");
+            lines = kind == DocumentKind.ORDER ? DocumentLines.fromJson(root, "quantity", "quantityOrdered")
+                    : DocumentLines.fromJson(root, "quantityShipped", "quantity");
+        } else {
+            return null;
+        }
+        return open(kind, uuid, key, lines);
+    }
+
+    /**
+     * Open an inbound ORDER or ASN read through its partner's mapping spec
+     */
+    public String register(DocumentKind kind, String uuid, MappedDocument mapped) {
+        return enabled ? open(kind, uuid, mapped.getKey(), mapped.getLines()) : null;
+    }
+
+    private String open(DocumentKind kind, String uuid, String key, DocumentLines lines) {
+        if (key == null || key.isEmpty()) {
+            return null;
+        }
+        if (lines.isEmpty()) {
+            log.debug("Not reconciling {} {} - UUID: {}, no lines", kind, key, uuid);
+            return key;
+        }
+        stores.get(kind).put(new OpenDocument(kind, key, uuid, System.currentTimeMillis(), lines));
+        return key;
+    }
+
+    /**
+     * Match a RECEIPT (for an ASN) or SHIPCONFIRM (for an order) against the open document with
+     * {@code key}, closing it. UNMATCHED if there is no such open document.
+     */
+    public ReconciliationResult reconcile(DocumentKind kind, String key, byte[] counterpart) {
+        return reconcile(kind, key, parseCounterpart(kind, counterpart));
+    }
+
+    private ReconciliationResult reconcile(DocumentKind kind, String key, DocumentLines actual) {
+        OpenDocument open = key != null ? stores.get(kind).remove(key) : null;
+        ReconciliationResult.Builder result = ReconciliationResult.builder()
+                .documentType(kind.name())
+                .key(key)
+                .actualUnits(actual.totalUnits());
+        if (open == null) {
+            result.status(ReconciliationResult.Status.UNMATCHED);
+        } else {
+            List<Discrepancy> discrepancies = open.lines().compare(actual);
+            result.expectedUnits(open.getTotalUnits())
+                    .discrepancies(discrepancies)
+                    .status(discrepancies.isEmpty()
+                            ? ReconciliationResult.Status.MATCHED
+                            : ReconciliationResult.Status.DISCREPANT);
+        }
+        ReconciliationResult built = result.build();
+        meterRegistry.counter("edi.reconciliation.results",
+                "document", kind.name(), "status", built.getStatus().name()).increment();
+        if (built.getStatus() == ReconciliationResult.Status.DISCREPANT) {
+            log.warn("{} discrepancies - {}: {}, {}", kind.getCounterpart(), kind, key, built.getDiscrepancies());
+        } else {
+            log.info("{} reconciliation - {}: {}, status: {}", kind.getCounterpart(), kind, key, built.getStatus());
+        }
+        return built;
+    }
+
+    public OpenDocument getOpenDocument(DocumentKind kind, String key) {
+        return stores.get(kind).get(key);
+    }
+
+    private DocumentLines parseCounterpart(DocumentKind kind, byte[] counterpart) {
+        IsaHeader isa = IsaHeader.parse(counterpart);
+        if (isa != null) {
+            MappedDocument mapped = partnerMappings.map(kind.getCounterpart(), counterpart, isa);
+            if (mapped != null) {
+                return mapped.getLines();
+            }
+            X12SegmentIndex segments = X12SegmentIndex.build(counterpart, isa);
+            return kind == DocumentKind.ORDER ? DocumentLines.fromHlTree(HlTree.parse(segments))
+                    : DocumentLines.fromX12(segments, "W07");
+        }
+        EdifactHeader unb = EdifactHeader.parse(counterpart);
+        if (unb != null) {
+            EdifactSegmentIndex segments = EdifactSegmentIndex.build(counterpart, unb);
+            String expected = kind == DocumentKind.ORDER ? "DESADV" : "RECADV";
+            int unh = segments.next("UNH", 0);
+            if (unh < 0 || !segments.componentEquals(unh, 2, 1, expected)) {
+                throw new IllegalArgumentException("EDIFACT " + kind.getCounterpart() + " must be a " + expected
+                        + " message");
+            }
+            return kind == DocumentKind.ORDER ? DocumentLines.fromEdifact(segments, DESPATCHED_QUANTITY)
+                    : DocumentLines.fromEdifact(segments, RECEIVED_QUANTITY, ACCEPTED_QUANTITY);
+        }
+        if (isJson(counterpart)) {
+            JsonNode root;
+            try {
+                root = objectMapper.readTree(counterpart);
+            } catch (IOException e) {
+                throw new IllegalArgumentException(kind.getCounterpart() + " is not valid JSON: " + e.getMessage());
+            }
+            return kind == DocumentKind.ORDER ? DocumentLines.fromJson(root, "quantityShipped", "quantity")
+                    : DocumentLines.fromJson(root, "quantityReceived", "quantity");
+        }
+        throw new IllegalArgumentException(kind.getCounterpart() + " must be an X12 or EDIFACT interchange or JSON document");
+    }
+
+    private void removeExpired() {
+        long cutoff = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(ttlHours);
+        stores.forEach((kind, store) -> {
+            int removed = store.removeRegisteredBefore(cutoff);
+            if (removed > 0) {
+                expired.get(kind).increment(removed);
+                log.info("Expired {} open {} document(s) without {}", removed, kind, kind.getCounterpart());
+            }
+        });
+    }
+
+    private static String firstElement(X12SegmentIndex segments, String segmentId, int elementIndex) {
+        for (int s = 0; s < segments.size(); s++) {
+            if (segments.isSegment(s, segmentId)) {
+                return segments.element(s, elementIndex);
+            }
+        }
+        return null;
+    }
+
+    private static boolean isJson(byte[] payload) {
+        for (byte b : payload) {
+            if (b != ' ' && b != '\r' && b != '\n' && b != '\t') {
+                return b == '{';
+            }
+        }
+        return false;
+    }
+}
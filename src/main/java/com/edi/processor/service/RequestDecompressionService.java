@@ -0,0 +1,81 @@
+package com.edi.processor.service;
+
+import com.edi.processor.compression.BodyDecoding;
+import com.edi.processor.compression.ContentDecoder;
+import com.edi.processor.exception.ContentEncodingException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Content-Encoding support for inbound request bodies (gzip and zstd).
+ *
+ * The request filters of both web stacks hand compressed bodies to a {@link BodyDecoding} from here,
+ * which decodes them chunk by chunk as the JSON parser or raw EDI reader consumes them, so the
+ * decompressed body is never materialized on top of what the reader itself keeps. Compressed and
+ * decompressed byte counts are published per coding as {@code edi.requests.compressed.bytes} and
+ * {@code edi.requests.decompressed.bytes}.
+ */
+@Service
+public class RequestDecompressionService {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter[]> counters = new ConcurrentHashMap<>();
+
+    @Value("${edi.decompression.enabled:true}")
+    private boolean enabled;
+
+    @Value("${edi.decompression.max-bytes:67108864}")
+    private long maxBytes;
+
+    @Value("${edi.decompression.max-ratio:100}")
+    private long maxRatio;
+
+    public RequestDecompressionService(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Whether a request with this Content-Encoding header must be decoded before it is read
+     */
+    public boolean applies(String contentEncoding) {
+        return enabled && contentEncoding != null && !contentEncoding.isBlank()
+                && !contentEncoding.trim().equalsIgnoreCase("identity");
+    }
+
+    /**
+     * Start decoding a body; the caller closes the returned decoding once the body has been read
+     *
+     * @throws ContentEncodingException (415) for a coding other than gzip or zstd, or a list of codings
+     */
+    public BodyDecoding open(String contentEncoding) throws ContentEncodingException {
+        String coding = contentEncoding.trim().toLowerCase(Locale.ROOT);
+        ContentDecoder decoder = coding.indexOf(',') < 0 ? ContentDecoder.forCoding(coding) : null;
+        if (decoder == null) {
+            throw new ContentEncodingException(HttpStatus.UNSUPPORTED_MEDIA_TYPE,
+                    "Unsupported Content-Encoding: '" + contentEncoding + "'. Supported values are: [gzip, zstd]");
+        }
+        Counter[] bytes = counters.get(coding);
+        if (bytes == null) {
+            bytes = counters.computeIfAbsent(coding, key -> new Counter[]{
+                    Counter.builder("edi.requests.compressed.bytes")
+                            .description("Request body bytes received compressed")
+                            .baseUnit("bytes")
+                            .tag("encoding", key)
+                            .register(meterRegistry),
+                    Counter.builder("edi.requests.decompressed.bytes")
+                            .description("Request body bytes after decompression")
+                            .baseUnit("bytes")
+                            .tag("encoding", key)
+                            .register(meterRegistry)
+            });
+        }
+        return new BodyDecoding(decoder, maxBytes, maxRatio, bytes[0], bytes[1]);
+    }
+}
@@ -0,0 +1,158 @@
+package com.edi.processor.service;
+
+import com.edi.processor.template.RenderContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GETSCHEMA content for the cacheable {@code GET /api/v1/edi/schemas} endpoints.
+ *
+ * Each schema is rendered once per content snapshot (placeholders take the snapshot's load time and
+ * their defaults) and kept with its bytes and a strong ETag, the SHA-256 of those bytes. When
+ * {@link ContentProviderService} reloads, the cache starts over. Answering a poll is a map lookup
+ * and an ETag comparison.
+ */
+@Service
+public class SchemaService {
+
+    private static final String TRANSACTION_TYPE_GETSCHEMA = "GETSCHEMA";
+
+    private static final List<String> RESPONSE_TYPES = List.of("ASN", "ITEM", "ORDER", "SHIPCONFIRM", "RECEIPT");
+    private static final List<String> ORDER_TYPES = List.of("LTL", "PARCEL");
+    private static final List<String> FORMATS = List.of("EDI", "JSON");
+
+    private static final MediaType EDI_X12 = MediaType.parseMediaType("application/edi-x12");
+
+    private final ContentProviderService contentProvider;
+
+    @Value("${edi.schemas.max-age-seconds:300}")
+    private long maxAgeSeconds;
+
+    private volatile Snapshot snapshot = new Snapshot(-1);
+
+    public SchemaService(ContentProviderService contentProvider) {
+        this.contentProvider = contentProvider;
+    }
+
+    /**
+     * The schema document for a response type, order type (ORDER only) and format (default EDI)
+     *
+     * @throws IllegalArgumentException if a parameter is not a valid GETSCHEMA value
+     */
+    public SchemaDocument getSchema(String responseType, String orderType, String format) {
+        String response = normalize(responseType);
+        String order = normalize(orderType);
+        String fmt = format == null || format.isBlank() ? "EDI" : normalize(format);
+
+        if (response == null || !RESPONSE_TYPES.contains(response)) {
+            throw new IllegalArgumentException("Invalid RESPONSE TYPE: '" + responseType
+                    + "' for TRANSACTION TYPE 'GETSCHEMA'. Valid values are: " + RESPONSE_TYPES);
+        }
+        if ("ORDER".equals(response) && order == null) {
+            throw new IllegalArgumentException("ORDER TYPE is required for the ORDER schema. Valid values are: "
+                    + ORDER_TYPES);
+        }
+        if (order != null && !"ORDER".equals(response)) {
+            throw new IllegalArgumentException("ORDER TYPE is only valid for the ORDER schema, not '"
+                    + responseType + "'");
+        }
+        if (order != null && !ORDER_TYPES.contains(order)) {
+            throw new IllegalArgumentException("Invalid ORDER TYPE: '" + orderType + "'. Valid values are: " + ORDER_TYPES);
+        }
+        if (!FORMATS.contains(fmt)) {
+            throw new IllegalArgumentException("Invalid FORMAT: '" + format + "'. Valid values are: " + FORMATS);
+        }
+
+        Snapshot current = currentSnapshot();
+        String key = response + "|" + (order != null ? order : "") + "|" + fmt;
+        SchemaDocument cached = current.documents.get(key);
+        return cached != null ? cached : current.documents.computeIfAbsent(key, k -> render(response, order, fmt));
+    }
+
+    /**
+     * Whether an {@code If-None-Match} header matches the document's ETag (weak comparison, as for GET)
+     */
+    public static boolean isNotModified(SchemaDocument document, String ifNoneMatch) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(document.etag())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public CacheControl getCacheControl() {
+        return CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS).cachePublic();
+    }
+
+    private Snapshot currentSnapshot() {
+        Snapshot current = snapshot;
+        long version = contentProvider.getSnapshotVersion();
+        if (current.version != version) {
+            current = new Snapshot(version);
+            snapshot = current;
+        }
+        return current;
+    }
+
+    private SchemaDocument render(String responseType, String orderType, String format) {
+        Instant loadedAt = contentProvider.getLoadedAt();
+        RenderContext context = RenderContext.builder().timestamp(loadedAt).build();
+        String content = orderType != null
+                ? contentProvider.getfileWithOrdTypeContent(null, context, TRANSACTION_TYPE_GETSCHEMA,
+                        responseType, orderType, format)
+                : contentProvider.getfileWithoutOrdTypeContent(null, context, TRANSACTION_TYPE_GETSCHEMA,
+                        responseType, format);
+        byte[] body = content.getBytes(StandardCharsets.UTF_8);
+        MediaType contentType = "JSON".equals(format) ? MediaType.APPLICATION_JSON : EDI_X12;
+        return new SchemaDocument(body, etag(body), contentType, loadedAt);
+    }
+
+    private static String etag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String normalize(String value) {
+        return value == null || value.isBlank() ? null : value.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Rendered schema with its strong ETag
+     */
+    public record SchemaDocument(byte[] body, String etag, MediaType contentType, Instant lastModified) {
+    }
+
+    private static final class Snapshot {
+        final long version;
+        final Map<String, SchemaDocument> documents = new ConcurrentHashMap<>();
+
+        Snapshot(long version) {
+            this.version = version;
+        }
+    }
+}
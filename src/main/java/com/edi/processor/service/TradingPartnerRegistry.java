@@ -0,0 +1,197 @@
+package com.edi.processor.service;
+
+import com.edi.processor.model.partner.TradingPartner;
+import com.edi.processor.parser.EdifactHeader;
+import com.edi.processor.parser.IsaHeader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeSet;
+
+/**
+ * Registry of trading partners, indexed by the ISA sender/receiver pair of their inbound interchanges.
+ *
+ * Partners are declared in trading-partners.properties (and optionally an external file) as
+ * {@code partner.<id>.<attribute>=value}; template overrides use
+ * {@code partner.<id>.template.<content key>=...} with the same keys as response-content.properties.
+ */
+@Service
+public class TradingPartnerRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(TradingPartnerRegistry.class);
+
+    private static final String PROPERTIES_FILE = "trading-partners.properties";
+    private static final String PARTNER_PREFIX = "partner.";
+    private static final String TEMPLATE_ATTRIBUTE = "template.";
+
+    @Value("${edi.partners.file:}")
+    private String externalFile;
+
+    private volatile Map<String, TradingPartner> partnersByIsaPair = Map.of();
+    private volatile Map<String, TradingPartner> partnersById = Map.of();
+    private volatile boolean faultProfilesAssigned;
+
+    @PostConstruct
+    public void init() {
+        Properties properties = new Properties();
+        try (InputStream input = getClass().getClassLoader().getResourceAsStream(PROPERTIES_FILE)) {
+            if (input != null) {
+                properties.load(input);
+            }
+        } catch (IOException e) {
+            log.error("Error loading trading partners file: {}", e.getMessage(), e);
+        }
+        if (externalFile != null && !externalFile.isBlank()) {
+            try (InputStream input = Files.newInputStream(Path.of(externalFile))) {
+                properties.load(input);
+            } catch (IOException e) {
+                log.error("Error loading external trading partners file '{}': {}", externalFile, e.getMessage(), e);
+            }
+        }
+        load(properties);
+    }
+
+    /**
+     * Build a fresh immutable index from partner properties and swap it in
+     */
+    public void load(Properties properties) {
+        Map<String, TradingPartner> byPair = new HashMap<>();
+        Map<String, TradingPartner> byId = new HashMap<>();
+
+        for (String partnerId : partnerIds(properties)) {
+            TradingPartner partner = buildPartner(partnerId, properties);
+            TradingPartner previous = byPair.put(partner.getIndexKey(), partner);
+            if (previous != null) {
+                log.warn("Trading partners '{}' and '{}' share ISA pair {} - keeping '{}'",
+                        previous.getPartnerId(), partnerId, partner.getIndexKey(), partnerId);
+            }
+            byId.put(partnerId, partner);
+        }
+
+        this.partnersByIsaPair = Map.copyOf(byPair);
+        this.partnersById = Map.copyOf(byId);
+        this.faultProfilesAssigned = byId.values().stream().anyMatch(partner -> partner.getFaultProfile() != null);
+        log.info("Loaded {} trading partners", byId.size());
+    }
+
+    /**
+     * Find the partner that sent an interchange with the given ISA header
+     */
+    public TradingPartner findByIsaHeader(IsaHeader header) {
+        if (header == null) {
+            return null;
+        }
+        return findBySenderAndReceiver(header.getSenderId(), header.getReceiverId());
+    }
+
+    /**
+     * Find the partner that sent an EDIFACT interchange with the given UNB header, by the same
+     * sender and receiver IDs as ISA
+     */
+    public TradingPartner findByUnbHeader(EdifactHeader header) {
+        if (header == null) {
+            return null;
+        }
+        return findBySenderAndReceiver(header.getSenderId(), header.getRecipientId());
+    }
+
+    public TradingPartner findBySenderAndReceiver(String senderId, String receiverId) {
+        if (senderId == null || receiverId == null) {
+            return null;
+        }
+        return partnersByIsaPair.get(TradingPartner.indexKey(senderId, receiverId));
+    }
+
+    public TradingPartner findById(String partnerId) {
+        return partnerId != null ? partnersById.get(partnerId) : null;
+    }
+
+    public Collection<TradingPartner> getPartners() {
+        return partnersById.values();
+    }
+
+    /**
+     * Whether any partner has a fault injection profile, so requests need their partner resolved
+     */
+    public boolean hasFaultProfiles() {
+        return faultProfilesAssigned;
+    }
+
+    private TradingPartner buildPartner(String partnerId, Properties properties) {
+        String prefix = PARTNER_PREFIX + partnerId + ".";
+        TradingPartner.Builder builder = TradingPartner.builder()
+                .partnerId(partnerId)
+                .name(properties.getProperty(prefix + "name", partnerId))
+                .senderId(requiredId(properties, prefix + "sender.id", partnerId))
+                .receiverId(requiredId(properties, prefix + "receiver.id", partnerId));
+
+        String value = properties.getProperty(prefix + "sender.qualifier");
+        if (value != null) {
+            builder.senderQualifier(value);
+        }
+        value = properties.getProperty(prefix + "receiver.qualifier");
+        if (value != null) {
+            builder.receiverQualifier(value);
+        }
+        value = properties.getProperty(prefix + "element.separator");
+        if (value != null && !value.isEmpty()) {
+            builder.elementSeparator(value.charAt(0));
+        }
+        value = properties.getProperty(prefix + "segment.terminator");
+        if (value != null && !value.isEmpty()) {
+            builder.segmentTerminator(value.charAt(0));
+        }
+        value = properties.getProperty(prefix + "subelement.separator");
+        if (value != null && !value.isEmpty()) {
+            builder.subElementSeparator(value.charAt(0));
+        }
+        value = properties.getProperty(prefix + "x12.version");
+        if (value != null) {
+            builder.x12Version(value);
+        }
+        value = properties.getProperty(prefix + "fault.profile");
+        if (value != null && !value.isBlank()) {
+            builder.faultProfile(value.trim());
+        }
+
+        String templatePrefix = prefix + TEMPLATE_ATTRIBUTE;
+        for (String name : properties.stringPropertyNames()) {
+            if (name.startsWith(templatePrefix)) {
+                builder.templateOverride(name.substring(templatePrefix.length()), properties.getProperty(name));
+            }
+        }
+        return builder.build();
+    }
+
+    private static String requiredId(Properties properties, String name, String partnerId) {
+        String value = properties.getProperty(name);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Trading partner '" + partnerId + "' has no " + name);
+        }
+        return value.trim();
+    }
+
+    private static TreeSet<String> partnerIds(Properties properties) {
+        TreeSet<String> ids = new TreeSet<>();
+        for (String name : properties.stringPropertyNames()) {
+            if (name.startsWith(PARTNER_PREFIX)) {
+                int end = name.indexOf('.', PARTNER_PREFIX.length());
+                if (end > PARTNER_PREFIX.length()) {
+                    ids.add(name.substring(PARTNER_PREFIX.length(), end));
+                }
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,274 @@
+package com.edi.processor.service;
+
+import com.edi.processor.concurrent.WorkerThreads;
+import com.edi.processor.model.partner.TradingPartner;
+import com.edi.processor.model.request.EdiRequest;
+import com.edi.processor.model.request.RequestDetails;
+import com.edi.processor.warmup.SyntheticTraffic;
+import com.edi.processor.warmup.WarmupReport;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Warms the JIT before the instance reports ready.
+ *
+ * Runs as an application runner, after the web server has started and before Spring Boot moves
+ * readiness to ACCEPTING_TRAFFIC. Until it returns, /actuator/health/readiness and /api/v1/edi/ready
+ * report the instance as not ready. Each round posts one synthetic request per supported
+ * combination and sender (every trading partner plus an unknown sender) to /process over loopback,
+ * so HTTP handling, Jackson, validation, parsing and template rendering all run as for real traffic.
+ * Warmup ends once JIT compilation time grew by at most {@code settle-compile-ms} in
+ * {@code settled-rounds} consecutive rounds (after {@code min-rounds}), or at {@code max-rounds} /
+ * {@code max-duration-ms}. Requests are marked by {@link SyntheticTraffic}, so they leave no state
+ * behind.
+ */
+@Service
+public class WarmupService implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmupService.class);
+
+    // Our receiver ID, and the sender used to warm the path for requests from unknown partners
+    private static final String RECEIVER_ID = "EDIPROCESSOR";
+    private static final String UNKNOWN_SENDER_ID = "EDIWARMUP";
+
+    private static final String ORDER_940 = "ISA*00*          *00*          *ZZ*{S}*ZZ*{R}*240101*1200*U*00401*000000001*0*P*>~"
+            + "GS*OW*{SID}*{RID}*20240101*1200*1*X*004010~ST*940*0001~W05*N*WARMUP-ORD-1*WARMUP-PO-1~"
+            + "N1*ST*WARMUP DC~N3*1 MAIN ST~N4*COLUMBUS*OH*43004~W66*PP*M~LX*1~W01*12*EA**VN*WARMUP-SKU-1~"
+            + "LX*2~W01*6*CA**VN*WARMUP-SKU-2~W76*18~SE*12*0001~GE*1*1~IEA*1*000000001~";
+    private static final String ASN_856 = "ISA*00*          *00*          *ZZ*{S}*ZZ*{R}*240101*1200*U*00401*000000002*0*P*>~"
+            + "GS*SH*{SID}*{RID}*20240101*1200*2*X*004010~ST*856*0001~BSN*00*WARMUP-ASN-1*20240101*1200~HL*1**S~"
+            + "TD5*B*2*UPSN~REF*BM*WARMUP-BOL-1~HL*2*1*O~PRF*WARMUP-PO-1~HL*3*2*I~LIN*1*VN*WARMUP-SKU-1~"
+            + "SN1*1*12*EA~HL*4*2*I~LIN*2*VN*WARMUP-SKU-2~SN1*2*6*CA~CTT*4~SE*15*0001~GE*1*2~IEA*1*000000002~";
+    private static final String ITEM_888 = "ISA*00*          *00*          *ZZ*{S}*ZZ*{R}*240101*1200*U*00401*000000003*0*P*>~"
+            + "GS*QG*{SID}*{RID}*20240101*1200*3*X*004010~ST*888*0001~LIN*1*VN*WARMUP-SKU-1*UP*012345678905~"
+            + "PID*F****WARMUP SMALL~PO4*12*EA~MEA*PD*G*1.5*LB~LIN*2*VN*WARMUP-SKU-2*UP*012345678912~"
+            + "PID*F****WARMUP LARGE~PO4*6*CA~MEA*PD*G*9.0*LB~SE*10*0001~GE*1*3~IEA*1*000000003~";
+
+    private final EdiProcessorService ediProcessorService;
+    private final TradingPartnerRegistry partnerRegistry;
+    private final SyntheticTraffic syntheticTraffic;
+    private final ObjectMapper objectMapper;
+    private final ApplicationContext applicationContext;
+    private final WorkerThreads workerThreads;
+
+    @Value("${edi.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${edi.warmup.min-rounds:50}")
+    private int minRounds;
+
+    @Value("${edi.warmup.max-rounds:400}")
+    private int maxRounds;
+
+    @Value("${edi.warmup.max-duration-ms:60000}")
+    private long maxDurationMillis;
+
+    @Value("${edi.warmup.settle-compile-ms:20}")
+    private long settleCompileMillis;
+
+    @Value("${edi.warmup.settled-rounds:5}")
+    private int settledRounds;
+
+    @Value("${edi.warmup.threads:2}")
+    private int threads;
+
+    private volatile WarmupReport report = WarmupReport.of(WarmupReport.Status.PENDING);
+
+    public WarmupService(EdiProcessorService ediProcessorService, TradingPartnerRegistry partnerRegistry,
+                         SyntheticTraffic syntheticTraffic, ObjectMapper objectMapper,
+                         ApplicationContext applicationContext, WorkerThreads workerThreads) {
+        this.ediProcessorService = ediProcessorService;
+        this.partnerRegistry = partnerRegistry;
+        this.syntheticTraffic = syntheticTraffic;
+        this.objectMapper = objectMapper;
+        this.applicationContext = applicationContext;
+        this.workerThreads = workerThreads;
+    }
+
+    public WarmupReport getReport() {
+        return report;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (!enabled || !(applicationContext instanceof WebServerApplicationContext web)
+                || web.getWebServer() == null || web.getWebServer().getPort() <= 0) {
+            report = WarmupReport.of(WarmupReport.Status.SKIPPED);
+            return;
+        }
+        warmUp(URI.create("http://127.0.0.1:" + web.getWebServer().getPort() + "/api/v1/edi/process"));
+    }
+
+    /**
+     * Replay the synthetic requests against {@code processUri} until compilation settles
+     */
+    public void warmUp(URI processUri) throws IOException, InterruptedException {
+        List<byte[]> bodies = buildRequestBodies();
+        CompilationMXBean compiler = ManagementFactory.getCompilationMXBean();
+        boolean measureCompilation = compiler != null && compiler.isCompilationTimeMonitoringSupported();
+        long compilationStart = measureCompilation ? compiler.getTotalCompilationTime() : 0;
+
+        log.info("JIT warmup started - {} requests per round, {} threads", bodies.size(), threads);
+        long start = System.nanoTime();
+        long deadline = start + maxDurationMillis * 1_000_000L;
+        int poolSize = Math.max(1, threads);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        ExecutorService pool = Executors.newFixedThreadPool(poolSize, workerThreads.factory("edi-warmup"));
+
+        int rounds = 0;
+        long requests = 0;
+        long failures = 0;
+        int quietRounds = 0;
+        boolean settled = false;
+        long lastCompilation = compilationStart;
+        try {
+            report = new WarmupReport(WarmupReport.Status.WARMING, bodies.size(), 0, 0, 0, 0, 0, false);
+            while (rounds < Math.max(1, maxRounds) && System.nanoTime() < deadline) {
+                long roundFailures = runRound(client, pool, poolSize, processUri, bodies);
+                rounds++;
+                requests += bodies.size();
+                failures += roundFailures;
+                if (roundFailures == bodies.size()) {
+                    log.warn("JIT warmup stopped - every request of round {} failed", rounds);
+                    break;
+                }
+
+                long compilation = measureCompilation ? compiler.getTotalCompilationTime() : 0;
+                quietRounds = compilation - lastCompilation <= settleCompileMillis ? quietRounds + 1 : 0;
+                lastCompilation = compilation;
+                report = new WarmupReport(WarmupReport.Status.WARMING, bodies.size(), rounds, requests, failures,
+                        (System.nanoTime() - start) / 1_000_000, compilation - compilationStart, false);
+                if (rounds >= minRounds && (!measureCompilation || quietRounds >= settledRounds)) {
+                    settled = measureCompilation;
+                    break;
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+            long durationMillis = (System.nanoTime() - start) / 1_000_000;
+            report = new WarmupReport(WarmupReport.Status.COMPLETE, bodies.size(), rounds, requests, failures,
+                    durationMillis, lastCompilation - compilationStart, settled);
+            log.info("JIT warmup finished in {} ms - rounds: {}, requests: {}, failures: {}, compilation: {} ms, settled: {}",
+                    durationMillis, rounds, requests, failures, lastCompilation - compilationStart, settled);
+        }
+    }
+
+    /**
+     * Post every body once, split across the pool; returns the number of failed requests
+     */
+    private static long runRound(HttpClient client, ExecutorService pool, int poolSize, URI processUri,
+                                 List<byte[]> bodies) throws InterruptedException {
+        AtomicInteger next = new AtomicInteger();
+        List<Callable<Long>> workers = new ArrayList<>(poolSize);
+        for (int i = 0; i < poolSize; i++) {
+            workers.add(() -> {
+                long failed = 0;
+                for (int index = next.getAndIncrement(); index < bodies.size(); index = next.getAndIncrement()) {
+                    HttpRequest request = HttpRequest.newBuilder(processUri)
+                            .header("Content-Type", "application/json")
+                            .timeout(Duration.ofSeconds(30))
+                            .POST(HttpRequest.BodyPublishers.ofByteArray(bodies.get(index)))
+                            .build();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 300) {
+                            failed++;
+                        }
+                    } catch (IOException e) {
+                        failed++;
+                    }
+                }
+                return failed;
+            });
+        }
+        long failed = 0;
+        for (Future<Long> result : pool.invokeAll(workers)) {
+            try {
+                failed += result.get();
+            } catch (ExecutionException e) {
+                failed += bodies.size();
+            }
+        }
+        return Math.min(failed, bodies.size());
+    }
+
+    /**
+     * One /process body per supported combination and sender. Partner payloads are Base64 encoded in
+     * the partner's delimiters, the unknown sender's are sent raw, so both input decodings are warmed.
+     */
+    private List<byte[]> buildRequestBodies() throws IOException {
+        List<TradingPartner> senders = new ArrayList<>(partnerRegistry.getPartners());
+        senders.add(null);
+        List<byte[]> bodies = new ArrayList<>();
+        int sequence = 0;
+        for (TradingPartner sender : senders) {
+            for (RequestDetails type : ediProcessorService.getSupportedRequestTypes()) {
+                String payload = payloadFor(type.getTransactionType(), sender);
+                String inputFile = sender != null
+                        ? Base64.getEncoder().encodeToString(payload.getBytes(StandardCharsets.UTF_8))
+                        : payload;
+                RequestDetails details = new RequestDetails(type.getTransactionType(), type.getOrderType(),
+                        type.getFormat(), type.getResponseType(), inputFile);
+                bodies.add(objectMapper.writeValueAsBytes(new EdiRequest(syntheticTraffic.uuid(sequence++), details)));
+            }
+        }
+        return bodies;
+    }
+
+    private static String payloadFor(String transactionType, TradingPartner sender) {
+        String template = switch (transactionType) {
+            case "ASN" -> ASN_856;
+            case "ITEM" -> ITEM_888;
+            default -> ORDER_940;
+        };
+        String senderId = sender != null ? sender.getSenderId() : UNKNOWN_SENDER_ID;
+        String receiverId = sender != null ? sender.getReceiverId() : RECEIVER_ID;
+        String payload = template
+                .replace("{S}", String.format("%-15s", senderId))
+                .replace("{R}", String.format("%-15s", receiverId))
+                .replace("{SID}", senderId)
+                .replace("{RID}", receiverId);
+        if (sender == null) {
+            return payload;
+        }
+        char[] chars = payload.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            switch (chars[i]) {
+                case '*' -> chars[i] = sender.getElementSeparator();
+                case '~' -> chars[i] = sender.getSegmentTerminator();
+                case '>' -> chars[i] = sender.getSubElementSeparator();
+                default -> { }
+            }
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,123 @@
+package com.edi.processor.template;
+
+import com.edi.processor.concurrent.WorkerThreads;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A response template compiled at load time into literal chunks and typed placeholder slots.
+ *
+ * Placeholders are written {@code ${name}} or {@code ${name:default}}; the default is used when the
+ * request has no value for the placeholder. Request values are escaped for the template's JSON,
+ * EDIFACT or X12 syntax (see {@link Escaping}). Rendering is one pass over the chunks into a
+ * per-thread buffer (a fresh, presized one on virtual threads). Templates without placeholders
+ * render to the source string itself.
+ */
+public final class CompiledTemplate {
+
+    private static final int MAX_POOLED_CAPACITY = 64 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(1024));
+
+    private final String source;
+    // literals.length == slots.length + 1
+    private final String[] literals;
+    private final Placeholder[] slots;
+    private final String[] defaults;
+    private final Escaping escaping;
+    private final int literalLength;
+
+    private CompiledTemplate(String source, String[] literals, Placeholder[] slots, String[] defaults) {
+        this.source = source;
+        this.literals = literals;
+        this.slots = slots;
+        this.defaults = defaults;
+        this.escaping = slots.length > 0 ? Escaping.forTemplate(source) : Escaping.NONE;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * Compile a template, failing on unknown or unterminated placeholders
+     */
+    public static CompiledTemplate compile(String source) {
+        List<String> literals = new ArrayList<>();
+        List<Placeholder> slots = new ArrayList<>();
+        List<String> defaults = new ArrayList<>();
+
+        int literalStart = 0;
+        int open = source.indexOf("${");
+        while (open >= 0) {
+            int close = source.indexOf('}', open + 2);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unterminated placeholder at offset " + open);
+            }
+            String expression = source.substring(open + 2, close);
+            int colon = expression.indexOf(':');
+            String name = colon >= 0 ? expression.substring(0, colon) : expression;
+            Placeholder placeholder = Placeholder.forName(name);
+            if (placeholder == null) {
+                throw new IllegalArgumentException("Unknown placeholder '${" + name + "}'");
+            }
+            literals.add(source.substring(literalStart, open));
+            slots.add(placeholder);
+            defaults.add(colon >= 0 ? expression.substring(colon + 1) : "");
+            literalStart = close + 1;
+            open = source.indexOf("${", literalStart);
+        }
+        literals.add(source.substring(literalStart));
+
+        return new CompiledTemplate(source, literals.toArray(new String[0]), slots.toArray(new Placeholder[0]),
+                defaults.toArray(new String[0]));
+    }
+
+    /**
+     * Template that renders {@code content} as is
+     */
+    public static CompiledTemplate literal(String content) {
+        return new CompiledTemplate(content, new String[] {content}, new Placeholder[0], new String[0]);
+    }
+
+    public boolean isStatic() {
+        return slots.length == 0;
+    }
+
+    /**
+     * The string a static template renders to, the same instance on every render; null if the
+     * template has placeholders
+     */
+    public String getStaticContent() {
+        return slots.length == 0 ? literals[0] : null;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public String render(RenderContext context) {
+        if (slots.length == 0) {
+            return literals[0];
+        }
+        // A virtual thread usually renders once, so a per-thread buffer would only add its allocation
+        boolean virtual = WorkerThreads.isVirtual(Thread.currentThread());
+        StringBuilder out = virtual ? new StringBuilder(literalLength + slots.length * 16) : BUFFER.get();
+        out.setLength(0);
+        out.ensureCapacity(literalLength + slots.length * 16);
+        for (int i = 0; i < slots.length; i++) {
+            out.append(literals[i]);
+            if (!slots[i].write(out, context, escaping)) {
+                out.append(defaults[i]);
+            }
+        }
+        out.append(literals[slots.length]);
+        String rendered = out.toString();
+        if (!virtual && out.capacity() > MAX_POOLED_CAPACITY) {
+            BUFFER.remove();
+        }
+        return rendered;
+    }
+}
@@ -0,0 +1,115 @@
+package com.edi.processor.template;
+
+/**
+ * How request and document values are written into a template, chosen from the template's own
+ * syntax: JSON string escaping, the EDIFACT release character before service characters, or, for
+ * X12, which has no release character, dropping the delimiters. Template literals and slot defaults
+ * are written as authored.
+ */
+abstract class Escaping {
+
+    static final Escaping NONE = new Escaping() {
+        @Override
+        void append(StringBuilder out, String value) {
+            out.append(value);
+        }
+    };
+
+    static final Escaping JSON = new Escaping() {
+        @Override
+        void append(StringBuilder out, String value) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '"' -> out.append("\\\"");
+                    case '\\' -> out.append("\\\\");
+                    case '\n' -> out.append("\\n");
+                    case '\r' -> out.append("\\r");
+                    case '\t' -> out.append("\\t");
+                    default -> {
+                        if (c < 0x20) {
+                            out.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+                        } else {
+                            out.append(c);
+                        }
+                    }
+                }
+            }
+        }
+    };
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /**
+     * Escaping for a template, from how its source starts
+     */
+    static Escaping forTemplate(String source) {
+        String trimmed = source.stripLeading();
+        if (trimmed.startsWith("{") || trimmed.startsWith("[")) {
+            return JSON;
+        }
+        if (trimmed.startsWith("UNA") && trimmed.length() >= 9) {
+            // UNA: component, element, decimal mark, release, reserved, segment terminator
+            return edifact(trimmed.charAt(6), new char[] {trimmed.charAt(3), trimmed.charAt(4), trimmed.charAt(8)});
+        }
+        if (trimmed.startsWith("UNB")) {
+            return edifact('?', new char[] {':', '+', '\''});
+        }
+        if (trimmed.startsWith("ISA") && trimmed.length() > 3) {
+            return x12(trimmed);
+        }
+        return NONE;
+    }
+
+    abstract void append(StringBuilder out, String value);
+
+    private static Escaping edifact(char release, char[] serviceCharacters) {
+        return new Escaping() {
+            @Override
+            void append(StringBuilder out, String value) {
+                for (int i = 0; i < value.length(); i++) {
+                    char c = value.charAt(i);
+                    if (c == release || contains(serviceCharacters, c)) {
+                        out.append(release);
+                    }
+                    out.append(c);
+                }
+            }
+        };
+    }
+
+    /**
+     * X12 delimiters: the element separator after ISA, and the sub-element separator (ISA16) and
+     * segment terminator that follow the sixteenth element separator
+     */
+    private static Escaping x12(String source) {
+        char element = source.charAt(3);
+        int index = 3;
+        for (int separators = 1; separators < 16 && index >= 0; separators++) {
+            index = source.indexOf(element, index + 1);
+        }
+        char[] delimiters = index >= 0 && index + 2 < source.length()
+                ? new char[] {element, source.charAt(index + 1), source.charAt(index + 2)}
+                : new char[] {element};
+        return new Escaping() {
+            @Override
+            void append(StringBuilder out, String value) {
+                for (int i = 0; i < value.length(); i++) {
+                    char c = value.charAt(i);
+                    if (!contains(delimiters, c)) {
+                        out.append(c);
+                    }
+                }
+            }
+        };
+    }
+
+    private static boolean contains(char[] characters, char c) {
+        for (char candidate : characters) {
+            if (candidate == c) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
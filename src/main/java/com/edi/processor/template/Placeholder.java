@@ -0,0 +1,164 @@
+package com.edi.processor.template;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Typed template placeholders. Each writes its value straight into the render buffer and
+ * returns false when the request has no value, so the slot's default is written instead. Values
+ * taken from the request or inbound document are escaped for the template's syntax.
+ */
+public enum Placeholder {
+
+    /** ISA09, YYMMDD */
+    ISA_DATE("isaDate") {
+        @Override
+        boolean write(StringBuilder out, RenderContext context, Escaping escaping) {
+            appendPadded(out, context.year % 100, 2);
+            appendPadded(out, context.month, 2);
+            appendPadded(out, context.day, 2);
+            return true;
+        }
+    },
+
+    /** ISA10 / GS05, HHMM */
+    ISA_TIME("isaTime") {
+        @Override
+        boolean write(StringBuilder out, RenderContext context, Escaping escaping) {
+            appendPadded(out, context.hour, 2);
+            appendPadded(out, context.minute, 2);
+            return true;
+        }
+    },
+
+    /** GS04 and other CCYYMMDD dates */
+    GS_DATE("gsDate") {
+        @Override
+        boolean write(StringBuilder out, RenderContext context, Escaping escaping) {
+            appendPadded(out, context.year, 4);
+            appendPadded(out, context.month, 2);
+            appendPadded(out, context.day, 2);
+            return true;
+        }
+    },
+
+    /** ISO-8601 date, YYYY-MM-DD */
+    DATE("date") {
+        @Override
+        boolean write(StringBuilder out, RenderContext context, Escaping escaping) {
+            appendPadded(out, context.year, 4);
+            out.append('-');
+            appendPadded(out, context.month, 2);
+            out.append('-');
+            appendPadded(out, context.day, 2);
+            return true;
+        }
+    },
+
+    /** ISO-8601 UTC timestamp, YYYY-MM-DDTHH:MM:SSZ */
+    DATE_TIME("dateTime") {
+        @Override
+        boolean write(StringBuilder out, RenderContext context, Escaping escaping) {
+            DATE.write(out, context, escaping);
+            out.append('T');
+            appendPadded(out, context.hour, 2);
+            out.append(':');
+            appendPadded(out, context.minute, 2);
+            out.append(':');
+            appendPadded(out, context.second, 2);
+            out.append('Z');
+            return true;
+        }
+    },
+
+    UUID("uuid") {
+        @Override
+        boolean write(StringBuilder out, RenderContext context, Escaping escaping) {
+            return appendIfPresent(out, context.getUuid(), escaping);
+        }
+    },
+
+    /** ISA13 / IEA02, nine digits */
+    CONTROL_NUMBER("controlNumber") {
+        @Override
+        boolean write(StringBuilder out, RenderContext context, Escaping escaping) {
+            appendPadded(out, context.getControlNumber(), 9);
+            return true;
+        }
+    },
+
+    /** GS06 / GE02 */
+    GROUP_CONTROL_NUMBER("groupControlNumber") {
+        @Override
+        boolean write(StringBuilder out, RenderContext context, Escaping escaping) {
+            out.append(context.getControlNumber());
+            return true;
+        }
+    },
+
+    /** GS06 of the interchange being acknowledged */
+    RECEIVED_GROUP_CONTROL_NUMBER("receivedGroupControlNumber") {
+        @Override
+        boolean write(StringBuilder out, RenderContext context, Escaping escaping) {
+            return appendIfPresent(out, context.getReceivedGroupControlNumber(), escaping);
+        }
+    },
+
+    ORDER_ID("orderId") {
+        @Override
+        boolean write(StringBuilder out, RenderContext context, Escaping escaping) {
+            return appendIfPresent(out, context.getOrderId(), escaping);
+        }
+    },
+
+    ASN_NUMBER("asnNumber") {
+        @Override
+        boolean write(StringBuilder out, RenderContext context, Escaping escaping) {
+            return appendIfPresent(out, context.getAsnNumber(), escaping);
+        }
+    };
+
+    private static final Map<String, Placeholder> BY_NAME = new HashMap<>();
+
+    static {
+        for (Placeholder placeholder : values()) {
+            BY_NAME.put(placeholder.name, placeholder);
+        }
+    }
+
+    private final String name;
+
+    Placeholder(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public static Placeholder forName(String name) {
+        return BY_NAME.get(name);
+    }
+
+    abstract boolean write(StringBuilder out, RenderContext context, Escaping escaping);
+
+    /**
+     * Write a request or document value escaped for the template's syntax
+     */
+    private static boolean appendIfPresent(StringBuilder out, String value, Escaping escaping) {
+        if (value == null || value.isEmpty()) {
+            return false;
+        }
+        escaping.append(out, value);
+        return true;
+    }
+
+    private static void appendPadded(StringBuilder out, long value, int width) {
+        for (long limit = 10; width > 1; width--, limit *= 10) {
+            if (value < limit) {
+                out.append('0');
+            }
+        }
+        out.append(value);
+    }
+}
@@ -0,0 +1,116 @@
+package com.edi.processor.template;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Per-request values for template placeholders. Date and time fields are split once here so
+ * slot writers append digits directly instead of running a formatter per placeholder.
+ */
+public class RenderContext {
+
+    private final String uuid;
+    private final long controlNumber;
+    private final String receivedGroupControlNumber;
+    private final String orderId;
+    private final String asnNumber;
+
+    final int year;
+    final int month;
+    final int day;
+    final int hour;
+    final int minute;
+    final int second;
+
+    // Private constructor for builder
+    private RenderContext(Builder builder) {
+        this.uuid = builder.uuid;
+        this.controlNumber = builder.controlNumber;
+        this.receivedGroupControlNumber = builder.receivedGroupControlNumber;
+        this.orderId = builder.orderId;
+        this.asnNumber = builder.asnNumber;
+
+        OffsetDateTime timestamp = builder.timestamp.atOffset(ZoneOffset.UTC);
+        this.year = timestamp.getYear();
+        this.month = timestamp.getMonthValue();
+        this.day = timestamp.getDayOfMonth();
+        this.hour = timestamp.getHour();
+        this.minute = timestamp.getMinute();
+        this.second = timestamp.getSecond();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Context with the current time and no request values; placeholders fall back to their defaults
+     */
+    public static RenderContext now() {
+        return builder().build();
+    }
+
+    public String getUuid() {
+        return uuid;
+    }
+
+    public long getControlNumber() {
+        return controlNumber;
+    }
+
+    public String getReceivedGroupControlNumber() {
+        return receivedGroupControlNumber;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public String getAsnNumber() {
+        return asnNumber;
+    }
+
+    public static class Builder {
+        private String uuid;
+        private Instant timestamp = Instant.now();
+        private long controlNumber = 1;
+        private String receivedGroupControlNumber;
+        private String orderId;
+        private String asnNumber;
+
+        public Builder uuid(String uuid) {
+            this.uuid = uuid;
+            return this;
+        }
+
+        public Builder timestamp(Instant timestamp) {
+            this.timestamp = timestamp;
+            return this;
+        }
+
+        public Builder controlNumber(long controlNumber) {
+            this.controlNumber = controlNumber;
+            return this;
+        }
+
+        public Builder receivedGroupControlNumber(String receivedGroupControlNumber) {
+            this.receivedGroupControlNumber = receivedGroupControlNumber;
+            return this;
+        }
+
+        public Builder orderId(String orderId) {
+            this.orderId = orderId;
+            return this;
+        }
+
+        public Builder asnNumber(String asnNumber) {
+            this.asnNumber = asnNumber;
+            return this;
+        }
+
+        public RenderContext build() {
+            return new RenderContext(this);
+        }
+    }
+}
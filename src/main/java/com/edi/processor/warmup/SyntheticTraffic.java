@@ -0,0 +1,26 @@
+package com.edi.processor.warmup;
+
+import org.springframework.stereotype.Component;
+
+import java.util.HexFormat;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Marks requests generated by the service itself (JIT warmup). Their UUIDs start with a prefix
+ * drawn at startup, so callers cannot produce one by accident. Synthetic requests run the full
+ * pipeline but leave no state behind: no duplicate, catalog, reconciliation or search records, no
+ * outbound deliveries, no fault injection and no log lines below ERROR.
+ */
+@Component
+public class SyntheticTraffic {
+
+    private final String uuidPrefix = "warmup-" + HexFormat.of().toHexDigits(ThreadLocalRandom.current().nextLong()) + "-";
+
+    public String uuid(int sequence) {
+        return uuidPrefix + sequence;
+    }
+
+    public boolean isSynthetic(String uuid) {
+        return uuid != null && uuid.startsWith(uuidPrefix);
+    }
+}
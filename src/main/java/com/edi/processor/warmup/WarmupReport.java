@@ -0,0 +1,30 @@
+package com.edi.processor.warmup;
+
+/**
+ * Progress or outcome of the startup warmup, as served by /api/v1/edi/ready
+ *
+ * @param settled whether JIT compilation had settled when warmup ended, as opposed to hitting
+ *                {@code max-rounds} or {@code max-duration-ms}
+ */
+public record WarmupReport(Status status, int requestsPerRound, int rounds, long requests, long failures,
+                           long durationMillis, long compilationMillis, boolean settled) {
+
+    public enum Status {
+        /** Not started yet */
+        PENDING,
+        /** Replaying synthetic requests; the instance is not ready */
+        WARMING,
+        /** Warmup finished */
+        COMPLETE,
+        /** Disabled, or not a web application */
+        SKIPPED
+    }
+
+    public static WarmupReport of(Status status) {
+        return new WarmupReport(status, 0, 0, 0, 0, 0, 0, false);
+    }
+
+    public boolean isReady() {
+        return status == Status.COMPLETE || status == Status.SKIPPED;
+    }
+}
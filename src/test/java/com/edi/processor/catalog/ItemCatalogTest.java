@@ -0,0 +1,99 @@
+package com.edi.processor.catalog;
+
+import com.edi.processor.model.catalog.CatalogItem;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ItemCatalogTest {
+
+    @Test
+    void findsBySkuAndUpcAndDropsReplacedUpc() {
+        ItemCatalog catalog = new ItemCatalog(1024, 8192, 16);
+
+        assertTrue(catalog.upsert(item("SKU-1", "012345678905", 1)));
+        assertEquals("SKU-1", catalog.findByUpc("12345678905").getSku());
+
+        assertTrue(catalog.upsert(item("SKU-1", "098765432109", 2)));
+        assertEquals(2, catalog.findBySku("SKU-1").getUpdatedAt());
+        assertNull(catalog.findByUpc("012345678905"));
+        assertEquals(1, catalog.size());
+    }
+
+    @Test
+    void compactsReplacedRecords() {
+        ItemCatalog catalog = new ItemCatalog(1024, 2048, 16);
+
+        for (int i = 0; i < 200; i++) {
+            assertTrue(catalog.upsert(item("SKU-" + (i % 5), null, i)));
+        }
+        assertEquals(5, catalog.size());
+        assertTrue(catalog.stats().compactions() > 0);
+        assertEquals(199, catalog.findBySku("SKU-4").getUpdatedAt());
+    }
+
+    @Test
+    void refusesUpsertsWhenFull() {
+        ItemCatalog catalog = new ItemCatalog(1024, 2048, 16);
+
+        int stored = 0;
+        while (catalog.upsert(item("SKU-" + stored, null, stored))) {
+            stored++;
+        }
+        assertTrue(stored > 0);
+        assertEquals(stored, catalog.size());
+        assertNull(catalog.findBySku("SKU-" + stored));
+    }
+
+    @Test
+    void refusesUpsertsWhileAnExportDefersCompactionThenCompacts() {
+        ItemCatalog catalog = new ItemCatalog(1024, 2048, 16);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(catalog.upsert(item("SKU-" + i, null, 0)));
+        }
+
+        List<String> exported = new ArrayList<>();
+        AtomicInteger replaced = new AtomicInteger();
+        AtomicBoolean refused = new AtomicBoolean();
+        catalog.forEach(entry -> {
+            exported.add(entry.getSku());
+            while (!refused.get()) {
+                if (catalog.upsert(item("SKU-0", null, replaced.get() + 1))) {
+                    replaced.incrementAndGet();
+                } else {
+                    refused.set(true);
+                }
+            }
+        });
+
+        assertTrue(refused.get());
+        assertTrue(replaced.get() > 0);
+        assertEquals(10, exported.size());
+        assertEquals(0, catalog.stats().compactions());
+
+        assertTrue(catalog.upsert(item("SKU-0", null, -1)));
+        assertEquals(1, catalog.stats().compactions());
+        assertEquals(-1, catalog.findBySku("SKU-0").getUpdatedAt());
+        assertEquals(10, catalog.size());
+    }
+
+    private static CatalogItem item(String sku, String upc, long updatedAt) {
+        return CatalogItem.builder()
+                .sku(sku)
+                .upc(upc)
+                .description("Widget " + sku)
+                .uom("EA")
+                .packQuantity(12)
+                .weight(1.5)
+                .weightUnit("LB")
+                .updatedAt(updatedAt)
+                .build();
+    }
+}
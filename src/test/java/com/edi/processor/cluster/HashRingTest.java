@@ -0,0 +1,60 @@
+package com.edi.processor.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HashRingTest {
+
+    private static final int KEYS = 20_000;
+
+    @Test
+    void ownershipDependsOnlyOnTheMembers() {
+        HashRing ring = HashRing.of(List.of("node-a", "node-b", "node-c"), 128);
+        HashRing reordered = HashRing.of(List.of("node-c", "node-a", "node-b", "node-a"), 128);
+
+        assertEquals(List.of("node-a", "node-b", "node-c"), reordered.nodes());
+        for (int i = 0; i < KEYS; i++) {
+            assertEquals(ring.owner("SKU-" + i), reordered.owner("SKU-" + i));
+        }
+    }
+
+    @Test
+    void addingANodeMovesOnlyTheKeysItTakesOver() {
+        HashRing before = HashRing.of(List.of("node-a", "node-b", "node-c"), 128);
+        HashRing after = HashRing.of(List.of("node-a", "node-b", "node-c", "node-d"), 128);
+
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            String owner = after.owner("SKU-" + i);
+            if (!owner.equals(before.owner("SKU-" + i))) {
+                assertEquals("node-d", owner);
+                moved++;
+            }
+        }
+        double share = (double) moved / KEYS;
+        assertTrue(share > 0.15 && share < 0.35, "moved " + share + " of keys");
+    }
+
+    @Test
+    void sharesCoverTheRingAndStayClose() {
+        Map<String, Double> shares = HashRing.of(List.of("node-a", "node-b", "node-c", "node-d"), 128).shares();
+
+        assertEquals(1.0, shares.values().stream().mapToDouble(Double::doubleValue).sum(), 1e-9);
+        shares.forEach((node, share) -> assertTrue(share > 0.15 && share < 0.35, node + " owns " + share));
+        assertEquals(Map.of("node-a", 1.0), HashRing.of(List.of("node-a"), 1).shares());
+    }
+
+    @Test
+    void emptyRingOwnsNothing() {
+        HashRing ring = HashRing.of(List.of(), 128);
+
+        assertTrue(ring.isEmpty());
+        assertNull(ring.owner("SKU-1"));
+    }
+}
@@ -0,0 +1,96 @@
+package com.edi.processor.compression;
+
+import com.edi.processor.exception.ContentEncodingException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BodyDecodingTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final Counter compressedBytes = registry.counter("compressed");
+    private final Counter decompressedBytes = registry.counter("decompressed");
+
+    @Test
+    void smallBodiesMayExpandPastTheRatio() throws IOException {
+        // Repetitive EDI under the ratio floor compresses far better than 100:1
+        byte[] body = repeated("W07*12*EA**VN*SKU-100~", (int) BodyDecoding.RATIO_FLOOR_BYTES / 2);
+
+        byte[] decoded = decode(gzip(body), 1L << 26, 100);
+
+        assertArrayEquals(body, decoded);
+        assertEquals(body.length, decompressedBytes.count());
+        assertTrue(compressedBytes.count() * 100 < body.length);
+    }
+
+    @Test
+    void rejectsABodyThatExpandsPastTheRatioOnceOverTheFloor() throws IOException {
+        byte[] bomb = gzip(new byte[(int) BodyDecoding.RATIO_FLOOR_BYTES * 8]);
+
+        ContentEncodingException e = assertThrows(ContentEncodingException.class,
+                () -> decode(bomb, 1L << 26, 100));
+
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, e.getStatus());
+        assertTrue(e.getMessage().contains("100:1"), e.getMessage());
+        // Stopped soon after the floor, not after inflating the whole body
+        assertTrue(decompressedBytes.count() < BodyDecoding.RATIO_FLOOR_BYTES * 2);
+    }
+
+    @Test
+    void rejectsABodyLargerThanTheLimitWhateverItsRatio() throws IOException {
+        byte[] body = repeated("W07*12*EA**VN*SKU-100~", 64 * 1024);
+
+        ContentEncodingException e = assertThrows(ContentEncodingException.class,
+                () -> decode(gzip(body), 32 * 1024, 1000));
+
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, e.getStatus());
+        assertTrue(e.getMessage().contains("32768 bytes"), e.getMessage());
+    }
+
+    private byte[] decode(byte[] compressed, long maxBytes, long maxRatio) throws IOException {
+        ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+        try (BodyDecoding decoding = new BodyDecoding(new GzipDecoder(), maxBytes, maxRatio,
+                compressedBytes, decompressedBytes)) {
+            ByteBuffer output = ByteBuffer.allocate(8192);
+            // Fed in network-sized pieces, as the filters do
+            for (int offset = 0; offset < compressed.length; offset += 4096) {
+                ByteBuffer input = ByteBuffer.wrap(compressed, offset, Math.min(4096, compressed.length - offset));
+                do {
+                    output.clear();
+                    decoding.decode(input, output);
+                    decoded.write(output.array(), 0, output.position());
+                } while (input.hasRemaining() || !output.hasRemaining());
+            }
+            decoding.finish();
+        }
+        return decoded.toByteArray();
+    }
+
+    private static byte[] repeated(String segment, int length) {
+        StringBuilder body = new StringBuilder(length + segment.length());
+        while (body.length() < length) {
+            body.append(segment);
+        }
+        return body.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(content);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,192 @@
+package com.edi.processor.compression;
+
+import com.edi.processor.service.RequestDecompressionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestDecompressionFilterTest {
+
+    @Test
+    void decodesBlockingReadsAndHidesEncodingHeaders() throws Exception {
+        byte[] body = body();
+        MockHttpServletRequest request = gzipRequest(gzip(body));
+        AtomicReference<byte[]> read = new AtomicReference<>();
+
+        filter().doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            HttpServletRequest decompressed = (HttpServletRequest) req;
+            assertNull(decompressed.getHeader(HttpHeaders.CONTENT_ENCODING));
+            assertEquals(-1, decompressed.getContentLengthLong());
+            read.set(decompressed.getInputStream().readAllBytes());
+        });
+
+        assertArrayEquals(body, read.get());
+    }
+
+    @Test
+    void readinessFollowsTheCompressedStreamForNonBlockingReads() throws Exception {
+        byte[] body = body();
+        ChunkedInputStream compressed = new ChunkedInputStream();
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/edi/process") {
+            @Override
+            public ServletInputStream getInputStream() {
+                return compressed;
+            }
+        };
+        request.addHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        request.setAsyncSupported(true);
+        ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+        AtomicBoolean allDataRead = new AtomicBoolean();
+
+        filter().doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            req.startAsync();
+            ServletInputStream in = req.getInputStream();
+            in.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    byte[] buffer = new byte[512];
+                    while (in.isReady()) {
+                        int n = in.read(buffer);
+                        if (n < 0) {
+                            return;
+                        }
+                        decoded.write(buffer, 0, n);
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    allDataRead.set(true);
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    throw new AssertionError(t);
+                }
+            });
+        });
+
+        // Chain returned with the body unread; it arrives in small pieces, as from a slow client
+        byte[] gzipped = gzip(body);
+        for (int offset = 0; offset < gzipped.length; offset += 100) {
+            compressed.arrive(Arrays.copyOfRange(gzipped, offset, Math.min(gzipped.length, offset + 100)));
+            assertFalse(compressed.overread, "read while the compressed stream was not ready");
+        }
+        compressed.end();
+
+        assertTrue(allDataRead.get());
+        assertArrayEquals(body, decoded.toByteArray());
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+    }
+
+    private static RequestDecompressionFilter filter() {
+        RequestDecompressionService service = new RequestDecompressionService(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "maxBytes", 1L << 24);
+        ReflectionTestUtils.setField(service, "maxRatio", 100L);
+        return new RequestDecompressionFilter(service);
+    }
+
+    private static MockHttpServletRequest gzipRequest(byte[] content) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/edi/process");
+        request.addHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        request.setContent(content);
+        return request;
+    }
+
+    private static byte[] body() {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; body.length() < 50_000; i++) {
+            body.append("W07*").append(i % 97).append("*EA**VN*SKU-").append(i).append('~');
+        }
+        return body.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(content);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Compressed body in async mode: ready only while a delivered piece is unread, and calling its
+     * listener as the container would when a piece arrives or the body ends
+     */
+    private static final class ChunkedInputStream extends ServletInputStream {
+        private byte[] piece = new byte[0];
+        private int position;
+        private boolean ended;
+        private boolean overread;
+        private ReadListener listener;
+
+        void arrive(byte[] next) throws IOException {
+            piece = next;
+            position = 0;
+            listener.onDataAvailable();
+        }
+
+        void end() throws IOException {
+            ended = true;
+            listener.onAllDataRead();
+        }
+
+        @Override
+        public int read() {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) < 0 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (position == piece.length) {
+                if (ended) {
+                    return -1;
+                }
+                overread = true;
+                return 0;
+            }
+            int n = Math.min(len, piece.length - position);
+            System.arraycopy(piece, position, b, off, n);
+            position += n;
+            return n;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return ended && position == piece.length;
+        }
+
+        @Override
+        public boolean isReady() {
+            return position < piece.length;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            listener = readListener;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.edi.processor.controller;
+
+import com.edi.processor.catalog.ItemCatalog;
+import com.edi.processor.config.ReactiveRouterConfig;
+import com.edi.processor.exception.GlobalExceptionHandler;
+import com.edi.processor.logging.RequestLogSampler;
+import com.edi.processor.model.catalog.CatalogItem;
+import com.edi.processor.model.reconciliation.ReconciliationResult;
+import com.edi.processor.reconciliation.DocumentKind;
+import com.edi.processor.reconciliation.DocumentLines;
+import com.edi.processor.reconciliation.OpenDocument;
+import com.edi.processor.service.ClusterService;
+import com.edi.processor.service.DocumentIndexService;
+import com.edi.processor.service.EdiProcessorService;
+import com.edi.processor.service.FaultInjectionService;
+import com.edi.processor.service.ItemCatalogService;
+import com.edi.processor.service.JobSchedulerService;
+import com.edi.processor.service.ReconciliationService;
+import com.edi.processor.service.SchemaService;
+import com.edi.processor.service.WarmupService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EdiReactiveHandlerTest {
+
+    private static final String SHIP_CONFIRM = "ISA*00*...~ST*945*0001~W12*CC*PO-1~SE*3*0001~";
+
+    private final ItemCatalogService itemCatalog = mock(ItemCatalogService.class);
+    private final ReconciliationService reconciliation = mock(ReconciliationService.class);
+    private final Queue<String> serviceThreads = new ConcurrentLinkedQueue<>();
+
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        EdiReactiveHandler handler = new EdiReactiveHandler(mock(EdiProcessorService.class),
+                mock(JobSchedulerService.class), new GlobalExceptionHandler(), mock(RequestLogSampler.class),
+                itemCatalog, reconciliation, mock(DocumentIndexService.class), mock(FaultInjectionService.class),
+                mock(SchemaService.class), mock(WarmupService.class), mock(ClusterService.class), new ObjectMapper());
+        client = WebTestClient.bindToRouterFunction(new ReactiveRouterConfig().ediRoutes(handler)).build();
+    }
+
+    @Test
+    void catalogLookupsRunOffTheCallingThread() {
+        CatalogItem item = CatalogItem.builder().sku("SKU-1").upc("012345678905").description("Widget").build();
+        when(itemCatalog.findBySku("SKU-1")).thenAnswer(recording(item));
+        when(itemCatalog.findByUpc("012345678905")).thenAnswer(recording(item));
+        when(itemCatalog.getStats()).thenAnswer(recording(new ItemCatalog.Stats(1, 64, 0, 1024, 4096, 0)));
+
+        client.get().uri("/api/v1/edi/catalog/items/SKU-1").exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.sku").isEqualTo("SKU-1");
+        client.get().uri("/api/v1/edi/catalog/items?upc=012345678905").exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.upc").isEqualTo("012345678905");
+        client.get().uri("/api/v1/edi/catalog/stats").exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.items").isEqualTo(1);
+
+        assertOffloaded(3);
+    }
+
+    @Test
+    void unknownCatalogItemIsNotFound() {
+        when(itemCatalog.findBySku("MISSING")).thenAnswer(recording(null));
+
+        client.get().uri("/api/v1/edi/catalog/items/MISSING").exchange()
+                .expectStatus().isNotFound();
+
+        assertOffloaded(1);
+    }
+
+    @Test
+    void exportStreamsNewlineDelimitedItems() {
+        doForEach(CatalogItem.builder().sku("A").build(), CatalogItem.builder().sku("B").build());
+
+        String body = client.get().uri("/api/v1/edi/catalog/export").exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class).returnResult().getResponseBody();
+
+        assertArrayEquals(new String[]{"{\"sku\":\"A\",\"packQuantity\":0,\"weight\":0.0,\"updatedAt\":0}",
+                        "{\"sku\":\"B\",\"packQuantity\":0,\"weight\":0.0,\"updatedAt\":0}"},
+                body.trim().split("\n"));
+        assertOffloaded(1);
+    }
+
+    @Test
+    void openDocumentLookups() {
+        OpenDocument order = new OpenDocument(DocumentKind.ORDER, "PO-1", "uuid-1", 0L, DocumentLines.EMPTY);
+        when(reconciliation.getOpenDocument(DocumentKind.ORDER, "PO-1")).thenAnswer(recording(order));
+        when(reconciliation.getOpenDocument(DocumentKind.ASN, "ASN-9")).thenAnswer(recording(null));
+
+        client.get().uri("/api/v1/edi/reconciliation/orders/PO-1").exchange()
+                .expectStatus().isOk();
+        client.get().uri("/api/v1/edi/reconciliation/asns/ASN-9").exchange()
+                .expectStatus().isNotFound();
+
+        assertOffloaded(2);
+    }
+
+    @Test
+    void reconcileRunsOffTheCallingThread() {
+        ReconciliationResult matched = ReconciliationResult.builder().documentType("ORDER").key("PO-1")
+                .status(ReconciliationResult.Status.MATCHED).expectedUnits(4).actualUnits(4).build();
+        when(reconciliation.reconcile(eq(DocumentKind.ORDER), eq("PO-1"), any())).thenAnswer(invocation -> {
+            assertArrayEquals(SHIP_CONFIRM.getBytes(StandardCharsets.US_ASCII), invocation.getArgument(2));
+            return recording(matched).answer(invocation);
+        });
+
+        client.post().uri("/api/v1/edi/reconciliation/orders/PO-1/shipconfirm")
+                .contentType(MediaType.TEXT_PLAIN)
+                .bodyValue(SHIP_CONFIRM)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.status").isEqualTo("MATCHED");
+
+        assertOffloaded(1);
+    }
+
+    @Test
+    void invalidCounterpartIsBadRequest() {
+        when(reconciliation.reconcile(eq(DocumentKind.ASN), eq("ASN-9"), any())).thenAnswer(invocation -> {
+            serviceThreads.add(Thread.currentThread().getName());
+            throw new IllegalArgumentException("Unrecognized RECEIPT document");
+        });
+
+        client.post().uri("/api/v1/edi/reconciliation/asns/ASN-9/receipt")
+                .contentType(MediaType.TEXT_PLAIN)
+                .bodyValue("not edi")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.response[0].message").isEqualTo("Unrecognized RECEIPT document");
+
+        assertOffloaded(1);
+    }
+
+    private <T> Answer<T> recording(T result) {
+        return invocation -> {
+            serviceThreads.add(Thread.currentThread().getName());
+            return result;
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private void doForEach(CatalogItem... items) {
+        doAnswer(invocation -> {
+            serviceThreads.add(Thread.currentThread().getName());
+            Consumer<CatalogItem> consumer = invocation.getArgument(0);
+            for (CatalogItem item : items) {
+                consumer.accept(item);
+            }
+            return null;
+        }).when(itemCatalog).forEach(any(Consumer.class));
+    }
+
+    private void assertOffloaded(int calls) {
+        List<String> threads = List.copyOf(serviceThreads);
+        assertEquals(calls, threads.size(), "service calls: " + threads);
+        assertTrue(threads.stream().allMatch(name -> name.startsWith("boundedElastic-")),
+                "service called outside bounded-elastic: " + threads);
+    }
+}
@@ -0,0 +1,63 @@
+package com.edi.processor.controller;
+
+import com.edi.processor.model.job.EdiJob;
+import com.edi.processor.model.request.EdiRequest;
+import com.edi.processor.model.request.RequestDetails;
+import com.edi.processor.service.JobSchedulerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class JobControllerTest {
+
+    private final JobSchedulerService jobScheduler = mock(JobSchedulerService.class);
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new JobController(jobScheduler)).build();
+    }
+
+    @Test
+    void cancelledJobIsOk() throws Exception {
+        EdiJob job = job("queued");
+        job.markCancelled(1000);
+        when(jobScheduler.cancel("queued")).thenReturn(job);
+
+        mockMvc.perform(delete("/api/v1/edi/jobs/queued").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("CANCELLED"))
+                .andExpect(jsonPath("$.completedAt").value(1000));
+    }
+
+    @Test
+    void runningJobIsConflict() throws Exception {
+        EdiJob job = job("running");
+        job.markRunning(1000);
+        when(jobScheduler.cancel("running")).thenReturn(job);
+
+        mockMvc.perform(delete("/api/v1/edi/jobs/running").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status").value("RUNNING"));
+    }
+
+    @Test
+    void unknownJobIsNotFound() throws Exception {
+        mockMvc.perform(delete("/api/v1/edi/jobs/missing").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+
+    private static EdiJob job(String jobId) {
+        EdiRequest request = new EdiRequest("uuid-" + jobId, new RequestDetails("ITEM", null, "EDI", "ACK", ""));
+        return new EdiJob(jobId, request, "ITEM", 1, 0, 2000, 0);
+    }
+}
@@ -0,0 +1,72 @@
+package com.edi.processor.duplicate;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InterchangeGenerationTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void findsEveryKeyAfterTheFilterGrowsPastItsExpectedSize() throws Exception {
+        InterchangeGeneration generation = InterchangeGeneration.create(directory, 1, 16, 0.01);
+
+        for (int i = 0; i < 1000; i++) {
+            add(generation, "ACME|" + i + "|1");
+        }
+
+        assertEquals(1000, generation.size());
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(contains(generation, "ACME|" + i + "|1"), "lost key " + i);
+        }
+        assertFalse(contains(generation, "ACME|1000|1"));
+    }
+
+    @Test
+    void reloadsKeysFromItsBucketFiles() throws Exception {
+        InterchangeGeneration written = InterchangeGeneration.create(directory, 1, 1024, 0.001);
+        add(written, "ACME|000000101|101");
+        add(written, "GLOBEX|000000202|202");
+
+        InterchangeGeneration loaded = InterchangeGeneration.load(directory, 1, 1024, 0.001);
+
+        assertEquals(2, loaded.size());
+        assertTrue(contains(loaded, "ACME|000000101|101"));
+        assertTrue(contains(loaded, "GLOBEX|000000202|202"));
+        assertFalse(contains(loaded, "ACME|000000102|102"));
+    }
+
+    @Test
+    void ignoresAKeyWhoseLineIsStillBeingWritten() throws Exception {
+        InterchangeGeneration generation = InterchangeGeneration.create(directory, 1, 1024, 0.001);
+        String key = "ACME|000000101|101";
+        add(generation, key);
+        String partial = "ACME|000000102|102";
+        KeyHash partialHash = KeyHash.of(partial);
+        // A finished line under the same hash makes the filter hit, then the key is mid-append
+        generation.add("ACME|000000103|103", partialHash);
+        Path bucket = directory.resolve(String.format("bucket-%03d.keys", InterchangeGeneration.bucketOf(partialHash)));
+        Files.write(bucket, partial.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        assertTrue(contains(generation, key));
+        assertFalse(generation.contains(partial, partialHash));
+    }
+
+    private static void add(InterchangeGeneration generation, String key) throws Exception {
+        generation.add(key, KeyHash.of(key));
+    }
+
+    private static boolean contains(InterchangeGeneration generation, String key) throws Exception {
+        return generation.contains(key, KeyHash.of(key));
+    }
+}
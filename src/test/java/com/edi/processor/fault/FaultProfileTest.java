@@ -0,0 +1,107 @@
+package com.edi.processor.fault;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FaultProfileTest {
+
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    @Test
+    void uniformDelaysStayWithinTheirBounds() {
+        FaultProfile profile = FaultProfile.builder()
+                .name("fast")
+                .latency(FaultProfile.Latency.UNIFORM)
+                .minMs(5)
+                .maxMs(25)
+                .build();
+
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < 10_000; i++) {
+            long delay = profile.plan(random).delayMillis();
+            min = Math.min(min, delay);
+            max = Math.max(max, delay);
+        }
+        assertEquals(5, min);
+        assertEquals(25, max);
+    }
+
+    @Test
+    void uniformLatencyRequiresAnUpperBound() {
+        FaultProfile.Builder builder = FaultProfile.builder()
+                .name("open")
+                .latency(FaultProfile.Latency.UNIFORM)
+                .minMs(5);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, builder::build);
+        assertTrue(e.getMessage().contains("max-ms"), e.getMessage());
+    }
+
+    @Test
+    void lognormalDelaysAreCappedAndCentredOnTheMedian() {
+        FaultProfile profile = FaultProfile.builder()
+                .name("slow")
+                .latency(FaultProfile.Latency.LOGNORMAL)
+                .latencyMs(250)
+                .sigma(0.6)
+                .maxMs(1000)
+                .build();
+
+        int below = 0;
+        for (int i = 0; i < 10_000; i++) {
+            long delay = profile.plan(random).delayMillis();
+            assertTrue(delay >= 0 && delay <= 1000, "delay " + delay);
+            if (delay < 250) {
+                below++;
+            }
+        }
+        assertTrue(below > 4500 && below < 5500, below + " of 10000 below the median");
+    }
+
+    @Test
+    void actionsFollowTheirPercentages() {
+        FaultProfile profile = FaultProfile.builder()
+                .name("flaky")
+                .latency(FaultProfile.Latency.FIXED)
+                .latencyMs(80)
+                .errorPercent(10)
+                .errorStatus(503)
+                .truncatePercent(5)
+                .dripPercent(20)
+                .build();
+
+        Map<FaultPlan.Action, Integer> counts = new EnumMap<>(FaultPlan.Action.class);
+        for (int i = 0; i < 20_000; i++) {
+            FaultPlan plan = profile.plan(random);
+            assertEquals(80, plan.delayMillis());
+            assertEquals(503, plan.errorStatus());
+            counts.merge(plan.action(), 1, Integer::sum);
+        }
+        assertShare(0.10, counts.get(FaultPlan.Action.ERROR));
+        assertShare(0.05, counts.get(FaultPlan.Action.TRUNCATE));
+        assertShare(0.20, counts.get(FaultPlan.Action.DRIP));
+        assertShare(0.65, counts.get(FaultPlan.Action.RESPOND));
+    }
+
+    @Test
+    void rejectsInvalidProfiles() {
+        assertThrows(IllegalArgumentException.class, () -> FaultProfile.builder().build());
+        assertThrows(IllegalArgumentException.class, () -> FaultProfile.builder().name("x").minMs(10).maxMs(5).build());
+        assertThrows(IllegalArgumentException.class,
+                () -> FaultProfile.builder().name("x").errorPercent(60).dripPercent(50).build());
+        assertThrows(IllegalArgumentException.class, () -> FaultProfile.builder().name("x").errorStatus(200).build());
+    }
+
+    private static void assertShare(double expected, Integer count) {
+        double share = count == null ? 0 : count / 20_000.0;
+        assertEquals(expected, share, 0.015);
+    }
+}
@@ -0,0 +1,98 @@
+package com.edi.processor.model.request;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RequestDetailsDeserializerTest {
+
+    private static final String X12 = "ISA*00*          *00*          *ZZ*ACMERETAIL     *ZZ*EDIPROCESSOR   "
+            + "*240101*1200*U*00401*000000101*0*P*>~GS*OW*ACMERETAIL*EDIPROCESSOR*20240101*1200*101*X*004010~";
+    private static final String EDIFACT = "UNA:+.? 'UNB+UNOC:3+SENDER:ZZ+RECEIVER:ZZ+240101:1200+REF1'";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void readsRawX12AndNormalizesCodes() throws IOException {
+        RequestDetails details = read(" order ", X12);
+
+        assertEquals("ORDER", details.getTransactionType());
+        assertEquals("EDI", details.getFormat());
+        assertNull(details.getInputFileError());
+        assertArrayEquals(X12.getBytes(StandardCharsets.UTF_8), details.getInputFileBytes());
+        assertEquals(X12, details.getInputFile());
+    }
+
+    @Test
+    void readsRawEdifact() throws IOException {
+        RequestDetails details = read("ORDER", EDIFACT);
+
+        assertArrayEquals(EDIFACT.getBytes(StandardCharsets.UTF_8), details.getInputFileBytes());
+    }
+
+    @Test
+    void decodesBase64AndKeepsTheTextForGetInputFile() throws IOException {
+        String encoded = Base64.getEncoder().encodeToString(X12.getBytes(StandardCharsets.UTF_8));
+
+        RequestDetails details = read("ORDER", encoded);
+
+        assertArrayEquals(X12.getBytes(StandardCharsets.UTF_8), details.getInputFileBytes());
+        assertEquals(X12, details.getInputFile());
+    }
+
+    @Test
+    void stripsWhitespaceAndAByteOrderMarkBeforeSniffing() throws IOException {
+        assertArrayEquals(X12.getBytes(StandardCharsets.UTF_8), read("ORDER", "\r\n  " + X12 + "\n").getInputFileBytes());
+        assertArrayEquals(X12.getBytes(StandardCharsets.UTF_8), read("ORDER", "\uFEFF" + X12).getInputFileBytes());
+
+        String encoded = Base64.getEncoder().encodeToString(EDIFACT.getBytes(StandardCharsets.UTF_8));
+        assertArrayEquals(EDIFACT.getBytes(StandardCharsets.UTF_8), read("ORDER", "\n\t" + encoded + "  ").getInputFileBytes());
+    }
+
+    @Test
+    void rejectsInputThatIsNeitherADocumentNorBase64() throws IOException {
+        for (String invalid : new String[] {"GS*OW*ACME~", "SVNB*KjAw", "SVNBKjAwK", "SVNBKg=", "SVNBKjA=x"}) {
+            RequestDetails details = read("ORDER", invalid);
+
+            assertNotNull(details.getInputFileError(), invalid);
+            assertThrows(IllegalArgumentException.class, details::getInputFileBytes);
+        }
+        RequestDetails constructed = new RequestDetails("ORDER", "LTL", "EDI", "ACK", "not base64!");
+        assertNotNull(constructed.getInputFileError());
+    }
+
+    @Test
+    void serializesBytesSoTheyReadBackUnchanged() throws IOException {
+        RequestDetails details = new RequestDetails();
+        details.setTransactionType("ITEM");
+        byte[] binary = {0x00, (byte) 0xFF, 'I', 'S', 'A', '\n'};
+        details.setInputFileBytes(binary);
+
+        String json = mapper.writeValueAsString(new EdiRequest("uuid-1", details));
+        EdiRequest read = mapper.readValue(json, EdiRequest.class);
+
+        assertEquals("uuid-1", read.getUuid());
+        assertArrayEquals(binary, read.getRequest().getInputFileBytes());
+    }
+
+    private RequestDetails read(String transactionType, String inputFile) throws IOException {
+        String json = mapper.writeValueAsString(Map.of(
+                "UUID", "uuid-1",
+                "Request", Map.of(
+                        "TRANSACTION TYPE", transactionType,
+                        "FORMAT", "edi",
+                        "RESPONSE TYPE", "ACK",
+                        "Input File", inputFile)));
+        return mapper.readValue(json, EdiRequest.class).getRequest();
+    }
+}
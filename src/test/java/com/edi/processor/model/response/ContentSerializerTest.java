@@ -0,0 +1,92 @@
+package com.edi.processor.model.response;
+
+import com.edi.processor.config.BinaryFormatsConfig;
+import com.edi.processor.template.CompiledTemplate;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.json.JsonWriteFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ContentSerializerTest {
+
+    private static final String CONTENT = "ISA*00*Grüße~\"quoted\"~";
+
+    private final ContentSerializer serializer = new ContentSerializer();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private CompiledTemplate template;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper.registerModule(serializer.module());
+        template = CompiledTemplate.compile(CONTENT);
+        serializer.precompute(template);
+    }
+
+    @Test
+    void precomputedContentRoundTripsInEveryFormat() throws IOException {
+        EdiResponse response = response(template.render(null));
+
+        for (ObjectMapper mapper : List.of(objectMapper, BinaryFormatsConfig.smileMapper(objectMapper),
+                BinaryFormatsConfig.cborMapper(objectMapper))) {
+            EdiResponse read = mapper.readValue(mapper.writeValueAsBytes(response), EdiResponse.class);
+            assertEquals(CONTENT, read.getResponse().get(0).getContent());
+        }
+    }
+
+    @Test
+    void precomputedContentIsWrittenFromItsEncoding() throws IOException {
+        JsonGenerator gen = Mockito.mock(JsonGenerator.class);
+
+        serializer.serialize(template.getStaticContent(), gen, null);
+        serializer.serialize(new String(CONTENT), gen, null);
+
+        // Only the registered instance is looked up; an equal rendered string is written as is
+        verify(gen).writeString(any(SerializedString.class));
+        verify(gen).writeString(anyString());
+    }
+
+    @Test
+    void mapperEscapingSettingsStillApply() throws IOException {
+        ObjectMapper escaping = objectMapper.copy();
+        escaping.getFactory().configure(JsonWriteFeature.ESCAPE_NON_ASCII.mappedFeature(), true);
+
+        String json = new String(escaping.writeValueAsBytes(response(template.getStaticContent())),
+                StandardCharsets.US_ASCII);
+
+        assertTrue(json.contains("Gr\\u00FC\\u00DFe"), json);
+    }
+
+    @Test
+    void clearDropsRegisteredTemplates() throws IOException {
+        serializer.clear();
+        JsonGenerator gen = Mockito.mock(JsonGenerator.class);
+        when(gen.isEnabled(any(JsonGenerator.Feature.class))).thenReturn(false);
+
+        serializer.serialize(template.getStaticContent(), gen, null);
+
+        verify(gen, never()).writeString(any(SerializedString.class));
+    }
+
+    private static EdiResponse response(String content) {
+        return EdiResponse.builder()
+                .response(List.of(ResponseItem.builder().success(true).filename("ack.edi").content(content)
+                        .mimeType("application/edi-x12").build()))
+                .build();
+    }
+}
@@ -0,0 +1,54 @@
+package com.edi.processor.parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EdifactSegmentIndexTest {
+
+    @Test
+    void releasedDelimitersAreData() {
+        EdifactSegmentIndex index = index("UNA:+.? 'UNB+UNOC:3+SENDER:ZZ+RECEIVER:ZZ+240101:1200+REF1'"
+                + "UNH+1+ORDERS:D:96A:UN'FTX+AAA+++O?'NEIL?+SONS ??5?:1:DOCK 2'QTY+12:10.5'UNT+4+1'UNZ+1+REF1'");
+
+        assertEquals(6, index.size());
+        int ftx = index.next("FTX", 0);
+        assertEquals(2, ftx);
+        assertEquals("QTY", index.element(index.next("QTY", ftx), 0));
+        assertEquals("O'NEIL+SONS ?5:1:DOCK 2", index.element(ftx, 4));
+        assertEquals("O'NEIL+SONS ?5:1", index.component(ftx, 4, 1));
+        assertEquals("DOCK 2", index.component(ftx, 4, 2));
+        assertNull(index.component(ftx, 4, 3));
+        assertTrue(index.componentEquals(ftx, 4, 1, "O'NEIL+SONS ?5:1"));
+        assertFalse(index.componentEquals(ftx, 4, 1, "O?'NEIL?+SONS ??5?:1"));
+        assertEquals(10, index.componentAsLong(index.next("QTY", 0), 1, 2, -1));
+    }
+
+    @Test
+    void usesTheReleaseCharacterFromTheServiceStringAdvice() {
+        EdifactSegmentIndex index = index("UNA:+.! 'UNB+UNOC:3+SENDER:ZZ+RECEIVER:ZZ+240101:1200+REF1'"
+                + "FTX+AAA+++50!% OFF?'UNZ+1+REF1'");
+
+        int ftx = index.next("FTX", 0);
+        assertEquals("50% OFF?", index.component(ftx, 4, 1));
+        assertEquals("UNZ", index.element(ftx + 1, 0));
+    }
+
+    @Test
+    void aTrailingReleaseCharacterDoesNotRunPastTheSegment() {
+        EdifactSegmentIndex index = index("UNB+UNOC:3+SENDER:ZZ+RECEIVER:ZZ+240101:1200+REF1'FTX+AAA+++END?");
+
+        assertEquals(2, index.size());
+        assertEquals("END?", index.component(1, 4, 1));
+    }
+
+    private static EdifactSegmentIndex index(String interchange) {
+        byte[] payload = interchange.getBytes(StandardCharsets.ISO_8859_1);
+        return EdifactSegmentIndex.build(payload, EdifactHeader.parse(payload));
+    }
+}
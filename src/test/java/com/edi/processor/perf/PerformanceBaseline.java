@@ -0,0 +1,148 @@
+package com.edi.processor.perf;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Per-request allocation and latency budgets, read from {@code perf/baseline.properties} on the test
+ * classpath.
+ *
+ * Each combination has {@code <key>.allocated-bytes} and {@code <key>.latency-micros}. A measurement
+ * fails when it allocates more than its budget plus {@code margin.allocation} (a fraction, overridable
+ * with {@code -Dperf.allocation-margin}). Latency depends on the host, so it is only checked with
+ * {@code -Dperf.latency=true} (the {@code perf-latency} Maven profile), against its budget plus
+ * {@code margin.latency} ({@code -Dperf.latency-margin}); budgets below {@code latency.floor-micros}
+ * are raised to it, as timer and scheduling noise dominates requests that short.
+ * Measurements are always written to {@code target/perf/baseline.properties} with the next
+ * {@code baseline.version} and the recording host, ready to replace the checked-in file when a change
+ * is intentional.
+ */
+final class PerformanceBaseline {
+
+    static final String RESOURCE = "perf/baseline.properties";
+    static final Path RECORDED = Path.of("target", "perf", "baseline.properties");
+
+    private static final String ALLOCATED_BYTES = ".allocated-bytes";
+    private static final String LATENCY_MICROS = ".latency-micros";
+
+    private final int version;
+    private final boolean checkLatency;
+    private final double allocationMargin;
+    private final double latencyMargin;
+    private final double latencyFloorMicros;
+    private final Properties budgets;
+    private final Map<String, Measurement> measured = new TreeMap<>();
+
+    private PerformanceBaseline(Properties budgets) {
+        this.budgets = budgets;
+        this.version = Integer.parseInt(budgets.getProperty("baseline.version", "0").trim());
+        this.checkLatency = Boolean.getBoolean("perf.latency");
+        this.allocationMargin = margin("perf.allocation-margin", budgets.getProperty("margin.allocation", "0.25"));
+        this.latencyMargin = margin("perf.latency-margin", budgets.getProperty("margin.latency", "3.0"));
+        this.latencyFloorMicros = Double.parseDouble(budgets.getProperty("latency.floor-micros", "20.0").trim());
+    }
+
+    static PerformanceBaseline load() throws IOException {
+        Properties budgets = new Properties();
+        try (InputStream input = PerformanceBaseline.class.getClassLoader().getResourceAsStream(RESOURCE)) {
+            if (input != null) {
+                budgets.load(input);
+            }
+        }
+        return new PerformanceBaseline(budgets);
+    }
+
+    /**
+     * Record a measurement and list the budgets it exceeds, empty when within budget
+     */
+    List<String> check(String key, Measurement measurement) {
+        measured.put(key, measurement);
+        List<String> violations = new ArrayList<>();
+        String allocationBudget = budgets.getProperty(key + ALLOCATED_BYTES);
+        String latencyBudget = budgets.getProperty(key + LATENCY_MICROS);
+        if (allocationBudget == null || latencyBudget == null) {
+            violations.add(key + " has no budget in " + RESOURCE + "; copy it from " + RECORDED);
+            return violations;
+        }
+
+        long allowedBytes = (long) (Long.parseLong(allocationBudget.trim()) * (1.0 + allocationMargin));
+        if (measurement.allocatedBytes() > allowedBytes) {
+            violations.add(String.format(Locale.ROOT, "%s allocated %d bytes/request, budget %s (+%.0f%% = %d)",
+                    key, measurement.allocatedBytes(), allocationBudget.trim(), allocationMargin * 100, allowedBytes));
+        }
+        if (!checkLatency) {
+            return violations;
+        }
+        double allowedMicros = Math.max(latencyFloorMicros, Double.parseDouble(latencyBudget.trim()))
+                * (1.0 + latencyMargin);
+        if (measurement.latencyMicros() > allowedMicros) {
+            violations.add(String.format(Locale.ROOT, "%s took %.1f us/request, budget %s us (+%.0f%% = %.1f)",
+                    key, measurement.latencyMicros(), latencyBudget.trim(), latencyMargin * 100, allowedMicros));
+        }
+        return violations;
+    }
+
+    /**
+     * Write every measurement as the next baseline version
+     */
+    void writeRecorded() throws IOException {
+        Files.createDirectories(RECORDED.getParent());
+        try (Writer out = Files.newBufferedWriter(RECORDED, StandardCharsets.ISO_8859_1)) {
+            out.write("# Per-request budgets for ProcessingBudgetTest; regenerate by copying\n");
+            out.write("# target/perf/baseline.properties after an intentional change.\n");
+            out.write("# Latency budgets hold for the recording host only:\n");
+            out.write("# " + cpuModel() + ", " + Runtime.getRuntime().availableProcessors() + " CPUs, "
+                    + System.getProperty("os.name") + " " + System.getProperty("os.version") + " "
+                    + System.getProperty("os.arch") + "\n");
+            out.write("# " + System.getProperty("java.vm.name") + " " + System.getProperty("java.version")
+                    + ", max heap " + (Runtime.getRuntime().maxMemory() >> 20) + " MB\n");
+            out.write("baseline.version=" + (version + 1) + "\n");
+            out.write("margin.allocation=" + budgets.getProperty("margin.allocation", "0.25") + "\n");
+            out.write("margin.latency=" + budgets.getProperty("margin.latency", "3.0") + "\n");
+            out.write("latency.floor-micros=" + budgets.getProperty("latency.floor-micros", "20.0") + "\n");
+            for (Map.Entry<String, Measurement> entry : measured.entrySet()) {
+                out.write("\n");
+                out.write(entry.getKey() + ALLOCATED_BYTES + "=" + entry.getValue().allocatedBytes() + "\n");
+                out.write(String.format(Locale.ROOT, "%s%s=%.1f%n", entry.getKey(), LATENCY_MICROS,
+                        entry.getValue().latencyMicros()));
+            }
+        }
+    }
+
+    /**
+     * CPU model from /proc/cpuinfo where there is one, otherwise the JVM's architecture
+     */
+    private static String cpuModel() {
+        try (Stream<String> lines = Files.lines(Path.of("/proc/cpuinfo"))) {
+            return lines.filter(line -> line.startsWith("model name"))
+                    .map(line -> line.substring(line.indexOf(':') + 1).trim())
+                    .findFirst()
+                    .orElse(System.getProperty("os.arch"));
+        } catch (IOException | UncheckedIOException e) {
+            return System.getProperty("os.arch");
+        }
+    }
+
+    private static double margin(String systemProperty, String fileValue) {
+        String value = System.getProperty(systemProperty);
+        return Double.parseDouble((value != null && !value.isBlank() ? value : fileValue).trim());
+    }
+
+    /**
+     * Per-request allocation and latency of one combination
+     */
+    record Measurement(long allocatedBytes, double latencyMicros) {
+    }
+}
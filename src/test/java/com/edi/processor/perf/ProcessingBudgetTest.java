@@ -0,0 +1,164 @@
+package com.edi.processor.perf;
+
+import com.edi.processor.model.request.EdiRequest;
+import com.edi.processor.model.request.RequestDetails;
+import com.edi.processor.model.response.EdiResponse;
+import com.edi.processor.model.response.ResponseItem;
+import com.edi.processor.service.EdiProcessorService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Allocation budgets, and optionally latency budgets, of {@link EdiProcessorService#processRequest}
+ * for every transaction and response combination.
+ *
+ * Each combination is warmed up, then run in batches. Per-request allocation (from the thread's
+ * allocated-bytes counter) is the median of the batch averages; latency is the fastest batch average,
+ * since scheduling, GC and JIT noise only ever add time; it is recorded on every run but only gated
+ * with {@code -Dperf.latency=true}. Budgets and margins
+ * live in {@code src/test/resources/perf/baseline.properties}, see {@link PerformanceBaseline}.
+ * Iteration counts can be changed with {@code -Dperf.warmup}, {@code -Dperf.batches} and
+ * {@code -Dperf.batch-size}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "logging.level.com.edi.processor=WARN",
+        "edi.search.enabled=false",
+        "edi.catalog.enabled=true",
+        "edi.catalog.max-off-heap-mb=64",
+        "edi.catalog.expected-items=1024",
+        "edi.reconciliation.enabled=true"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProcessingBudgetTest {
+
+    private static final int WARMUP = Integer.getInteger("perf.warmup", 3000);
+    private static final int BATCHES = Integer.getInteger("perf.batches", 21);
+    private static final int BATCH_SIZE = Integer.getInteger("perf.batch-size", 100);
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Autowired
+    private EdiProcessorService ediProcessorService;
+
+    private PerformanceBaseline baseline;
+
+    @BeforeAll
+    void setUp() throws IOException {
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "Thread allocation counters not supported");
+        threads.setThreadAllocatedMemoryEnabled(true);
+        baseline = PerformanceBaseline.load();
+    }
+
+    @AfterAll
+    void writeMeasurements() throws IOException {
+        if (baseline != null) {
+            baseline.writeRecorded();
+        }
+    }
+
+    /**
+     * ITEM runs first so later ORDER and ASN requests are validated against a populated catalog
+     */
+    Stream<Arguments> combinations() throws IOException {
+        String order = fixture("order-940.edi");
+        String asn = fixture("asn-856.edi");
+        String item = fixture("item-888.edi");
+
+        List<Arguments> combinations = new ArrayList<>();
+        for (String format : List.of("EDI", "JSON")) {
+            combinations.add(combination("ITEM", null, "ACK", format, item));
+        }
+        for (String orderType : List.of("LTL", "PARCEL")) {
+            for (String responseType : List.of("ACK", "SHIPCONFIRM")) {
+                for (String format : List.of("EDI", "JSON")) {
+                    combinations.add(combination("ORDER", orderType, responseType, format, order));
+                }
+            }
+        }
+        for (String responseType : List.of("ACK", "RECEIPT")) {
+            for (String format : List.of("EDI", "JSON")) {
+                combinations.add(combination("ASN", null, responseType, format, asn));
+            }
+        }
+        for (String responseType : List.of("ASN", "ITEM", "ORDER", "SHIPCONFIRM", "RECEIPT")) {
+            for (String format : List.of("EDI", "JSON")) {
+                combinations.add(combination("GETSCHEMA", null, responseType, format, ""));
+            }
+        }
+        combinations.add(combination("ERRORRESPONSE", null, "ACK", "EDI", ""));
+        return combinations.stream();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("combinations")
+    void staysWithinBudget(String key, EdiRequest request) {
+        EdiResponse response = ediProcessorService.processRequest(request);
+        assertNotNull(response.getResponse(), key + " returned no response items");
+        if (!"ERRORRESPONSE".equals(request.getRequest().getTransactionType())) {
+            for (ResponseItem item : response.getResponse()) {
+                assertTrue(item.isSuccess(), () -> key + " failed: " + item.getMessage());
+            }
+        }
+
+        PerformanceBaseline.Measurement measurement = measure(request);
+        List<String> violations = baseline.check(key, measurement);
+        assertTrue(violations.isEmpty(), () -> String.join("\n", violations));
+    }
+
+    private PerformanceBaseline.Measurement measure(EdiRequest request) {
+        for (int i = 0; i < WARMUP; i++) {
+            ediProcessorService.processRequest(request);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long[] bytes = new long[BATCHES];
+        long[] nanos = new long[BATCHES];
+        for (int b = 0; b < BATCHES; b++) {
+            long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                ediProcessorService.processRequest(request);
+            }
+            nanos[b] = System.nanoTime() - start;
+            bytes[b] = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        }
+        Arrays.sort(bytes);
+        Arrays.sort(nanos);
+        return new PerformanceBaseline.Measurement(bytes[BATCHES / 2] / BATCH_SIZE, nanos[0] / (BATCH_SIZE * 1000.0));
+    }
+
+    private static Arguments combination(String transactionType, String orderType, String responseType,
+                                         String format, String inputFile) {
+        String key = String.join("_", Stream.of(transactionType, orderType, responseType, format)
+                .filter(part -> part != null).toList());
+        RequestDetails details = new RequestDetails(transactionType, orderType, format, responseType, inputFile);
+        return Arguments.of(key, new EdiRequest("perf-" + key, details));
+    }
+
+    private static String fixture(String name) throws IOException {
+        try (InputStream input = ProcessingBudgetTest.class.getClassLoader().getResourceAsStream("perf/" + name)) {
+            assertNotNull(input, "Missing fixture perf/" + name);
+            return Base64.getEncoder().encodeToString(input.readAllBytes());
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.edi.processor.search;
+
+import com.edi.processor.model.search.IndexedDocument;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class InvertedIndexTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysDocumentsLoggedAfterTheLastFlush() throws IOException {
+        try (InvertedIndex index = InvertedIndex.open(directory, mapper, 4)) {
+            index.add(List.of(document("req-1", "PO-1")));
+            index.flush();
+            index.add(List.of(document("req-2", "PO-1"), document("req-3", "PO-2")));
+        }
+
+        try (InvertedIndex index = InvertedIndex.open(directory, mapper, 4)) {
+            assertEquals(1, index.getSegmentCount());
+            assertEquals(2, index.getBufferedDocuments());
+            assertEquals(List.of("req-2", "req-1"), uuids(index.search("po-1", "PO", 10)));
+            assertEquals(List.of("req-3"), uuids(index.search("PO-2", null, 10)));
+        }
+    }
+
+    @Test
+    void cutsOffAPartlyWrittenLastRecord() throws IOException {
+        long complete;
+        try (InvertedIndex index = InvertedIndex.open(directory, mapper, 4)) {
+            index.add(List.of(document("req-1", "PO-1")));
+            complete = index.getLogBytes();
+        }
+        // Length prefix of a record whose body never made it to disk
+        Files.write(directory.resolve("documents.log"), new byte[] {0, 0, 1, 0, '{', '"'}, StandardOpenOption.APPEND);
+
+        try (InvertedIndex index = InvertedIndex.open(directory, mapper, 4)) {
+            assertEquals(complete, index.getLogBytes());
+            assertEquals(complete, Files.size(directory.resolve("documents.log")));
+            index.add(List.of(document("req-2", "PO-1")));
+            assertEquals(List.of("req-2", "req-1"), uuids(index.search("PO-1", null, 10)));
+        }
+    }
+
+    @Test
+    void mergesSegmentsPastTheLimitWithoutLosingPostings() throws IOException {
+        // Once past the limit, all segments (fewer than the merge factor) merge into one
+        int[] segmentCounts = {1, 2, 1, 2, 1};
+        try (InvertedIndex index = InvertedIndex.open(directory, mapper, 2)) {
+            for (int i = 1; i <= 5; i++) {
+                index.add(List.of(document("req-" + i, "PO-SHARED"), document("own-" + i, "PO-" + i)));
+                index.flush();
+                assertEquals(segmentCounts[i - 1], index.getSegmentCount());
+            }
+            assertEquals(List.of("req-5", "req-4", "req-3", "req-2", "req-1"),
+                    uuids(index.search("PO-SHARED", "PO", 10)));
+            assertEquals(List.of("own-3"), uuids(index.search("PO-3", null, 10)));
+        }
+
+        try (InvertedIndex index = InvertedIndex.open(directory, mapper, 2)) {
+            assertEquals(1, index.getSegmentCount());
+            assertEquals(0, index.getBufferedDocuments());
+            assertEquals(List.of("req-5", "req-4"), uuids(index.search("PO-SHARED", null, 2)));
+            assertEquals(List.of("own-1"), uuids(index.search("own-1", "UUID", 10)));
+        }
+    }
+
+    private static IndexedDocument document(String uuid, String po) {
+        return IndexedDocument.builder()
+                .uuid(uuid)
+                .transactionType("ORDER")
+                .document(IndexedDocument.REQUEST_DOCUMENT)
+                .id("PO", po)
+                .build();
+    }
+
+    private static List<String> uuids(List<IndexedDocument> documents) {
+        return documents.stream().map(IndexedDocument::getUuid).toList();
+    }
+}
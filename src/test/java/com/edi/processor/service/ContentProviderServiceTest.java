@@ -0,0 +1,90 @@
+package com.edi.processor.service;
+
+import com.edi.processor.model.partner.TradingPartner;
+import com.edi.processor.model.response.ContentSerializer;
+import com.edi.processor.template.RenderContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContentProviderServiceTest {
+
+    private static final RenderContext CONTEXT = RenderContext.builder()
+            .timestamp(Instant.parse("2025-01-21T16:00:00Z"))
+            .controlNumber(42)
+            .build();
+
+    private ContentProviderService contentProvider;
+
+    @BeforeEach
+    void setUp() {
+        contentProvider = new ContentProviderService(new ContentSerializer());
+        contentProvider.init();
+    }
+
+    @Test
+    void partnerDelimitersReplaceOnlyTemplateDelimiters() {
+        TradingPartner partner = partner("ACME*EAST").elementSeparator('|').segmentTerminator('\n')
+                .subElementSeparator('^').x12Version("005010").build();
+
+        String rendered = render(partner);
+
+        // '*' is data for this partner, so it stays inside the IDs instead of splitting them
+        assertTrue(rendered.startsWith("ISA|00|          |00|          |01|ACME*EAST      |ZZ|WAREHOUSE      |"),
+                rendered);
+        assertTrue(rendered.contains("|U|00501|000000042|0|P|^\nGS|SH|ACME*EAST|WAREHOUSE|"), rendered);
+        assertTrue(rendered.contains("|X|005010\n"), rendered);
+        assertSameStructure(render(null), '*', '~', rendered, '|', '\n');
+    }
+
+    @Test
+    void dataCharactersThatArePartnerDelimitersAreDropped() {
+        // '-' is the partner's sub-element separator, so it cannot stay in SKU-1001 or in the ID
+        TradingPartner partner = partner("ACME-EAST").subElementSeparator('-').build();
+
+        String rendered = render(partner);
+
+        assertTrue(rendered.contains("*01*ACMEEAST       *ZZ*WAREHOUSE      *"), rendered);
+        assertTrue(rendered.contains("*P*-~"), rendered);
+        assertTrue(rendered.contains("*VN*SKU1001"), rendered);
+        assertFalse(rendered.contains("SKU-1001"), rendered);
+        assertEquals(1, rendered.chars().filter(c -> c == '-').count(), rendered);
+        assertSameStructure(render(null), '*', '~', rendered, '*', '~');
+    }
+
+    private String render(TradingPartner partner) {
+        return contentProvider.getfileWithOrdTypeContent(partner, CONTEXT, "ORDER", "SHIPCONFIRM", "LTL", "EDI");
+    }
+
+    private static TradingPartner.Builder partner(String senderId) {
+        return TradingPartner.builder()
+                .partnerId("ACME")
+                .senderQualifier("01")
+                .senderId(senderId)
+                .receiverId("WAREHOUSE");
+    }
+
+    /**
+     * Same segments with the same number of elements in each, whatever the delimiters
+     */
+    private static void assertSameStructure(String expected, char expectedElement, char expectedSegment,
+                                            String actual, char actualElement, char actualSegment) {
+        String[] expectedSegments = expected.split(Pattern.quote(String.valueOf(expectedSegment)));
+        String[] actualSegments = actual.split(Pattern.quote(String.valueOf(actualSegment)));
+        assertEquals(expectedSegments.length, actualSegments.length, actual);
+        int[] expectedCounts = new int[expectedSegments.length];
+        int[] actualCounts = new int[actualSegments.length];
+        for (int i = 0; i < expectedSegments.length; i++) {
+            expectedCounts[i] = expectedSegments[i].split(Pattern.quote(String.valueOf(expectedElement)), -1).length;
+            actualCounts[i] = actualSegments[i].split(Pattern.quote(String.valueOf(actualElement)), -1).length;
+        }
+        assertArrayEquals(expectedCounts, actualCounts, actual);
+    }
+}
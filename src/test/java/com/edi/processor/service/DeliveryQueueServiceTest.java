@@ -0,0 +1,203 @@
+package com.edi.processor.service;
+
+import com.edi.processor.concurrent.WorkerThreads;
+import com.edi.processor.controller.DeliveryStubController;
+import com.edi.processor.model.delivery.QueuedDocument;
+import com.edi.processor.model.response.EdiResponse;
+import com.edi.processor.model.response.ResponseItem;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class DeliveryQueueServiceTest {
+
+    @TempDir
+    Path queueDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final DeliveryStubController stub = new DeliveryStubController();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private volatile long stubDelayMs;
+
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private DeliveryQueueService service;
+
+    /**
+     * Serves the delivery stub over HTTP, tracking how many callbacks are open at once
+     */
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        serverThreads = Executors.newFixedThreadPool(8);
+        server.setExecutor(serverThreads);
+        server.createContext("/api/v1/edi/delivery-stub", exchange -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            int status = 500;
+            try (InputStream body = exchange.getRequestBody()) {
+                EdiResponse batch = objectMapper.readValue(body, EdiResponse.class);
+                Thread.sleep(stubDelayMs);
+                status = stub.receive(batch).getStatusCode().value();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                // Before the response, which frees the sender's permit for its next callback
+                inFlight.decrementAndGet();
+            }
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (service != null) {
+            service.shutdown();
+        }
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Test
+    void deliversQueuedDocumentsAndRemovesTheirFiles() throws Exception {
+        start(3, 4);
+
+        for (int i = 1; i <= 5; i++) {
+            service.enqueue("uuid-" + i, item(i));
+        }
+
+        await(() -> stats().get("documents") == 5);
+        await(() -> count("pending") == 0);
+        assertEquals(0, stats().get("rejected"));
+        assertEquals(0, count("dead"));
+    }
+
+    @Test
+    void retriesWithBackoffUntilTheCallbackAccepts() throws Exception {
+        stub.failNext(2, 503);
+        start(3, 4);
+        long enqueuedAt = System.currentTimeMillis();
+
+        service.enqueue("uuid-1", item(1));
+
+        await(() -> stats().get("documents") == 1);
+        // Backoffs of 50 and 100 ms, each with up to 20% jitter
+        assertTrue(System.currentTimeMillis() - enqueuedAt >= 150);
+        assertEquals(2, stats().get("rejected"));
+        await(() -> count("pending") == 0);
+        assertEquals(0, count("dead"));
+    }
+
+    @Test
+    void movesADocumentToDeadAfterItsLastAttempt() throws Exception {
+        stub.failNext(100, 500);
+        start(3, 4);
+
+        service.enqueue("uuid-1", item(1));
+
+        await(() -> count("dead") == 1);
+        assertEquals(3, stats().get("rejected"));
+        assertEquals(0, stats().get("documents"));
+        assertEquals(0, count("pending"));
+        try (Stream<Path> dead = Files.list(queueDir.resolve("dead"))) {
+            QueuedDocument document = objectMapper.readValue(dead.findFirst().orElseThrow().toFile(), QueuedDocument.class);
+            assertEquals("uuid-1", document.getUuid());
+            assertEquals("SHIPCONFIRM_1.edi", document.getItem().getFilename());
+        }
+    }
+
+    @Test
+    void deliversDocumentsLeftPendingByAnEarlierRun() throws Exception {
+        Path pending = Files.createDirectories(queueDir.resolve("pending"));
+        for (int i = 1; i <= 2; i++) {
+            QueuedDocument document = new QueuedDocument("doc-" + i, "uuid-" + i, item(i), System.currentTimeMillis());
+            objectMapper.writeValue(pending.resolve(document.getFileName()).toFile(), document);
+        }
+
+        start(3, 4);
+
+        await(() -> stats().get("documents") == 2);
+        await(() -> count("pending") == 0);
+    }
+
+    @Test
+    void keepsCallbacksWithinMaxConcurrency() throws Exception {
+        stubDelayMs = 50;
+        start(3, 2);
+        ReflectionTestUtils.setField(service, "batchSize", 1);
+
+        for (int i = 1; i <= 12; i++) {
+            service.enqueue("uuid-" + i, item(i));
+        }
+
+        await(() -> stats().get("documents") == 12);
+        assertEquals(2, maxInFlight.get());
+    }
+
+    private void start(int maxAttempts, int maxConcurrency) throws IOException {
+        service = new DeliveryQueueService(objectMapper, new WorkerThreads());
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "callbackUrl",
+                "http://127.0.0.1:" + server.getAddress().getPort() + "/api/v1/edi/delivery-stub");
+        ReflectionTestUtils.setField(service, "queueDir", queueDir.toString());
+        ReflectionTestUtils.setField(service, "batchSize", 50);
+        ReflectionTestUtils.setField(service, "maxConcurrency", maxConcurrency);
+        ReflectionTestUtils.setField(service, "initialBackoffMs", 50L);
+        ReflectionTestUtils.setField(service, "maxBackoffMs", 1000L);
+        ReflectionTestUtils.setField(service, "maxAttempts", maxAttempts);
+        ReflectionTestUtils.setField(service, "requestTimeoutMs", 5000L);
+        service.init();
+    }
+
+    private Map<String, Long> stats() {
+        return stub.stats().getBody();
+    }
+
+    private long count(String directory) {
+        try (Stream<Path> files = Files.list(queueDir.resolve(directory))) {
+            return files.filter(file -> file.toString().endsWith(".json")).count();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static ResponseItem item(int sequence) {
+        return ResponseItem.builder()
+                .success(true)
+                .filename("SHIPCONFIRM_" + sequence + ".edi")
+                .content("ISA*SHIPCONFIRM-" + sequence + "~")
+                .build();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Timed out waiting for delivery");
+            }
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.edi.processor.service;
+
+import com.edi.processor.concurrent.WorkerThreads;
+import com.edi.processor.logging.RequestLogSampler;
+import com.edi.processor.model.request.EdiRequest;
+import com.edi.processor.model.response.EdiResponse;
+import com.edi.processor.model.response.ResponseItem;
+import com.edi.processor.warmup.SyntheticTraffic;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DropFolderIngestionServiceTest {
+
+    @TempDir
+    Path root;
+
+    private final Map<String, byte[]> processed = new ConcurrentHashMap<>();
+    private DropFolderIngestionService service;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void claimsProcessesAndCommitsADroppedFile() throws Exception {
+        Path dropped = write(root.resolve("inbox/orders/po-1.edi"), "ISA*PO-1~");
+        Files.setLastModifiedTime(dropped, FileTime.fromMillis(System.currentTimeMillis() - 60_000));
+
+        start();
+        await(() -> count(root.resolve("done/orders")) == 1);
+
+        assertEquals(0, count(root.resolve("inbox/orders")));
+        assertEquals(0, count(root.resolve("work/orders")));
+        assertEquals(0, count(root.resolve("staging/orders")));
+        Path claim = only(root.resolve("outbox/orders"));
+        assertTrue(claim.getFileName().toString().endsWith("-po-1.edi"));
+        assertEquals("answer to ISA*PO-1~", Files.readString(claim.resolve("SHIPCONFIRM_1.edi")));
+        assertEquals("ISA*PO-1~", new String(processed.get(claim.getFileName().toString()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void recoveryMovesCommittedClaimsOnAndReprocessesTheRest() throws Exception {
+        write(root.resolve("work/orders/1-1-committed.edi"), "ISA*COMMITTED~");
+        write(root.resolve("outbox/orders/1-1-committed.edi/SHIPCONFIRM_1.edi"), "answer to ISA*COMMITTED~");
+        write(root.resolve("work/orders/1-2-uncommitted.edi"), "ISA*UNCOMMITTED~");
+        write(root.resolve("staging/orders/1-2-uncommitted.edi/SHIPCONFIRM_1.edi"), "partial");
+
+        start();
+        await(() -> count(root.resolve("done/orders")) == 2);
+
+        assertEquals(List.of("1-2-uncommitted.edi"), List.copyOf(processed.keySet()));
+        assertEquals("answer to ISA*UNCOMMITTED~",
+                Files.readString(root.resolve("outbox/orders/1-2-uncommitted.edi/SHIPCONFIRM_1.edi")));
+        assertEquals(0, count(root.resolve("work/orders")));
+        assertEquals(0, count(root.resolve("staging/orders")));
+    }
+
+    @Test
+    void movesAFileWhoseProcessingThrowsToFailed() throws Exception {
+        write(root.resolve("work/orders/1-1-broken.edi"), "BROKEN");
+
+        start();
+        await(() -> Files.exists(root.resolve("failed/orders/1-1-broken.edi")));
+
+        assertEquals("Cannot parse BROKEN", Files.readString(root.resolve("failed/orders/1-1-broken.edi.error")));
+        assertEquals(0, count(root.resolve("work/orders")));
+        assertFalse(Files.exists(root.resolve("outbox/orders/1-1-broken.edi")));
+    }
+
+    private void start() throws IOException {
+        EdiProcessorService processor = mock(EdiProcessorService.class);
+        when(processor.processRequest(any())).thenAnswer(invocation -> {
+            EdiRequest request = invocation.getArgument(0);
+            byte[] content = request.getRequest().getInputFileBytes();
+            String text = new String(content, StandardCharsets.UTF_8);
+            if (text.startsWith("BROKEN")) {
+                throw new IllegalStateException("Cannot parse " + text);
+            }
+            processed.put(request.getUuid(), content);
+            return new EdiResponse(List.of(ResponseItem.builder()
+                    .success(true)
+                    .filename("SHIPCONFIRM_1.edi")
+                    .content("answer to " + text)
+                    .build()));
+        });
+        service = new DropFolderIngestionService(processor, new RequestLogSampler(new SyntheticTraffic()),
+                new SimpleMeterRegistry(), new WorkerThreads());
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "directory", root.toString());
+        ReflectionTestUtils.setField(service, "inboxes", "orders:ORDER:LTL:SHIPCONFIRM");
+        ReflectionTestUtils.setField(service, "workers", 2);
+        ReflectionTestUtils.setField(service, "pollIntervalMs", 20L);
+        ReflectionTestUtils.setField(service, "minAgeMs", 1000L);
+        ReflectionTestUtils.setField(service, "keepProcessed", true);
+        service.init();
+    }
+
+    private static Path write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        return Files.writeString(file, content);
+    }
+
+    private static long count(Path directory) {
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static Path only(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> all = files.toList();
+            assertEquals(1, all.size(), () -> directory + " holds " + all);
+            return all.get(0);
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Timed out waiting for the ingestion folders");
+            }
+            Thread.sleep(20);
+        }
+    }
+}
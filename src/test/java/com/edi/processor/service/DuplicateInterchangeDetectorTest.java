@@ -0,0 +1,118 @@
+package com.edi.processor.service;
+
+import com.edi.processor.parser.IsaHeader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DuplicateInterchangeDetectorTest {
+
+    @TempDir
+    Path directory;
+
+    private final List<DuplicateInterchangeDetector> detectors = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        detectors.forEach(DuplicateInterchangeDetector::shutdown);
+    }
+
+    @Test
+    void rejectsInFlightAndRecordedKeysButNotReleasedOnes() throws IOException {
+        DuplicateInterchangeDetector detector = start();
+
+        DuplicateInterchangeDetector.Reservation first = detector.reserve(null, isa("000000101"), "101");
+        assertFalse(first.isDuplicate());
+        assertTrue(detector.reserve(null, isa("000000101"), "101").isDuplicate());
+        assertFalse(detector.reserve(null, isa("000000101"), "102").isDuplicate());
+
+        detector.release(first);
+        DuplicateInterchangeDetector.Reservation retry = detector.reserve(null, isa("000000101"), "101");
+        assertFalse(retry.isDuplicate());
+        detector.record(retry);
+        detector.release(retry);
+
+        assertTrue(detector.reserve(null, isa("000000101"), "101").isDuplicate());
+    }
+
+    @Test
+    void rotationDropsKeysOlderThanTheRetainedGenerations() throws Exception {
+        DuplicateInterchangeDetector detector = start();
+        recordKey(detector, "000000101");
+
+        rotate(detector);
+        recordKey(detector, "000000102");
+        assertTrue(detector.reserve(null, isa("000000101"), "1").isDuplicate());
+        assertEquals(2, generationDirectories());
+
+        rotate(detector);
+        assertFalse(detector.reserve(null, isa("000000101"), "1").isDuplicate());
+        assertTrue(detector.reserve(null, isa("000000102"), "1").isDuplicate());
+        assertEquals(2, generationDirectories());
+    }
+
+    @Test
+    void reloadsRecordedKeysOnRestart() throws Exception {
+        DuplicateInterchangeDetector detector = start();
+        recordKey(detector, "000000101");
+        rotate(detector);
+        recordKey(detector, "000000102");
+        detector.shutdown();
+
+        DuplicateInterchangeDetector restarted = start();
+
+        assertTrue(restarted.reserve(null, isa("000000101"), "1").isDuplicate());
+        assertTrue(restarted.reserve(null, isa("000000102"), "1").isDuplicate());
+        assertFalse(restarted.reserve(null, isa("000000103"), "1").isDuplicate());
+    }
+
+    private DuplicateInterchangeDetector start() throws IOException {
+        DuplicateInterchangeDetector detector = new DuplicateInterchangeDetector();
+        ReflectionTestUtils.setField(detector, "enabled", true);
+        ReflectionTestUtils.setField(detector, "directory", directory.toString());
+        ReflectionTestUtils.setField(detector, "expectedPerGeneration", 1024L);
+        ReflectionTestUtils.setField(detector, "falsePositiveRate", 0.001);
+        ReflectionTestUtils.setField(detector, "rotationMinutes", 1440L);
+        ReflectionTestUtils.setField(detector, "retainedGenerations", 2);
+        detector.init();
+        detectors.add(detector);
+        return detector;
+    }
+
+    private static void recordKey(DuplicateInterchangeDetector detector, String controlNumber) {
+        DuplicateInterchangeDetector.Reservation reservation = detector.reserve(null, isa(controlNumber), "1");
+        assertFalse(reservation.isDuplicate());
+        detector.record(reservation);
+    }
+
+    private static void rotate(DuplicateInterchangeDetector detector) throws InterruptedException {
+        // Generations are named by their start time in milliseconds
+        Thread.sleep(5);
+        ReflectionTestUtils.invokeMethod(detector, "rotate");
+    }
+
+    private long generationDirectories() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("gen-")).count();
+        }
+    }
+
+    private static IsaHeader isa(String controlNumber) {
+        String isa = "ISA*00*          *00*          *ZZ*ACMERETAIL     *ZZ*EDIPROCESSOR   *240101*1200*U*00401*"
+                + controlNumber + "*0*P*>~";
+        return IsaHeader.parse(isa.getBytes(StandardCharsets.US_ASCII));
+    }
+}
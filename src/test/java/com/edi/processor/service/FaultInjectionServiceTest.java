@@ -0,0 +1,88 @@
+package com.edi.processor.service;
+
+import com.edi.processor.fault.FaultPlan;
+import com.edi.processor.fault.FaultProfile;
+import com.edi.processor.model.request.EdiRequest;
+import com.edi.processor.model.request.RequestDetails;
+import com.edi.processor.warmup.SyntheticTraffic;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class FaultInjectionServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SyntheticTraffic syntheticTraffic = new SyntheticTraffic();
+    private final FaultInjectionService service = new FaultInjectionService(mock(TradingPartnerRegistry.class),
+            meterRegistry, syntheticTraffic);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "enabled", true);
+    }
+
+    @Test
+    void parsesProfilesAndSkipsInvalidOnes() throws IOException {
+        service.load(properties("""
+                profile.fast.latency=uniform
+                profile.fast.latency.min-ms=5
+                profile.fast.latency.max-ms=25
+                profile.open.latency=uniform
+                profile.open.latency.min-ms=5
+                profile.broken.error.percent=80
+                profile.broken.drip.percent=80
+                profile.down.error.percent=100
+                profile.down.error.status=503
+                """));
+
+        assertEquals(2, service.getProfiles().size());
+        assertEquals(FaultProfile.Latency.UNIFORM, service.getProfiles().get("fast").getLatency());
+        assertEquals(FaultProfile.Latency.NONE, service.getProfiles().get("down").getLatency());
+    }
+
+    @Test
+    void plansRequestsForTheRequestedProfileAndCountsInjectedFaults() throws IOException {
+        service.load(properties("""
+                profile.fast.latency=uniform
+                profile.fast.latency.min-ms=5
+                profile.fast.latency.max-ms=25
+                profile.down.error.percent=100
+                profile.down.error.status=503
+                """));
+
+        for (int i = 0; i < 100; i++) {
+            FaultPlan plan = service.plan("fast", request("req-" + i));
+            assertEquals(FaultPlan.Action.RESPOND, plan.action());
+            assertTrue(plan.delayMillis() >= 5 && plan.delayMillis() <= 25, "delay " + plan.delayMillis());
+        }
+        FaultPlan down = service.plan(" down ", request("req-down"));
+        assertEquals(FaultPlan.Action.ERROR, down.action());
+        assertEquals(503, down.errorStatus());
+
+        assertEquals(100, meterRegistry.get("edi.faults.injected").tag("profile", "fast").counter().count());
+        assertNull(service.plan(null, request("req-none")));
+        assertNull(service.plan("down", request(syntheticTraffic.uuid(1))));
+        assertThrows(IllegalArgumentException.class, () -> service.plan("missing", request("req-missing")));
+    }
+
+    private static Properties properties(String content) throws IOException {
+        Properties properties = new Properties();
+        properties.load(new StringReader(content));
+        return properties;
+    }
+
+    private static EdiRequest request(String uuid) {
+        return new EdiRequest(uuid, new RequestDetails("ORDER", "LTL", "EDI", "ACK", ""));
+    }
+}
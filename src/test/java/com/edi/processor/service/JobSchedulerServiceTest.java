@@ -0,0 +1,264 @@
+package com.edi.processor.service;
+
+import com.edi.processor.concurrent.WorkerThreads;
+import com.edi.processor.exception.JobRejectedException;
+import com.edi.processor.logging.RequestLogSampler;
+import com.edi.processor.model.job.EdiJob;
+import com.edi.processor.model.job.JobStatus;
+import com.edi.processor.model.request.EdiRequest;
+import com.edi.processor.model.request.RequestDetails;
+import com.edi.processor.model.response.EdiResponse;
+import com.edi.processor.warmup.SyntheticTraffic;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JobSchedulerServiceTest {
+
+    private static final long AGING_MS = 2000;
+
+    private final EdiProcessorService ediProcessorService = mock(EdiProcessorService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ManualClock clock = new ManualClock();
+    private final Queue<String> processed = new ConcurrentLinkedQueue<>();
+    private final CountDownLatch releaseBlocker = new CountDownLatch(1);
+
+    private JobSchedulerService scheduler;
+
+    /**
+     * One worker, so jobs queued behind a blocking job run strictly in rank order once it is released
+     */
+    @BeforeEach
+    void setUp() {
+        when(ediProcessorService.processRequest(any())).thenAnswer(invocation -> {
+            EdiRequest request = invocation.getArgument(0);
+            if (request.getUuid().startsWith("blocker")) {
+                releaseBlocker.await(10, TimeUnit.SECONDS);
+                return EdiResponse.builder().build();
+            }
+            if (request.getUuid().startsWith("fail")) {
+                throw new IllegalStateException("Processing failed");
+            }
+            processed.add(request.getUuid());
+            return EdiResponse.builder().build();
+        });
+
+        RequestLogSampler logSampler = new RequestLogSampler(mock(SyntheticTraffic.class));
+        ReflectionTestUtils.setField(logSampler, "defaultRate", 1.0);
+        ReflectionTestUtils.setField(logSampler, "sampleRates", "");
+        logSampler.init();
+
+        scheduler = new JobSchedulerService(ediProcessorService, meterRegistry, logSampler, new WorkerThreads(), clock);
+        ReflectionTestUtils.setField(scheduler, "workers", 1);
+        ReflectionTestUtils.setField(scheduler, "queueCapacity", 100);
+        ReflectionTestUtils.setField(scheduler, "agingMs", AGING_MS);
+        ReflectionTestUtils.setField(scheduler, "retentionMinutes", 60L);
+        scheduler.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseBlocker.countDown();
+        scheduler.shutdown();
+    }
+
+    @Test
+    void queuedJobsRunInAgedRankOrder() {
+        EdiJob blocker = submitBlocker();
+
+        submit("item-0", "ITEM");            // rank 2000
+        submit("schema-0", "GETSCHEMA");     // rank 4000
+        clock.set(1000);
+        submit("order-1000", "ORDER");       // rank 1000
+        clock.set(2500);
+        submit("asn-2500", "ASN");           // rank 2500
+        clock.set(4500);
+        submit("order-4500", "ORDER");       // rank 4500
+
+        releaseBlocker.countDown();
+        awaitProcessed(5);
+        assertEquals(JobStatus.COMPLETED, blocker.getStatus());
+        assertEquals(List.of("order-1000", "item-0", "asn-2500", "schema-0", "order-4500"), new ArrayList<>(processed));
+    }
+
+    @Test
+    void lowerPriorityJobIsNotStarvedByNewerOrders() {
+        submitBlocker();
+
+        submit("item", "ITEM");
+        for (long t = 0; t <= 5000; t += 250) {
+            clock.set(t);
+            submit("order-" + t, "ORDER");
+        }
+
+        releaseBlocker.countDown();
+        awaitProcessed(22);
+        // Orders submitted within one aging step of the ITEM go first; the ITEM wins the tie at 2000 ms
+        List<String> order = new ArrayList<>(processed);
+        assertEquals(8, order.indexOf("item"), order.toString());
+        assertEquals("order-2000", order.get(9));
+    }
+
+    @Test
+    void cancelRemovesOnlyQueuedJobs() {
+        EdiJob blocker = submitBlocker();
+        EdiJob item = submit("item", "ITEM");
+        EdiJob order = submit("order", "ORDER");
+        assertEquals(2, scheduler.getQueueDepth());
+
+        clock.set(1500);
+        assertSame(item, scheduler.cancel(item.getJobId()));
+        assertEquals(JobStatus.CANCELLED, item.getStatus());
+        assertEquals(1500L, item.getCompletedAt());
+        assertNull(item.getRequest());
+        assertEquals(1, scheduler.getQueueDepth());
+
+        // Running jobs are returned unchanged
+        assertEquals(JobStatus.RUNNING, scheduler.cancel(blocker.getJobId()).getStatus());
+        assertNull(scheduler.cancel("no-such-job"));
+
+        releaseBlocker.countDown();
+        awaitProcessed(1);
+        await(() -> order.getStatus() == JobStatus.COMPLETED);
+        assertEquals(List.of("order"), new ArrayList<>(processed));
+        assertEquals(JobStatus.COMPLETED, scheduler.cancel(order.getJobId()).getStatus());
+        assertEquals(JobStatus.CANCELLED, scheduler.cancel(item.getJobId()).getStatus());
+        assertEquals(1.0, meterRegistry.get("edi.jobs.cancelled").counter().count());
+    }
+
+    @Test
+    void metricsTrackQueueDepthWaitRunAndRejections() {
+        ReflectionTestUtils.setField(scheduler, "queueCapacity", 2);
+        submitBlocker();
+        submit("item", "ITEM");
+        submit("fail-order", "ORDER");
+        assertEquals(2.0, meterRegistry.get("edi.jobs.queue.depth").gauge().value());
+
+        assertThrows(JobRejectedException.class, () -> submit("rejected", "ORDER"));
+        assertEquals(1.0, meterRegistry.get("edi.jobs.rejected").counter().count());
+        assertEquals(2.0, meterRegistry.get("edi.jobs.queue.depth").gauge().value());
+
+        clock.set(3000);
+        releaseBlocker.countDown();
+        awaitProcessed(1);
+        await(() -> meterRegistry.find("edi.jobs.run").tag("transaction", "ITEM").timer() != null);
+
+        assertEquals(0.0, meterRegistry.get("edi.jobs.queue.depth").gauge().value());
+        assertEquals(3000.0, meterRegistry.get("edi.jobs.wait").tag("transaction", "ITEM").timer()
+                .totalTime(TimeUnit.MILLISECONDS));
+        assertEquals(1, meterRegistry.get("edi.jobs.run").tag("transaction", "ORDER").tag("outcome", "failed")
+                .timer().count());
+        assertEquals(1, meterRegistry.get("edi.jobs.run").tag("transaction", "ORDER").tag("outcome", "completed")
+                .timer().count());
+        assertEquals(1, meterRegistry.get("edi.jobs.run").tag("transaction", "ITEM").tag("outcome", "completed")
+                .timer().count());
+    }
+
+    @Test
+    void failedJobKeepsItsError() {
+        EdiJob failed = submit("fail-1", "ORDER");
+
+        await(failed::isFinished);
+        assertEquals(JobStatus.FAILED, failed.getStatus());
+        assertEquals("Processing failed", failed.getError());
+        assertNull(failed.getRequest());
+    }
+
+    @Test
+    void finishedJobsExpireAfterRetention() {
+        EdiJob job = submit("order", "ORDER");
+        await(job::isFinished);
+
+        clock.set(TimeUnit.MINUTES.toMillis(60));
+        scheduler.removeExpired();
+        assertSame(job, scheduler.getJob(job.getJobId()));
+
+        clock.set(TimeUnit.MINUTES.toMillis(60) + 1);
+        scheduler.removeExpired();
+        assertNull(scheduler.getJob(job.getJobId()));
+    }
+
+    /**
+     * Occupy the single worker until {@link #releaseBlocker} is counted down
+     */
+    private EdiJob submitBlocker() {
+        EdiJob blocker = submit("blocker", "ORDER");
+        await(() -> blocker.getStatus() == JobStatus.RUNNING);
+        return blocker;
+    }
+
+    private EdiJob submit(String uuid, String transactionType) {
+        return scheduler.submit(new EdiRequest(uuid, new RequestDetails(transactionType, "LTL", "EDI", "ACK", "")));
+    }
+
+    private void awaitProcessed(int count) {
+        await(() -> processed.size() >= count);
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Timed out waiting for the scheduler");
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail("Interrupted");
+            }
+        }
+    }
+
+    private static final class ManualClock extends Clock {
+
+        private volatile long millis;
+
+        void set(long millis) {
+            this.millis = millis;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+    }
+}
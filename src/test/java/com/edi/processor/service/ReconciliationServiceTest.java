@@ -0,0 +1,71 @@
+package com.edi.processor.service;
+
+import com.edi.processor.model.reconciliation.ReconciliationResult;
+import com.edi.processor.model.request.EdiRequest;
+import com.edi.processor.model.request.RequestDetails;
+import com.edi.processor.model.response.EdiResponse;
+import com.edi.processor.reconciliation.DocumentKind;
+import com.edi.processor.reconciliation.OpenDocument;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "logging.level.com.edi.processor=WARN",
+        "edi.search.enabled=false",
+        "edi.catalog.enabled=true",
+        "edi.catalog.max-off-heap-mb=64",
+        "edi.catalog.expected-items=1024",
+        "edi.reconciliation.enabled=true"
+})
+class ReconciliationServiceTest {
+
+    @Autowired
+    private EdiProcessorService ediProcessorService;
+
+    @Autowired
+    private ReconciliationService reconciliationService;
+
+    @Test
+    void asnStaysOpenUntilItsReceiptIsPosted() throws IOException {
+        String asnNumber = "ASN-RECON-1";
+        for (String format : new String[] {"EDI", "JSON"}) {
+            EdiResponse response = ediProcessorService.processRequest(asnRequest(asnNumber, format));
+            assertTrue(response.getResponse().get(0).isSuccess(), response.getResponse().get(0).getMessage());
+
+            OpenDocument open = reconciliationService.getOpenDocument(DocumentKind.ASN, asnNumber);
+            assertNotNull(open, "ASN closed by its generated " + format + " receipt");
+            assertEquals(Map.of("SKU-100", 12L, "SKU-200", 6L), open.getLines());
+        }
+
+        byte[] receipt = ("{\"items\":[{\"sku\":\"SKU-100\",\"quantityReceived\":12},"
+                + "{\"sku\":\"SKU-200\",\"quantityReceived\":6}]}").getBytes(StandardCharsets.UTF_8);
+        ReconciliationResult result = reconciliationService.reconcile(DocumentKind.ASN, asnNumber, receipt);
+
+        assertEquals(ReconciliationResult.Status.MATCHED, result.getStatus());
+        assertNull(reconciliationService.getOpenDocument(DocumentKind.ASN, asnNumber));
+        assertEquals(ReconciliationResult.Status.UNMATCHED,
+                reconciliationService.reconcile(DocumentKind.ASN, asnNumber, receipt).getStatus());
+    }
+
+    private static EdiRequest asnRequest(String asnNumber, String format) throws IOException {
+        try (InputStream input = ReconciliationServiceTest.class.getClassLoader()
+                .getResourceAsStream("perf/asn-856.edi")) {
+            assertNotNull(input, "Missing fixture perf/asn-856.edi");
+            String asn = new String(input.readAllBytes(), StandardCharsets.UTF_8).replace("ASN-3001", asnNumber);
+            String inputFile = Base64.getEncoder().encodeToString(asn.getBytes(StandardCharsets.UTF_8));
+            return new EdiRequest("recon-" + format, new RequestDetails("ASN", null, format, "RECEIPT", inputFile));
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.edi.processor.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SchemaServiceTest {
+
+    private final SchemaService schemas = new SchemaService(null);
+
+    @Test
+    void rejectsAnOrderTypeOnSchemasOtherThanOrder() {
+        for (String responseType : new String[] {"ASN", "ITEM", "SHIPCONFIRM", "RECEIPT"}) {
+            assertThrows(IllegalArgumentException.class, () -> schemas.getSchema(responseType, "LTL", "EDI"));
+        }
+    }
+
+    @Test
+    void requiresAValidOrderTypeForOrder() {
+        assertThrows(IllegalArgumentException.class, () -> schemas.getSchema("ORDER", null, "EDI"));
+        assertThrows(IllegalArgumentException.class, () -> schemas.getSchema("ORDER", "AIR", "EDI"));
+    }
+}
@@ -0,0 +1,78 @@
+package com.edi.processor.template;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CompiledTemplateTest {
+
+    private static final Instant TIMESTAMP = Instant.parse("2026-03-07T09:05:02Z");
+
+    @Test
+    void rendersPlaceholdersAndDefaults() {
+        CompiledTemplate template = CompiledTemplate.compile("ISA*${isaDate}*${isaTime}*${controlNumber}*${orderId:NONE}~");
+
+        assertEquals("ISA*260307*0905*000000042*NONE~", template.render(context().controlNumber(42).build()));
+        assertEquals("ISA*260307*0905*000000042*ORD1~",
+                template.render(context().controlNumber(42).orderId("ORD1").build()));
+    }
+
+    @Test
+    void staticTemplateRendersItsSource() {
+        String source = "{\"status\":\"ACCEPTED\"}";
+        CompiledTemplate template = CompiledTemplate.compile(source);
+
+        assertSame(template.getStaticContent(), template.render(context().build()));
+        assertEquals(source, template.getStaticContent());
+    }
+
+    @Test
+    void rejectsUnknownAndUnterminatedPlaceholders() {
+        assertThrows(IllegalArgumentException.class, () -> CompiledTemplate.compile("${nope}"));
+        assertThrows(IllegalArgumentException.class, () -> CompiledTemplate.compile("${uuid"));
+    }
+
+    @Test
+    void escapesValuesInJsonTemplates() {
+        CompiledTemplate template = CompiledTemplate.compile(" {\"uuid\":\"${uuid}\",\"orderId\":\"${orderId:X}\"}");
+
+        assertEquals(" {\"uuid\":\"a\\\"b\\\\c\",\"orderId\":\"line\\nbreak\\u0001\"}",
+                template.render(context().uuid("a\"b\\c").orderId("line\nbreak\u0001").build()));
+    }
+
+    @Test
+    void releasesServiceCharactersInEdifactTemplates() {
+        CompiledTemplate template = CompiledTemplate.compile("UNA:+.? 'UNB+UNOC:3'BGM+351+${asnNumber}+9'");
+
+        assertEquals("UNA:+.? 'UNB+UNOC:3'BGM+351+A?+B?:C??D?'E+9'",
+                template.render(context().asnNumber("A+B:C?D'E").build()));
+    }
+
+    @Test
+    void usesTheUnaReleaseCharacter() {
+        CompiledTemplate template = CompiledTemplate.compile("UNA:+.! 'BGM+351+${asnNumber}+9'");
+
+        assertEquals("UNA:+.! 'BGM+351+A!+B!!C?+9'", template.render(context().asnNumber("A+B!C?").build()));
+    }
+
+    @Test
+    void dropsDelimitersFromValuesInX12Templates() {
+        CompiledTemplate template = CompiledTemplate.compile(
+                "ISA*00*          *00*          *ZZ*SENDER         *ZZ*RECEIVER       *${isaDate}*${isaTime}*U*00401*"
+                        + "${controlNumber}*0*P*>~W06*N*${orderId}~");
+
+        assertEquals("W06*N*AB-C~", tail(template.render(context().orderId("A*B~-C>").build())));
+    }
+
+    private static String tail(String rendered) {
+        return rendered.substring(rendered.indexOf("W06"));
+    }
+
+    private static RenderContext.Builder context() {
+        return RenderContext.builder().timestamp(TIMESTAMP);
+    }
+}